@@ -1,10 +1,10 @@
 import api from './api'
+import { fetchAllPages } from './cursorPages'
 import { Course } from '@/types'
 
 export const courseService = {
   async getAllCourses(): Promise<Course[]> {
-    const response = await api.get<Course[]>('/admin/courses')
-    return response.data
+    return fetchAllPages<Course>('/admin/courses/page')
   },
 
   async getCourseById(id: number): Promise<Course> {
@@ -0,0 +1,19 @@
+import api from './api'
+import { CursorPage } from '@/types'
+
+// The largest page the server hands out
+const PAGE_SIZE = 200
+
+// Walks a cursor-paginated listing, so no single request loads more than one page on the server
+export async function fetchAllPages<T>(path: string): Promise<T[]> {
+  const items: T[] = []
+  let cursor: string | undefined
+  do {
+    const response = await api.get<CursorPage<T>>(path, {
+      params: { size: PAGE_SIZE, cursor },
+    })
+    items.push(...response.data.items)
+    cursor = response.data.hasNext ? response.data.nextCursor : undefined
+  } while (cursor)
+  return items
+}
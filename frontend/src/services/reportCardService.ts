@@ -5,8 +5,8 @@
 
 import { studentService } from './studentService'
 import { authService } from './authService'
-import { Marks, Course, Student, User } from '@/types'
-import { calculateLetterGrade, calculateWeightedAverage, calculateGPA, getGradeInfo } from '@/utils/gradeCalculations'
+import { Marks, Course, Student, User, GradingScale } from '@/types'
+import { calculateLetterGrade, calculateWeightedAverage, calculateGPA, getGradeInfo, DEFAULT_GRADING_SCALE } from '@/utils/gradeCalculations'
 
 export interface ReportCardAssessment {
   examType: string
@@ -91,6 +91,9 @@ class ReportCardService {
         console.warn('Total credits not available:', error)
       }
 
+      // Grade with the same scales the backend finalizes courses with
+      const scales = await this.loadGradingScales(courses)
+
       // Prepare student information
       const student = this.prepareStudentInfo(user, studentProfile)
 
@@ -98,10 +101,10 @@ class ReportCardService {
       const academicInfo = this.prepareAcademicInfo()
 
       // Group marks by course and prepare subjects
-      const subjects = this.prepareSubjects(marks, courses)
+      const subjects = this.prepareSubjects(marks, courses, scales.byCourse)
 
       // Calculate summary statistics
-      const summary = this.calculateSummary(subjects, gpa, totalCredits)
+      const summary = this.calculateSummary(subjects, gpa, totalCredits, scales.defaultScale)
 
       return {
         student,
@@ -115,6 +118,27 @@ class ReportCardService {
     }
   }
 
+  /**
+   * Fetch the default scale and each course's scale, falling back to the built-in default
+   */
+  private async loadGradingScales(
+    courses: Course[]
+  ): Promise<{ defaultScale: GradingScale; byCourse: Map<number, GradingScale> }> {
+    const fetchScale = (courseId?: number) =>
+      studentService.getGradingScale(courseId).catch((error) => {
+        console.warn('Grading scale not available:', error)
+        return DEFAULT_GRADING_SCALE
+      })
+
+    const [defaultScale, ...courseScales] = await Promise.all([
+      fetchScale(),
+      ...courses.map(course => fetchScale(course.id))
+    ])
+    const byCourse = new Map<number, GradingScale>()
+    courses.forEach((course, index) => byCourse.set(course.id, courseScales[index]))
+    return { defaultScale, byCourse }
+  }
+
   /**
    * Prepare student information from user and student profile data
    */
@@ -180,7 +204,11 @@ class ReportCardService {
   /**
    * Group marks by course and prepare subject data
    */
-  private prepareSubjects(marks: Marks[], courses: Course[]): ReportCardSubject[] {
+  private prepareSubjects(
+    marks: Marks[],
+    courses: Course[],
+    scales: Map<number, GradingScale>
+  ): ReportCardSubject[] {
     // Group marks by course
     const marksByCourse = new Map<number, Marks[]>()
     
@@ -204,6 +232,7 @@ class ReportCardService {
     marksByCourse.forEach((courseMarks, courseId) => {
       const course = courseMap.get(courseId)
       if (!course) return // Skip if course not found
+      const scale = scales.get(courseId) ?? DEFAULT_GRADING_SCALE
 
       // Prepare assessments
       const assessments: ReportCardAssessment[] = courseMarks.map(mark => ({
@@ -211,7 +240,7 @@ class ReportCardService {
         marksObtained: mark.marksObtained,
         maxMarks: mark.maxMarks,
         percentage: (mark.marksObtained / mark.maxMarks) * 100,
-        grade: calculateLetterGrade((mark.marksObtained / mark.maxMarks) * 100),
+        grade: calculateLetterGrade((mark.marksObtained / mark.maxMarks) * 100, scale),
         examDate: mark.examDate
       }))
 
@@ -219,7 +248,7 @@ class ReportCardService {
       const totalMarksObtained = courseMarks.reduce((sum, mark) => sum + mark.marksObtained, 0)
       const totalMaxMarks = courseMarks.reduce((sum, mark) => sum + mark.maxMarks, 0)
       const overallPercentage = totalMaxMarks > 0 ? (totalMarksObtained / totalMaxMarks) * 100 : 0
-      const overallGrade = calculateLetterGrade(overallPercentage)
+      const overallGrade = calculateLetterGrade(overallPercentage, scale)
 
       subjects.push({
         courseCode: course.courseCode,
@@ -243,7 +272,8 @@ class ReportCardService {
   private calculateSummary(
     subjects: ReportCardSubject[], 
     gpa: number | null, 
-    totalCredits: number | null
+    totalCredits: number | null,
+    scale: GradingScale
   ): ReportCardSummary {
     if (subjects.length === 0) {
       return {
@@ -267,7 +297,7 @@ class ReportCardService {
     const averagePercentage = subjects.reduce((sum, subject) => sum + subject.overallPercentage, 0) / subjects.length
 
     // Calculate overall grade
-    const overallGrade = calculateLetterGrade(averagePercentage)
+    const overallGrade = calculateLetterGrade(averagePercentage, scale)
 
     return {
       totalSubjects: subjects.length,
@@ -1,4 +1,5 @@
 import api from './api'
+import { fetchAllPages } from './cursorPages'
 import { logger } from '@/lib/logger';
 
 export interface Schedule {
@@ -35,8 +36,7 @@ export interface CreateScheduleRequest {
 
 export const scheduleService = {
   getAllSchedules: async (): Promise<Schedule[]> => {
-    const response = await api.get('/schedules');
-    return response.data;
+    return fetchAllPages<Schedule>('/schedules/page');
   },
 
   getScheduleById: async (id: number): Promise<Schedule> => {
@@ -64,9 +64,10 @@ export const scheduleService = {
     return response.data;
   },
 
+  // The signed-in student's classes today, from their own timetable rather than every schedule
   getTodaySchedule: async (): Promise<Schedule[]> => {
     try {
-      const response = await api.get('/schedules');
+      const response = await api.get('/student/schedules');
       const allSchedules = response.data || [];
       const today = new Date().getDay();
       const dayMap = ['SUNDAY', 'MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY'];
@@ -1,10 +1,10 @@
 import api from './api'
-import { Student, Marks, Attendance, DashboardStats, Assignment, Course, Enrollment } from '@/types'
+import { fetchAllPages } from './cursorPages'
+import { Student, Marks, Attendance, DashboardStats, Assignment, Course, Enrollment, GradingScale } from '@/types'
 
 export const studentService = {
   async getAllStudents(): Promise<Student[]> {
-    const response = await api.get<Student[]>('/admin/students')
-    return response.data
+    return fetchAllPages<Student>('/admin/students/page')
   },
 
   async getStudentById(id: number): Promise<Student> {
@@ -66,6 +66,14 @@ export const studentService = {
     return response.data || 0
   },
 
+  // The scale final grades are computed with; the course's own scale when it has one
+  async getGradingScale(courseId?: number): Promise<GradingScale> {
+    const response = await api.get<GradingScale>('/student/grading-scale', {
+      params: courseId !== undefined ? { courseId } : undefined
+    })
+    return response.data
+  },
+
   // Assignment-related methods
   async getMyAssignments(): Promise<Assignment[]> {
     try {
@@ -1,10 +1,10 @@
 import api from './api'
+import { fetchAllPages } from './cursorPages'
 import { Teacher, Course, DashboardStats, Student, Marks, Attendance } from '@/types'
 
 export const teacherService = {
   async getAllTeachers(): Promise<Teacher[]> {
-    const response = await api.get<Teacher[]>('/admin/teachers')
-    return response.data
+    return fetchAllPages<Teacher>('/admin/teachers/page')
   },
 
   async getTeacherById(id: number): Promise<Teacher> {
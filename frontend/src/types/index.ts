@@ -49,6 +49,20 @@ export interface Course {
   teacherNames: string[]
 }
 
+export interface GradeBand {
+  minPercentage: number
+  letterGrade: string
+  gradePoints: number
+}
+
+export interface GradingScale {
+  name: string
+  courseId?: number | null
+  // Ascending by minimum percentage
+  bands: GradeBand[]
+  examWeights: Record<string, number>
+}
+
 export interface Marks {
   id: number
   examType: 'MIDTERM' | 'FINAL' | 'ASSIGNMENT' | 'QUIZ'
@@ -164,3 +178,12 @@ export interface UserUpdateRequest {
   email?: string
   password?: string
 }
+
+// One page of a keyset-paginated listing; pass nextCursor back to fetch the following page
+export interface CursorPage<T> {
+  items: T[]
+  size: number
+  hasNext: boolean
+  nextCursor?: string
+  totalCount?: number
+}
@@ -3,53 +3,70 @@
  * Provides standardized grade calculation and formatting functions
  */
 
+import { GradeBand, GradingScale } from '@/types'
+
 export interface GradeInfo {
   letter: string
   points: number
   description: string
 }
 
+/**
+ * Used only until the scale is loaded from /student/grading-scale
+ * Same bands as the "Standard" scale the backend seeds
+ */
+export const DEFAULT_GRADING_SCALE: GradingScale = {
+  name: 'Standard',
+  bands: [
+    { minPercentage: 0, letterGrade: 'F', gradePoints: 0.0 },
+    { minPercentage: 50, letterGrade: 'D-', gradePoints: 0.7 },
+    { minPercentage: 53, letterGrade: 'D', gradePoints: 1.0 },
+    { minPercentage: 57, letterGrade: 'D+', gradePoints: 1.3 },
+    { minPercentage: 60, letterGrade: 'C-', gradePoints: 1.7 },
+    { minPercentage: 63, letterGrade: 'C', gradePoints: 2.0 },
+    { minPercentage: 67, letterGrade: 'C+', gradePoints: 2.3 },
+    { minPercentage: 70, letterGrade: 'B-', gradePoints: 2.7 },
+    { minPercentage: 73, letterGrade: 'B', gradePoints: 3.0 },
+    { minPercentage: 77, letterGrade: 'B+', gradePoints: 3.3 },
+    { minPercentage: 80, letterGrade: 'A-', gradePoints: 3.7 },
+    { minPercentage: 85, letterGrade: 'A', gradePoints: 4.0 },
+    { minPercentage: 90, letterGrade: 'A+', gradePoints: 4.0 }
+  ],
+  examWeights: { MIDTERM: 30, FINAL: 40, ASSIGNMENT: 20, QUIZ: 10 }
+}
+
+/**
+ * Highest band whose minimum the percentage reaches (bands are ascending)
+ */
+function findBand(percentage: number, scale: GradingScale): GradeBand {
+  let match = scale.bands[0]
+  for (const band of scale.bands) {
+    if (percentage >= band.minPercentage) match = band
+  }
+  return match
+}
+
 /**
  * Calculate letter grade from percentage
- * Uses standard academic grading scale
+ * Uses the backend grading scale
  */
-export function calculateLetterGrade(percentage: number): string {
-  if (percentage >= 90) return 'A+'
-  if (percentage >= 85) return 'A'
-  if (percentage >= 80) return 'A-'
-  if (percentage >= 75) return 'B+'
-  if (percentage >= 70) return 'B'
-  if (percentage >= 65) return 'B-'
-  if (percentage >= 60) return 'C+'
-  if (percentage >= 55) return 'C'
-  if (percentage >= 50) return 'C-'
-  if (percentage >= 45) return 'D'
-  return 'F'
+export function calculateLetterGrade(percentage: number, scale: GradingScale = DEFAULT_GRADING_SCALE): string {
+  return findBand(percentage, scale).letterGrade
 }
 
 /**
  * Calculate grade points from percentage (4.0 scale)
  */
-export function calculateGradePoints(percentage: number): number {
-  if (percentage >= 90) return 4.0
-  if (percentage >= 85) return 4.0
-  if (percentage >= 80) return 3.7
-  if (percentage >= 75) return 3.3
-  if (percentage >= 70) return 3.0
-  if (percentage >= 65) return 2.7
-  if (percentage >= 60) return 2.3
-  if (percentage >= 55) return 2.0
-  if (percentage >= 50) return 1.7
-  if (percentage >= 45) return 1.3
-  return 0.0
+export function calculateGradePoints(percentage: number, scale: GradingScale = DEFAULT_GRADING_SCALE): number {
+  return findBand(percentage, scale).gradePoints
 }
 
 /**
  * Get comprehensive grade information
  */
-export function getGradeInfo(percentage: number): GradeInfo {
-  const letter = calculateLetterGrade(percentage)
-  const points = calculateGradePoints(percentage)
+export function getGradeInfo(percentage: number, scale: GradingScale = DEFAULT_GRADING_SCALE): GradeInfo {
+  const letter = calculateLetterGrade(percentage, scale)
+  const points = calculateGradePoints(percentage, scale)
   
   let description = ''
   if (percentage >= 90) description = 'Excellent'
@@ -82,20 +99,24 @@ export function calculateWeightedAverage(
 /**
  * Calculate GPA from multiple course percentages
  */
-export function calculateGPA(coursePercentages: number[], credits?: number[]): number {
+export function calculateGPA(
+  coursePercentages: number[],
+  credits?: number[],
+  scale: GradingScale = DEFAULT_GRADING_SCALE
+): number {
   if (coursePercentages.length === 0) return 0
 
   if (credits && credits.length === coursePercentages.length) {
     // Credit-weighted GPA
     const totalCredits = credits.reduce((sum, credit) => sum + credit, 0)
     const weightedPoints = coursePercentages.reduce((sum, percentage, index) => {
-      return sum + (calculateGradePoints(percentage) * credits[index])
+      return sum + (calculateGradePoints(percentage, scale) * credits[index])
     }, 0)
     return totalCredits > 0 ? weightedPoints / totalCredits : 0
   } else {
     // Simple average GPA
     const totalPoints = coursePercentages.reduce((sum, percentage) => {
-      return sum + calculateGradePoints(percentage)
+      return sum + calculateGradePoints(percentage, scale)
     }, 0)
     return totalPoints / coursePercentages.length
   }
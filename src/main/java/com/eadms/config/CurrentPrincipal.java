@@ -0,0 +1,83 @@
+package com.eadms.config;
+
+import com.eadms.exception.ResourceNotFoundException;
+import com.eadms.repository.StudentRepository;
+import com.eadms.repository.TeacherRepository;
+import com.eadms.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Request-scoped view of the authenticated caller.
+ * Ids come from the JWT claims; tokens issued before the claims existed fall back
+ * to a lookup, which is done at most once per request.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class CurrentPrincipal {
+    
+    private final UserRepository userRepository;
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+    
+    private Long userId;
+    private Long studentId;
+    private Long teacherId;
+    private boolean claimsLoaded;
+    
+    public String getEmail() {
+        return authentication().getName();
+    }
+    
+    public Long getUserId() {
+        loadClaims();
+        if (userId == null) {
+            userId = userRepository.findByEmail(getEmail())
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"))
+                    .getId();
+        }
+        return userId;
+    }
+    
+    public Long getStudentId() {
+        loadClaims();
+        if (studentId == null) {
+            studentId = studentRepository.findIdByUserId(getUserId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Student not found for user"));
+        }
+        return studentId;
+    }
+    
+    public Long getTeacherId() {
+        loadClaims();
+        if (teacherId == null) {
+            teacherId = teacherRepository.findIdByUserId(getUserId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Teacher not found for user"));
+        }
+        return teacherId;
+    }
+    
+    private void loadClaims() {
+        if (claimsLoaded) {
+            return;
+        }
+        if (authentication().getDetails() instanceof JwtPrincipal principal) {
+            userId = principal.userId();
+            studentId = principal.studentId();
+            teacherId = principal.teacherId();
+        }
+        claimsLoaded = true;
+    }
+    
+    private Authentication authentication() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new ResourceNotFoundException("No authenticated user found");
+        }
+        return authentication;
+    }
+}
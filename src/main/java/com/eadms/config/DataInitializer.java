@@ -123,4 +123,32 @@ public class DataInitializer {
             log.info("   Student: student1@eadms.com / Student@123");
         };
     }
+    
+    // Independent of the sample data, so databases seeded before grading scales existed get one too
+    @Bean
+    public CommandLineRunner initializeGradingScale(GradingScaleRepository gradingScaleRepository) {
+        return args -> {
+            if (gradingScaleRepository.findDefault().isPresent()) {
+                return;
+            }
+            
+            GradingScale scale = GradingScale.builder().name("Standard").build();
+            String[] letters = {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "D-", "F"};
+            double[] minimums = {90, 85, 80, 77, 73, 70, 67, 63, 60, 57, 53, 50, 0};
+            double[] points = {4.0, 4.0, 3.7, 3.3, 3.0, 2.7, 2.3, 2.0, 1.7, 1.3, 1.0, 0.7, 0.0};
+            for (int i = 0; i < letters.length; i++) {
+                scale.getBands().add(GradeBand.builder()
+                        .minPercentage(minimums[i])
+                        .letterGrade(letters[i])
+                        .gradePoints(points[i])
+                        .build());
+            }
+            scale.getExamWeights().put(Marks.ExamType.MIDTERM, 30.0);
+            scale.getExamWeights().put(Marks.ExamType.FINAL, 40.0);
+            scale.getExamWeights().put(Marks.ExamType.ASSIGNMENT, 20.0);
+            scale.getExamWeights().put(Marks.ExamType.QUIZ, 10.0);
+            gradingScaleRepository.save(scale);
+            log.info("✅ Default grading scale created");
+        };
+    }
 }
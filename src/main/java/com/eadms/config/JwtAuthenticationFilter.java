@@ -10,7 +10,6 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -38,37 +37,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
         
-        jwt = authHeader.substring(7);
-        userEmail = jwtTokenProvider.extractEmail(jwt);
+        final String jwt = authHeader.substring(7);
         
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            String role = jwtTokenProvider.extractClaim(jwt, claims -> claims.get("role", String.class));
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Single verification: signature, expiry and claims come from one parse (or the cache)
+            JwtPrincipal principal = jwtTokenProvider.verifyToken(jwt);
             
-            UserDetails userDetails = User.builder()
-                    .username(userEmail)
-                    .password("")
-                    .authorities(Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)))
-                    .build();
-            
-            if (jwtTokenProvider.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            if (principal.email() != null && !principal.isExpired()) {
+                SecurityContextHolder.getContext().setAuthentication(authentication(principal));
             }
         }
         
         filterChain.doFilter(request, response);
     }
+    
+    /**
+     * The authentication a verified token stands for, shared by HTTP requests and STOMP sessions.
+     */
+    static UsernamePasswordAuthenticationToken authentication(JwtPrincipal principal) {
+        UserDetails userDetails = User.builder()
+                .username(principal.email())
+                .password("")
+                .authorities(Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + principal.role())))
+                .build();
+        
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+        // The verified principal rides along as details so CurrentPrincipal can read the id claims
+        authToken.setDetails(principal);
+        return authToken;
+    }
 }
@@ -0,0 +1,21 @@
+package com.eadms.config;
+
+import java.time.Instant;
+
+/**
+ * Identity carried by a token whose signature and expiry have already been checked.
+ * The id fields are null for tokens issued before they were embedded as claims.
+ */
+public record JwtPrincipal(
+        String email,
+        String role,
+        Long userId,
+        Long studentId,
+        Long teacherId,
+        Instant expiresAt
+) {
+    
+    public boolean isExpired() {
+        return expiresAt != null && !expiresAt.isAfter(Instant.now());
+    }
+}
@@ -1,10 +1,12 @@
 package com.eadms.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -16,14 +18,62 @@ import java.util.Map;
 import java.util.function.Function;
 
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
     
+    private final VerifiedTokenCache verifiedTokenCache;
+    
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_USER_ID = "userId";
+    static final String CLAIM_STUDENT_ID = "studentId";
+    static final String CLAIM_TEACHER_ID = "teacherId";
+    
     @Value("${jwt.secret}")
     private String secret;
     
     @Value("${jwt.expiration}")
     private Long expiration;
     
+    // Derived once from the configured secret instead of on every sign/verify
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    
+    @PostConstruct
+    void initSigningKey() {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.jwtParser = Jwts.parser().verifyWith(signingKey).build();
+    }
+    
+    /**
+     * Verify signature and expiry once and return the identity the token carries.
+     * Tokens seen before are answered from the verified-token cache.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public JwtPrincipal verifyToken(String token) {
+        JwtPrincipal cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Claims claims = extractAllClaims(token);
+        JwtPrincipal principal = new JwtPrincipal(
+                claims.getSubject(),
+                claims.get(CLAIM_ROLE, String.class),
+                longClaim(claims, CLAIM_USER_ID),
+                longClaim(claims, CLAIM_STUDENT_ID),
+                longClaim(claims, CLAIM_TEACHER_ID),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+        verifiedTokenCache.put(token, principal);
+        return principal;
+    }
+    
+    private Long longClaim(Claims claims, String name) {
+        Number value = claims.get(name, Number.class);
+        return value != null ? value.longValue() : null;
+    }
+    
     public String extractEmail(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -38,26 +88,36 @@ public class JwtTokenProvider {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
     
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-    
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String email = extractEmail(token);
-        return (email.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final JwtPrincipal principal = verifyToken(token);
+        return (principal.email().equals(userDetails.getUsername()) && !principal.isExpired());
     }
     
     public String generateToken(String email, String role) {
+        return generateToken(email, role, null, null, null);
+    }
+    
+    /**
+     * Issue a token that also carries the user id and the student/teacher profile id,
+     * so authenticated requests can resolve the caller without touching the database.
+     */
+    public String generateToken(String email, String role, Long userId, Long studentId, Long teacherId) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", role);
+        claims.put(CLAIM_ROLE, role);
+        if (userId != null) {
+            claims.put(CLAIM_USER_ID, userId);
+        }
+        if (studentId != null) {
+            claims.put(CLAIM_STUDENT_ID, studentId);
+        }
+        if (teacherId != null) {
+            claims.put(CLAIM_TEACHER_ID, teacherId);
+        }
         return createToken(claims, email);
     }
     
@@ -68,12 +128,7 @@ public class JwtTokenProvider {
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
-    
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
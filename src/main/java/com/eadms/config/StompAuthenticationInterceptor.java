@@ -0,0 +1,119 @@
+package com.eadms.config;
+
+import com.eadms.repository.CourseRepository;
+import com.eadms.repository.EnrollmentRepository;
+import com.eadms.service.ScheduleChangePublisher;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * Authenticates STOMP sessions from the {@code Authorization: Bearer <jwt>} header of the CONNECT
+ * frame, and checks every SUBSCRIBE against what the session's user may see. The session principal's
+ * name is the user's email, which is what {@code convertAndSendToUser} addresses.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+    
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+    
+    private final JwtTokenProvider jwtTokenProvider;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        
+        switch (accessor.getCommand()) {
+            case CONNECT -> accessor.setUser(authenticate(accessor.getFirstNativeHeader(AUTHORIZATION_HEADER)));
+            case SUBSCRIBE -> authorizeSubscription(accessor.getUser(), accessor.getDestination());
+            case SEND -> requireUser(accessor.getUser());
+            default -> {
+            }
+        }
+        return message;
+    }
+    
+    private Authentication authenticate(String header) {
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            throw new BadCredentialsException("Missing bearer token on STOMP CONNECT");
+        }
+        JwtPrincipal principal;
+        try {
+            principal = jwtTokenProvider.verifyToken(header.substring(BEARER_PREFIX.length()));
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Invalid token on STOMP CONNECT");
+        }
+        if (principal.email() == null || principal.isExpired()) {
+            throw new BadCredentialsException("Invalid token on STOMP CONNECT");
+        }
+        return JwtAuthenticationFilter.authentication(principal);
+    }
+    
+    private void authorizeSubscription(Principal user, String destination) {
+        Authentication authentication = requireUser(user);
+        if (destination == null) {
+            throw new AccessDeniedException("SUBSCRIBE without a destination");
+        }
+        // User queues are reached through /user/..., which the broker resolves to this session only
+        if (destination.startsWith("/queue/")) {
+            throw new AccessDeniedException("Subscribe to /user" + destination + " instead");
+        }
+        if (destination.startsWith(ScheduleChangePublisher.COURSE_TOPIC)) {
+            Long courseId = parseCourseId(destination.substring(ScheduleChangePublisher.COURSE_TOPIC.length()));
+            if (!canSeeCourse(authentication, courseId)) {
+                throw new AccessDeniedException("Not allowed to subscribe to course " + courseId);
+            }
+        }
+    }
+    
+    private boolean canSeeCourse(Authentication authentication, Long courseId) {
+        String email = authentication.getName();
+        if (hasRole(authentication, "ROLE_ADMIN")) {
+            return true;
+        }
+        if (hasRole(authentication, "ROLE_TEACHER")) {
+            return courseRepository.isTaughtBy(courseId, email);
+        }
+        if (hasRole(authentication, "ROLE_STUDENT")) {
+            return enrollmentRepository.isActivelyEnrolled(courseId, email);
+        }
+        return false;
+    }
+    
+    private static boolean hasRole(Authentication authentication, String role) {
+        return authentication.getAuthorities().stream().anyMatch(authority -> role.equals(authority.getAuthority()));
+    }
+    
+    private static Long parseCourseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new AccessDeniedException("Unknown course topic: " + value);
+        }
+    }
+    
+    private static Authentication requireUser(Principal user) {
+        if (user instanceof Authentication authentication && authentication.isAuthenticated()) {
+            return authentication;
+        }
+        throw new AccessDeniedException("STOMP session is not authenticated");
+    }
+}
@@ -0,0 +1,60 @@
+package com.eadms.config;
+
+import com.eadms.dto.response.CacheStatsResponse;
+import com.eadms.util.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Bounded cache of already verified tokens, keyed by the SHA-256 digest of the token.
+ * Entries are dropped once the token expires, so a hit never outlives the token itself.
+ */
+@Component
+public class VerifiedTokenCache {
+    
+    static final String VERIFIED_TOKENS = "verifiedTokens";
+    
+    private final BoundedCache<String, JwtPrincipal> entries;
+    
+    public VerifiedTokenCache(@Value("${jwt.cache.max-entries:10000}") int maxEntries) {
+        this.entries = new BoundedCache<>(VERIFIED_TOKENS, maxEntries, null);
+    }
+    
+    public JwtPrincipal get(String token) {
+        return entries.get(digest(token));
+    }
+    
+    public void put(String token, JwtPrincipal principal) {
+        Duration ttl = principal.expiresAt() == null ? null : Duration.between(Instant.now(), principal.expiresAt());
+        entries.put(digest(token), principal, entries.generation(), ttl);
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    public CacheStatsResponse stats() {
+        return entries.stats();
+    }
+    
+    public void clear() {
+        entries.clear();
+    }
+    
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.eadms.controller;
 
+import com.eadms.config.VerifiedTokenCache;
 import com.eadms.dto.request.CourseCreateRequest;
+import com.eadms.dto.request.GradingScaleRequest;
 import com.eadms.dto.request.StudentCreateRequest;
 import com.eadms.dto.request.StudentUpdateRequest;
 import com.eadms.dto.request.TeacherCreateRequest;
@@ -13,7 +15,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,8 +30,20 @@ public class AdminController {
     private final StudentService studentService;
     private final TeacherService teacherService;
     private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    private final GradingScaleService gradingScaleService;
     private final ReportService reportService;
     private final AuthService authService;
+    private final ReferenceDataCache referenceDataCache;
+    private final SecondLevelCache secondLevelCache;
+    private final CourseGradeAnalytics courseGradeAnalytics;
+    private final StudentTimetableCache studentTimetableCache;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final AcademicLedgerRebuildJob academicLedgerRebuildJob;
+    private final AttendanceRollupRebuildJob attendanceRollupRebuildJob;
+    private final RiskDetectionJob riskDetectionJob;
+    private final RiskFlagService riskFlagService;
+    private final ResourceVersionService resourceVersions;
     
     @GetMapping("/dashboard/stats")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getDashboardStats() {
@@ -35,6 +51,30 @@ public class AdminController {
         return ResponseEntity.ok(ResponseUtil.success("Dashboard stats retrieved", stats));
     }
     
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ApiResponse<List<CacheStatsResponse>>> getCacheStats() {
+        List<CacheStatsResponse> stats = new ArrayList<>(referenceDataCache.stats());
+        stats.add(courseGradeAnalytics.stats());
+        stats.add(studentTimetableCache.stats());
+        stats.add(verifiedTokenCache.stats());
+        return ResponseEntity.ok(ResponseUtil.success("Cache stats retrieved", stats));
+    }
+    
+    @GetMapping("/cache/second-level")
+    public ResponseEntity<ApiResponse<SecondLevelCacheStatsResponse>> getSecondLevelCacheStats() {
+        return ResponseEntity.ok(ResponseUtil.success("Second-level cache stats retrieved", secondLevelCache.stats()));
+    }
+    
+    @PostMapping("/ledger/rebuild")
+    public ResponseEntity<ApiResponse<LedgerRebuildResponse>> rebuildAcademicLedger() {
+        return ResponseEntity.ok(ResponseUtil.success("Academic ledger rebuilt", academicLedgerRebuildJob.rebuild()));
+    }
+    
+    @PostMapping("/attendance-rollup/rebuild")
+    public ResponseEntity<ApiResponse<AttendanceRollupRebuildResponse>> rebuildAttendanceRollups() {
+        return ResponseEntity.ok(ResponseUtil.success("Attendance rollups rebuilt", attendanceRollupRebuildJob.rebuild()));
+    }
+    
     // Student endpoints
     @PostMapping("/students")
     public ResponseEntity<ApiResponse<StudentResponse>> createStudent(@Valid @RequestBody StudentCreateRequest request) {
@@ -44,9 +84,22 @@ public class AdminController {
     }
     
     @GetMapping("/students")
-    public ResponseEntity<ApiResponse<List<StudentResponse>>> getAllStudents() {
+    public ResponseEntity<ApiResponse<List<StudentResponse>>> getAllStudents(WebRequest request) {
+        String etag = resourceVersions.students();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<StudentResponse> students = studentService.getAllStudents();
-        return ResponseEntity.ok(ResponseUtil.success("Students retrieved", students));
+        return ResponseUtil.revalidated("Students retrieved", students);
+    }
+    
+    @GetMapping("/students/page")
+    public ResponseEntity<ApiResponse<CursorPage<StudentResponse>>> getStudentsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorPage<StudentResponse> page = studentService.getStudentsPage(cursor, size, includeTotal);
+        return ResponseEntity.ok(ResponseUtil.success("Students retrieved", page));
     }
     
     @GetMapping("/students/next-id")
@@ -58,9 +111,13 @@ public class AdminController {
     }
     
     @GetMapping("/students/{id}")
-    public ResponseEntity<ApiResponse<StudentResponse>> getStudentById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<StudentResponse>> getStudentById(@PathVariable Long id, WebRequest request) {
+        String etag = resourceVersions.student(id);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         StudentResponse student = studentService.getStudentById(id);
-        return ResponseEntity.ok(ResponseUtil.success("Student retrieved", student));
+        return ResponseUtil.revalidated("Student retrieved", student);
     }
     
     @PutMapping("/students/{id}")
@@ -86,9 +143,22 @@ public class AdminController {
     }
     
     @GetMapping("/teachers")
-    public ResponseEntity<ApiResponse<List<TeacherResponse>>> getAllTeachers() {
+    public ResponseEntity<ApiResponse<List<TeacherResponse>>> getAllTeachers(WebRequest request) {
+        String etag = resourceVersions.teachers();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<TeacherResponse> teachers = teacherService.getAllTeachers();
-        return ResponseEntity.ok(ResponseUtil.success("Teachers retrieved", teachers));
+        return ResponseUtil.revalidated("Teachers retrieved", teachers);
+    }
+    
+    @GetMapping("/teachers/page")
+    public ResponseEntity<ApiResponse<CursorPage<TeacherResponse>>> getTeachersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorPage<TeacherResponse> page = teacherService.getTeachersPage(cursor, size, includeTotal);
+        return ResponseEntity.ok(ResponseUtil.success("Teachers retrieved", page));
     }
     
     @GetMapping("/teachers/next-id")
@@ -122,9 +192,22 @@ public class AdminController {
     }
     
     @GetMapping("/courses")
-    public ResponseEntity<ApiResponse<List<CourseResponse>>> getAllCourses() {
+    public ResponseEntity<ApiResponse<List<CourseResponse>>> getAllCourses(WebRequest request) {
+        String etag = resourceVersions.courses();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<CourseResponse> courses = courseService.getAllCourses();
-        return ResponseEntity.ok(ResponseUtil.success("Courses retrieved", courses));
+        return ResponseUtil.revalidated("Courses retrieved", courses);
+    }
+    
+    @GetMapping("/courses/page")
+    public ResponseEntity<ApiResponse<CursorPage<CourseResponse>>> getCoursesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorPage<CourseResponse> page = courseService.getCoursesPage(cursor, size, includeTotal);
+        return ResponseEntity.ok(ResponseUtil.success("Courses retrieved", page));
     }
     
     @PutMapping("/courses/{id}")
@@ -165,6 +248,60 @@ public class AdminController {
         return ResponseEntity.ok(ResponseUtil.success("Course deleted successfully", null));
     }
     
+    @PostMapping("/courses/{id}/finalize")
+    public ResponseEntity<ApiResponse<CourseFinalizationResponse>> finalizeCourse(@PathVariable Long id) {
+        CourseFinalizationResponse response = enrollmentService.finalizeCourse(id);
+        return ResponseEntity.ok(ResponseUtil.success("Course grades finalized", response));
+    }
+    
+    // Grading scale endpoints
+    @GetMapping("/grading-scales/default")
+    public ResponseEntity<ApiResponse<GradingScaleResponse>> getDefaultGradingScale() {
+        return ResponseEntity.ok(ResponseUtil.success("Grading scale retrieved", gradingScaleService.getDefaultScale()));
+    }
+    
+    @PutMapping("/grading-scales/default")
+    public ResponseEntity<ApiResponse<GradingScaleResponse>> updateDefaultGradingScale(
+            @Valid @RequestBody GradingScaleRequest request) {
+        GradingScaleResponse response = gradingScaleService.updateDefaultScale(request);
+        return ResponseEntity.ok(ResponseUtil.success("Grading scale updated successfully", response));
+    }
+    
+    @GetMapping("/courses/{id}/grading-scale")
+    public ResponseEntity<ApiResponse<GradingScaleResponse>> getCourseGradingScale(@PathVariable Long id) {
+        return ResponseEntity.ok(ResponseUtil.success("Grading scale retrieved", gradingScaleService.getCourseScale(id)));
+    }
+    
+    @PutMapping("/courses/{id}/grading-scale")
+    public ResponseEntity<ApiResponse<GradingScaleResponse>> setCourseGradingScale(
+            @PathVariable Long id, @Valid @RequestBody GradingScaleRequest request) {
+        GradingScaleResponse response = gradingScaleService.setCourseScale(id, request);
+        return ResponseEntity.ok(ResponseUtil.success("Grading scale updated successfully", response));
+    }
+    
+    @DeleteMapping("/courses/{id}/grading-scale")
+    public ResponseEntity<ApiResponse<Void>> removeCourseGradingScale(@PathVariable Long id) {
+        gradingScaleService.removeCourseScale(id);
+        return ResponseEntity.ok(ResponseUtil.success("Course returned to the default grading scale", null));
+    }
+    
+    // Risk detection endpoints
+    @PostMapping("/risk-flags/run")
+    public ResponseEntity<ApiResponse<RiskScanResponse>> runRiskDetection() {
+        return ResponseEntity.ok(ResponseUtil.success("Risk detection completed", riskDetectionJob.run()));
+    }
+    
+    @GetMapping("/risk-flags")
+    public ResponseEntity<ApiResponse<CursorPage<RiskFlagResponse>>> getRiskFlags(
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) Long studentId,
+            @RequestParam(required = false) String rule,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<RiskFlagResponse> page = riskFlagService.getFlags(courseId, studentId, rule, cursor, size);
+        return ResponseEntity.ok(ResponseUtil.success("Risk flags retrieved", page));
+    }
+    
     // User management endpoints (Admin only)
     @PutMapping("/users/student/{studentId}")
     public ResponseEntity<ApiResponse<Map<String, String>>> updateStudentUser(
@@ -33,7 +33,7 @@ public class AuthController {
                 .email(user.getEmail())
                 .role(user.getRole())
                 .isActive(user.getIsActive())
-                .fullName(user.getFullName())
+                .fullName(authService.getFullName(user))
                 .build();
         return ResponseEntity.ok(ResponseUtil.success("User retrieved", response));
     }
@@ -37,4 +37,11 @@ public class ReportController {
         Map<String, Object> stats = reportService.getStudentDashboardStats(studentId);
         return ResponseEntity.ok(ResponseUtil.success("Student dashboard stats retrieved", stats));
     }
+    
+    @GetMapping("/student/{studentId}/dashboard/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> verifyStudentDashboard(@PathVariable Long studentId) {
+        Map<String, Object> result = reportService.verifyStudentDashboardSummary(studentId);
+        return ResponseEntity.ok(ResponseUtil.success("Student dashboard summary verified", result));
+    }
 }
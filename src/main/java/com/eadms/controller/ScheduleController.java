@@ -1,15 +1,26 @@
 package com.eadms.controller;
 
 import com.eadms.dto.ScheduleDTO;
+import com.eadms.dto.projection.ScheduleFeedRow;
+import com.eadms.dto.response.CursorPage;
+import com.eadms.dto.response.FreeRoomSlotResponse;
+import com.eadms.dto.response.ScheduleValidationResponse;
 import com.eadms.service.ScheduleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 
 @RestController
@@ -17,6 +28,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ScheduleController {
     
+    private static final MediaType CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+    
     private final ScheduleService scheduleService;
     
     @GetMapping
@@ -25,6 +38,15 @@ public class ScheduleController {
         return ResponseEntity.ok(scheduleService.getAllSchedules());
     }
     
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER', 'STUDENT')")
+    public ResponseEntity<CursorPage<ScheduleDTO>> getSchedulesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(scheduleService.getSchedulesPage(cursor, size, includeTotal));
+    }
+    
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER', 'STUDENT')")
     public ResponseEntity<ScheduleDTO> getScheduleById(@PathVariable Long id) {
@@ -46,6 +68,17 @@ public class ScheduleController {
         return ResponseEntity.ok(scheduleService.getTeacherSchedulesByDateRange(teacherId, startDate, endDate));
     }
     
+    @GetMapping("/teacher/{teacherId}/calendar.ics")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<StreamingResponseBody> getTeacherCalendar(@PathVariable Long teacherId, WebRequest request) {
+        String etag = scheduleService.getTeacherCalendarETag(teacherId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<ScheduleFeedRow> rows = scheduleService.getTeacherCalendarRows(teacherId);
+        return calendarResponse("teacher-" + teacherId + ".ics", "Teaching timetable", rows);
+    }
+    
     @GetMapping("/student/{studentId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'STUDENT')")
     public ResponseEntity<List<ScheduleDTO>> getStudentSchedules(@PathVariable Long studentId) {
@@ -61,6 +94,17 @@ public class ScheduleController {
         return ResponseEntity.ok(scheduleService.getStudentSchedulesByDateRange(studentId, startDate, endDate));
     }
     
+    @GetMapping("/student/{studentId}/calendar.ics")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STUDENT')")
+    public ResponseEntity<StreamingResponseBody> getStudentCalendar(@PathVariable Long studentId, WebRequest request) {
+        String etag = scheduleService.getStudentCalendarETag(studentId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<ScheduleFeedRow> rows = scheduleService.getStudentCalendarRows(studentId);
+        return calendarResponse("student-" + studentId + ".ics", "Class timetable", rows);
+    }
+    
     @GetMapping("/day/{dayOfWeek}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER', 'STUDENT')")
     public ResponseEntity<List<ScheduleDTO>> getSchedulesByDay(@PathVariable String dayOfWeek) {
@@ -68,6 +112,18 @@ public class ScheduleController {
         return ResponseEntity.ok(scheduleService.getSchedulesByDayOfWeek(day));
     }
     
+    @GetMapping("/free-rooms")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<FreeRoomSlotResponse>> findFreeRooms(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "08:00") LocalTime from,
+            @RequestParam(defaultValue = "18:00") LocalTime to,
+            @RequestParam int duration,
+            @RequestParam(defaultValue = "false") boolean recurring,
+            @RequestParam(required = false) List<String> rooms) {
+        return ResponseEntity.ok(scheduleService.findFreeRooms(date, from, to, duration, recurring, rooms));
+    }
+    
     // Admin-only endpoints (existing)
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -75,6 +131,12 @@ public class ScheduleController {
         return ResponseEntity.ok(scheduleService.createSchedule(scheduleDTO));
     }
     
+    @PostMapping("/validate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ScheduleValidationResponse> validateSchedules(@RequestBody List<ScheduleDTO> schedules) {
+        return ResponseEntity.ok(scheduleService.validateSchedules(schedules));
+    }
+    
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ScheduleDTO> updateSchedule(
@@ -89,4 +151,14 @@ public class ScheduleController {
         scheduleService.deleteSchedule(id);
         return ResponseEntity.noContent().build();
     }
+    
+    private ResponseEntity<StreamingResponseBody> calendarResponse(String fileName, String calendarName,
+                                                                  List<ScheduleFeedRow> rows) {
+        // checkNotModified has already set the ETag header
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .contentType(CALENDAR)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"")
+                .body(out -> scheduleService.writeCalendar(calendarName, rows, out));
+    }
 }
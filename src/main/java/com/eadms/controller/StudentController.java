@@ -1,13 +1,14 @@
 package com.eadms.controller;
 
+import com.eadms.config.CurrentPrincipal;
 import com.eadms.dto.response.*;
 import com.eadms.entity.Course;
-import com.eadms.entity.User;
 import com.eadms.service.*;
 import com.eadms.util.ResponseUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -21,63 +22,83 @@ public class StudentController {
     private final MarksService marksService;
     private final AttendanceService attendanceService;
     private final ReportService reportService;
-    private final AuthService authService;
+    private final CurrentPrincipal currentPrincipal;
     private final EnrollmentService enrollmentService;
     private final CourseService courseService;
+    private final GradingScaleService gradingScaleService;
+    private final ResourceVersionService resourceVersions;
     
     @GetMapping("/dashboard/stats")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getDashboardStats() {
-        User user = authService.getCurrentUser();
-        StudentResponse student = studentService.getStudentByUserId(user.getId());
-        Map<String, Object> stats = reportService.getStudentDashboardStats(student.getId());
+        Long studentId = currentPrincipal.getStudentId();
+        Map<String, Object> stats = reportService.getStudentDashboardStats(studentId);
         return ResponseEntity.ok(ResponseUtil.success("Dashboard stats retrieved", stats));
     }
     
     @GetMapping("/profile")
-    public ResponseEntity<ApiResponse<StudentResponse>> getProfile() {
-        User user = authService.getCurrentUser();
-        StudentResponse student = studentService.getStudentByUserId(user.getId());
-        return ResponseEntity.ok(ResponseUtil.success("Profile retrieved", student));
+    public ResponseEntity<ApiResponse<StudentResponse>> getProfile(WebRequest request) {
+        Long studentId = currentPrincipal.getStudentId();
+        String etag = resourceVersions.student(studentId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        StudentResponse student = studentService.getStudentById(studentId);
+        return ResponseUtil.revalidated("Profile retrieved", student);
     }
     
     @GetMapping("/marks")
-    public ResponseEntity<ApiResponse<List<MarksResponse>>> getMyMarks() {
-        User user = authService.getCurrentUser();
-        StudentResponse student = studentService.getStudentByUserId(user.getId());
-        List<MarksResponse> marks = marksService.getMarksByStudent(student.getId());
-        return ResponseEntity.ok(ResponseUtil.success("Marks retrieved", marks));
+    public ResponseEntity<ApiResponse<List<MarksResponse>>> getMyMarks(WebRequest request) {
+        Long studentId = currentPrincipal.getStudentId();
+        String etag = resourceVersions.marksOfStudent(studentId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<MarksResponse> marks = marksService.getMarksByStudent(studentId);
+        return ResponseUtil.revalidated("Marks retrieved", marks);
     }
     
     @GetMapping("/attendance")
-    public ResponseEntity<ApiResponse<List<AttendanceResponse>>> getMyAttendance() {
-        User user = authService.getCurrentUser();
-        StudentResponse student = studentService.getStudentByUserId(user.getId());
-        List<AttendanceResponse> attendance = attendanceService.getAttendanceByStudent(student.getId());
-        return ResponseEntity.ok(ResponseUtil.success("Attendance retrieved", attendance));
+    public ResponseEntity<ApiResponse<List<AttendanceResponse>>> getMyAttendance(WebRequest request) {
+        Long studentId = currentPrincipal.getStudentId();
+        String etag = resourceVersions.attendanceOfStudent(studentId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<AttendanceResponse> attendance = attendanceService.getAttendanceByStudent(studentId);
+        return ResponseUtil.revalidated("Attendance retrieved", attendance);
     }
     
     @GetMapping("/attendance/stats")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getAttendanceStats() {
-        User user = authService.getCurrentUser();
-        StudentResponse student = studentService.getStudentByUserId(user.getId());
-        Map<String, Object> stats = attendanceService.getAttendanceStats(student.getId());
-        return ResponseEntity.ok(ResponseUtil.success("Attendance stats retrieved", stats));
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAttendanceStats(WebRequest request) {
+        Long studentId = currentPrincipal.getStudentId();
+        String etag = resourceVersions.attendanceOfStudent(studentId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Map<String, Object> stats = attendanceService.getAttendanceStats(studentId);
+        return ResponseUtil.revalidated("Attendance stats retrieved", stats);
     }
     
     @GetMapping("/gpa")
-    public ResponseEntity<ApiResponse<Double>> getGPA() {
-        User user = authService.getCurrentUser();
-        StudentResponse student = studentService.getStudentByUserId(user.getId());
-        Double gpa = enrollmentService.calculateStudentGPA(student.getId());
-        return ResponseEntity.ok(ResponseUtil.success("GPA calculated", gpa));
+    public ResponseEntity<ApiResponse<Double>> getGPA(WebRequest request) {
+        Long studentId = currentPrincipal.getStudentId();
+        String etag = resourceVersions.enrollmentsOfStudent(studentId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Double gpa = enrollmentService.calculateStudentGPA(studentId);
+        return ResponseUtil.revalidated("GPA calculated", gpa);
     }
     
     @GetMapping("/courses")
-    public ResponseEntity<ApiResponse<List<CourseResponse>>> getMyCourses() {
-        User user = authService.getCurrentUser();
-        StudentResponse student = studentService.getStudentByUserId(user.getId());
+    public ResponseEntity<ApiResponse<List<CourseResponse>>> getMyCourses(WebRequest request) {
+        Long studentId = currentPrincipal.getStudentId();
+        String etag = resourceVersions.coursesOfStudent(studentId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         
-        List<Course> courses = enrollmentService.getActiveCoursesByStudent(student.getId());
+        List<Course> courses = enrollmentService.getActiveCoursesByStudent(studentId);
         List<CourseResponse> courseResponses = courses.stream()
                 .map(course -> CourseResponse.builder()
                         .id(course.getId())
@@ -97,33 +118,51 @@ public class StudentController {
                         .build())
                 .collect(java.util.stream.Collectors.toList());
         
-        return ResponseEntity.ok(ResponseUtil.success("Courses retrieved", courseResponses));
+        return ResponseUtil.revalidated("Courses retrieved", courseResponses);
     }
     
     @GetMapping("/enrollments")
-    public ResponseEntity<ApiResponse<List<EnrollmentResponse>>> getMyEnrollments() {
-        User user = authService.getCurrentUser();
-        StudentResponse student = studentService.getStudentByUserId(user.getId());
-        List<EnrollmentResponse> enrollments = enrollmentService.getActiveEnrollmentsByStudent(student.getId());
-        return ResponseEntity.ok(ResponseUtil.success("Enrollments retrieved", enrollments));
+    public ResponseEntity<ApiResponse<List<EnrollmentResponse>>> getMyEnrollments(WebRequest request) {
+        Long studentId = currentPrincipal.getStudentId();
+        String etag = resourceVersions.enrollmentsOfStudent(studentId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<EnrollmentResponse> enrollments = enrollmentService.getActiveEnrollmentsByStudent(studentId);
+        return ResponseUtil.revalidated("Enrollments retrieved", enrollments);
     }
     
     @GetMapping("/credits")
-    public ResponseEntity<ApiResponse<Integer>> getTotalCredits() {
-        User user = authService.getCurrentUser();
-        StudentResponse student = studentService.getStudentByUserId(user.getId());
-        Integer totalCredits = enrollmentService.getTotalActiveCredits(student.getId());
-        return ResponseEntity.ok(ResponseUtil.success("Total credits calculated", totalCredits));
+    public ResponseEntity<ApiResponse<Integer>> getTotalCredits(WebRequest request) {
+        Long studentId = currentPrincipal.getStudentId();
+        String etag = resourceVersions.enrollmentsOfStudent(studentId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Integer totalCredits = enrollmentService.getTotalActiveCredits(studentId);
+        return ResponseUtil.revalidated("Total credits calculated", totalCredits);
+    }
+    
+    // The scale the backend grades with, so report cards show the same letters; a course may override the default
+    @GetMapping("/grading-scale")
+    public ResponseEntity<ApiResponse<GradingScaleResponse>> getGradingScale(@RequestParam(required = false) Long courseId) {
+        GradingScaleResponse scale = courseId != null
+                ? gradingScaleService.getCourseScale(courseId)
+                : gradingScaleService.getDefaultScale();
+        return ResponseEntity.ok(ResponseUtil.success("Grading scale retrieved", scale));
     }
     
     @GetMapping("/teachers")
-    public ResponseEntity<ApiResponse<List<TeacherBasicResponse>>> getMyTeachers() {
+    public ResponseEntity<ApiResponse<List<TeacherBasicResponse>>> getMyTeachers(WebRequest request) {
         try {
-            User user = authService.getCurrentUser();
-            StudentResponse student = studentService.getStudentByUserId(user.getId());
+            Long studentId = currentPrincipal.getStudentId();
+            String etag = resourceVersions.teachersOfStudent(studentId);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
             
             // Get active courses and extract unique teachers
-            List<Course> courses = enrollmentService.getActiveCoursesByStudent(student.getId());
+            List<Course> courses = enrollmentService.getActiveCoursesByStudent(studentId);
             
             // Use a map to ensure unique teachers by USER ID (not teacher entity ID)
             Map<Long, TeacherBasicResponse> teacherMap = new java.util.HashMap<>();
@@ -150,7 +189,7 @@ public class StudentController {
             }
             
             List<TeacherBasicResponse> teachers = new java.util.ArrayList<>(teacherMap.values());
-            return ResponseEntity.ok(ResponseUtil.success("Teachers retrieved", teachers));
+            return ResponseUtil.revalidated("Teachers retrieved", teachers);
         } catch (Exception e) {
             // Return empty list if student has no enrollments or other error
             return ResponseEntity.ok(ResponseUtil.success("Teachers retrieved", new java.util.ArrayList<>()));
@@ -1,16 +1,12 @@
 package com.eadms.controller;
 
+import com.eadms.config.CurrentPrincipal;
 import com.eadms.dto.ScheduleDTO;
-import com.eadms.entity.Student;
-import com.eadms.entity.User;
-import com.eadms.repository.StudentRepository;
-import com.eadms.repository.UserRepository;
 import com.eadms.service.ScheduleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -23,29 +19,19 @@ import java.util.List;
 public class StudentScheduleController {
     
     private final ScheduleService scheduleService;
-    private final UserRepository userRepository;
-    private final StudentRepository studentRepository;
+    private final CurrentPrincipal currentPrincipal;
     
     @GetMapping
-    public ResponseEntity<List<ScheduleDTO>> getMySchedules(Authentication authentication) {
-        Student student = getCurrentStudent(authentication);
-        return ResponseEntity.ok(scheduleService.getSchedulesByStudentId(student.getId()));
+    public ResponseEntity<List<ScheduleDTO>> getMySchedules() {
+        Long studentId = currentPrincipal.getStudentId();
+        return ResponseEntity.ok(scheduleService.getSchedulesByStudentId(studentId));
     }
     
     @GetMapping("/range")
     public ResponseEntity<List<ScheduleDTO>> getMySchedulesByDateRange(
-            Authentication authentication,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        Student student = getCurrentStudent(authentication);
-        return ResponseEntity.ok(scheduleService.getStudentSchedulesByDateRange(student.getId(), startDate, endDate));
-    }
-    
-    private Student getCurrentStudent(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return studentRepository.findByUserId(user.getId())
-                .orElseThrow(() -> new RuntimeException("Student profile not found"));
+        Long studentId = currentPrincipal.getStudentId();
+        return ResponseEntity.ok(scheduleService.getStudentSchedulesByDateRange(studentId, startDate, endDate));
     }
 }
\ No newline at end of file
@@ -1,18 +1,22 @@
 package com.eadms.controller;
 
+import com.eadms.config.CurrentPrincipal;
 import com.eadms.dto.request.AttendanceEntryRequest;
+import com.eadms.dto.request.BulkAttendanceRequest;
 import com.eadms.dto.request.MarksEntryRequest;
 import com.eadms.dto.response.*;
-import com.eadms.entity.User;
 import com.eadms.service.*;
 import com.eadms.util.ResponseUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -27,23 +31,27 @@ public class TeacherController {
     private final MarksService marksService;
     private final AttendanceService attendanceService;
     private final ReportService reportService;
-    private final AuthService authService;
+    private final CurrentPrincipal currentPrincipal;
     private final StudentService studentService;
+    private final ResourceVersionService resourceVersions;
+    private final RiskFlagService riskFlagService;
     
     @GetMapping("/dashboard/stats")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getDashboardStats() {
-        User user = authService.getCurrentUser();
-        TeacherResponse teacher = teacherService.getTeacherByUserId(user.getId());
-        Map<String, Object> stats = reportService.getTeacherDashboardStats(teacher.getId());
+        Long teacherId = currentPrincipal.getTeacherId();
+        Map<String, Object> stats = reportService.getTeacherDashboardStats(teacherId);
         return ResponseEntity.ok(ResponseUtil.success("Dashboard stats retrieved", stats));
     }
     
     @GetMapping("/courses")
-    public ResponseEntity<ApiResponse<List<CourseResponse>>> getMyCourses() {
-        User user = authService.getCurrentUser();
-        TeacherResponse teacher = teacherService.getTeacherByUserId(user.getId());
-        List<CourseResponse> courses = courseService.getCoursesByTeacher(teacher.getId());
-        return ResponseEntity.ok(ResponseUtil.success("Courses retrieved", courses));
+    public ResponseEntity<ApiResponse<List<CourseResponse>>> getMyCourses(WebRequest request) {
+        Long teacherId = currentPrincipal.getTeacherId();
+        String etag = resourceVersions.coursesOfTeacher(teacherId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<CourseResponse> courses = courseService.getCoursesByTeacher(teacherId);
+        return ResponseUtil.revalidated("Courses retrieved", courses);
     }
     
     @PostMapping("/marks")
@@ -53,6 +61,18 @@ public class TeacherController {
                 .body(ResponseUtil.success("Marks entered successfully", response));
     }
     
+    @PostMapping(value = "/marks/bulk", consumes = "text/csv")
+    public ResponseEntity<ApiResponse<BulkMarksImportResponse>> importMarksCsv(InputStream body) {
+        BulkMarksImportResponse response = marksService.importMarksFromCsv(body);
+        return ResponseEntity.ok(ResponseUtil.success("Marks import processed", response));
+    }
+    
+    @PostMapping(value = "/marks/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<BulkMarksImportResponse>> importMarksJson(InputStream body) {
+        BulkMarksImportResponse response = marksService.importMarksFromJson(body);
+        return ResponseEntity.ok(ResponseUtil.success("Marks import processed", response));
+    }
+    
     @PutMapping("/marks/{id}")
     public ResponseEntity<ApiResponse<MarksResponse>> updateMarks(
             @PathVariable Long id,
@@ -62,7 +82,11 @@ public class TeacherController {
     }
     
     @GetMapping("/marks/course/{courseId}")
-    public ResponseEntity<ApiResponse<List<MarksResponse>>> getMarksByCourse(@PathVariable Long courseId) {
+    public ResponseEntity<ApiResponse<List<MarksResponse>>> getMarksByCourse(@PathVariable Long courseId, WebRequest request) {
+        String etag = resourceVersions.marksOfCourse(courseId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         log.info("Fetching marks for course ID: {} via API", courseId);
         List<MarksResponse> marks = marksService.getMarksByCourse(courseId);
         log.info("Returning {} marks records for course ID: {}", marks.size(), courseId);
@@ -73,7 +97,7 @@ public class TeacherController {
                     mark.getId(), mark.getStudentName(), mark.getStudentCode(), mark.getCourseName())
         );
         
-        return ResponseEntity.ok(ResponseUtil.success("Marks retrieved", marks));
+        return ResponseUtil.revalidated("Marks retrieved", marks);
     }
     
     @PostMapping("/attendance")
@@ -84,6 +108,13 @@ public class TeacherController {
                 .body(ResponseUtil.success("Attendance marked successfully", response));
     }
     
+    @PostMapping("/attendance/bulk")
+    public ResponseEntity<ApiResponse<BulkAttendanceResponse>> markBulkAttendance(
+            @Valid @RequestBody BulkAttendanceRequest request) {
+        BulkAttendanceResponse response = attendanceService.markBulkAttendance(request);
+        return ResponseEntity.ok(ResponseUtil.success("Attendance roster saved", response));
+    }
+    
     @PutMapping("/attendance/{id}")
     public ResponseEntity<ApiResponse<AttendanceResponse>> updateAttendance(
             @PathVariable Long id,
@@ -93,33 +124,75 @@ public class TeacherController {
     }
     
     @GetMapping("/attendance/course/{courseId}")
-    public ResponseEntity<ApiResponse<List<AttendanceResponse>>> getAttendanceByCourse(@PathVariable Long courseId) {
+    public ResponseEntity<ApiResponse<List<AttendanceResponse>>> getAttendanceByCourse(@PathVariable Long courseId, WebRequest request) {
+        String etag = resourceVersions.attendanceOfCourse(courseId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<AttendanceResponse> attendance = attendanceService.getAttendanceByCourse(courseId);
-        return ResponseEntity.ok(ResponseUtil.success("Attendance retrieved", attendance));
+        return ResponseUtil.revalidated("Attendance retrieved", attendance);
     }
     
     @GetMapping("/course/{courseId}/average")
-    public ResponseEntity<ApiResponse<Double>> getCourseAverage(@PathVariable Long courseId) {
+    public ResponseEntity<ApiResponse<Double>> getCourseAverage(@PathVariable Long courseId, WebRequest request) {
+        String etag = resourceVersions.marksOfCourse(courseId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         Double average = marksService.calculateAverageMarks(courseId);
-        return ResponseEntity.ok(ResponseUtil.success("Average calculated", average));
+        return ResponseUtil.revalidated("Average calculated", average);
+    }
+    
+    @GetMapping("/course/{courseId}/analytics")
+    public ResponseEntity<ApiResponse<CourseGradeAnalyticsResponse>> getCourseAnalytics(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "5") int top) {
+        CourseGradeAnalyticsResponse analytics = marksService.getCourseAnalytics(courseId, top);
+        return ResponseEntity.ok(ResponseUtil.success("Course analytics calculated", analytics));
+    }
+    
+    // Flags on the teacher's own courses only
+    @GetMapping("/risk-flags")
+    public ResponseEntity<ApiResponse<CursorPage<RiskFlagResponse>>> getRiskFlags(
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) Long studentId,
+            @RequestParam(required = false) String rule,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        Long teacherId = currentPrincipal.getTeacherId();
+        CursorPage<RiskFlagResponse> page = riskFlagService.getFlagsForTeacher(teacherId, courseId, studentId, rule,
+                cursor, size);
+        return ResponseEntity.ok(ResponseUtil.success("Risk flags retrieved", page));
     }
     
     @GetMapping("/students")
-    public ResponseEntity<ApiResponse<List<StudentResponse>>> getAllStudents() {
+    public ResponseEntity<ApiResponse<List<StudentResponse>>> getAllStudents(WebRequest request) {
+        String etag = resourceVersions.students();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<StudentResponse> students = studentService.getAllStudents();
-        return ResponseEntity.ok(ResponseUtil.success("Students retrieved", students));
+        return ResponseUtil.revalidated("Students retrieved", students);
     }
     
     @GetMapping("/course/{courseId}/students")
-    public ResponseEntity<ApiResponse<List<StudentResponse>>> getStudentsByCourse(@PathVariable Long courseId) {
+    public ResponseEntity<ApiResponse<List<StudentResponse>>> getStudentsByCourse(@PathVariable Long courseId, WebRequest request) {
+        String etag = resourceVersions.studentsOfCourse(courseId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<StudentResponse> students = studentService.getStudentsByCourse(courseId);
-        return ResponseEntity.ok(ResponseUtil.success("Students retrieved for course", students));
+        return ResponseUtil.revalidated("Students retrieved for course", students);
     }
     
     @GetMapping("/profile")
-    public ResponseEntity<ApiResponse<TeacherResponse>> getMyProfile() {
-        User user = authService.getCurrentUser();
-        TeacherResponse teacher = teacherService.getTeacherByUserId(user.getId());
-        return ResponseEntity.ok(ResponseUtil.success("Profile retrieved", teacher));
+    public ResponseEntity<ApiResponse<TeacherResponse>> getMyProfile(WebRequest request) {
+        Long teacherId = currentPrincipal.getTeacherId();
+        String etag = resourceVersions.teacher(teacherId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        TeacherResponse teacher = teacherService.getTeacherById(teacherId);
+        return ResponseUtil.revalidated("Profile retrieved", teacher);
     }
 }
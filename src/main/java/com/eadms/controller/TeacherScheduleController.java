@@ -1,18 +1,13 @@
 package com.eadms.controller;
 
+import com.eadms.config.CurrentPrincipal;
 import com.eadms.dto.ScheduleDTO;
-import com.eadms.entity.Teacher;
-import com.eadms.entity.User;
-import com.eadms.exception.ResourceNotFoundException;
 import com.eadms.exception.UnauthorizedException;
-import com.eadms.repository.TeacherRepository;
-import com.eadms.repository.UserRepository;
 import com.eadms.service.ScheduleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -25,71 +20,56 @@ import java.util.List;
 public class TeacherScheduleController {
     
     private final ScheduleService scheduleService;
-    private final UserRepository userRepository;
-    private final TeacherRepository teacherRepository;
+    private final CurrentPrincipal currentPrincipal;
     
     @GetMapping
-    public ResponseEntity<List<ScheduleDTO>> getMySchedules(Authentication authentication) {
-        Teacher teacher = getCurrentTeacher(authentication);
-        return ResponseEntity.ok(scheduleService.getSchedulesByTeacherId(teacher.getId()));
+    public ResponseEntity<List<ScheduleDTO>> getMySchedules() {
+        Long teacherId = currentPrincipal.getTeacherId();
+        return ResponseEntity.ok(scheduleService.getSchedulesByTeacherId(teacherId));
     }
     
     @GetMapping("/range")
     public ResponseEntity<List<ScheduleDTO>> getMySchedulesByDateRange(
-            Authentication authentication,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        Teacher teacher = getCurrentTeacher(authentication);
-        return ResponseEntity.ok(scheduleService.getTeacherSchedulesByDateRange(teacher.getId(), startDate, endDate));
+        Long teacherId = currentPrincipal.getTeacherId();
+        return ResponseEntity.ok(scheduleService.getTeacherSchedulesByDateRange(teacherId, startDate, endDate));
     }
     
     @PostMapping
-    public ResponseEntity<ScheduleDTO> createSchedule(
-            Authentication authentication,
-            @RequestBody ScheduleDTO scheduleDTO) {
-        Teacher teacher = getCurrentTeacher(authentication);
-        scheduleDTO.setTeacherId(teacher.getId());
+    public ResponseEntity<ScheduleDTO> createSchedule(@RequestBody ScheduleDTO scheduleDTO) {
+        Long teacherId = currentPrincipal.getTeacherId();
+        scheduleDTO.setTeacherId(teacherId);
         return ResponseEntity.ok(scheduleService.createSchedule(scheduleDTO));
     }
     
     @PutMapping("/{id}")
     public ResponseEntity<ScheduleDTO> updateSchedule(
-            Authentication authentication,
             @PathVariable Long id,
             @RequestBody ScheduleDTO scheduleDTO) {
-        Teacher teacher = getCurrentTeacher(authentication);
+        Long teacherId = currentPrincipal.getTeacherId();
         
         // Verify the schedule belongs to this teacher
         ScheduleDTO existingSchedule = scheduleService.getScheduleById(id);
-        if (!existingSchedule.getTeacherId().equals(teacher.getId())) {
+        if (!existingSchedule.getTeacherId().equals(teacherId)) {
             throw new UnauthorizedException("You can only update your own schedules");
         }
         
-        scheduleDTO.setTeacherId(teacher.getId());
+        scheduleDTO.setTeacherId(teacherId);
         return ResponseEntity.ok(scheduleService.updateSchedule(id, scheduleDTO));
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteSchedule(
-            Authentication authentication,
-            @PathVariable Long id) {
-        Teacher teacher = getCurrentTeacher(authentication);
+    public ResponseEntity<Void> deleteSchedule(@PathVariable Long id) {
+        Long teacherId = currentPrincipal.getTeacherId();
         
         // Verify the schedule belongs to this teacher
         ScheduleDTO existingSchedule = scheduleService.getScheduleById(id);
-        if (!existingSchedule.getTeacherId().equals(teacher.getId())) {
+        if (!existingSchedule.getTeacherId().equals(teacherId)) {
             throw new UnauthorizedException("You can only delete your own schedules");
         }
         
         scheduleService.deleteSchedule(id);
         return ResponseEntity.noContent().build();
     }
-    
-    private Teacher getCurrentTeacher(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        return teacherRepository.findByUserId(user.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Teacher profile not found"));
-    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.eadms.controller;
+
+import com.eadms.dto.request.TimetableGenerationRequest;
+import com.eadms.dto.response.ApiResponse;
+import com.eadms.dto.response.TimetableJobResponse;
+import com.eadms.service.TimetableService;
+import com.eadms.util.ResponseUtil;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/timetable")
+@RequiredArgsConstructor
+public class TimetableController {
+    
+    private final TimetableService timetableService;
+    
+    @PostMapping("/generate")
+    public ResponseEntity<ApiResponse<TimetableJobResponse>> generate(@Valid @RequestBody TimetableGenerationRequest request) {
+        TimetableJobResponse job = timetableService.startGeneration(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ResponseUtil.success("Timetable generation started", job));
+    }
+    
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<TimetableJobResponse>> getJob(@PathVariable String jobId) {
+        TimetableJobResponse job = timetableService.getJob(jobId);
+        return ResponseEntity.ok(ResponseUtil.success("Timetable job retrieved", job));
+    }
+    
+    @PostMapping("/jobs/{jobId}/apply")
+    public ResponseEntity<ApiResponse<TimetableJobResponse>> apply(@PathVariable String jobId) {
+        TimetableJobResponse job = timetableService.applyPreview(jobId);
+        return ResponseEntity.ok(ResponseUtil.success("Timetable job applied", job));
+    }
+}
@@ -0,0 +1,10 @@
+package com.eadms.dto.projection;
+
+/**
+ * An active enrollment of a course, identified with its student.
+ */
+public record ActiveEnrollment(
+        Long id,
+        Long studentId
+) {
+}
@@ -0,0 +1,34 @@
+package com.eadms.dto.projection;
+
+import com.eadms.entity.Attendance;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Attendance records per status, summed over attendance rollup rows.
+ */
+public record AttendanceCounts(
+        Long present,
+        Long absent,
+        Long late,
+        Long excused
+) {
+    
+    public long total() {
+        return present + absent + late + excused;
+    }
+    
+    public double percentage() {
+        return total() > 0 ? (double) present / total() * 100 : 0.0;
+    }
+    
+    public Map<Attendance.Status, Long> byStatus() {
+        Map<Attendance.Status, Long> counts = new EnumMap<>(Attendance.Status.class);
+        counts.put(Attendance.Status.PRESENT, present);
+        counts.put(Attendance.Status.ABSENT, absent);
+        counts.put(Attendance.Status.LATE, late);
+        counts.put(Attendance.Status.EXCUSED, excused);
+        return counts;
+    }
+}
@@ -0,0 +1,16 @@
+package com.eadms.dto.projection;
+
+import com.eadms.entity.Attendance;
+
+/**
+ * Number of attendance records with one status for a student and course in one calendar month.
+ */
+public record AttendanceMonthCounts(
+        Long studentId,
+        Long courseId,
+        Integer year,
+        Integer month,
+        Attendance.Status status,
+        Long count
+) {
+}
@@ -0,0 +1,24 @@
+package com.eadms.dto.projection;
+
+import com.eadms.entity.Attendance;
+
+import java.time.LocalDate;
+
+/**
+ * Flat, unmanaged row for attendance listings; carries exactly the fields {@code AttendanceResponse} needs.
+ */
+public record AttendanceRow(
+        Long id,
+        Long studentId,
+        String studentFirstName,
+        String studentLastName,
+        Long courseId,
+        String courseName,
+        LocalDate attendanceDate,
+        Attendance.Status status
+) {
+    
+    public String studentName() {
+        return studentFirstName + " " + studentLastName;
+    }
+}
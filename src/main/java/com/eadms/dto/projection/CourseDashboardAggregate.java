@@ -0,0 +1,26 @@
+package com.eadms.dto.projection;
+
+/**
+ * Per-course counters for the teacher dashboard, produced by a single
+ * aggregate query instead of one count query per course.
+ */
+public record CourseDashboardAggregate(
+        Long courseId,
+        String courseCode,
+        String courseName,
+        Integer semester,
+        Integer credits,
+        String description,
+        Long activeEnrollments,
+        Long presentCount,
+        Long attendanceCount
+) {
+    
+    public boolean hasAttendance() {
+        return attendanceCount != null && attendanceCount > 0;
+    }
+    
+    public double attendancePercentage() {
+        return hasAttendance() ? (double) presentCount / attendanceCount * 100 : 0.0;
+    }
+}
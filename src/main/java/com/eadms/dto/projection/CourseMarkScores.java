@@ -0,0 +1,15 @@
+package com.eadms.dto.projection;
+
+/**
+ * Column-wise snapshot of a course's marks for analytics: one slot per mark, ordered by student, in
+ * parallel primitive arrays rather than a row object each. Arrays may be longer than {@code size}.
+ */
+public record CourseMarkScores(
+        int size,
+        long[] studentIds,
+        // Marks.ExamType ordinals
+        byte[] examTypes,
+        // marksObtained / maxMarks * 100
+        double[] percentages
+) {
+}
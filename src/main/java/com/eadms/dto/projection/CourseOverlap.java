@@ -0,0 +1,12 @@
+package com.eadms.dto.projection;
+
+/**
+ * Number of students actively enrolled in both courses. Within one set of courses {@code courseId < otherCourseId};
+ * against courses outside the set, {@code courseId} is the one inside it.
+ */
+public record CourseOverlap(
+        Long courseId,
+        Long otherCourseId,
+        Long sharedStudents
+) {
+}
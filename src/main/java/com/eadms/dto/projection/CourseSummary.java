@@ -0,0 +1,27 @@
+package com.eadms.dto.projection;
+
+import com.eadms.entity.Course;
+import com.eadms.entity.Teacher;
+
+import java.util.List;
+
+/**
+ * Immutable course snapshot held by the reference-data cache; teachers are kept as ids and resolved
+ * through the teacher cache, so renaming a teacher never touches course entries.
+ */
+public record CourseSummary(
+        Long id,
+        String courseCode,
+        String courseName,
+        Integer semester,
+        Integer credits,
+        String description,
+        List<Long> teacherIds
+) {
+    
+    public static CourseSummary of(Course course) {
+        return new CourseSummary(course.getId(), course.getCourseCode(), course.getCourseName(),
+                course.getSemester(), course.getCredits(), course.getDescription(),
+                course.getTeachers().stream().map(Teacher::getId).distinct().toList());
+    }
+}
@@ -0,0 +1,14 @@
+package com.eadms.dto.projection;
+
+import com.eadms.entity.Marks;
+
+/**
+ * An enrollment's marks in one exam type, summed over every exam of that type sat in the enrollment's term.
+ */
+public record ExamComponentScore(
+        Long enrollmentId,
+        Marks.ExamType examType,
+        Double marksObtained,
+        Double maxMarks
+) {
+}
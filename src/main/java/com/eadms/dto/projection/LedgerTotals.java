@@ -0,0 +1,15 @@
+package com.eadms.dto.projection;
+
+/**
+ * Academic ledger figures of one student and term, aggregated from the enrollments.
+ */
+public record LedgerTotals(
+        Long studentId,
+        Integer academicYear,
+        Integer semester,
+        Double weightedGradePoints,
+        Long gradedCredits,
+        Long completedCredits,
+        Long activeCredits
+) {
+}
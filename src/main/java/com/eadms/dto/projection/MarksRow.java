@@ -0,0 +1,36 @@
+package com.eadms.dto.projection;
+
+import com.eadms.entity.Marks;
+
+import java.time.LocalDate;
+
+/**
+ * Flat, unmanaged row for marks listings; carries exactly the fields {@code MarksResponse} needs.
+ */
+public record MarksRow(
+        Long id,
+        Long studentId,
+        String studentCode,
+        String studentFirstName,
+        String studentLastName,
+        Long courseId,
+        String courseCode,
+        String courseName,
+        Marks.ExamType examType,
+        Double marksObtained,
+        Double maxMarks,
+        String remarks,
+        LocalDate examDate
+) {
+    
+    public String studentName() {
+        return studentFirstName + " " + studentLastName;
+    }
+    
+    public Double percentage() {
+        if (maxMarks == null || maxMarks == 0) {
+            return 0.0;
+        }
+        return (marksObtained / maxMarks) * 100;
+    }
+}
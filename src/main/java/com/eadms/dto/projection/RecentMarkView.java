@@ -0,0 +1,27 @@
+package com.eadms.dto.projection;
+
+import com.eadms.entity.Marks;
+
+import java.time.LocalDate;
+
+/**
+ * Flat view of a mark with its course, used for the "recent marks" panel.
+ */
+public record RecentMarkView(
+        Long id,
+        Marks.ExamType examType,
+        Double marksObtained,
+        Double maxMarks,
+        LocalDate examDate,
+        Long courseId,
+        String courseCode,
+        String courseName
+) {
+    
+    public Double percentage() {
+        if (maxMarks == null || maxMarks == 0) {
+            return 0.0;
+        }
+        return (marksObtained / maxMarks) * 100;
+    }
+}
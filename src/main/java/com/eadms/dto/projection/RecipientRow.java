@@ -0,0 +1,11 @@
+package com.eadms.dto.projection;
+
+/**
+ * A user to notify about the course or teacher identified by {@code id}; the email is the STOMP
+ * user name.
+ */
+public record RecipientRow(
+        Long id,
+        String email
+) {
+}
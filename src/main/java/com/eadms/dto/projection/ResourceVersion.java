@@ -0,0 +1,17 @@
+package com.eadms.dto.projection;
+
+/**
+ * Fingerprint of the rows behind a response, as for {@link ScheduleFeedVersion}: {@code rows} lists every
+ * row's id with its own {@code updatedAt} and that of the row it joins to for display fields, ordered by
+ * id, so rows entering, leaving or changing always alter it.
+ */
+public record ResourceVersion(
+        Long rowCount,
+        String rows
+) {
+    
+    @Override
+    public String toString() {
+        return rowCount + ":" + rows;
+    }
+}
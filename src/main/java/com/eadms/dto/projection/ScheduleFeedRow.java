@@ -0,0 +1,22 @@
+package com.eadms.dto.projection;
+
+import com.eadms.entity.Schedule;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat, unmanaged row for calendar feeds; carries exactly the fields a VEVENT needs.
+ */
+public record ScheduleFeedRow(
+        Long id,
+        String title,
+        String description,
+        String location,
+        LocalDateTime startDateTime,
+        LocalDateTime endDateTime,
+        Schedule.RecurrenceType recurrence,
+        String courseCode,
+        String courseName,
+        LocalDateTime updatedAt
+) {
+}
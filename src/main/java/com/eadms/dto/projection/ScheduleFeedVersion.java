@@ -0,0 +1,15 @@
+package com.eadms.dto.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fingerprint of the schedules behind a calendar feed: {@code schedules} lists every schedule's id with
+ * its own and its course's {@code updatedAt}, ordered by id, so no two different sets of rows share it.
+ * {@code ownerUpdatedAt} is the teacher's or student's own row.
+ */
+public record ScheduleFeedVersion(
+        Long scheduleCount,
+        String schedules,
+        LocalDateTime ownerUpdatedAt
+) {
+}
@@ -0,0 +1,24 @@
+package com.eadms.dto.projection;
+
+import com.eadms.entity.Schedule;
+
+import java.time.LocalDateTime;
+
+/**
+ * The booking-relevant part of a schedule: who teaches it, where, and when. {@code room} is the
+ * location, falling back to the legacy room number.
+ */
+public record ScheduleSlot(
+        Long scheduleId,
+        Long courseId,
+        Long teacherId,
+        String room,
+        LocalDateTime startDateTime,
+        LocalDateTime endDateTime,
+        Schedule.RecurrenceType recurrence
+) {
+    
+    public boolean isWeekly() {
+        return recurrence == Schedule.RecurrenceType.WEEKLY;
+    }
+}
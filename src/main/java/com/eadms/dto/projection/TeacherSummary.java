@@ -0,0 +1,22 @@
+package com.eadms.dto.projection;
+
+import com.eadms.entity.Teacher;
+
+public record TeacherSummary(
+        Long id,
+        String teacherId,
+        String firstName,
+        String lastName,
+        String department,
+        String email
+) {
+    
+    public static TeacherSummary of(Teacher teacher) {
+        return new TeacherSummary(teacher.getId(), teacher.getTeacherId(), teacher.getFirstName(),
+                teacher.getLastName(), teacher.getDepartment(), teacher.getEmail());
+    }
+    
+    public String fullName() {
+        return firstName + " " + lastName;
+    }
+}
@@ -0,0 +1,26 @@
+package com.eadms.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAttendanceRequest {
+    
+    @NotNull(message = "Course ID is required")
+    private Long courseId;
+    
+    @NotNull(message = "Attendance date is required")
+    private LocalDate attendanceDate;
+    
+    // studentId -> status (PRESENT, ABSENT, LATE, EXCUSED)
+    @NotEmpty(message = "At least one student status is required")
+    private Map<Long, String> statuses;
+}
@@ -0,0 +1,52 @@
+package com.eadms.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradingScaleRequest {
+    
+    @NotBlank(message = "Scale name is required")
+    private String name;
+    
+    // In any order; one band must start at 0 so every grade has a letter
+    @NotEmpty(message = "At least one grade band is required")
+    @Valid
+    private List<Band> bands;
+    
+    // examType (MIDTERM, FINAL, ASSIGNMENT, QUIZ) -> relative weight
+    @NotEmpty(message = "At least one exam type weight is required")
+    private Map<String, Double> examWeights;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Band {
+        
+        @NotNull(message = "Minimum percentage is required")
+        @DecimalMin(value = "0", message = "Minimum percentage cannot be negative")
+        @DecimalMax(value = "100", message = "Minimum percentage cannot exceed 100")
+        private Double minPercentage;
+        
+        @NotBlank(message = "Letter grade is required")
+        @Size(max = 5, message = "Letter grade must be at most 5 characters")
+        private String letterGrade;
+        
+        @NotNull(message = "Grade points are required")
+        @DecimalMin(value = "0", message = "Grade points cannot be negative")
+        private Double gradePoints;
+    }
+}
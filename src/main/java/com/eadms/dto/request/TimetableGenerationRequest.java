@@ -0,0 +1,45 @@
+package com.eadms.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimetableGenerationRequest {
+    
+    // Courses to timetable; all courses with an assigned teacher when omitted
+    private List<Long> courseIds;
+    
+    // Rooms to place sessions in; every room already used by a schedule when omitted
+    private List<String> rooms;
+    
+    // Generated weekly series start on the first matching day on or after this date
+    @NotNull(message = "Term start date is required")
+    private LocalDate termStart;
+    
+    private List<DayOfWeek> days;
+    
+    private LocalTime dayStart;
+    
+    private LocalTime dayEnd;
+    
+    @Min(value = 15, message = "Sessions must be at least 15 minutes")
+    @Max(value = 240, message = "Sessions cannot exceed 240 minutes")
+    private Integer sessionMinutes;
+    
+    @Min(value = 100, message = "Time budget must be at least 100 ms")
+    private Long timeBudgetMs;
+    
+    // Preview only; a preview can be applied later through the job
+    private boolean dryRun;
+}
@@ -0,0 +1,18 @@
+package com.eadms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttendanceRollupRebuildResponse {
+    
+    private long studentsScanned;
+    // Rollup rows inserted, changed or deleted because they disagreed with the attendance records
+    private long rowsCorrected;
+    private long durationMs;
+}
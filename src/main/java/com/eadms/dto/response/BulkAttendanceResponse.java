@@ -0,0 +1,39 @@
+package com.eadms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkAttendanceResponse {
+    
+    private Long courseId;
+    private LocalDate attendanceDate;
+    private int created;
+    private int updated;
+    private int unchanged;
+    private int rejected;
+    private List<RowResult> results;
+    
+    public enum Outcome {
+        CREATED, UPDATED, UNCHANGED, REJECTED
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RowResult {
+        private Long studentId;
+        private String status;
+        private Outcome outcome;
+        private String message;
+    }
+}
@@ -0,0 +1,31 @@
+package com.eadms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkMarksImportResponse {
+    
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private List<RowError> errors;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RowError {
+        private int row;
+        private Long studentId;
+        private Long courseId;
+        private String message;
+    }
+}
@@ -0,0 +1,24 @@
+package com.eadms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsResponse {
+    
+    private String name;
+    private long size;
+    private long maxEntries;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    // Entries dropped to stay within maxEntries or past their time to live
+    private long evictions;
+    // Entries dropped because the underlying data changed, locally or on another instance
+    private long invalidations;
+}
@@ -0,0 +1,39 @@
+package com.eadms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseFinalizationResponse {
+    
+    private Long courseId;
+    private String courseCode;
+    private String gradingScale;
+    // Weights of the exam types that counted, normalized to sum to 1
+    private Map<String, Double> appliedWeights;
+    private int enrollmentsCompleted;
+    private Double averageFinalGrade;
+    // letter grade -> enrollments
+    private Map<String, Integer> letterGradeCounts;
+    private List<Result> results;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+        private Long enrollmentId;
+        private Long studentId;
+        private Double finalGrade;
+        private String letterGrade;
+        private Double gradePoints;
+    }
+}
@@ -0,0 +1,71 @@
+package com.eadms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Distribution of a course's percentage scores. The overall figures, histogram and rankings are over
+ * each student's course percentage (the mean of their marks); the exam type breakdown is over
+ * individual marks. Statistics are null while the course has no marks.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseGradeAnalyticsResponse {
+    
+    private Long courseId;
+    private String courseCode;
+    private String courseName;
+    private int markCount;
+    private int studentCount;
+    private Double mean;
+    private Double standardDeviation;
+    private Double min;
+    private Double lowerQuartile;
+    private Double median;
+    private Double upperQuartile;
+    private Double max;
+    private List<Bucket> histogram;
+    private List<StudentScore> top;
+    private List<StudentScore> bottom;
+    private List<ExamTypeStats> examTypes;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Bucket {
+        // Lower bound inclusive; upper bound exclusive except for the last bucket
+        private int from;
+        private int to;
+        private int count;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StudentScore {
+        private Long studentId;
+        private int markCount;
+        private double percentage;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ExamTypeStats {
+        private String examType;
+        private int count;
+        private double mean;
+        private double standardDeviation;
+        private double min;
+        private double max;
+    }
+}
@@ -0,0 +1,24 @@
+package com.eadms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stretch during which the room is free; any start inside it that leaves room for the requested
+ * duration is bookable.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FreeRoomSlotResponse {
+    
+    private String room;
+    private LocalDateTime freeFrom;
+    private LocalDateTime freeUntil;
+    private long freeMinutes;
+}
@@ -0,0 +1,34 @@
+package com.eadms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradingScaleResponse {
+    
+    private Long id;
+    // Null for the institution default, also when a course without an override asks for its scale
+    private Long courseId;
+    private String name;
+    // Ascending by minimum percentage
+    private List<Band> bands;
+    private Map<String, Double> examWeights;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Band {
+        private Double minPercentage;
+        private String letterGrade;
+        private Double gradePoints;
+    }
+}
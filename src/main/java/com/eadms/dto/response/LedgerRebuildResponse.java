@@ -0,0 +1,18 @@
+package com.eadms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerRebuildResponse {
+    
+    private long studentsScanned;
+    // Ledger rows inserted, changed or deleted because they disagreed with the enrollments
+    private long rowsCorrected;
+    private long durationMs;
+}
@@ -0,0 +1,28 @@
+package com.eadms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RiskFlagResponse {
+    
+    private Long id;
+    private Long studentId; // Database ID
+    private String studentCode; // Student ID like CSE-001
+    private String studentName;
+    private Long courseId;
+    private String courseCode;
+    private String courseName;
+    private String rule;
+    private Double metric;
+    private String detail;
+    private LocalDateTime firstDetectedAt;
+    private LocalDateTime detectedAt;
+}
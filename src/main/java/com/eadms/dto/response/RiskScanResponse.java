@@ -0,0 +1,22 @@
+package com.eadms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RiskScanResponse {
+    
+    private long coursesScanned;
+    private long enrollmentsScanned;
+    private long marksScanned;
+    // Flags raised by this run, new or confirmed again
+    private long flagsRaised;
+    // Flags of earlier runs this run no longer raised
+    private long flagsCleared;
+    private long durationMs;
+}
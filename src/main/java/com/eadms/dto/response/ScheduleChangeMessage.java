@@ -0,0 +1,38 @@
+package com.eadms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Schedule changes pushed over STOMP, coalesced per flush window. Clients refetch what they display;
+ * the message only says which schedules of which courses changed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduleChangeMessage {
+    
+    private List<Long> courseIds;
+    private List<Change> changes;
+    private LocalDateTime sentAt;
+    
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Change {
+        private Long scheduleId;
+        private Long courseId;
+        private ChangeType type;
+    }
+}
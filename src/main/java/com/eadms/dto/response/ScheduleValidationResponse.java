@@ -0,0 +1,56 @@
+package com.eadms.dto.response;
+
+import com.eadms.entity.Schedule;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduleValidationResponse {
+    
+    private int total;
+    private int valid;
+    private int conflicting;
+    private int invalid;
+    private List<RowResult> results;
+    
+    public enum Outcome {
+        VALID, CONFLICT, INVALID
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RowResult {
+        private int row;
+        private Outcome outcome;
+        private String message;
+        private List<ConflictDetail> conflicts;
+    }
+    
+    /**
+     * A clashing booking: either a stored schedule ({@code scheduleId}) or an earlier row of the same
+     * batch ({@code batchRow}).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ConflictDetail {
+        private String resource;
+        private Long scheduleId;
+        private Integer batchRow;
+        private LocalDateTime startDateTime;
+        private LocalDateTime endDateTime;
+        private Schedule.RecurrenceType recurrence;
+        private String room;
+    }
+}
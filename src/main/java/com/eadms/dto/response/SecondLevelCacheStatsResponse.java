@@ -0,0 +1,42 @@
+package com.eadms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Hibernate statistics since startup: database work alongside the second-level and query cache
+ * traffic that saved it, per cache region. The counters stay at zero unless statistics are enabled.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SecondLevelCacheStatsResponse {
+    
+    private boolean statisticsEnabled;
+    private long statementsPrepared;
+    private long queryExecutions;
+    private long entityLoads;
+    private long naturalIdQueryExecutions;
+    private long queryCacheHits;
+    private long queryCacheMisses;
+    private List<Region> regions;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Region {
+        private String name;
+        private long size;
+        private long maxEntries;
+        private long hits;
+        private long misses;
+        private long puts;
+        private double hitRate;
+    }
+}
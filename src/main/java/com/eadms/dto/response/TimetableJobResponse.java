@@ -0,0 +1,37 @@
+package com.eadms.dto.response;
+
+import com.eadms.dto.ScheduleDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Progress and outcome of a timetable generation job. {@code hardViolations} counts teacher, room and
+ * student clashes in the best timetable found so far; only a timetable without any can be applied.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimetableJobResponse {
+    
+    private String jobId;
+    private Status status;
+    private boolean dryRun;
+    private int sessions;
+    private long elapsedMs;
+    private long timeBudgetMs;
+    private long iterations;
+    private Integer hardViolations;
+    private Integer softPenalty;
+    private String message;
+    private List<Long> skippedCourseIds;
+    private List<ScheduleDTO> proposed;
+    
+    public enum Status {
+        RUNNING, PREVIEW, APPLIED, INFEASIBLE, FAILED
+    }
+}
@@ -6,6 +6,10 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
+@NamedEntityGraph(name = "Attendance.studentAndCourse", attributeNodes = {
+    @NamedAttributeNode("student"),
+    @NamedAttributeNode("course")
+})
 @Table(name = "attendance", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"student_id", "course_id", "attendanceDate"})
 })
@@ -16,11 +20,11 @@ import java.time.LocalDate;
 @Builder
 public class Attendance extends BaseEntity {
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id", nullable = false)
     private Student student;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
     
@@ -0,0 +1,51 @@
+package com.eadms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Attendance counters per status for one student in one course and term, so percentages and status
+ * breakdowns are read from a few rows instead of counting the attendance table. Attendance writes
+ * apply their change as a delta in the same transaction; see {@link com.eadms.repository.AttendanceRollupBulkRepository}.
+ */
+@Entity
+@Table(name = "attendance_rollup", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_attendance_rollup_term", columnNames = {"student_id", "course_id", "academic_year", "semester"})
+}, indexes = {
+    @Index(name = "idx_attendance_rollup_course", columnList = "course_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttendanceRollup extends BaseEntity {
+    
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+    
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+    
+    @Column(nullable = false)
+    private Integer academicYear;
+    
+    @Column(nullable = false)
+    private Integer semester;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long presentCount = 0L;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long absentCount = 0L;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long lateCount = 0L;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long excusedCount = 0L;
+}
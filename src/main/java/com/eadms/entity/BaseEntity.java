@@ -15,8 +15,10 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseEntity {
     
+    // One <entity>_seq sequence per entity, allocated 50 ids at a time (pooled-lo).
+    // IDENTITY columns would force Hibernate to disable JDBC insert batching.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
     
     @CreatedDate
@@ -2,11 +2,18 @@ package com.eadms.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(name = "Course.teachers", attributeNodes = @NamedAttributeNode("teachers"))
+@NamedEntityGraph(name = "Course.teachersWithUsers",
+        attributeNodes = @NamedAttributeNode(value = "teachers", subgraph = "teacher"),
+        subgraphs = @NamedSubgraph(name = "teacher", attributeNodes = @NamedAttributeNode("user")))
 @Table(name = "courses", indexes = {
     @Index(name = "idx_course_code", columnList = "courseCode")
 })
@@ -32,12 +39,13 @@ public class Course extends BaseEntity {
     @Column(length = 500)
     private String description;
     
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "course_teachers",
         joinColumns = @JoinColumn(name = "course_id"),
         inverseJoinColumns = @JoinColumn(name = "teacher_id")
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @Builder.Default
     private List<Teacher> teachers = new ArrayList<>();
     
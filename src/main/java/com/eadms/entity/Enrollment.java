@@ -6,6 +6,10 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
+@NamedEntityGraph(name = "Enrollment.studentAndCourse", attributeNodes = {
+    @NamedAttributeNode("student"),
+    @NamedAttributeNode("course")
+})
 @Table(name = "enrollments", indexes = {
     @Index(name = "idx_student_course", columnList = "student_id, course_id"),
     @Index(name = "idx_enrollment_status", columnList = "status")
@@ -19,11 +23,11 @@ import java.time.LocalDate;
 @Builder
 public class Enrollment extends BaseEntity {
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id", nullable = false)
     private Student student;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
     
@@ -45,7 +49,7 @@ public class Enrollment extends BaseEntity {
     // Final grade as percentage (0-100)
     private Double finalGrade;
     
-    // Letter grade (A+, A, B+, etc.)
+    // Letter grade (A+, A, B+, etc.) from the course's grading scale
     private String letterGrade;
     
     // Grade points (4.0 scale)
@@ -60,56 +64,4 @@ public class Enrollment extends BaseEntity {
         WITHDRAWN,   // Student withdrew from course
         FAILED       // Failed the course
     }
-    
-    /**
-     * Calculate grade points based on final grade percentage
-     */
-    public void calculateGradePoints() {
-        if (finalGrade == null) {
-            this.gradePoints = null;
-            this.letterGrade = null;
-            return;
-        }
-        
-        if (finalGrade >= 90) {
-            this.letterGrade = "A+";
-            this.gradePoints = 4.0;
-        } else if (finalGrade >= 85) {
-            this.letterGrade = "A";
-            this.gradePoints = 4.0;
-        } else if (finalGrade >= 80) {
-            this.letterGrade = "A-";
-            this.gradePoints = 3.7;
-        } else if (finalGrade >= 77) {
-            this.letterGrade = "B+";
-            this.gradePoints = 3.3;
-        } else if (finalGrade >= 73) {
-            this.letterGrade = "B";
-            this.gradePoints = 3.0;
-        } else if (finalGrade >= 70) {
-            this.letterGrade = "B-";
-            this.gradePoints = 2.7;
-        } else if (finalGrade >= 67) {
-            this.letterGrade = "C+";
-            this.gradePoints = 2.3;
-        } else if (finalGrade >= 63) {
-            this.letterGrade = "C";
-            this.gradePoints = 2.0;
-        } else if (finalGrade >= 60) {
-            this.letterGrade = "C-";
-            this.gradePoints = 1.7;
-        } else if (finalGrade >= 57) {
-            this.letterGrade = "D+";
-            this.gradePoints = 1.3;
-        } else if (finalGrade >= 53) {
-            this.letterGrade = "D";
-            this.gradePoints = 1.0;
-        } else if (finalGrade >= 50) {
-            this.letterGrade = "D-";
-            this.gradePoints = 0.7;
-        } else {
-            this.letterGrade = "F";
-            this.gradePoints = 0.0;
-        }
-    }
 }
@@ -0,0 +1,28 @@
+package com.eadms.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+/**
+ * One step of a {@link GradingScale}: final grades from {@code minPercentage} up to the next band's
+ * minimum earn this letter and these grade points.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeBand {
+    
+    @Column(nullable = false)
+    private Double minPercentage;
+    
+    @Column(nullable = false, length = 5)
+    private String letterGrade;
+    
+    // 4.0 scale
+    @Column(nullable = false)
+    private Double gradePoints;
+}
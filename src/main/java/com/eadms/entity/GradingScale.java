@@ -0,0 +1,47 @@
+package com.eadms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How final grades become letters and grade points, and how exam types weigh into a final grade.
+ * The scale without a course is the institution default; a course may override it with its own.
+ */
+@Entity
+@Table(name = "grading_scales", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_grading_scales_course", columnNames = {"course_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradingScale extends BaseEntity {
+    
+    // Null for the institution default
+    @Column(name = "course_id")
+    private Long courseId;
+    
+    @Column(nullable = false)
+    private String name;
+    
+    @ElementCollection
+    @CollectionTable(name = "grading_scale_bands", joinColumns = @JoinColumn(name = "grading_scale_id"))
+    @OrderBy("minPercentage")
+    @Builder.Default
+    private List<GradeBand> bands = new ArrayList<>();
+    
+    // Relative weights; exam types without a weight do not count towards the final grade
+    @ElementCollection
+    @CollectionTable(name = "grading_scale_weights", joinColumns = @JoinColumn(name = "grading_scale_id"))
+    @MapKeyEnumerated(EnumType.STRING)
+    @MapKeyColumn(name = "exam_type", length = 20)
+    @Column(name = "weight", nullable = false)
+    @Builder.Default
+    private Map<Marks.ExamType, Double> examWeights = new EnumMap<>(Marks.ExamType.class);
+}
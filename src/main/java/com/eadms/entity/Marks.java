@@ -6,6 +6,10 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
+@NamedEntityGraph(name = "Marks.studentAndCourse", attributeNodes = {
+    @NamedAttributeNode("student"),
+    @NamedAttributeNode("course")
+})
 @Table(name = "marks")
 @Getter
 @Setter
@@ -14,11 +18,11 @@ import java.time.LocalDate;
 @Builder
 public class Marks extends BaseEntity {
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id", nullable = false)
     private Student student;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
     
@@ -0,0 +1,51 @@
+package com.eadms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A risk rule that matched a student's active enrollment in a course on the latest detection run.
+ * Runs upsert the flags they raise and delete the ones they no longer raise, so {@code createdAt} is
+ * when the student was first flagged and {@code detectedAt} the run that last confirmed it.
+ */
+@Entity
+@Table(name = "risk_flags", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_risk_flags_rule", columnNames = {"student_id", "course_id", "rule"})
+}, indexes = {
+    @Index(name = "idx_risk_flags_course", columnList = "course_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RiskFlag extends BaseEntity {
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    private Student student;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", nullable = false)
+    private Course course;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Rule rule;
+    
+    // The measured value the rule tripped on, in the rule's unit
+    private Double metric;
+    
+    private String detail;
+    
+    @Column(nullable = false)
+    private LocalDateTime detectedAt;
+    
+    public enum Rule {
+        LOW_ATTENDANCE,   // Attendance percentage below the threshold
+        FALLING_MARKS,    // Mark percentages trending down from exam to exam
+        MISSING_EXAMS     // No mark for an exam type most of the course has taken
+    }
+}
@@ -8,6 +8,12 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
+// course.teachers is a bag: join-fetching it alongside several schedules of one course repeats its
+// elements, so it is left to batch fetching
+@NamedEntityGraph(name = "Schedule.courseAndTeachers", attributeNodes = {
+    @NamedAttributeNode("course"),
+    @NamedAttributeNode("teacher")
+})
 @Table(name = "schedules", indexes = {
     @Index(name = "idx_schedule_course", columnList = "course_id"),
     @Index(name = "idx_schedule_day", columnList = "day_of_week"),
@@ -21,11 +27,11 @@ import java.time.LocalTime;
 @Builder
 public class Schedule extends BaseEntity {
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "teacher_id", nullable = false)
     private Teacher teacher;
     
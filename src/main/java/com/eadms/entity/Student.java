@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = "Student.user", attributeNodes = @NamedAttributeNode("user"))
 @Table(name = "students", indexes = {
     @Index(name = "idx_student_id", columnList = "studentId")
 })
@@ -38,7 +39,7 @@ public class Student extends BaseEntity {
     
     private LocalDate dateOfBirth;
     
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
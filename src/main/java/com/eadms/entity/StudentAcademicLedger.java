@@ -0,0 +1,60 @@
+package com.eadms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Running GPA and credit totals of a student, one row per term plus one across all terms
+ * (academic year and semester {@value #ALL_TERMS}). Enrollment writes apply their change as a delta
+ * in the same transaction; the rebuild job recomputes rows from the enrollments.
+ */
+@Entity
+@Table(name = "student_academic_ledger", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_academic_ledger_term", columnNames = {"student_id", "academic_year", "semester"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentAcademicLedger extends BaseEntity {
+    
+    public static final int ALL_TERMS = 0;
+    
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+    
+    @Column(nullable = false)
+    private Integer academicYear;
+    
+    @Column(nullable = false)
+    private Integer semester;
+    
+    // Sum of grade points x course credits over completed, graded enrollments; exact, so deltas never drift
+    @Column(nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal weightedGradePoints = BigDecimal.ZERO;
+    
+    // Credits behind weightedGradePoints
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer gradedCredits = 0;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer completedCredits = 0;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer activeCredits = 0;
+    
+    public Double getGpa() {
+        if (gradedCredits == 0) {
+            return 0.0;
+        }
+        return weightedGradePoints.divide(BigDecimal.valueOf(gradedCredits), 4, RoundingMode.HALF_UP).doubleValue();
+    }
+}
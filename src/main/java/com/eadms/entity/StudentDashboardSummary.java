@@ -0,0 +1,55 @@
+package com.eadms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Denormalized read model behind the student dashboard.
+ * Attendance counters are maintained incrementally on attendance writes; everything
+ * else is recomputed lazily once a write marks the row stale. A write for a student
+ * without a row creates it stale.
+ */
+@Entity
+@Table(name = "student_dashboard_summary", indexes = {
+    @Index(name = "idx_dashboard_summary_student", columnList = "student_id", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentDashboardSummary extends BaseEntity {
+    
+    @Column(name = "student_id", nullable = false, unique = true)
+    private Long studentId;
+    
+    // Credit-weighted GPA from completed enrollments
+    private Double gpa;
+    
+    // Credits of active enrollments
+    private Integer totalCredits;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long attendancePresent = 0L;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long attendanceTotal = 0L;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long activeEnrollments = 0L;
+    
+    // Active courses with teacher names, serialized as the dashboard renders them
+    @Column(columnDefinition = "TEXT")
+    private String coursesJson;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean stale = false;
+    
+    public Double getAttendancePercentage() {
+        return attendanceTotal > 0 ? (double) attendancePresent / attendanceTotal * 100 : 0.0;
+    }
+}
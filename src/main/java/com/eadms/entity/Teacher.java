@@ -2,11 +2,15 @@ package com.eadms.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(name = "Teacher.user", attributeNodes = @NamedAttributeNode("user"))
 @Table(name = "teachers", indexes = {
     @Index(name = "idx_teacher_id", columnList = "teacherId")
 })
@@ -34,7 +38,7 @@ public class Teacher extends BaseEntity {
     
     private String contactNumber;
     
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
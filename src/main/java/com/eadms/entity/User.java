@@ -3,8 +3,14 @@ package com.eadms.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 @Table(name = "users", indexes = {
     @Index(name = "idx_email", columnList = "email")
 })
@@ -15,6 +21,8 @@ import lombok.*;
 @Builder
 public class User extends BaseEntity {
     
+    // Looked up on every login and by principals without id claims; see UserLookupRepository
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String email;
     
@@ -30,43 +38,7 @@ public class User extends BaseEntity {
     @Builder.Default
     private Boolean isActive = true;
     
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @JsonIgnore
-    private Student student;
-    
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @JsonIgnore
-    private Teacher teacher;
-    
     public enum Role {
         ADMIN, TEACHER, STUDENT
     }
-    
-    public String getFullName() {
-        try {
-            if (student != null) {
-                String firstName = student.getFirstName();
-                String lastName = student.getLastName();
-                if (firstName != null && lastName != null) {
-                    return firstName + " " + lastName;
-                }
-            } else if (teacher != null) {
-                String firstName = teacher.getFirstName();
-                String lastName = teacher.getLastName();
-                if (firstName != null && lastName != null) {
-                    return firstName + " " + lastName;
-                }
-            } else if (role == Role.ADMIN) {
-                // Return a proper name for admin users instead of email
-                return "System Administrator";
-            }
-        } catch (Exception e) {
-            // Handle lazy loading or deleted entity issues
-            if (role == Role.ADMIN) {
-                return "System Administrator";
-            }
-            return email;
-        }
-        return email; // Fallback for missing data
-    }
 }
@@ -0,0 +1,28 @@
+package com.eadms.repository;
+
+import com.eadms.entity.Attendance;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based attendance writes that bypass the entity lifecycle.
+ */
+public interface AttendanceBulkRepository {
+    
+    /**
+     * What a roster write found: the students whose row it created, and the status every other
+     * student's row had before it was overwritten, read under a row lock.
+     */
+    record RosterWrite(Set<Long> created, Map<Long, Attendance.Status> previous) {
+    }
+    
+    /**
+     * Insert or update one attendance row per student for a course and date, relying on the
+     * (student_id, course_id, attendance_date) unique constraint. Missing rows are inserted in one
+     * statement; existing rows are then locked and only those whose status differs are updated, so
+     * the returned prior statuses hold until the transaction ends.
+     */
+    RosterWrite upsertStatuses(Long courseId, LocalDate attendanceDate, Map<Long, Attendance.Status> statuses);
+}
@@ -0,0 +1,100 @@
+package com.eadms.repository;
+
+import com.eadms.entity.Attendance;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class AttendanceBulkRepositoryImpl implements AttendanceBulkRepository {
+    
+    // Ids come from the same sequence Hibernate uses; a conflicting row simply leaves its value unused.
+    // A row another transaction is inserting is waited for and then left alone, so RETURNING lists
+    // exactly the rows this statement created.
+    private static final String INSERT_MISSING_SQL =
+            "INSERT INTO attendance (id, student_id, course_id, attendance_date, status, created_at, updated_at) " +
+            "SELECT nextval('attendance_seq'), r.student_id, ?, ?, r.status, ?, ? " +
+            "FROM unnest(?::bigint[], ?::varchar[]) AS r(student_id, status) ORDER BY r.student_id " +
+            "ON CONFLICT (student_id, course_id, attendance_date) DO NOTHING " +
+            "RETURNING student_id";
+    
+    private static final String LOCK_EXISTING_SQL =
+            "SELECT student_id, status FROM attendance " +
+            "WHERE course_id = ? AND attendance_date = ? AND student_id = ANY (?) " +
+            "ORDER BY student_id FOR UPDATE";
+    
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE attendance SET status = ?, updated_at = ? " +
+            "WHERE course_id = ? AND attendance_date = ? AND student_id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public RosterWrite upsertStatuses(Long courseId, LocalDate attendanceDate, Map<Long, Attendance.Status> statuses) {
+        Set<Long> created = new HashSet<>();
+        Map<Long, Attendance.Status> previous = new HashMap<>();
+        if (statuses.isEmpty()) {
+            return new RosterWrite(created, previous);
+        }
+        
+        Date date = Date.valueOf(attendanceDate);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        
+        // Rows are inserted and locked in student order, so concurrent rosters cannot deadlock
+        Long[] studentIds = statuses.keySet().stream().sorted().toArray(Long[]::new);
+        String[] statusNames = new String[studentIds.length];
+        for (int i = 0; i < studentIds.length; i++) {
+            statusNames[i] = statuses.get(studentIds[i]).name();
+        }
+        created.addAll(jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_MISSING_SQL);
+            ps.setLong(1, courseId);
+            ps.setDate(2, date);
+            ps.setTimestamp(3, now);
+            ps.setTimestamp(4, now);
+            ps.setArray(5, connection.createArrayOf("bigint", studentIds));
+            ps.setArray(6, connection.createArrayOf("varchar", statusNames));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1)));
+        
+        Long[] existing = statuses.keySet().stream()
+                .filter(studentId -> !created.contains(studentId))
+                .sorted()
+                .toArray(Long[]::new);
+        if (existing.length == 0) {
+            return new RosterWrite(created, previous);
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOCK_EXISTING_SQL);
+            ps.setLong(1, courseId);
+            ps.setDate(2, date);
+            ps.setArray(3, connection.createArrayOf("bigint", existing));
+            return ps;
+        }, rs -> {
+            previous.put(rs.getLong(1), Attendance.Status.valueOf(rs.getString(2)));
+        });
+        
+        List<Object[]> batchArgs = new ArrayList<>();
+        previous.forEach((studentId, status) -> {
+            Attendance.Status requested = statuses.get(studentId);
+            if (requested != status) {
+                batchArgs.add(new Object[]{requested.name(), now, courseId, date, studentId});
+            }
+        });
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, batchArgs);
+        }
+        return new RosterWrite(created, previous);
+    }
+}
@@ -1,29 +1,79 @@
 package com.eadms.repository;
 
+import com.eadms.dto.projection.AttendanceMonthCounts;
+import com.eadms.dto.projection.AttendanceRow;
+import com.eadms.dto.projection.ResourceVersion;
 import com.eadms.entity.Attendance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
+public interface AttendanceRepository extends JpaRepository<Attendance, Long>, AttendanceBulkRepository {
     
+    @EntityGraph("Attendance.studentAndCourse")
     List<Attendance> findByStudentId(Long studentId);
     
+    @EntityGraph("Attendance.studentAndCourse")
     List<Attendance> findByCourseId(Long courseId);
     
-    List<Attendance> findByStudentIdAndCourseId(Long studentId, Long courseId);
-    
     Optional<Attendance> findByStudentIdAndCourseIdAndAttendanceDate(
         Long studentId, Long courseId, LocalDate attendanceDate
     );
     
+    // Listing rows straight into a record: no managed entities, no dirty-check snapshots
+    String ATTENDANCE_ROW_SELECT = "SELECT new com.eadms.dto.projection.AttendanceRow(a.id, s.id, s.firstName, s.lastName, " +
+            "c.id, c.courseName, a.attendanceDate, a.status) " +
+            "FROM Attendance a JOIN a.student s JOIN a.course c ";
+    
+    @Query(ATTENDANCE_ROW_SELECT + "WHERE c.id = :courseId ORDER BY a.id")
+    List<AttendanceRow> findRowsByCourseId(@Param("courseId") Long courseId);
+    
+    @Query(ATTENDANCE_ROW_SELECT + "WHERE s.id = :studentId ORDER BY a.id")
+    List<AttendanceRow> findRowsByStudentId(@Param("studentId") Long studentId);
+    
+    @Query("SELECT new com.eadms.dto.projection.ResourceVersion(COUNT(a), " +
+            "LISTAGG(a.id || ':' || COALESCE(CAST(a.updatedAt AS String), '') || ':' || " +
+            "COALESCE(CAST(s.updatedAt AS String), ''), ',') WITHIN GROUP (ORDER BY a.id)) " +
+            "FROM Attendance a JOIN a.student s WHERE a.course.id = :courseId")
+    ResourceVersion findVersionByCourseId(@Param("courseId") Long courseId);
+    
+    @Query("SELECT new com.eadms.dto.projection.ResourceVersion(COUNT(a), " +
+            "LISTAGG(a.id || ':' || COALESCE(CAST(a.updatedAt AS String), '') || ':' || " +
+            "COALESCE(CAST(c.updatedAt AS String), ''), ',') WITHIN GROUP (ORDER BY a.id)) " +
+            "FROM Attendance a JOIN a.course c WHERE a.student.id = :studentId")
+    ResourceVersion findVersionByStudentId(@Param("studentId") Long studentId);
+    
+    // Held while a status change is turned into rollup and dashboard deltas, so concurrent writers
+    // of one record apply their deltas one after the other from the status each actually replaced
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Attendance a WHERE a.id = :id")
+    Optional<Attendance> findByIdForUpdate(@Param("id") Long id);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Attendance a WHERE a.student.id = :studentId AND a.course.id = :courseId " +
+           "AND a.attendanceDate = :attendanceDate")
+    Optional<Attendance> findForUpdate(@Param("studentId") Long studentId,
+                                       @Param("courseId") Long courseId,
+                                       @Param("attendanceDate") LocalDate attendanceDate);
+    
+    // Per month rather than per term, so the term boundaries stay in AcademicTerms
+    @Query("SELECT new com.eadms.dto.projection.AttendanceMonthCounts(a.student.id, a.course.id, " +
+           "year(a.attendanceDate), month(a.attendanceDate), a.status, COUNT(a)) FROM Attendance a " +
+           "WHERE a.student.id IN :studentIds " +
+           "GROUP BY a.student.id, a.course.id, year(a.attendanceDate), month(a.attendanceDate), a.status")
+    List<AttendanceMonthCounts> findMonthCountsByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+    
     @Query("SELECT COUNT(a) FROM Attendance a WHERE a.student.id = :studentId AND a.status = 'PRESENT'")
     Long countPresentByStudentId(@Param("studentId") Long studentId);
     
@@ -0,0 +1,26 @@
+package com.eadms.repository;
+
+import java.util.Collection;
+
+/**
+ * Set-based attendance rollup writes that bypass the entity lifecycle.
+ */
+public interface AttendanceRollupBulkRepository {
+    
+    /**
+     * Change of the per-status counters of one (student, course, term) rollup row.
+     */
+    record Delta(Long studentId, Long courseId, int academicYear, int semester,
+                 long present, long absent, long late, long excused) {
+        
+        public boolean isZero() {
+            return present == 0 && absent == 0 && late == 0 && excused == 0;
+        }
+    }
+    
+    /**
+     * Add the deltas to their rollup rows in a single JDBC batch, creating missing rows, relying on
+     * the (student_id, course_id, academic_year, semester) unique constraint.
+     */
+    void applyDeltas(Collection<Delta> deltas);
+}
@@ -0,0 +1,50 @@
+package com.eadms.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class AttendanceRollupBulkRepositoryImpl implements AttendanceRollupBulkRepository {
+    
+    // A delta either creates the row with its own counts or adds them to the existing row, atomically
+    private static final String UPSERT_DELTA_SQL =
+            "INSERT INTO attendance_rollup (id, student_id, course_id, academic_year, semester, " +
+            "present_count, absent_count, late_count, excused_count, created_at, updated_at) " +
+            "VALUES (nextval('attendance_rollup_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (student_id, course_id, academic_year, semester) DO UPDATE SET " +
+            "present_count = attendance_rollup.present_count + EXCLUDED.present_count, " +
+            "absent_count = attendance_rollup.absent_count + EXCLUDED.absent_count, " +
+            "late_count = attendance_rollup.late_count + EXCLUDED.late_count, " +
+            "excused_count = attendance_rollup.excused_count + EXCLUDED.excused_count, " +
+            "updated_at = EXCLUDED.updated_at";
+    
+    // Rows are locked in key order, so concurrent roster writes cannot deadlock on each other
+    private static final Comparator<Delta> LOCK_ORDER = Comparator.comparing(Delta::studentId)
+            .thenComparing(Delta::courseId)
+            .thenComparingInt(Delta::academicYear)
+            .thenComparingInt(Delta::semester);
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void applyDeltas(Collection<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = deltas.stream()
+                .sorted(LOCK_ORDER)
+                .map(delta -> new Object[]{delta.studentId(), delta.courseId(), delta.academicYear(), delta.semester(),
+                        delta.present(), delta.absent(), delta.late(), delta.excused(), now, now})
+                .toList();
+        
+        jdbcTemplate.batchUpdate(UPSERT_DELTA_SQL, batchArgs);
+    }
+}
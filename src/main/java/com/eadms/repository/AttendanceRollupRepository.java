@@ -0,0 +1,42 @@
+package com.eadms.repository;
+
+import com.eadms.dto.projection.AttendanceCounts;
+import com.eadms.entity.AttendanceRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AttendanceRollupRepository extends JpaRepository<AttendanceRollup, Long>, AttendanceRollupBulkRepository {
+    
+    // Sums over terms; zeros rather than nulls when the student has no attendance yet
+    String COUNTS_SELECT = "SELECT new com.eadms.dto.projection.AttendanceCounts(" +
+            "COALESCE(SUM(r.presentCount), 0), COALESCE(SUM(r.absentCount), 0), " +
+            "COALESCE(SUM(r.lateCount), 0), COALESCE(SUM(r.excusedCount), 0)) FROM AttendanceRollup r ";
+    
+    @Query(COUNTS_SELECT + "WHERE r.studentId = :studentId")
+    AttendanceCounts findCountsByStudentId(@Param("studentId") Long studentId);
+    
+    @Query(COUNTS_SELECT + "WHERE r.studentId = :studentId AND r.courseId = :courseId")
+    AttendanceCounts findCountsByStudentIdAndCourseId(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+    
+    // Held by a rebuild so that attendance writes queue behind it instead of being overwritten
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM AttendanceRollup r WHERE r.studentId IN :studentIds")
+    List<AttendanceRollup> findForUpdateByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+    
+    @Modifying
+    @Query("DELETE FROM AttendanceRollup r WHERE r.studentId = :studentId")
+    void deleteByStudentId(@Param("studentId") Long studentId);
+    
+    @Modifying
+    @Query("DELETE FROM AttendanceRollup r WHERE r.courseId = :courseId")
+    void deleteByCourseId(@Param("courseId") Long courseId);
+}
@@ -1,25 +1,90 @@
 package com.eadms.repository;
 
+import com.eadms.dto.projection.RecipientRow;
+import com.eadms.dto.projection.ResourceVersion;
 import com.eadms.entity.Course;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
     
+    // Teacher names are part of every course response, so assigning or removing one touches the course
+    // One row per course and teacher, so the teacher ids are part of the fingerprint too
+    String VERSION_SELECT = "SELECT new com.eadms.dto.projection.ResourceVersion(COUNT(DISTINCT c), " +
+            "LISTAGG(c.id || ':' || COALESCE(CAST(c.updatedAt AS String), '') || ':' || " +
+            "COALESCE(CAST(t.id AS String), '') || ':' || COALESCE(CAST(t.updatedAt AS String), ''), ',') " +
+            "WITHIN GROUP (ORDER BY c.id, t.id)) FROM Course c LEFT JOIN c.teachers t ";
+    
+    @Override
+    @EntityGraph("Course.teachers")
+    List<Course> findAll();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Course> findByCourseCode(String courseCode);
     
-    @Query("SELECT c FROM Course c JOIN c.teachers t WHERE t.id = :teacherId")
+    @EntityGraph("Course.teachers")
+    @Query("SELECT c FROM Course c WHERE c.id IN (SELECT c2.id FROM Course c2 JOIN c2.teachers t WHERE t.id = :teacherId)")
     List<Course> findByTeacherId(Long teacherId);
     
+    @Query("SELECT c.id FROM Course c JOIN c.teachers t WHERE t.id = :teacherId ORDER BY c.id")
+    List<Long> findIdsByTeacherId(@Param("teacherId") Long teacherId);
+    
+    @EntityGraph("Course.teachers")
+    List<Course> findWithTeachersByIdIn(Collection<Long> ids);
+    
     List<Course> findBySemester(Integer semester);
     
     Boolean existsByCourseCode(String courseCode);
     
+    @Query("SELECT c.id FROM Course c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    // Serializes timetable saves that touch the same courses; rows are locked in id order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Course c WHERE c.id IN :ids ORDER BY c.id")
+    List<Course> findForUpdateByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT new com.eadms.dto.projection.RecipientRow(c.id, t.user.email) FROM Course c JOIN c.teachers t " +
+           "WHERE c.id IN :courseIds")
+    List<RecipientRow> findTeacherRecipients(@Param("courseIds") Collection<Long> courseIds);
+    
+    @Query("SELECT COUNT(c) > 0 FROM Course c JOIN c.teachers t WHERE c.id = :courseId AND t.user.email = :email")
+    boolean isTaughtBy(@Param("courseId") Long courseId, @Param("email") String email);
+    
+    @Query(VERSION_SELECT)
+    ResourceVersion findVersion();
+    
+    @Query(VERSION_SELECT + "WHERE c.id = :id")
+    ResourceVersion findVersionById(@Param("id") Long id);
+    
+    @Query(VERSION_SELECT + "WHERE c.id IN (SELECT c2.id FROM Course c2 JOIN c2.teachers t2 WHERE t2.id = :teacherId)")
+    ResourceVersion findVersionByTeacherId(@Param("teacherId") Long teacherId);
+    
+    // Bulk removals from course_teachers bypass the entities, so their courses are touched here instead
+    @Modifying
+    @Query("UPDATE Course c SET c.updatedAt = :now " +
+            "WHERE c.id IN (SELECT c2.id FROM Course c2 JOIN c2.teachers t WHERE t.id = :teacherId)")
+    int touchByTeacherId(@Param("teacherId") Long teacherId, @Param("now") LocalDateTime now);
+    
     @Query("SELECT COUNT(c) FROM Course c")
     Long countAllCourses();
+    
+    // Keyset page: rows after the cursor id, in id order (teachers are batch-fetched, not joined, so the limit stays in SQL)
+    List<Course> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 }
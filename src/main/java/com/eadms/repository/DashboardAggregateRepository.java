@@ -0,0 +1,28 @@
+package com.eadms.repository;
+
+import com.eadms.dto.projection.CourseDashboardAggregate;
+import com.eadms.entity.Course;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Read-only aggregate queries backing the dashboards.
+ * Each method answers for all requested courses in one statement, so the
+ * number of round trips does not grow with the number of courses.
+ */
+@Repository
+public interface DashboardAggregateRepository extends org.springframework.data.repository.Repository<Course, Long> {
+    
+    // Course details plus active enrollment and attendance counters (from the rollups) for every course of a teacher
+    @Query("SELECT new com.eadms.dto.projection.CourseDashboardAggregate(" +
+           "c.id, c.courseCode, c.courseName, c.semester, c.credits, c.description, " +
+           "(SELECT COUNT(e) FROM Enrollment e WHERE e.course.id = c.id AND e.status = 'ACTIVE'), " +
+           "(SELECT COALESCE(SUM(r.presentCount), 0) FROM AttendanceRollup r WHERE r.courseId = c.id), " +
+           "(SELECT COALESCE(SUM(r.presentCount + r.absentCount + r.lateCount + r.excusedCount), 0) " +
+           "FROM AttendanceRollup r WHERE r.courseId = c.id)) " +
+           "FROM Course c JOIN c.teachers t WHERE t.id = :teacherId ORDER BY c.id")
+    List<CourseDashboardAggregate> findCourseAggregatesByTeacherId(@Param("teacherId") Long teacherId);
+}
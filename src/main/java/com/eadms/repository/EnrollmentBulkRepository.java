@@ -0,0 +1,21 @@
+package com.eadms.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Set-based enrollment writes that bypass the entity lifecycle.
+ */
+public interface EnrollmentBulkRepository {
+    
+    record Completion(long enrollmentId, double finalGrade, String letterGrade, double gradePoints) {
+    }
+    
+    /**
+     * Grade and complete the given enrollments in JDBC batches within one transaction. Enrollments
+     * no longer active are left as they are.
+     *
+     * @return the number of enrollments completed
+     */
+    int completeAll(List<Completion> completions, LocalDate completionDate);
+}
@@ -0,0 +1,51 @@
+package com.eadms.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class EnrollmentBulkRepositoryImpl implements EnrollmentBulkRepository {
+    
+    private static final int BATCH_SIZE = 500;
+    
+    private static final String COMPLETE_SQL =
+            "UPDATE enrollments SET final_grade = ?, letter_grade = ?, grade_points = ?, status = 'COMPLETED', " +
+            "completion_date = ?, updated_at = ? WHERE id = ? AND status = 'ACTIVE'";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    @Transactional
+    public int completeAll(List<Completion> completions, LocalDate completionDate) {
+        if (completions.isEmpty()) {
+            return 0;
+        }
+        
+        Date completed = Date.valueOf(completionDate);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(COMPLETE_SQL, completions, BATCH_SIZE, (ps, completion) -> {
+            ps.setDouble(1, completion.finalGrade());
+            ps.setString(2, completion.letterGrade());
+            ps.setDouble(3, completion.gradePoints());
+            ps.setDate(4, completed);
+            ps.setTimestamp(5, now);
+            ps.setLong(6, completion.enrollmentId());
+        });
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Drivers that cannot tell report SUCCESS_NO_INFO (-2); count those as applied
+                updated += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+        }
+        return updated;
+    }
+}
@@ -1,26 +1,36 @@
 package com.eadms.repository;
 
+import com.eadms.dto.projection.ActiveEnrollment;
+import com.eadms.dto.projection.CourseOverlap;
+import com.eadms.dto.projection.LedgerTotals;
+import com.eadms.dto.projection.RecipientRow;
+import com.eadms.dto.projection.ResourceVersion;
 import com.eadms.entity.Enrollment;
 import com.eadms.entity.Course;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, EnrollmentBulkRepository {
     
     // Find all enrollments for a student
+    @EntityGraph("Enrollment.studentAndCourse")
     List<Enrollment> findByStudentId(Long studentId);
     
     // Find all enrollments for a course
+    @EntityGraph("Enrollment.studentAndCourse")
     List<Enrollment> findByCourseId(Long courseId);
     
     // Find active enrollments for a student
+    @EntityGraph("Enrollment.studentAndCourse")
     List<Enrollment> findByStudentIdAndStatus(Long studentId, Enrollment.EnrollmentStatus status);
     
     // Find enrollments for a student in a specific semester
@@ -41,9 +51,47 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     List<Course> findCoursesByStudentIdAndStatus(@Param("studentId") Long studentId, @Param("status") Enrollment.EnrollmentStatus status);
     
     // Get all courses a student is currently enrolled in (ACTIVE)
-    @Query("SELECT e.course FROM Enrollment e WHERE e.student.id = :studentId AND e.status = 'ACTIVE'")
+    // Teachers and their users come along because callers render them outside a transaction
+    @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.teachers t LEFT JOIN FETCH t.user " +
+           "WHERE c.id IN (SELECT e.course.id FROM Enrollment e WHERE e.student.id = :studentId AND e.status = 'ACTIVE')")
     List<Course> findActiveCoursesByStudentId(@Param("studentId") Long studentId);
     
+    // Every status: a status change touches the row, and completed enrollments feed the GPA
+    @Query("SELECT new com.eadms.dto.projection.ResourceVersion(COUNT(e), " +
+            "LISTAGG(e.id || ':' || COALESCE(CAST(e.updatedAt AS String), '') || ':' || " +
+            "COALESCE(CAST(c.updatedAt AS String), ''), ',') WITHIN GROUP (ORDER BY e.id)) " +
+            "FROM Enrollment e JOIN e.course c WHERE e.student.id = :studentId")
+    ResourceVersion findVersionByStudentId(@Param("studentId") Long studentId);
+    
+    @Query("SELECT e.course.id FROM Enrollment e WHERE e.student.id = :studentId AND e.status = 'ACTIVE'")
+    List<Long> findActiveCourseIdsByStudentId(@Param("studentId") Long studentId);
+    
+    @Query("SELECT new com.eadms.dto.projection.CourseOverlap(e1.course.id, e2.course.id, COUNT(e1)) " +
+           "FROM Enrollment e1, Enrollment e2 " +
+           "WHERE e1.student.id = e2.student.id AND e1.course.id < e2.course.id " +
+           "AND e1.status = 'ACTIVE' AND e2.status = 'ACTIVE' " +
+           "AND e1.course.id IN :courseIds AND e2.course.id IN :courseIds " +
+           "GROUP BY e1.course.id, e2.course.id")
+    List<CourseOverlap> findCourseOverlaps(@Param("courseIds") Collection<Long> courseIds);
+    
+    // Courses outside the set that share students with it and already have schedules; courseId is in the set
+    @Query("SELECT new com.eadms.dto.projection.CourseOverlap(e1.course.id, e2.course.id, COUNT(e1)) " +
+           "FROM Enrollment e1, Enrollment e2 " +
+           "WHERE e1.student.id = e2.student.id " +
+           "AND e1.status = 'ACTIVE' AND e2.status = 'ACTIVE' " +
+           "AND e1.course.id IN :courseIds AND e2.course.id NOT IN :courseIds " +
+           "AND e2.course.id IN (SELECT s.course.id FROM Schedule s) " +
+           "GROUP BY e1.course.id, e2.course.id")
+    List<CourseOverlap> findScheduledCourseOverlaps(@Param("courseIds") Collection<Long> courseIds);
+    
+    @Query("SELECT new com.eadms.dto.projection.RecipientRow(e.course.id, e.student.user.email) FROM Enrollment e " +
+           "WHERE e.course.id IN :courseIds AND e.status = 'ACTIVE'")
+    List<RecipientRow> findActiveStudentRecipients(@Param("courseIds") Collection<Long> courseIds);
+    
+    @Query("SELECT COUNT(e) > 0 FROM Enrollment e WHERE e.course.id = :courseId AND e.student.user.email = :email " +
+           "AND e.status = 'ACTIVE'")
+    boolean isActivelyEnrolled(@Param("courseId") Long courseId, @Param("email") String email);
+    
     // Count active enrollments for a student
     @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.student.id = :studentId AND e.status = 'ACTIVE'")
     Long countActiveEnrollmentsByStudentId(@Param("studentId") Long studentId);
@@ -52,13 +100,23 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.course.id = :courseId AND e.status = 'ACTIVE'")
     Long countActiveEnrollmentsByCourseId(@Param("courseId") Long courseId);
     
-    // Calculate total credits for active enrollments
-    @Query("SELECT COALESCE(SUM(e.course.credits), 0) FROM Enrollment e WHERE e.student.id = :studentId AND e.status = 'ACTIVE'")
-    Integer calculateTotalCreditsByStudentId(@Param("studentId") Long studentId);
-    
-    // Get completed enrollments with grades for GPA calculation
-    @Query("SELECT e FROM Enrollment e WHERE e.student.id = :studentId AND e.status = 'COMPLETED' AND e.gradePoints IS NOT NULL")
-    List<Enrollment> findCompletedEnrollmentsWithGrades(@Param("studentId") Long studentId);
+    // Academic ledger rows of the given students, per term, straight from the enrollments
+    @Query("SELECT new com.eadms.dto.projection.LedgerTotals(e.student.id, e.academicYear, e.semester, " +
+           "SUM(CASE WHEN e.status = 'COMPLETED' AND e.gradePoints IS NOT NULL THEN e.gradePoints * c.credits ELSE 0.0 END), " +
+           "SUM(CASE WHEN e.status = 'COMPLETED' AND e.gradePoints IS NOT NULL THEN c.credits ELSE 0 END), " +
+           "SUM(CASE WHEN e.status = 'COMPLETED' THEN c.credits ELSE 0 END), " +
+           "SUM(CASE WHEN e.status = 'ACTIVE' THEN c.credits ELSE 0 END)) " +
+           "FROM Enrollment e JOIN e.course c WHERE e.student.id IN :studentIds " +
+           "GROUP BY e.student.id, e.academicYear, e.semester")
+    List<LedgerTotals> findLedgerTotalsByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+    
+    // Every status: a course's credits count towards completed as well as active totals
+    @Query("SELECT DISTINCT e.student.id FROM Enrollment e WHERE e.course.id = :courseId")
+    List<Long> findStudentIdsByCourseId(@Param("courseId") Long courseId);
+    
+    @Query("SELECT new com.eadms.dto.projection.ActiveEnrollment(e.id, e.student.id) FROM Enrollment e " +
+           "WHERE e.course.id = :courseId AND e.status = 'ACTIVE' ORDER BY e.id")
+    List<ActiveEnrollment> findActiveByCourseId(@Param("courseId") Long courseId);
     
     // Get enrollment statistics by status
     @Query("SELECT e.status, COUNT(e) FROM Enrollment e WHERE e.student.id = :studentId GROUP BY e.status")
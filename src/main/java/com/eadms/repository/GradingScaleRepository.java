@@ -0,0 +1,17 @@
+package com.eadms.repository;
+
+import com.eadms.entity.GradingScale;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface GradingScaleRepository extends JpaRepository<GradingScale, Long> {
+    
+    @Query("SELECT s FROM GradingScale s WHERE s.courseId IS NULL")
+    Optional<GradingScale> findDefault();
+    
+    Optional<GradingScale> findByCourseId(Long courseId);
+}
@@ -0,0 +1,24 @@
+package com.eadms.repository;
+
+import com.eadms.dto.projection.CourseMarkScores;
+import com.eadms.dto.request.MarksEntryRequest;
+
+import java.util.List;
+
+/**
+ * Set-based marks writes that bypass the entity lifecycle, and reads that bypass the row mapping.
+ */
+public interface MarksBulkRepository {
+    
+    /**
+     * Insert already validated rows (ids resolved, exam type upper-cased) in JDBC batches
+     * within one transaction.
+     */
+    void insertAll(List<MarksEntryRequest> rows);
+    
+    /**
+     * The percentage score of every mark in the course, read straight into primitive arrays and
+     * ordered by student id.
+     */
+    CourseMarkScores findScoresByCourseId(Long courseId);
+}
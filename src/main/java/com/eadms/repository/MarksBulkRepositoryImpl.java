@@ -0,0 +1,84 @@
+package com.eadms.repository;
+
+import com.eadms.dto.projection.CourseMarkScores;
+import com.eadms.dto.request.MarksEntryRequest;
+import com.eadms.entity.Marks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class MarksBulkRepositoryImpl implements MarksBulkRepository {
+    
+    private static final int BATCH_SIZE = 500;
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO marks (id, student_id, course_id, exam_type, marks_obtained, max_marks, " +
+            "remarks, exam_date, created_at, updated_at) " +
+            "VALUES (nextval('marks_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String SCORES_SQL =
+            "SELECT student_id, exam_type, marks_obtained, max_marks FROM marks " +
+            "WHERE course_id = ? ORDER BY student_id, id";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    @Transactional
+    public void insertAll(List<MarksEntryRequest> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, row.getStudentId());
+            ps.setLong(2, row.getCourseId());
+            ps.setString(3, row.getExamType());
+            ps.setDouble(4, row.getMarksObtained());
+            ps.setDouble(5, row.getMaxMarks());
+            ps.setString(6, row.getRemarks());
+            ps.setDate(7, Date.valueOf(row.getExamDate()));
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+    }
+    
+    @Override
+    public CourseMarkScores findScoresByCourseId(Long courseId) {
+        ScoreColumns columns = new ScoreColumns();
+        jdbcTemplate.query(SCORES_SQL, rs -> {
+            double maxMarks = rs.getDouble(4);
+            columns.add(rs.getLong(1),
+                    Marks.ExamType.valueOf(rs.getString(2)).ordinal(),
+                    maxMarks == 0 ? 0.0 : rs.getDouble(3) / maxMarks * 100);
+        }, courseId);
+        return new CourseMarkScores(columns.size, columns.studentIds, columns.examTypes, columns.percentages);
+    }
+    
+    private static final class ScoreColumns {
+        private long[] studentIds = new long[256];
+        private byte[] examTypes = new byte[256];
+        private double[] percentages = new double[256];
+        private int size;
+        
+        void add(long studentId, int examType, double percentage) {
+            if (size == studentIds.length) {
+                int capacity = size * 2;
+                studentIds = Arrays.copyOf(studentIds, capacity);
+                examTypes = Arrays.copyOf(examTypes, capacity);
+                percentages = Arrays.copyOf(percentages, capacity);
+            }
+            studentIds[size] = studentId;
+            examTypes[size] = (byte) examType;
+            percentages[size] = percentage;
+            size++;
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.eadms.repository;
 
+import com.eadms.dto.projection.ExamComponentScore;
+import com.eadms.dto.projection.MarksRow;
+import com.eadms.dto.projection.RecentMarkView;
+import com.eadms.dto.projection.ResourceVersion;
 import com.eadms.entity.Course;
 import com.eadms.entity.Marks;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -11,26 +17,69 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface MarksRepository extends JpaRepository<Marks, Long> {
+public interface MarksRepository extends JpaRepository<Marks, Long>, MarksBulkRepository {
     
-    @Query("SELECT m FROM Marks m JOIN FETCH m.student JOIN FETCH m.course WHERE m.student.id = :studentId")
+    @EntityGraph("Marks.studentAndCourse")
+    @Query("SELECT m FROM Marks m WHERE m.student.id = :studentId")
     List<Marks> findByStudentId(@Param("studentId") Long studentId);
     
-    @Query("SELECT m FROM Marks m JOIN FETCH m.student JOIN FETCH m.course WHERE m.course.id = :courseId")
+    @EntityGraph("Marks.studentAndCourse")
+    @Query("SELECT m FROM Marks m WHERE m.course.id = :courseId")
     List<Marks> findByCourseId(@Param("courseId") Long courseId);
     
-    @Query("SELECT m FROM Marks m JOIN FETCH m.student JOIN FETCH m.course WHERE m.student.id = :studentId AND m.course.id = :courseId")
+    @EntityGraph("Marks.studentAndCourse")
+    @Query("SELECT m FROM Marks m WHERE m.student.id = :studentId AND m.course.id = :courseId")
     List<Marks> findByStudentIdAndCourseId(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
     
+    // Listing rows straight into a record: no managed entities, no dirty-check snapshots
+    String MARKS_ROW_SELECT = "SELECT new com.eadms.dto.projection.MarksRow(m.id, s.id, s.studentId, s.firstName, s.lastName, " +
+            "c.id, c.courseCode, c.courseName, m.examType, m.marksObtained, m.maxMarks, m.remarks, m.examDate) " +
+            "FROM Marks m JOIN m.student s JOIN m.course c ";
+    
+    @Query(MARKS_ROW_SELECT + "WHERE c.id = :courseId ORDER BY m.id")
+    List<MarksRow> findRowsByCourseId(@Param("courseId") Long courseId);
+    
+    @Query(MARKS_ROW_SELECT + "WHERE s.id = :studentId ORDER BY m.id")
+    List<MarksRow> findRowsByStudentId(@Param("studentId") Long studentId);
+    
+    @Query("SELECT new com.eadms.dto.projection.ResourceVersion(COUNT(m), " +
+            "LISTAGG(m.id || ':' || COALESCE(CAST(m.updatedAt AS String), '') || ':' || " +
+            "COALESCE(CAST(s.updatedAt AS String), ''), ',') WITHIN GROUP (ORDER BY m.id)) " +
+            "FROM Marks m JOIN m.student s WHERE m.course.id = :courseId")
+    ResourceVersion findVersionByCourseId(@Param("courseId") Long courseId);
+    
+    @Query("SELECT new com.eadms.dto.projection.ResourceVersion(COUNT(m), " +
+            "LISTAGG(m.id || ':' || COALESCE(CAST(m.updatedAt AS String), '') || ':' || " +
+            "COALESCE(CAST(c.updatedAt AS String), ''), ',') WITHIN GROUP (ORDER BY m.id)) " +
+            "FROM Marks m JOIN m.course c WHERE m.student.id = :studentId")
+    ResourceVersion findVersionByStudentId(@Param("studentId") Long studentId);
+    
+    // One row per active enrollment and exam type: the components a final grade is weighted from. Only
+    // exams dated in the enrollment's term count, with the term boundaries of AcademicTerms
+    @Query("SELECT new com.eadms.dto.projection.ExamComponentScore(e.id, m.examType, SUM(m.marksObtained), SUM(m.maxMarks)) " +
+            "FROM Marks m, Enrollment e WHERE e.course.id = :courseId AND e.status = 'ACTIVE' " +
+            "AND m.course.id = e.course.id AND m.student.id = e.student.id " +
+            "AND year(m.examDate) = e.academicYear " +
+            "AND (CASE WHEN month(m.examDate) < 7 THEN 1 ELSE 2 END) = e.semester " +
+            "GROUP BY e.id, m.examType")
+    List<ExamComponentScore> findActiveComponentScoresByCourseId(@Param("courseId") Long courseId);
+    
     @Query("SELECT AVG(m.marksObtained) FROM Marks m WHERE m.course.id = :courseId")
     Double findAverageMarksByCourseId(@Param("courseId") Long courseId);
     
     @Query("SELECT AVG(m.marksObtained / m.maxMarks * 100) FROM Marks m WHERE m.student.id = :studentId")
     Double findAveragePercentageByStudentId(@Param("studentId") Long studentId);
     
-    @Query("SELECT m FROM Marks m JOIN FETCH m.student JOIN FETCH m.course WHERE m.student.id = :studentId ORDER BY m.examDate DESC")
+    @EntityGraph("Marks.studentAndCourse")
+    @Query("SELECT m FROM Marks m WHERE m.student.id = :studentId ORDER BY m.examDate DESC")
     List<Marks> findRecentMarksByStudentId(@Param("studentId") Long studentId);
     
+    // Bounded recent marks as a flat projection; page size caps the rows fetched
+    @Query("SELECT new com.eadms.dto.projection.RecentMarkView(m.id, m.examType, m.marksObtained, m.maxMarks, m.examDate, " +
+           "c.id, c.courseCode, c.courseName) FROM Marks m JOIN m.course c WHERE m.student.id = :studentId " +
+           "ORDER BY m.examDate DESC, m.id DESC")
+    List<RecentMarkView> findRecentMarkViewsByStudentId(@Param("studentId") Long studentId, Pageable pageable);
+    
     @Query("SELECT DISTINCT m.course FROM Marks m WHERE m.student.id = :studentId")
     List<Course> findDistinctCoursesByStudentId(@Param("studentId") Long studentId);
     
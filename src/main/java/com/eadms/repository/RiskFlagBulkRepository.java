@@ -0,0 +1,53 @@
+package com.eadms.repository;
+
+import com.eadms.entity.RiskFlag;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The risk detection scan and its set-based flag writes, bypassing the entity lifecycle.
+ */
+public interface RiskFlagBulkRepository {
+    
+    /**
+     * Receives the scan one row at a time, as primitives.
+     */
+    interface ScanHandler {
+        
+        /**
+         * One mark of an active enrollment, or the enrollment alone ({@code examType < 0}) when it
+         * has no marks. Rows come ordered by course, then student, then exam date.
+         *
+         * @param present  attendance records marked present, over all terms
+         * @param sessions attendance records of any status, over all terms
+         * @param examType {@code Marks.ExamType} ordinal
+         */
+        void onRow(long courseId, long studentId, long present, long sessions, int examType, double percentage);
+    }
+    
+    /**
+     * A flag raised by a run for one student of the course being written.
+     */
+    record Flag(long studentId, RiskFlag.Rule rule, double metric, String detail) {
+    }
+    
+    /**
+     * Stream every active enrollment with its attendance totals and marks through a database cursor,
+     * so the scan holds one fetch of rows in memory rather than the tables.
+     */
+    void scanActiveEnrollments(ScanHandler handler);
+    
+    /**
+     * Upsert the course's flags as detected at {@code detectedAt}, then delete the course's flags
+     * from earlier runs that were not raised again, in one transaction.
+     *
+     * @return flags deleted
+     */
+    int replaceCourseFlags(long courseId, List<Flag> flags, LocalDateTime detectedAt);
+    
+    /**
+     * Delete flags not raised since {@code detectedAt}, left on courses the run no longer visited.
+     */
+    int deleteDetectedBefore(LocalDateTime detectedAt);
+}
@@ -0,0 +1,87 @@
+package com.eadms.repository;
+
+import com.eadms.entity.Marks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class RiskFlagBulkRepositoryImpl implements RiskFlagBulkRepository {
+    
+    private static final int FETCH_SIZE = 1000;
+    
+    // Attendance comes from the rollups; a student enrolled in the course in several terms is scanned once
+    private static final String SCAN_SQL =
+            "SELECT e.course_id, e.student_id, COALESCE(a.present, 0), COALESCE(a.sessions, 0), " +
+            "m.exam_type, m.marks_obtained, m.max_marks " +
+            "FROM (SELECT DISTINCT course_id, student_id FROM enrollments WHERE status = 'ACTIVE') e " +
+            "LEFT JOIN (SELECT course_id, student_id, SUM(present_count) AS present, " +
+            "SUM(present_count + absent_count + late_count + excused_count) AS sessions " +
+            "FROM attendance_rollup GROUP BY course_id, student_id) a " +
+            "ON a.course_id = e.course_id AND a.student_id = e.student_id " +
+            "LEFT JOIN marks m ON m.course_id = e.course_id AND m.student_id = e.student_id " +
+            "ORDER BY e.course_id, e.student_id, m.exam_date, m.id";
+    
+    private static final String UPSERT_SQL =
+            "INSERT INTO risk_flags (id, student_id, course_id, rule, metric, detail, detected_at, created_at, updated_at) " +
+            "VALUES (nextval('risk_flags_seq'), ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (student_id, course_id, rule) DO UPDATE SET " +
+            "metric = EXCLUDED.metric, detail = EXCLUDED.detail, " +
+            "detected_at = EXCLUDED.detected_at, updated_at = EXCLUDED.updated_at";
+    
+    private static final String DELETE_STALE_COURSE_SQL =
+            "DELETE FROM risk_flags WHERE course_id = ? AND detected_at < ?";
+    
+    private static final String DELETE_STALE_SQL =
+            "DELETE FROM risk_flags WHERE detected_at < ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    // Read-only transaction: PostgreSQL only honours the fetch size with autocommit off
+    @Override
+    @Transactional(readOnly = true)
+    public void scanActiveEnrollments(ScanHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SCAN_SQL);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            String examType = rs.getString(5);
+            double maxMarks = rs.getDouble(7);
+            handler.onRow(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4),
+                    examType == null ? -1 : Marks.ExamType.valueOf(examType).ordinal(),
+                    maxMarks == 0 ? 0.0 : rs.getDouble(6) / maxMarks * 100);
+        });
+    }
+    
+    @Override
+    @Transactional
+    public int replaceCourseFlags(long courseId, List<Flag> flags, LocalDateTime detectedAt) {
+        Timestamp detected = Timestamp.valueOf(detectedAt);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (!flags.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, flags, flags.size(), (ps, flag) -> {
+                ps.setLong(1, flag.studentId());
+                ps.setLong(2, courseId);
+                ps.setString(3, flag.rule().name());
+                ps.setDouble(4, flag.metric());
+                ps.setString(5, flag.detail());
+                ps.setTimestamp(6, detected);
+                ps.setTimestamp(7, now);
+                ps.setTimestamp(8, now);
+            });
+        }
+        return jdbcTemplate.update(DELETE_STALE_COURSE_SQL, courseId, detected);
+    }
+    
+    @Override
+    @Transactional
+    public int deleteDetectedBefore(LocalDateTime detectedAt) {
+        return jdbcTemplate.update(DELETE_STALE_SQL, Timestamp.valueOf(detectedAt));
+    }
+}
@@ -0,0 +1,44 @@
+package com.eadms.repository;
+
+import com.eadms.entity.RiskFlag;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RiskFlagRepository extends JpaRepository<RiskFlag, Long>, RiskFlagBulkRepository {
+    
+    // Null filters match everything
+    String FILTERS = "f.id > :afterId AND (:courseId IS NULL OR f.course.id = :courseId) " +
+            "AND (:studentId IS NULL OR f.student.id = :studentId) AND (:rule IS NULL OR f.rule = :rule) ";
+    
+    // Keyset page: rows after the cursor id, in id order (student and course are batch-fetched so the limit stays in SQL)
+    @Query("SELECT f FROM RiskFlag f WHERE " + FILTERS + "ORDER BY f.id")
+    List<RiskFlag> findPage(@Param("afterId") Long afterId,
+                            @Param("courseId") Long courseId,
+                            @Param("studentId") Long studentId,
+                            @Param("rule") RiskFlag.Rule rule,
+                            Limit limit);
+    
+    @Query("SELECT f FROM RiskFlag f WHERE " + FILTERS +
+           "AND f.course.id IN (SELECT c.id FROM Course c JOIN c.teachers t WHERE t.id = :teacherId) ORDER BY f.id")
+    List<RiskFlag> findPageForTeacher(@Param("teacherId") Long teacherId,
+                                      @Param("afterId") Long afterId,
+                                      @Param("courseId") Long courseId,
+                                      @Param("studentId") Long studentId,
+                                      @Param("rule") RiskFlag.Rule rule,
+                                      Limit limit);
+    
+    @Modifying
+    @Query("DELETE FROM RiskFlag f WHERE f.student.id = :studentId")
+    void deleteByStudentId(@Param("studentId") Long studentId);
+    
+    @Modifying
+    @Query("DELETE FROM RiskFlag f WHERE f.course.id = :courseId")
+    void deleteByCourseId(@Param("courseId") Long courseId);
+}
@@ -1,33 +1,107 @@
 package com.eadms.repository;
 
+import com.eadms.dto.projection.ScheduleFeedRow;
+import com.eadms.dto.projection.ScheduleFeedVersion;
+import com.eadms.dto.projection.ScheduleSlot;
 import com.eadms.entity.Schedule;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
     
+    String FEED_ROW_SELECT = "SELECT new com.eadms.dto.projection.ScheduleFeedRow(s.id, s.title, s.description, " +
+            "COALESCE(s.location, s.roomNumber), s.startDateTime, s.endDateTime, s.recurrence, " +
+            "c.courseCode, c.courseName, s.updatedAt) FROM Schedule s JOIN s.course c ";
+    
+    // Every row's id and timestamps in id order, so any row entering, leaving or changing alters the string
+    String FEED_VERSION_ROWS = "SELECT new com.eadms.dto.projection.ScheduleFeedVersion(COUNT(s), " +
+            "LISTAGG(s.id || ':' || COALESCE(CAST(s.updatedAt AS String), '') || ':' || " +
+            "COALESCE(CAST(c.updatedAt AS String), ''), ',') WITHIN GROUP (ORDER BY s.id), ";
+    
+    String FEED_VERSION_FROM = ") FROM Schedule s JOIN s.course c ";
+    
+    String TEACHER_FEED_FILTER = "WHERE s.teacher.id = :teacherId " +
+            "OR c.id IN (SELECT tc.id FROM Course tc JOIN tc.teachers t WHERE t.id = :teacherId)";
+    
+    String STUDENT_FEED_FILTER = "WHERE c.id IN " +
+            "(SELECT e.course.id FROM Enrollment e WHERE e.student.id = :studentId AND e.status = 'ACTIVE')";
+    
+    @Override
+    @EntityGraph("Schedule.courseAndTeachers")
+    List<Schedule> findAll();
+    
+    @EntityGraph("Schedule.courseAndTeachers")
     List<Schedule> findByCourseId(Long courseId);
     
+    @EntityGraph("Schedule.courseAndTeachers")
     List<Schedule> findByDayOfWeek(DayOfWeek dayOfWeek);
     
+    @EntityGraph("Schedule.courseAndTeachers")
     @Query("SELECT s FROM Schedule s JOIN s.course c JOIN c.teachers t WHERE t.id = :teacherId ORDER BY s.dayOfWeek, s.startTime")
     List<Schedule> findByTeacherId(@Param("teacherId") Long teacherId);
     
-    @Query("SELECT DISTINCT s FROM Schedule s " +
-           "JOIN s.course c " +
-           "JOIN Marks m ON m.course.id = c.id " +
-           "WHERE m.student.id = :studentId " +
-           "ORDER BY s.dayOfWeek, s.startTime")
-    List<Schedule> findByStudentId(@Param("studentId") Long studentId);
-    
+    @EntityGraph("Schedule.courseAndTeachers")
     @Query("SELECT s FROM Schedule s WHERE s.course.id IN :courseIds ORDER BY s.dayOfWeek, s.startTime")
     List<Schedule> findByCourseIdIn(@Param("courseIds") List<Long> courseIds);
+    
+    // Range candidates: one-off rows overlapping the window, plus WEEKLY series that start before it ends
+    @EntityGraph("Schedule.courseAndTeachers")
+    @Query("SELECT s FROM Schedule s " +
+           "WHERE s.startDateTime < :windowEnd " +
+           "AND (s.recurrence = 'WEEKLY' OR s.endDateTime > :windowStart) " +
+           "AND (s.teacher.id = :teacherId " +
+           "OR s.course.id IN (SELECT c.id FROM Course c JOIN c.teachers t WHERE t.id = :teacherId))")
+    List<Schedule> findTeacherCandidatesInRange(@Param("teacherId") Long teacherId,
+                                                @Param("windowStart") LocalDateTime windowStart,
+                                                @Param("windowEnd") LocalDateTime windowEnd);
+    
+    @EntityGraph("Schedule.courseAndTeachers")
+    @Query("SELECT s FROM Schedule s " +
+           "WHERE s.startDateTime < :windowEnd " +
+           "AND (s.recurrence = 'WEEKLY' OR s.endDateTime > :windowStart) " +
+           "AND s.course.id IN (SELECT e.course.id FROM Enrollment e WHERE e.student.id = :studentId AND e.status = 'ACTIVE')")
+    List<Schedule> findStudentCandidatesInRange(@Param("studentId") Long studentId,
+                                                @Param("windowStart") LocalDateTime windowStart,
+                                                @Param("windowEnd") LocalDateTime windowEnd);
+    
+    @Query("SELECT new com.eadms.dto.projection.ScheduleSlot(s.id, s.course.id, s.teacher.id, " +
+           "COALESCE(s.location, s.roomNumber), s.startDateTime, s.endDateTime, s.recurrence) FROM Schedule s")
+    List<ScheduleSlot> findAllSlots();
+    
+    @Query("SELECT new com.eadms.dto.projection.ScheduleSlot(s.id, s.course.id, s.teacher.id, " +
+           "COALESCE(s.location, s.roomNumber), s.startDateTime, s.endDateTime, s.recurrence) FROM Schedule s " +
+           "WHERE s.course.id IN :courseIds")
+    List<ScheduleSlot> findSlotsByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+    
+    @Query(FEED_ROW_SELECT + TEACHER_FEED_FILTER + " ORDER BY s.startDateTime")
+    List<ScheduleFeedRow> findFeedRowsByTeacherId(@Param("teacherId") Long teacherId);
+    
+    @Query(FEED_ROW_SELECT + STUDENT_FEED_FILTER + " ORDER BY s.startDateTime")
+    List<ScheduleFeedRow> findFeedRowsByStudentId(@Param("studentId") Long studentId);
+    
+    @Query(FEED_VERSION_ROWS + "(SELECT t.updatedAt FROM Teacher t WHERE t.id = :teacherId)" +
+            FEED_VERSION_FROM + TEACHER_FEED_FILTER)
+    ScheduleFeedVersion findFeedVersionByTeacherId(@Param("teacherId") Long teacherId);
+    
+    @Query(FEED_VERSION_ROWS + "(SELECT st.updatedAt FROM Student st WHERE st.id = :studentId)" +
+            FEED_VERSION_FROM + STUDENT_FEED_FILTER)
+    ScheduleFeedVersion findFeedVersionByStudentId(@Param("studentId") Long studentId);
+    
+    @Query("SELECT DISTINCT s.course.id FROM Schedule s WHERE s.course.id IN :courseIds")
+    List<Long> findScheduledCourseIds(@Param("courseIds") Collection<Long> courseIds);
     // --- Missing method for compilation ---
     void deleteByTeacherId(Long teacherId);
+    
+    // Keyset page: rows after the cursor id, in id order (associations are batch-fetched so the limit stays in SQL)
+    List<Schedule> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 }
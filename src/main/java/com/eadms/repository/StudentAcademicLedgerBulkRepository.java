@@ -0,0 +1,16 @@
+package com.eadms.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Academic ledger writes that bypass the entity lifecycle.
+ */
+public interface StudentAcademicLedgerBulkRepository {
+    
+    /**
+     * Add an enrollment change to one ledger row in a single statement, creating the row if it is
+     * missing, relying on the (student_id, academic_year, semester) unique constraint.
+     */
+    void applyDelta(Long studentId, Integer academicYear, Integer semester, BigDecimal weightedGradePoints,
+                    int gradedCredits, int completedCredits, int activeCredits);
+}
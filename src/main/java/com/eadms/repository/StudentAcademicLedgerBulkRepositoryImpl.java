@@ -0,0 +1,35 @@
+package com.eadms.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class StudentAcademicLedgerBulkRepositoryImpl implements StudentAcademicLedgerBulkRepository {
+    
+    private static final String APPLY_DELTA_SQL =
+            "INSERT INTO student_academic_ledger (id, student_id, academic_year, semester, weighted_grade_points, " +
+            "graded_credits, completed_credits, active_credits, created_at, updated_at) " +
+            "VALUES (nextval('student_academic_ledger_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (student_id, academic_year, semester) DO UPDATE SET " +
+            "weighted_grade_points = student_academic_ledger.weighted_grade_points + EXCLUDED.weighted_grade_points, " +
+            "graded_credits = student_academic_ledger.graded_credits + EXCLUDED.graded_credits, " +
+            "completed_credits = student_academic_ledger.completed_credits + EXCLUDED.completed_credits, " +
+            "active_credits = student_academic_ledger.active_credits + EXCLUDED.active_credits, " +
+            "updated_at = EXCLUDED.updated_at";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    @Transactional
+    public void applyDelta(Long studentId, Integer academicYear, Integer semester, BigDecimal weightedGradePoints,
+                           int gradedCredits, int completedCredits, int activeCredits) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(APPLY_DELTA_SQL, studentId, academicYear, semester, weightedGradePoints,
+                gradedCredits, completedCredits, activeCredits, now, now);
+    }
+}
@@ -0,0 +1,29 @@
+package com.eadms.repository;
+
+import com.eadms.entity.StudentAcademicLedger;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StudentAcademicLedgerRepository extends JpaRepository<StudentAcademicLedger, Long>, StudentAcademicLedgerBulkRepository {
+    
+    Optional<StudentAcademicLedger> findByStudentIdAndAcademicYearAndSemester(Long studentId, Integer academicYear, Integer semester);
+    
+    // Held by a rebuild so that enrollment writes queue behind it instead of being overwritten
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM StudentAcademicLedger l WHERE l.studentId IN :studentIds")
+    List<StudentAcademicLedger> findForUpdateByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+    
+    @Modifying
+    @Query("DELETE FROM StudentAcademicLedger l WHERE l.studentId = :studentId")
+    void deleteByStudentId(@Param("studentId") Long studentId);
+}
@@ -0,0 +1,45 @@
+package com.eadms.repository;
+
+import com.eadms.entity.StudentDashboardSummary;
+
+import java.util.Collection;
+
+/**
+ * Dashboard summary writes that bypass the entity lifecycle. Every write takes the student's row
+ * lock, creating an empty stale row when the student has none yet, so a refresh holding that lock
+ * and a concurrent attendance or enrollment write are always ordered one after the other.
+ */
+public interface StudentDashboardSummaryBulkRepository {
+    
+    /**
+     * Lock the student's row until the transaction ends, creating it stale if missing. A refresh
+     * takes this lock before reading the source tables, so writes that commit before it are read
+     * and writes that come after it wait and apply on top of the refreshed row.
+     */
+    void lockForRefresh(Long studentId);
+    
+    /**
+     * Write a freshly computed summary as the student's row, inserting or overwriting it in one
+     * statement on the student_id unique index. Callers hold the row lock from {@link #lockForRefresh}.
+     */
+    void upsert(StudentDashboardSummary summary);
+    
+    /**
+     * Apply an attendance change to the counters without recomputing the summary.
+     */
+    void applyAttendanceDelta(Long studentId, long presentDelta, long totalDelta);
+    
+    void markStale(Long studentId);
+    
+    void markStaleByStudentIds(Collection<Long> studentIds);
+    
+    /**
+     * Students enrolled in a course whose details or teachers changed.
+     */
+    void markStaleByCourseId(Long courseId);
+    
+    /**
+     * Students enrolled in any course taught by a teacher whose details changed.
+     */
+    void markStaleByTeacherId(Long teacherId);
+}
@@ -0,0 +1,142 @@
+package com.eadms.repository;
+
+import com.eadms.entity.StudentDashboardSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class StudentDashboardSummaryBulkRepositoryImpl implements StudentDashboardSummaryBulkRepository {
+    
+    // An empty stale row, recomputed by the next dashboard load
+    private static final String INSERT_STALE =
+            "INSERT INTO student_dashboard_summary (id, student_id, attendance_present, attendance_total, " +
+            "active_enrollments, stale, created_at, updated_at) ";
+    
+    private static final String STALE_VALUES = "VALUES (nextval('student_dashboard_summary_seq'), ?, 0, 0, 0, true, ?, ?) ";
+    
+    private static final String STALE_SELECT = "SELECT nextval('student_dashboard_summary_seq'), s.student_id, 0, 0, 0, true, ?, ? ";
+    
+    // A no-op update still locks an existing row
+    private static final String LOCK_SQL =
+            INSERT_STALE + STALE_VALUES +
+            "ON CONFLICT (student_id) DO UPDATE SET stale = student_dashboard_summary.stale";
+    
+    private static final String UPSERT_SQL =
+            "INSERT INTO student_dashboard_summary (id, student_id, gpa, total_credits, attendance_present, " +
+            "attendance_total, active_enrollments, courses_json, stale, created_at, updated_at) " +
+            "VALUES (nextval('student_dashboard_summary_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (student_id) DO UPDATE SET " +
+            "gpa = EXCLUDED.gpa, " +
+            "total_credits = EXCLUDED.total_credits, " +
+            "attendance_present = EXCLUDED.attendance_present, " +
+            "attendance_total = EXCLUDED.attendance_total, " +
+            "active_enrollments = EXCLUDED.active_enrollments, " +
+            "courses_json = EXCLUDED.courses_json, " +
+            "stale = EXCLUDED.stale, " +
+            "updated_at = EXCLUDED.updated_at";
+    
+    // A new row is stale anyway, so only an existing one takes the delta
+    private static final String APPLY_ATTENDANCE_DELTA_SQL =
+            INSERT_STALE + STALE_VALUES +
+            "ON CONFLICT (student_id) DO UPDATE SET " +
+            "attendance_present = student_dashboard_summary.attendance_present + ?, " +
+            "attendance_total = student_dashboard_summary.attendance_total + ?, " +
+            "updated_at = EXCLUDED.updated_at";
+    
+    private static final String MARK_STALE_CONFLICT =
+            "ON CONFLICT (student_id) DO UPDATE SET stale = true, updated_at = EXCLUDED.updated_at";
+    
+    // Rows are locked in student order, so concurrent writes cannot deadlock on each other
+    private static final String MARK_STALE_BY_STUDENT_IDS_SQL =
+            INSERT_STALE + STALE_SELECT +
+            "FROM (SELECT DISTINCT unnest(?::bigint[]) AS student_id) s ORDER BY s.student_id " +
+            MARK_STALE_CONFLICT;
+    
+    private static final String MARK_STALE_BY_COURSE_ID_SQL =
+            INSERT_STALE + STALE_SELECT +
+            "FROM (SELECT DISTINCT student_id FROM enrollments WHERE course_id = ?) s ORDER BY s.student_id " +
+            MARK_STALE_CONFLICT;
+    
+    private static final String MARK_STALE_BY_TEACHER_ID_SQL =
+            INSERT_STALE + STALE_SELECT +
+            "FROM (SELECT DISTINCT e.student_id FROM enrollments e " +
+            "JOIN course_teachers ct ON ct.course_id = e.course_id WHERE ct.teacher_id = ?) s ORDER BY s.student_id " +
+            MARK_STALE_CONFLICT;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    @Transactional
+    public void lockForRefresh(Long studentId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(LOCK_SQL, studentId, now, now);
+    }
+    
+    @Override
+    @Transactional
+    public void upsert(StudentDashboardSummary summary) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(UPSERT_SQL,
+                summary.getStudentId(),
+                summary.getGpa(),
+                summary.getTotalCredits(),
+                summary.getAttendancePresent(),
+                summary.getAttendanceTotal(),
+                summary.getActiveEnrollments(),
+                summary.getCoursesJson(),
+                summary.getStale(),
+                now,
+                now);
+    }
+    
+    @Override
+    @Transactional
+    public void applyAttendanceDelta(Long studentId, long presentDelta, long totalDelta) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(APPLY_ATTENDANCE_DELTA_SQL, studentId, now, now, presentDelta, totalDelta);
+    }
+    
+    @Override
+    @Transactional
+    public void markStale(Long studentId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_STALE + STALE_VALUES + MARK_STALE_CONFLICT, studentId, now, now);
+    }
+    
+    @Override
+    @Transactional
+    public void markStaleByStudentIds(Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Long[] ids = studentIds.toArray(Long[]::new);
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(MARK_STALE_BY_STUDENT_IDS_SQL);
+            ps.setTimestamp(1, now);
+            ps.setTimestamp(2, now);
+            ps.setArray(3, connection.createArrayOf("bigint", ids));
+            return ps;
+        });
+    }
+    
+    @Override
+    @Transactional
+    public void markStaleByCourseId(Long courseId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(MARK_STALE_BY_COURSE_ID_SQL, now, now, courseId);
+    }
+    
+    @Override
+    @Transactional
+    public void markStaleByTeacherId(Long teacherId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(MARK_STALE_BY_TEACHER_ID_SQL, now, now, teacherId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.eadms.repository;
+
+import com.eadms.entity.StudentDashboardSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StudentDashboardSummaryRepository extends JpaRepository<StudentDashboardSummary, Long>, StudentDashboardSummaryBulkRepository {
+    
+    Optional<StudentDashboardSummary> findByStudentId(Long studentId);
+    
+    @Modifying
+    @Query("DELETE FROM StudentDashboardSummary s WHERE s.studentId = :studentId")
+    void deleteByStudentId(@Param("studentId") Long studentId);
+}
@@ -1,19 +1,36 @@
 package com.eadms.repository;
 
+import com.eadms.dto.projection.ResourceVersion;
 import com.eadms.entity.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
     
+    String VERSION_SELECT = "SELECT new com.eadms.dto.projection.ResourceVersion(COUNT(s), " +
+            "LISTAGG(s.id || ':' || COALESCE(CAST(s.updatedAt AS String), '') || ':' || " +
+            "COALESCE(CAST(u.updatedAt AS String), ''), ',') WITHIN GROUP (ORDER BY s.id)) " +
+            "FROM Student s LEFT JOIN s.user u ";
+    
+    @Override
+    @EntityGraph("Student.user")
+    List<Student> findAll();
+    
     Optional<Student> findByStudentId(String studentId);
     
+    @EntityGraph("Student.user")
     List<Student> findByClassName(String className);
     
     Boolean existsByStudentId(String studentId);
@@ -23,11 +40,38 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     @Query("SELECT COUNT(s) FROM Student s")
     Long countAllStudents();
     
+    @EntityGraph("Student.user")
     Optional<Student> findByUserId(Long userId);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT s.id FROM Student s WHERE s.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT s.id FROM Student s WHERE s.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT s.className, COUNT(s) FROM Student s GROUP BY s.className")
     List<Object[]> countStudentsByClass();
     
+    @EntityGraph("Student.user")
     @Query("SELECT s FROM Student s JOIN Enrollment e ON s.id = e.student.id WHERE e.course.id = :courseId AND e.status = 'ACTIVE'")
     List<Student> findStudentsByCourseId(@Param("courseId") Long courseId);
+    
+    @Query(VERSION_SELECT)
+    ResourceVersion findVersion();
+    
+    @Query(VERSION_SELECT + "WHERE s.id = :id")
+    ResourceVersion findVersionById(@Param("id") Long id);
+    
+    @Query(VERSION_SELECT + "WHERE s.id IN " +
+            "(SELECT e.student.id FROM Enrollment e WHERE e.course.id = :courseId AND e.status = 'ACTIVE')")
+    ResourceVersion findVersionByCourseId(@Param("courseId") Long courseId);
+    
+    // Keyset page: rows after the cursor id, in id order
+    @EntityGraph("Student.user")
+    List<Student> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    
+    // Keyset page of ids, for jobs that walk every student in batches
+    @Query("SELECT s.id FROM Student s WHERE s.id > :afterId ORDER BY s.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
 }
@@ -1,18 +1,35 @@
 package com.eadms.repository;
 
+import com.eadms.dto.projection.RecipientRow;
+import com.eadms.dto.projection.ResourceVersion;
 import com.eadms.entity.Teacher;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TeacherRepository extends JpaRepository<Teacher, Long> {
     
+    String VERSION_SELECT = "SELECT new com.eadms.dto.projection.ResourceVersion(COUNT(t), " +
+            "LISTAGG(t.id || ':' || COALESCE(CAST(t.updatedAt AS String), '') || ':' || " +
+            "COALESCE(CAST(u.updatedAt AS String), ''), ',') WITHIN GROUP (ORDER BY t.id)) " +
+            "FROM Teacher t LEFT JOIN t.user u ";
+    
+    @Override
+    @EntityGraph("Teacher.user")
+    List<Teacher> findAll();
+    
     Optional<Teacher> findByTeacherId(String teacherId);
     
     List<Teacher> findByDepartment(String department);
@@ -26,13 +43,36 @@ public interface TeacherRepository extends JpaRepository<Teacher, Long> {
     @Query("SELECT COUNT(t) FROM Teacher t")
     Long countAllTeachers();
     
+    @EntityGraph("Teacher.user")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Teacher> findByUserId(Long userId);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT t.id FROM Teacher t WHERE t.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT new com.eadms.dto.projection.RecipientRow(t.id, t.user.email) FROM Teacher t WHERE t.id IN :ids")
+    List<RecipientRow> findRecipients(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT t.department, COUNT(t) FROM Teacher t GROUP BY t.department")
     List<Object[]> countTeachersByDepartment();
     
+    @Query(VERSION_SELECT)
+    ResourceVersion findVersion();
+    
+    @Query(VERSION_SELECT + "WHERE t.id = :id")
+    ResourceVersion findVersionById(@Param("id") Long id);
+    
+    @Query(VERSION_SELECT + "WHERE t.id IN (SELECT ct.id FROM Enrollment e JOIN e.course c JOIN c.teachers ct " +
+            "WHERE e.student.id = :studentId AND e.status = 'ACTIVE')")
+    ResourceVersion findVersionByStudentId(@Param("studentId") Long studentId);
+    
     // Custom query to remove teacher from course_teachers junction table
     @Modifying
     @Query(value = "DELETE FROM course_teachers WHERE teacher_id = :teacherId", nativeQuery = true)
     void removeTeacherFromAllCourses(@Param("teacherId") Long teacherId);
+    
+    // Keyset page: rows after the cursor id, in id order
+    @EntityGraph("Teacher.user")
+    List<Teacher> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 }
@@ -0,0 +1,16 @@
+package com.eadms.repository;
+
+import com.eadms.entity.User;
+
+import java.util.Optional;
+
+/**
+ * User lookups served from the second-level cache.
+ */
+public interface UserLookupRepository {
+    
+    /**
+     * Resolves the user by its natural id, so a cached user is returned without touching the database.
+     */
+    Optional<User> findByEmail(String email);
+}
@@ -0,0 +1,24 @@
+package com.eadms.repository;
+
+import com.eadms.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class UserLookupRepositoryImpl implements UserLookupRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Without a surrounding transaction the shared EntityManager closes the unwrapped session at once
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email);
+    }
+}
@@ -0,0 +1,181 @@
+package com.eadms.service;
+
+import com.eadms.dto.projection.LedgerTotals;
+import com.eadms.entity.Enrollment;
+import com.eadms.entity.StudentAcademicLedger;
+import com.eadms.repository.EnrollmentRepository;
+import com.eadms.repository.StudentAcademicLedgerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.eadms.entity.StudentAcademicLedger.ALL_TERMS;
+
+/**
+ * Keeps {@link StudentAcademicLedger} rows in step with enrollment writes, so the GPA and credit
+ * totals are a single row read instead of a scan over the student's enrollments.
+ *
+ * Writers take the enrollment's {@link Contribution} before changing it and {@link #record} the
+ * difference afterwards, in the same transaction. The term row is always updated before the all-terms
+ * row, so concurrent writers for one student lock in the same order.
+ */
+@Component
+@RequiredArgsConstructor
+public class AcademicLedger {
+    
+    private final StudentAcademicLedgerRepository ledgerRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    
+    /**
+     * What an enrollment adds to its student's ledger in its current state.
+     */
+    public record Contribution(BigDecimal weightedGradePoints, int gradedCredits, int completedCredits, int activeCredits) {
+        
+        public static final Contribution NONE = new Contribution(BigDecimal.ZERO, 0, 0, 0);
+        
+        Contribution minus(Contribution other) {
+            return new Contribution(weightedGradePoints.subtract(other.weightedGradePoints),
+                    gradedCredits - other.gradedCredits,
+                    completedCredits - other.completedCredits,
+                    activeCredits - other.activeCredits);
+        }
+        
+        boolean isZero() {
+            return weightedGradePoints.signum() == 0 && gradedCredits == 0 && completedCredits == 0 && activeCredits == 0;
+        }
+    }
+    
+    public Contribution contributionOf(Enrollment enrollment) {
+        int credits = enrollment.getCourse().getCredits();
+        return switch (enrollment.getStatus()) {
+            case COMPLETED -> enrollment.getGradePoints() != null
+                    ? new Contribution(exact(enrollment.getGradePoints() * credits), credits, credits, 0)
+                    : new Contribution(BigDecimal.ZERO, 0, credits, 0);
+            case ACTIVE -> new Contribution(BigDecimal.ZERO, 0, 0, credits);
+            default -> Contribution.NONE;
+        };
+    }
+    
+    // Grade points carry one decimal, so rounding to two removes the binary floating point error
+    private static BigDecimal exact(double weightedGradePoints) {
+        return BigDecimal.valueOf(weightedGradePoints).setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    /**
+     * Apply the change of an enrollment since {@code before} was taken to its term and all-terms rows.
+     */
+    public void record(Enrollment enrollment, Contribution before) {
+        Contribution delta = contributionOf(enrollment).minus(before);
+        if (delta.isZero()) {
+            return;
+        }
+        Long studentId = enrollment.getStudent().getId();
+        applyDelta(studentId, enrollment.getAcademicYear(), enrollment.getSemester(), delta);
+        applyDelta(studentId, ALL_TERMS, ALL_TERMS, delta);
+    }
+    
+    private void applyDelta(Long studentId, Integer academicYear, Integer semester, Contribution delta) {
+        ledgerRepository.applyDelta(studentId, academicYear, semester, delta.weightedGradePoints(),
+                delta.gradedCredits(), delta.completedCredits(), delta.activeCredits());
+    }
+    
+    @Transactional(readOnly = true)
+    public Double gpa(Long studentId) {
+        return ledgerRepository.findByStudentIdAndAcademicYearAndSemester(studentId, ALL_TERMS, ALL_TERMS)
+                .map(StudentAcademicLedger::getGpa)
+                .orElse(0.0);
+    }
+    
+    @Transactional(readOnly = true)
+    public Integer activeCredits(Long studentId) {
+        return ledgerRepository.findByStudentIdAndAcademicYearAndSemester(studentId, ALL_TERMS, ALL_TERMS)
+                .map(StudentAcademicLedger::getActiveCredits)
+                .orElse(0);
+    }
+    
+    /**
+     * Students with an enrollment in the course, whose ledgers depend on its credits.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> studentIdsOfCourse(Long courseId) {
+        return enrollmentRepository.findStudentIdsByCourseId(courseId);
+    }
+    
+    /**
+     * Recompute the ledgers of the given students from their enrollments, correcting only the rows
+     * that disagree. Existing rows are locked first, so an enrollment write either commits before the
+     * recount sees it or applies its delta on top of the result.
+     *
+     * @return the number of rows inserted, changed or deleted
+     */
+    @Transactional
+    public int rebuild(Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return 0;
+        }
+        
+        Map<LedgerKey, StudentAcademicLedger> existing = new HashMap<>();
+        for (StudentAcademicLedger row : ledgerRepository.findForUpdateByStudentIds(studentIds)) {
+            existing.put(LedgerKey.of(row), row);
+        }
+        
+        Map<LedgerKey, StudentAcademicLedger> expected = new HashMap<>();
+        for (LedgerTotals totals : enrollmentRepository.findLedgerTotalsByStudentIds(studentIds)) {
+            addTo(expected, new LedgerKey(totals.studentId(), totals.academicYear(), totals.semester()), totals);
+            addTo(expected, new LedgerKey(totals.studentId(), ALL_TERMS, ALL_TERMS), totals);
+        }
+        
+        int corrected = 0;
+        for (Map.Entry<LedgerKey, StudentAcademicLedger> entry : expected.entrySet()) {
+            StudentAcademicLedger target = entry.getValue();
+            StudentAcademicLedger row = existing.remove(entry.getKey());
+            if (row == null) {
+                ledgerRepository.save(target);
+                corrected++;
+            } else if (!sameTotals(row, target)) {
+                row.setWeightedGradePoints(target.getWeightedGradePoints());
+                row.setGradedCredits(target.getGradedCredits());
+                row.setCompletedCredits(target.getCompletedCredits());
+                row.setActiveCredits(target.getActiveCredits());
+                corrected++;
+            }
+        }
+        // Terms whose enrollments are all gone
+        ledgerRepository.deleteAll(existing.values());
+        return corrected + existing.size();
+    }
+    
+    private static void addTo(Map<LedgerKey, StudentAcademicLedger> rows, LedgerKey key, LedgerTotals totals) {
+        StudentAcademicLedger row = rows.computeIfAbsent(key, k -> StudentAcademicLedger.builder()
+                .studentId(k.studentId())
+                .academicYear(k.academicYear())
+                .semester(k.semester())
+                .build());
+        row.setWeightedGradePoints(row.getWeightedGradePoints().add(exact(totals.weightedGradePoints())));
+        row.setGradedCredits(row.getGradedCredits() + totals.gradedCredits().intValue());
+        row.setCompletedCredits(row.getCompletedCredits() + totals.completedCredits().intValue());
+        row.setActiveCredits(row.getActiveCredits() + totals.activeCredits().intValue());
+    }
+    
+    private static boolean sameTotals(StudentAcademicLedger row, StudentAcademicLedger target) {
+        return row.getWeightedGradePoints().compareTo(target.getWeightedGradePoints()) == 0
+                && Objects.equals(row.getGradedCredits(), target.getGradedCredits())
+                && Objects.equals(row.getCompletedCredits(), target.getCompletedCredits())
+                && Objects.equals(row.getActiveCredits(), target.getActiveCredits());
+    }
+    
+    private record LedgerKey(Long studentId, Integer academicYear, Integer semester) {
+        
+        static LedgerKey of(StudentAcademicLedger row) {
+            return new LedgerKey(row.getStudentId(), row.getAcademicYear(), row.getSemester());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.eadms.service;
+
+import com.eadms.dto.response.LedgerRebuildResponse;
+import com.eadms.exception.BadRequestException;
+import com.eadms.repository.StudentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes every student's {@link com.eadms.entity.StudentAcademicLedger} rows from the enrollments,
+ * on a schedule and on demand. Students are handled in batches, each in its own transaction, so the
+ * rows locked by a rebuild are held only briefly.
+ */
+@Slf4j
+@Component
+public class AcademicLedgerRebuildJob {
+    
+    private final AcademicLedger academicLedger;
+    private final StudentRepository studentRepository;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    public AcademicLedgerRebuildJob(AcademicLedger academicLedger,
+                                    StudentRepository studentRepository,
+                                    @Value("${academic.ledger.rebuild-batch-size:500}") int batchSize) {
+        this.academicLedger = academicLedger;
+        this.studentRepository = studentRepository;
+        this.batchSize = batchSize;
+    }
+    
+    @Scheduled(cron = "${academic.ledger.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        if (running.get()) {
+            return;
+        }
+        LedgerRebuildResponse result = rebuild();
+        if (result.getRowsCorrected() > 0) {
+            log.warn("Academic ledger rebuild corrected {} rows across {} students",
+                    result.getRowsCorrected(), result.getStudentsScanned());
+        }
+    }
+    
+    public LedgerRebuildResponse rebuild() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestException("An academic ledger rebuild is already running");
+        }
+        try {
+            long started = System.currentTimeMillis();
+            long scanned = 0;
+            long corrected = 0;
+            Long afterId = 0L;
+            List<Long> studentIds;
+            do {
+                studentIds = studentRepository.findIdsAfter(afterId, Limit.of(batchSize));
+                if (!studentIds.isEmpty()) {
+                    corrected += academicLedger.rebuild(studentIds);
+                    scanned += studentIds.size();
+                    afterId = studentIds.get(studentIds.size() - 1);
+                }
+            } while (studentIds.size() == batchSize);
+            
+            return LedgerRebuildResponse.builder()
+                    .studentsScanned(scanned)
+                    .rowsCorrected(corrected)
+                    .durationMs(System.currentTimeMillis() - started)
+                    .build();
+        } finally {
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.eadms.service;
+
+import com.eadms.entity.Attendance;
+import com.eadms.repository.AttendanceRollupBulkRepository.Delta;
+import com.eadms.util.AcademicTerms;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Accumulates the attendance rollup changes of one write, merging changes to the same
+ * (student, course, term) row so that a status flip becomes a single -1/+1 update of that row.
+ */
+class AttendanceRollupDeltas {
+    
+    private record Key(Long studentId, Long courseId, int academicYear, int semester) {
+    }
+    
+    private final Map<Key, long[]> counters = new LinkedHashMap<>();
+    
+    /**
+     * Record an attendance row moving from {@code previous} (null when new) to {@code current}; the
+     * date decides the term of each side.
+     */
+    AttendanceRollupDeltas move(Long studentId, Long courseId,
+                                LocalDate previousDate, Attendance.Status previous,
+                                LocalDate currentDate, Attendance.Status current) {
+        if (previous == current && Objects.equals(previousDate, currentDate)) {
+            return this;
+        }
+        if (previous != null) {
+            counter(studentId, courseId, previousDate)[previous.ordinal()]--;
+        }
+        counter(studentId, courseId, currentDate)[current.ordinal()]++;
+        return this;
+    }
+    
+    private long[] counter(Long studentId, Long courseId, LocalDate date) {
+        Key key = new Key(studentId, courseId, AcademicTerms.academicYear(date), AcademicTerms.semester(date));
+        return counters.computeIfAbsent(key, k -> new long[Attendance.Status.values().length]);
+    }
+    
+    List<Delta> toList() {
+        return counters.entrySet().stream()
+                .map(entry -> {
+                    Key key = entry.getKey();
+                    long[] counts = entry.getValue();
+                    return new Delta(key.studentId(), key.courseId(), key.academicYear(), key.semester(),
+                            counts[Attendance.Status.PRESENT.ordinal()], counts[Attendance.Status.ABSENT.ordinal()],
+                            counts[Attendance.Status.LATE.ordinal()], counts[Attendance.Status.EXCUSED.ordinal()]);
+                })
+                .filter(delta -> !delta.isZero())
+                .toList();
+    }
+}
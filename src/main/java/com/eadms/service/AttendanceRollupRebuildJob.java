@@ -0,0 +1,76 @@
+package com.eadms.service;
+
+import com.eadms.dto.response.AttendanceRollupRebuildResponse;
+import com.eadms.exception.BadRequestException;
+import com.eadms.repository.StudentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes every student's {@link com.eadms.entity.AttendanceRollup} rows from the attendance
+ * records, on a schedule and on demand, one batch of students per transaction.
+ */
+@Slf4j
+@Component
+public class AttendanceRollupRebuildJob {
+    
+    private final AttendanceRollups attendanceRollups;
+    private final StudentRepository studentRepository;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    public AttendanceRollupRebuildJob(AttendanceRollups attendanceRollups,
+                                      StudentRepository studentRepository,
+                                      @Value("${attendance.rollup.rebuild-batch-size:500}") int batchSize) {
+        this.attendanceRollups = attendanceRollups;
+        this.studentRepository = studentRepository;
+        this.batchSize = batchSize;
+    }
+    
+    @Scheduled(cron = "${attendance.rollup.rebuild-cron:0 45 3 * * *}")
+    public void scheduledRebuild() {
+        if (running.get()) {
+            return;
+        }
+        AttendanceRollupRebuildResponse result = rebuild();
+        if (result.getRowsCorrected() > 0) {
+            log.warn("Attendance rollup rebuild corrected {} rows across {} students",
+                    result.getRowsCorrected(), result.getStudentsScanned());
+        }
+    }
+    
+    public AttendanceRollupRebuildResponse rebuild() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestException("An attendance rollup rebuild is already running");
+        }
+        try {
+            long started = System.currentTimeMillis();
+            long scanned = 0;
+            long corrected = 0;
+            Long afterId = 0L;
+            List<Long> studentIds;
+            do {
+                studentIds = studentRepository.findIdsAfter(afterId, Limit.of(batchSize));
+                if (!studentIds.isEmpty()) {
+                    corrected += attendanceRollups.rebuild(studentIds);
+                    scanned += studentIds.size();
+                    afterId = studentIds.get(studentIds.size() - 1);
+                }
+            } while (studentIds.size() == batchSize);
+            
+            return AttendanceRollupRebuildResponse.builder()
+                    .studentsScanned(scanned)
+                    .rowsCorrected(corrected)
+                    .durationMs(System.currentTimeMillis() - started)
+                    .build();
+        } finally {
+            running.set(false);
+        }
+    }
+}
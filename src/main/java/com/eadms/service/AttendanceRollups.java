@@ -0,0 +1,116 @@
+package com.eadms.service;
+
+import com.eadms.dto.projection.AttendanceMonthCounts;
+import com.eadms.entity.Attendance;
+import com.eadms.entity.AttendanceRollup;
+import com.eadms.repository.AttendanceRepository;
+import com.eadms.repository.AttendanceRollupRepository;
+import com.eadms.repository.StudentDashboardSummaryRepository;
+import com.eadms.util.AcademicTerms;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Recounts {@link AttendanceRollup} rows from the attendance table, correcting any drift left by the
+ * deltas that attendance writes apply.
+ */
+@Component
+@RequiredArgsConstructor
+public class AttendanceRollups {
+    
+    private final AttendanceRollupRepository rollupRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final StudentDashboardSummaryRepository studentDashboardSummaryRepository;
+    
+    /**
+     * Recompute the rollups of the given students, correcting only the rows that disagree. Existing
+     * rows are locked first, so an attendance write either commits before the recount sees it or
+     * applies its delta on top of the result.
+     *
+     * @return the number of rows inserted, changed or deleted
+     */
+    @Transactional
+    public int rebuild(Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return 0;
+        }
+        
+        Map<RollupKey, AttendanceRollup> existing = new HashMap<>();
+        for (AttendanceRollup row : rollupRepository.findForUpdateByStudentIds(studentIds)) {
+            existing.put(RollupKey.of(row), row);
+        }
+        
+        Map<RollupKey, AttendanceRollup> expected = new HashMap<>();
+        for (AttendanceMonthCounts counts : attendanceRepository.findMonthCountsByStudentIds(studentIds)) {
+            LocalDate month = LocalDate.of(counts.year(), counts.month(), 1);
+            RollupKey key = new RollupKey(counts.studentId(), counts.courseId(),
+                    AcademicTerms.academicYear(month), AcademicTerms.semester(month));
+            AttendanceRollup row = expected.computeIfAbsent(key, k -> AttendanceRollup.builder()
+                    .studentId(k.studentId())
+                    .courseId(k.courseId())
+                    .academicYear(k.academicYear())
+                    .semester(k.semester())
+                    .build());
+            add(row, counts.status(), counts.count());
+        }
+        
+        int corrected = 0;
+        Set<Long> affectedStudents = new HashSet<>();
+        for (Map.Entry<RollupKey, AttendanceRollup> entry : expected.entrySet()) {
+            AttendanceRollup target = entry.getValue();
+            AttendanceRollup row = existing.remove(entry.getKey());
+            if (row == null) {
+                rollupRepository.save(target);
+            } else if (!sameCounts(row, target)) {
+                row.setPresentCount(target.getPresentCount());
+                row.setAbsentCount(target.getAbsentCount());
+                row.setLateCount(target.getLateCount());
+                row.setExcusedCount(target.getExcusedCount());
+            } else {
+                continue;
+            }
+            affectedStudents.add(target.getStudentId());
+            corrected++;
+        }
+        // Terms whose attendance records are all gone
+        existing.values().forEach(row -> affectedStudents.add(row.getStudentId()));
+        rollupRepository.deleteAll(existing.values());
+        
+        if (!affectedStudents.isEmpty()) {
+            studentDashboardSummaryRepository.markStaleByStudentIds(affectedStudents);
+        }
+        return corrected + existing.size();
+    }
+    
+    private static void add(AttendanceRollup row, Attendance.Status status, long count) {
+        switch (status) {
+            case PRESENT -> row.setPresentCount(row.getPresentCount() + count);
+            case ABSENT -> row.setAbsentCount(row.getAbsentCount() + count);
+            case LATE -> row.setLateCount(row.getLateCount() + count);
+            case EXCUSED -> row.setExcusedCount(row.getExcusedCount() + count);
+        }
+    }
+    
+    private static boolean sameCounts(AttendanceRollup row, AttendanceRollup target) {
+        return Objects.equals(row.getPresentCount(), target.getPresentCount())
+                && Objects.equals(row.getAbsentCount(), target.getAbsentCount())
+                && Objects.equals(row.getLateCount(), target.getLateCount())
+                && Objects.equals(row.getExcusedCount(), target.getExcusedCount());
+    }
+    
+    private record RollupKey(Long studentId, Long courseId, Integer academicYear, Integer semester) {
+        
+        static RollupKey of(AttendanceRollup row) {
+            return new RollupKey(row.getStudentId(), row.getCourseId(), row.getAcademicYear(), row.getSemester());
+        }
+    }
+}
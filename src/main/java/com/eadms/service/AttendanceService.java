@@ -1,13 +1,16 @@
 package com.eadms.service;
 
 import com.eadms.dto.request.AttendanceEntryRequest;
+import com.eadms.dto.request.BulkAttendanceRequest;
 import com.eadms.dto.response.AttendanceResponse;
+import com.eadms.dto.response.BulkAttendanceResponse;
 
 import java.util.List;
 import java.util.Map;
 
 public interface AttendanceService {
     AttendanceResponse markAttendance(AttendanceEntryRequest request);
+    BulkAttendanceResponse markBulkAttendance(BulkAttendanceRequest request);
     AttendanceResponse updateAttendance(Long attendanceId, AttendanceEntryRequest request);
     List<AttendanceResponse> getAttendanceByStudent(Long studentId);
     List<AttendanceResponse> getAttendanceByCourse(Long courseId);
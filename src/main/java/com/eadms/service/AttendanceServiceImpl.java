@@ -1,7 +1,13 @@
 package com.eadms.service;
 
+import com.eadms.dto.projection.AttendanceCounts;
+import com.eadms.dto.projection.AttendanceRow;
+import com.eadms.dto.projection.CourseSummary;
 import com.eadms.dto.request.AttendanceEntryRequest;
+import com.eadms.dto.request.BulkAttendanceRequest;
 import com.eadms.dto.response.AttendanceResponse;
+import com.eadms.dto.response.BulkAttendanceResponse;
+import com.eadms.dto.response.BulkAttendanceResponse.Outcome;
 import com.eadms.entity.*;
 import com.eadms.exception.BadRequestException;
 import com.eadms.exception.ResourceNotFoundException;
@@ -21,6 +27,9 @@ public class AttendanceServiceImpl implements AttendanceService {
     private final AttendanceRepository attendanceRepository;
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
+    private final ReferenceDataCache referenceData;
+    private final StudentDashboardSummaryRepository studentDashboardSummaryRepository;
+    private final AttendanceRollupRepository attendanceRollupRepository;
     
     @Override
     @Transactional
@@ -29,30 +38,130 @@ public class AttendanceServiceImpl implements AttendanceService {
         
         Student student = studentRepository.findById(request.getStudentId())
                 .orElseThrow(() -> new ResourceNotFoundException("Student", "id", request.getStudentId()));
-        Course course = courseRepository.findById(request.getCourseId())
-                .orElseThrow(() -> new ResourceNotFoundException("Course", "id", request.getCourseId()));
+        CourseSummary course = referenceData.getCourse(request.getCourseId());
         
-        Optional<Attendance> existing = attendanceRepository.findByStudentIdAndCourseIdAndAttendanceDate(
+        // Locked so a concurrent update of the same record cannot apply its delta from the same prior status
+        Optional<Attendance> existing = attendanceRepository.findForUpdate(
                 request.getStudentId(), request.getCourseId(), request.getAttendanceDate()
         );
         
         Attendance attendance;
+        Attendance.Status newStatus = Attendance.Status.valueOf(request.getStatus().toUpperCase());
+        AttendanceRollupDeltas rollupDeltas = new AttendanceRollupDeltas();
         if (existing.isPresent()) {
             // Update existing attendance
             attendance = existing.get();
-            attendance.setStatus(Attendance.Status.valueOf(request.getStatus().toUpperCase()));
+            updateDashboardSummary(student.getId(), attendance.getStatus(), newStatus);
+            rollupDeltas.move(student.getId(), course.id(), attendance.getAttendanceDate(), attendance.getStatus(),
+                    attendance.getAttendanceDate(), newStatus);
+            attendance.setStatus(newStatus);
         } else {
             // Create new attendance
             attendance = Attendance.builder()
                     .student(student)
-                    .course(course)
+                    .course(courseRepository.getReferenceById(course.id()))
                     .attendanceDate(request.getAttendanceDate())
-                    .status(Attendance.Status.valueOf(request.getStatus().toUpperCase()))
+                    .status(newStatus)
                     .build();
+            updateDashboardSummary(student.getId(), null, newStatus);
+            rollupDeltas.move(student.getId(), course.id(), null, null, request.getAttendanceDate(), newStatus);
         }
         
         Attendance savedAttendance = attendanceRepository.save(attendance);
-        return mapToResponse(savedAttendance);
+        attendanceRollupRepository.applyDeltas(rollupDeltas.toList());
+        return mapToResponse(savedAttendance, course.courseName());
+    }
+    
+    @Override
+    @Transactional
+    public BulkAttendanceResponse markBulkAttendance(BulkAttendanceRequest request) {
+        Long courseId = request.getCourseId();
+        referenceData.getCourse(courseId);
+        
+        // Parse statuses up front; bad rows are reported instead of failing the whole roster
+        Map<Long, Attendance.Status> requested = new LinkedHashMap<>();
+        Map<Long, String> rejections = new HashMap<>();
+        request.getStatuses().forEach((studentId, status) -> {
+            if (status == null) {
+                rejections.put(studentId, "Status is required");
+                return;
+            }
+            try {
+                ValidationUtil.validateEnum(status, Attendance.Status.class, "status");
+                requested.put(studentId, Attendance.Status.valueOf(status.toUpperCase()));
+            } catch (BadRequestException e) {
+                rejections.put(studentId, e.getMessage());
+            }
+        });
+        
+        if (!requested.isEmpty()) {
+            Set<Long> knownStudents = new HashSet<>(studentRepository.findExistingIds(requested.keySet()));
+            requested.keySet().removeIf(studentId -> {
+                if (knownStudents.contains(studentId)) {
+                    return false;
+                }
+                rejections.put(studentId, "Student not found with id: " + studentId);
+                return true;
+            });
+        }
+        
+        // Prior statuses come from the write itself, read under the row locks it takes, so a
+        // concurrent save of the same roster cannot make both transactions count the same change
+        AttendanceBulkRepository.RosterWrite write = attendanceRepository.upsertStatuses(
+                courseId, request.getAttendanceDate(), requested);
+        Map<Long, Attendance.Status> previous = write.previous();
+        Map<Long, Attendance.Status> changes = new LinkedHashMap<>();
+        AttendanceRollupDeltas rollupDeltas = new AttendanceRollupDeltas();
+        requested.forEach((studentId, status) -> {
+            Attendance.Status prior = previous.get(studentId);
+            if (!write.created().contains(studentId) && prior == null) {
+                // The row was deleted by another transaction between the insert and the lock
+                rejections.put(studentId, "Attendance record was removed concurrently for student: " + studentId);
+            } else if (prior != status) {
+                changes.put(studentId, status);
+                rollupDeltas.move(studentId, courseId, request.getAttendanceDate(), prior,
+                        request.getAttendanceDate(), status);
+            }
+        });
+        attendanceRollupRepository.applyDeltas(rollupDeltas.toList());
+        if (!changes.isEmpty()) {
+            studentDashboardSummaryRepository.markStaleByStudentIds(changes.keySet());
+        }
+        
+        List<BulkAttendanceResponse.RowResult> results = new ArrayList<>(request.getStatuses().size());
+        int created = 0, updated = 0, unchanged = 0;
+        for (Map.Entry<Long, String> entry : request.getStatuses().entrySet()) {
+            Long studentId = entry.getKey();
+            Outcome outcome;
+            if (rejections.containsKey(studentId)) {
+                outcome = Outcome.REJECTED;
+            } else if (write.created().contains(studentId)) {
+                outcome = Outcome.CREATED;
+                created++;
+            } else if (changes.containsKey(studentId)) {
+                outcome = Outcome.UPDATED;
+                updated++;
+            } else {
+                outcome = Outcome.UNCHANGED;
+                unchanged++;
+            }
+            results.add(BulkAttendanceResponse.RowResult.builder()
+                    .studentId(studentId)
+                    .status(requested.containsKey(studentId) ? requested.get(studentId).name() : entry.getValue())
+                    .outcome(outcome)
+                    .message(rejections.get(studentId))
+                    .build());
+        }
+        
+        return BulkAttendanceResponse.builder()
+                .courseId(courseId)
+                .attendanceDate(request.getAttendanceDate())
+                .created(created)
+                .updated(updated)
+                .unchanged(unchanged)
+                .rejected(rejections.size())
+                .results(results)
+                .build();
     }
     
     @Override
@@ -60,67 +169,91 @@ public class AttendanceServiceImpl implements AttendanceService {
     public AttendanceResponse updateAttendance(Long attendanceId, AttendanceEntryRequest request) {
         ValidationUtil.validateEnum(request.getStatus(), Attendance.Status.class, "status");
         
-        Attendance attendance = attendanceRepository.findById(attendanceId)
+        Attendance attendance = attendanceRepository.findByIdForUpdate(attendanceId)
                 .orElseThrow(() -> new ResourceNotFoundException("Attendance", "id", attendanceId));
         
-        attendance.setStatus(Attendance.Status.valueOf(request.getStatus().toUpperCase()));
+        Attendance.Status newStatus = Attendance.Status.valueOf(request.getStatus().toUpperCase());
+        updateDashboardSummary(attendance.getStudent().getId(), attendance.getStatus(), newStatus);
+        // A new date may move the record into another term
+        AttendanceRollupDeltas rollupDeltas = new AttendanceRollupDeltas().move(
+                attendance.getStudent().getId(), attendance.getCourse().getId(),
+                attendance.getAttendanceDate(), attendance.getStatus(), request.getAttendanceDate(), newStatus);
+        attendance.setStatus(newStatus);
         attendance.setAttendanceDate(request.getAttendanceDate());
         
         Attendance updatedAttendance = attendanceRepository.save(attendance);
+        attendanceRollupRepository.applyDeltas(rollupDeltas.toList());
         return mapToResponse(updatedAttendance);
     }
     
     @Override
     public List<AttendanceResponse> getAttendanceByStudent(Long studentId) {
-        return attendanceRepository.findByStudentId(studentId).stream()
+        return attendanceRepository.findRowsByStudentId(studentId).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
     
     @Override
     public List<AttendanceResponse> getAttendanceByCourse(Long courseId) {
-        return attendanceRepository.findByCourseId(courseId).stream()
+        return attendanceRepository.findRowsByCourseId(courseId).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Double calculateAttendancePercentage(Long studentId, Long courseId) {
-        List<Attendance> attendances = attendanceRepository.findByStudentIdAndCourseId(studentId, courseId);
-        if (attendances.isEmpty()) {
-            return 0.0;
-        }
-        
-        long presentCount = attendances.stream()
-                .filter(a -> a.getStatus() == Attendance.Status.PRESENT)
-                .count();
-        
-        return (double) presentCount / attendances.size() * 100;
+        return attendanceRollupRepository.findCountsByStudentIdAndCourseId(studentId, courseId).percentage();
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getAttendanceStats(Long studentId) {
-        Long totalPresent = attendanceRepository.countPresentByStudentId(studentId);
-        Long totalDays = attendanceRepository.countTotalByStudentId(studentId);
-        
-        Double percentage = totalDays > 0 ? (double) totalPresent / totalDays * 100 : 0.0;
+        AttendanceCounts counts = attendanceRollupRepository.findCountsByStudentId(studentId);
         
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalDays", totalDays);
-        stats.put("presentDays", totalPresent);
-        stats.put("absentDays", totalDays - totalPresent);
-        stats.put("percentage", percentage);
+        stats.put("totalDays", counts.total());
+        stats.put("presentDays", counts.present());
+        stats.put("absentDays", counts.total() - counts.present());
+        stats.put("percentage", counts.percentage());
+        stats.put("statusBreakdown", counts.byStatus());
         
         return stats;
     }
     
+    // Keep the student's dashboard counters in step with a status change (previousStatus is null for new records)
+    private void updateDashboardSummary(Long studentId, Attendance.Status previousStatus, Attendance.Status newStatus) {
+        long presentDelta = (newStatus == Attendance.Status.PRESENT ? 1 : 0)
+                - (previousStatus == Attendance.Status.PRESENT ? 1 : 0);
+        long totalDelta = previousStatus == null ? 1 : 0;
+        if (presentDelta != 0 || totalDelta != 0) {
+            studentDashboardSummaryRepository.applyAttendanceDelta(studentId, presentDelta, totalDelta);
+        }
+    }
+    
+    private AttendanceResponse mapToResponse(AttendanceRow row) {
+        return AttendanceResponse.builder()
+                .id(row.id())
+                .studentId(row.studentId())
+                .studentName(row.studentName())
+                .courseId(row.courseId())
+                .courseName(row.courseName())
+                .attendanceDate(row.attendanceDate())
+                .status(row.status().name())
+                .build();
+    }
+    
     private AttendanceResponse mapToResponse(Attendance attendance) {
+        return mapToResponse(attendance, attendance.getCourse().getCourseName());
+    }
+    
+    private AttendanceResponse mapToResponse(Attendance attendance, String courseName) {
         return AttendanceResponse.builder()
                 .id(attendance.getId())
                 .studentId(attendance.getStudent().getId())
                 .studentName(attendance.getStudent().getFullName())
                 .courseId(attendance.getCourse().getId())
-                .courseName(attendance.getCourse().getCourseName())
+                .courseName(courseName)
                 .attendanceDate(attendance.getAttendanceDate())
                 .status(attendance.getStatus().name())
                 .build();
@@ -9,6 +9,7 @@ public interface AuthService {
     LoginResponse login(LoginRequest request);
     User registerUser(String email, String password, User.Role role);
     User getCurrentUser();
+    String getFullName(User user);
     void updateStudentUser(Long studentId, UserUpdateRequest request);
     void updateTeacherUser(Long teacherId, UserUpdateRequest request);
 }
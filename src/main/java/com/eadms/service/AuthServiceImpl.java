@@ -3,9 +3,13 @@ package com.eadms.service;
 import com.eadms.config.JwtTokenProvider;
 import com.eadms.dto.request.LoginRequest;
 import com.eadms.dto.response.LoginResponse;
+import com.eadms.entity.Student;
+import com.eadms.entity.Teacher;
 import com.eadms.entity.User;
 import com.eadms.exception.BadRequestException;
 import com.eadms.exception.ResourceNotFoundException;
+import com.eadms.repository.StudentRepository;
+import com.eadms.repository.TeacherRepository;
 import com.eadms.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -21,9 +25,12 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthServiceImpl implements AuthService {
     
     private final UserRepository userRepository;
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final SecondLevelCache secondLevelCache;
     
     @Override
     @Transactional
@@ -37,7 +44,14 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
-        String token = jwtTokenProvider.generateToken(user.getEmail(), user.getRole().name());
+        // Embed profile ids so later requests don't have to look them up again
+        Long studentId = user.getRole() == User.Role.STUDENT
+                ? studentRepository.findIdByUserId(user.getId()).orElse(null) : null;
+        Long teacherId = user.getRole() == User.Role.TEACHER
+                ? teacherRepository.findIdByUserId(user.getId()).orElse(null) : null;
+        
+        String token = jwtTokenProvider.generateToken(
+                user.getEmail(), user.getRole().name(), user.getId(), studentId, teacherId);
         
         return LoginResponse.builder()
                 .token(token)
@@ -83,6 +97,21 @@ public class AuthServiceImpl implements AuthService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
     
+    // Looked up by role rather than through User, so loading a user never pulls in its profile
+    @Override
+    @Transactional(readOnly = true)
+    public String getFullName(User user) {
+        return switch (user.getRole()) {
+            case ADMIN -> "System Administrator";
+            case STUDENT -> studentRepository.findByUserId(user.getId())
+                    .map(Student::getFullName)
+                    .orElse(user.getEmail());
+            case TEACHER -> teacherRepository.findByUserId(user.getId())
+                    .map(Teacher::getFullName)
+                    .orElse(user.getEmail());
+        };
+    }
+    
     @Override
     @Transactional
     public void updateStudentUser(Long studentId, com.eadms.dto.request.UserUpdateRequest request) {
@@ -102,6 +131,7 @@ public class AuthServiceImpl implements AuthService {
         }
         
         userRepository.save(user);
+        secondLevelCache.evictUserAfterCommit(user.getId());
     }
     
     @Override
@@ -123,5 +153,6 @@ public class AuthServiceImpl implements AuthService {
         }
         
         userRepository.save(user);
+        secondLevelCache.evictUserAfterCommit(user.getId());
     }
 }
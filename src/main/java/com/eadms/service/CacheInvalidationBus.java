@@ -0,0 +1,21 @@
+package com.eadms.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries cache invalidations between application instances. Every instance subscribes its caches;
+ * a published invalidation reaches the local subscribers immediately and the other instances as
+ * soon as the transport allows.
+ */
+public interface CacheInvalidationBus {
+    
+    /**
+     * An entry ({@code key}) or a whole region ({@code key == null}) to drop.
+     */
+    record Invalidation(String region, Long key) {
+    }
+    
+    void publish(Invalidation invalidation);
+    
+    void subscribe(Consumer<Invalidation> subscriber);
+}
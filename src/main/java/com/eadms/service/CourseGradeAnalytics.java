@@ -0,0 +1,77 @@
+package com.eadms.service;
+
+import com.eadms.dto.projection.CourseSummary;
+import com.eadms.dto.response.CacheStatsResponse;
+import com.eadms.dto.response.CourseGradeAnalyticsResponse;
+import com.eadms.repository.MarksRepository;
+import com.eadms.service.CacheInvalidationBus.Invalidation;
+import com.eadms.util.BoundedCache;
+import com.eadms.util.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-course {@link GradeDistribution}s, computed from a primitive snapshot of the course's marks and
+ * kept until the next mark write for the course.
+ *
+ * Writes invalidate through the {@link CacheInvalidationBus} after commit, and as in
+ * {@link ReferenceDataCache} a load that overlaps an invalidation is not stored and entries expire
+ * after a time to live in case a cross-instance invalidation is lost.
+ */
+@Component
+public class CourseGradeAnalytics {
+    
+    static final String GRADE_ANALYTICS = "gradeAnalytics";
+    
+    private final MarksRepository marksRepository;
+    private final ReferenceDataCache referenceData;
+    private final CacheInvalidationBus invalidationBus;
+    private final BoundedCache<Long, GradeDistribution> distributions;
+    
+    public CourseGradeAnalytics(MarksRepository marksRepository,
+                                ReferenceDataCache referenceData,
+                                CacheInvalidationBus invalidationBus,
+                                @Value("${grade-analytics.cache.max-entries:2000}") int maxEntries,
+                                @Value("${grade-analytics.cache.ttl-seconds:3600}") long ttlSeconds) {
+        this.marksRepository = marksRepository;
+        this.referenceData = referenceData;
+        this.invalidationBus = invalidationBus;
+        this.distributions = new BoundedCache<>(GRADE_ANALYTICS, maxEntries, Duration.ofSeconds(ttlSeconds));
+        invalidationBus.subscribe(this::apply);
+    }
+    
+    public CourseGradeAnalyticsResponse analyze(Long courseId, int top) {
+        CourseSummary course = referenceData.getCourse(courseId);
+        return distribution(courseId).toResponse(course, top);
+    }
+    
+    public void evictCourseAfterCommit(Long courseId) {
+        TransactionCallbacks.afterCommit(() -> invalidationBus.publish(new Invalidation(GRADE_ANALYTICS, courseId)));
+    }
+    
+    public void clearAfterCommit() {
+        TransactionCallbacks.afterCommit(() -> invalidationBus.publish(new Invalidation(GRADE_ANALYTICS, null)));
+    }
+    
+    public CacheStatsResponse stats() {
+        return distributions.stats();
+    }
+    
+    private GradeDistribution distribution(Long courseId) {
+        GradeDistribution distribution = distributions.get(courseId);
+        if (distribution == null) {
+            long generation = distributions.generation();
+            distribution = new GradeDistribution(marksRepository.findScoresByCourseId(courseId));
+            distributions.put(courseId, distribution, generation);
+        }
+        return distribution;
+    }
+    
+    private void apply(Invalidation invalidation) {
+        if (GRADE_ANALYTICS.equals(invalidation.region())) {
+            distributions.invalidate(invalidation.key());
+        }
+    }
+}
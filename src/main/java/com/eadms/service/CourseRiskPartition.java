@@ -0,0 +1,93 @@
+package com.eadms.service;
+
+import java.util.Arrays;
+
+/**
+ * The active enrollments of one course as streamed by the risk scan, in parallel primitive arrays:
+ * per student their attendance totals, taken exam types and the range of their marks; per mark its
+ * percentage, in exam date order.
+ */
+final class CourseRiskPartition {
+    
+    private final long courseId;
+    private int students;
+    private long[] studentIds = new long[64];
+    private long[] present = new long[64];
+    private long[] sessions = new long[64];
+    private int[] firstMarks = new int[64];
+    // Bit per Marks.ExamType ordinal
+    private int[] examTypeMasks = new int[64];
+    private int marks;
+    private double[] percentages = new double[256];
+    
+    CourseRiskPartition(long courseId) {
+        this.courseId = courseId;
+    }
+    
+    // Rows arrive grouped by student; a row without a mark (examType < 0) only registers the student
+    void add(long studentId, long presentCount, long sessionCount, int examType, double percentage) {
+        if (students == 0 || studentIds[students - 1] != studentId) {
+            if (students == studentIds.length) {
+                int capacity = students * 2;
+                studentIds = Arrays.copyOf(studentIds, capacity);
+                present = Arrays.copyOf(present, capacity);
+                sessions = Arrays.copyOf(sessions, capacity);
+                firstMarks = Arrays.copyOf(firstMarks, capacity);
+                examTypeMasks = Arrays.copyOf(examTypeMasks, capacity);
+            }
+            studentIds[students] = studentId;
+            present[students] = presentCount;
+            sessions[students] = sessionCount;
+            firstMarks[students] = marks;
+            students++;
+        }
+        if (examType >= 0) {
+            if (marks == percentages.length) {
+                percentages = Arrays.copyOf(percentages, marks * 2);
+            }
+            percentages[marks++] = percentage;
+            examTypeMasks[students - 1] |= 1 << examType;
+        }
+    }
+    
+    long courseId() {
+        return courseId;
+    }
+    
+    int students() {
+        return students;
+    }
+    
+    int marks() {
+        return marks;
+    }
+    
+    long studentId(int student) {
+        return studentIds[student];
+    }
+    
+    long present(int student) {
+        return present[student];
+    }
+    
+    long sessions(int student) {
+        return sessions[student];
+    }
+    
+    int examTypeMask(int student) {
+        return examTypeMasks[student];
+    }
+    
+    int firstMark(int student) {
+        return firstMarks[student];
+    }
+    
+    // Exclusive
+    int endMark(int student) {
+        return student + 1 < students ? firstMarks[student + 1] : marks;
+    }
+    
+    double percentage(int mark) {
+        return percentages[mark];
+    }
+}
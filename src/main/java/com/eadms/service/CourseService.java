@@ -1,6 +1,7 @@
 package com.eadms.service;
 
 import com.eadms.dto.request.CourseCreateRequest;
+import com.eadms.dto.response.CursorPage;
 import com.eadms.dto.response.CourseResponse;
 
 import java.util.List;
@@ -14,6 +15,7 @@ public interface CourseService {
     void deleteCourse(Long id);
     CourseResponse getCourseById(Long id);
     List<CourseResponse> getAllCourses();
+    CursorPage<CourseResponse> getCoursesPage(String cursor, Integer size, boolean includeTotal);
     List<CourseResponse> getCoursesByTeacher(Long teacherId);
     Long getTotalCourseCount();
 }
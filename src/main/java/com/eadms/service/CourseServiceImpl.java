@@ -1,18 +1,28 @@
 package com.eadms.service;
 
+import com.eadms.dto.projection.CourseSummary;
+import com.eadms.dto.projection.TeacherSummary;
 import com.eadms.dto.request.CourseCreateRequest;
+import com.eadms.dto.response.CursorPage;
 import com.eadms.dto.response.CourseResponse;
 import com.eadms.entity.Course;
 import com.eadms.entity.Teacher;
 import com.eadms.exception.BadRequestException;
 import com.eadms.exception.ResourceNotFoundException;
+import com.eadms.repository.AttendanceRollupRepository;
+import com.eadms.repository.GradingScaleRepository;
+import com.eadms.repository.RiskFlagRepository;
 import com.eadms.repository.CourseRepository;
+import com.eadms.repository.StudentDashboardSummaryRepository;
 import com.eadms.repository.TeacherRepository;
+import com.eadms.util.CursorPageUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,6 +31,16 @@ public class CourseServiceImpl implements CourseService {
     
     private final CourseRepository courseRepository;
     private final TeacherRepository teacherRepository;
+    private final AttendanceRollupRepository attendanceRollupRepository;
+    private final RiskFlagRepository riskFlagRepository;
+    private final GradingScaleRepository gradingScaleRepository;
+    private final StudentDashboardSummaryRepository studentDashboardSummaryRepository;
+    private final ScheduleConflictIndex scheduleConflictIndex;
+    private final StudentTimetableCache studentTimetableCache;
+    private final ReferenceDataCache referenceData;
+    private final AcademicLedger academicLedger;
+    private final CourseGradeAnalytics gradeAnalytics;
+    private final GradingScales gradingScales;
     
     @Override
     @Transactional
@@ -45,6 +65,7 @@ public class CourseServiceImpl implements CourseService {
         }
         
         Course savedCourse = courseRepository.save(course);
+        referenceData.evictCourseAfterCommit(savedCourse.getId());
         return mapToResponse(savedCourse);
     }
     
@@ -53,6 +74,7 @@ public class CourseServiceImpl implements CourseService {
     public CourseResponse updateCourse(Long id, CourseCreateRequest request) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course", "id", id));
+        boolean creditsChanged = !Objects.equals(course.getCredits(), request.getCredits());
         
         course.setCourseCode(request.getCourseCode());
         course.setCourseName(request.getCourseName());
@@ -67,9 +89,17 @@ public class CourseServiceImpl implements CourseService {
             Teacher teacher = teacherRepository.findById(request.getTeacherId())
                     .orElseThrow(() -> new ResourceNotFoundException("Teacher", "id", request.getTeacherId()));
             course.getTeachers().add(teacher);
+            course.setUpdatedAt(LocalDateTime.now());
         }
         
         Course updatedCourse = courseRepository.save(course);
+        if (creditsChanged) {
+            // Every enrollment in the course weighs differently now; recount its students
+            academicLedger.rebuild(academicLedger.studentIdsOfCourse(id));
+        }
+        studentDashboardSummaryRepository.markStaleByCourseId(id);
+        studentTimetableCache.evictCourseAfterCommit(id);
+        referenceData.evictCourseAfterCommit(id);
         return mapToResponse(updatedCourse);
     }
     
@@ -84,8 +114,13 @@ public class CourseServiceImpl implements CourseService {
         // Add teacher if not already in the list
         if (!course.getTeachers().contains(teacher)) {
             course.getTeachers().add(teacher);
+            // A collection change alone leaves updatedAt, and so the course's ETag, as it was
+            course.setUpdatedAt(LocalDateTime.now());
         }
         Course updatedCourse = courseRepository.save(course);
+        studentDashboardSummaryRepository.markStaleByCourseId(courseId);
+        studentTimetableCache.evictCourseAfterCommit(courseId);
+        referenceData.evictCourseAfterCommit(courseId);
         return mapToResponse(updatedCourse);
     }
     
@@ -103,8 +138,12 @@ public class CourseServiceImpl implements CourseService {
                     .orElseThrow(() -> new ResourceNotFoundException("Teacher", "id", teacherId));
             course.getTeachers().add(teacher);
         }
+        course.setUpdatedAt(LocalDateTime.now());
         
         Course updatedCourse = courseRepository.save(course);
+        studentDashboardSummaryRepository.markStaleByCourseId(courseId);
+        studentTimetableCache.evictCourseAfterCommit(courseId);
+        referenceData.evictCourseAfterCommit(courseId);
         return mapToResponse(updatedCourse);
     }
     
@@ -116,8 +155,13 @@ public class CourseServiceImpl implements CourseService {
         Teacher teacher = teacherRepository.findById(teacherId)
                 .orElseThrow(() -> new ResourceNotFoundException("Teacher", "id", teacherId));
         
-        course.getTeachers().remove(teacher);
+        if (course.getTeachers().remove(teacher)) {
+            course.setUpdatedAt(LocalDateTime.now());
+        }
         Course updatedCourse = courseRepository.save(course);
+        studentDashboardSummaryRepository.markStaleByCourseId(courseId);
+        studentTimetableCache.evictCourseAfterCommit(courseId);
+        referenceData.evictCourseAfterCommit(courseId);
         return mapToResponse(updatedCourse);
     }
     
@@ -126,17 +170,31 @@ public class CourseServiceImpl implements CourseService {
     public void deleteCourse(Long id) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course", "id", id));
+        studentDashboardSummaryRepository.markStaleByCourseId(id);
+        studentTimetableCache.evictCourseAfterCommit(id);
+        referenceData.evictCourseAfterCommit(id);
+        gradeAnalytics.evictCourseAfterCommit(id);
+        List<Long> enrolledStudentIds = academicLedger.studentIdsOfCourse(id);
+        attendanceRollupRepository.deleteByCourseId(id);
+        riskFlagRepository.deleteByCourseId(id);
+        // Through the entity, so its bands and weights go too
+        gradingScaleRepository.findByCourseId(id).ifPresent(gradingScaleRepository::delete);
+        gradingScales.evictCourseAfterCommit(id);
         courseRepository.delete(course);
+        // The course's enrollments go with it
+        courseRepository.flush();
+        academicLedger.rebuild(enrolledStudentIds);
+        scheduleConflictIndex.releaseCourseAfterCommit(id);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public CourseResponse getCourseById(Long id) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Course", "id", id));
-        return mapToResponse(course);
+        return mapToResponse(referenceData.getCourse(id));
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<CourseResponse> getAllCourses() {
         return courseRepository.findAll().stream()
                 .map(this::mapToResponse)
@@ -144,8 +202,19 @@ public class CourseServiceImpl implements CourseService {
     }
     
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CourseResponse> getCoursesPage(String cursor, Integer size, boolean includeTotal) {
+        int pageSize = CursorPageUtil.pageSize(size);
+        List<Course> rows = courseRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPageUtil.afterId(cursor), CursorPageUtil.fetchLimit(pageSize));
+        Long totalCount = includeTotal ? courseRepository.count() : null;
+        return CursorPageUtil.toPage(rows, pageSize, this::mapToResponse, totalCount);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
     public List<CourseResponse> getCoursesByTeacher(Long teacherId) {
-        return courseRepository.findByTeacherId(teacherId).stream()
+        return referenceData.getCoursesByTeacher(teacherId).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -174,4 +243,19 @@ public class CourseServiceImpl implements CourseService {
                 .teacherNames(teacherNames)
                 .build();
     }
+    
+    private CourseResponse mapToResponse(CourseSummary course) {
+        List<TeacherSummary> teachers = referenceData.getTeachers(course.teacherIds());
+        
+        return CourseResponse.builder()
+                .id(course.id())
+                .courseCode(course.courseCode())
+                .courseName(course.courseName())
+                .semester(course.semester())
+                .credits(course.credits())
+                .description(course.description())
+                .teacherIds(teachers.stream().map(TeacherSummary::id).toList())
+                .teacherNames(teachers.stream().map(TeacherSummary::fullName).toList())
+                .build();
+    }
 }
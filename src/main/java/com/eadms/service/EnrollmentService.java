@@ -1,6 +1,7 @@
 package com.eadms.service;
 
 import com.eadms.dto.request.EnrollmentRequest;
+import com.eadms.dto.response.CourseFinalizationResponse;
 import com.eadms.dto.response.EnrollmentResponse;
 import com.eadms.entity.Course;
 import com.eadms.entity.Enrollment;
@@ -44,6 +45,11 @@ public interface EnrollmentService {
      */
     EnrollmentResponse completeEnrollment(Long enrollmentId, Double finalGrade);
     
+    /**
+     * Grade every active enrollment of a course from its weighted exam marks of its term and complete them
+     */
+    CourseFinalizationResponse finalizeCourse(Long courseId);
+    
     /**
      * Drop a course (change status to DROPPED)
      */
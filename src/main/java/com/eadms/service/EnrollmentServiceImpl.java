@@ -1,30 +1,52 @@
 package com.eadms.service;
 
+import com.eadms.dto.projection.ActiveEnrollment;
+import com.eadms.dto.projection.CourseSummary;
+import com.eadms.dto.projection.ExamComponentScore;
 import com.eadms.dto.request.EnrollmentRequest;
+import com.eadms.dto.response.CourseFinalizationResponse;
 import com.eadms.dto.response.EnrollmentResponse;
 import com.eadms.entity.Course;
 import com.eadms.entity.Enrollment;
+import com.eadms.entity.Marks;
 import com.eadms.entity.Student;
 import com.eadms.exception.BadRequestException;
 import com.eadms.exception.ResourceNotFoundException;
 import com.eadms.repository.CourseRepository;
+import com.eadms.repository.EnrollmentBulkRepository;
 import com.eadms.repository.EnrollmentRepository;
+import com.eadms.repository.MarksRepository;
+import com.eadms.repository.StudentDashboardSummaryRepository;
 import com.eadms.repository.StudentRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class EnrollmentServiceImpl implements EnrollmentService {
     
+    private static final Marks.ExamType[] EXAM_TYPES = Marks.ExamType.values();
+    
     private final EnrollmentRepository enrollmentRepository;
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
+    private final ReferenceDataCache referenceData;
+    private final StudentDashboardSummaryRepository studentDashboardSummaryRepository;
+    private final StudentTimetableCache studentTimetableCache;
+    private final AcademicLedger academicLedger;
+    private final GradingScales gradingScales;
+    private final MarksRepository marksRepository;
     
     @Override
     @Transactional
@@ -34,8 +56,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Student", "id", request.getStudentId()));
         
         // Validate course exists
-        Course course = courseRepository.findById(request.getCourseId())
-                .orElseThrow(() -> new ResourceNotFoundException("Course", "id", request.getCourseId()));
+        CourseSummary course = referenceData.getCourse(request.getCourseId());
         
         // Check if already enrolled
         if (isStudentEnrolled(request.getStudentId(), request.getCourseId(), 
@@ -46,7 +67,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         // Create enrollment
         Enrollment enrollment = Enrollment.builder()
                 .student(student)
-                .course(course)
+                .course(courseRepository.getReferenceById(course.id()))
                 .semester(request.getSemester())
                 .academicYear(request.getAcademicYear())
                 .status(Enrollment.EnrollmentStatus.ACTIVE)
@@ -54,10 +75,14 @@ public class EnrollmentServiceImpl implements EnrollmentService {
                 .build();
         
         Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
-        return mapToResponse(savedEnrollment);
+        academicLedger.record(savedEnrollment, AcademicLedger.Contribution.NONE);
+        studentDashboardSummaryRepository.markStale(student.getId());
+        studentTimetableCache.evictStudentAfterCommit(student.getId());
+        return mapToResponse(savedEnrollment, course.courseCode(), course.courseName(), course.credits());
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<EnrollmentResponse> getEnrollmentsByStudent(Long studentId) {
         return enrollmentRepository.findByStudentId(studentId).stream()
                 .map(this::mapToResponse)
@@ -65,6 +90,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<EnrollmentResponse> getActiveEnrollmentsByStudent(Long studentId) {
         return enrollmentRepository.findByStudentIdAndStatus(studentId, Enrollment.EnrollmentStatus.ACTIVE)
                 .stream()
@@ -73,11 +99,13 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<Course> getActiveCoursesByStudent(Long studentId) {
         return enrollmentRepository.findActiveCoursesByStudentId(studentId);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<EnrollmentResponse> getEnrollmentsByCourse(Long courseId) {
         return enrollmentRepository.findByCourseId(courseId).stream()
                 .map(this::mapToResponse)
@@ -89,6 +117,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     public EnrollmentResponse updateEnrollmentStatus(Long enrollmentId, Enrollment.EnrollmentStatus status) {
         Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Enrollment", "id", enrollmentId));
+        AcademicLedger.Contribution before = academicLedger.contributionOf(enrollment);
         
         enrollment.setStatus(status);
         
@@ -98,7 +127,12 @@ public class EnrollmentServiceImpl implements EnrollmentService {
             enrollment.setCompletionDate(LocalDate.now());
         }
         
-        Enrollment updatedEnrollment = enrollmentRepository.save(enrollment);
+        // Flushed now, not at commit: the enrollment row is locked before the ledger and summary rows, in the
+        // order finalizeCourse locks them, so the two cannot deadlock
+        Enrollment updatedEnrollment = enrollmentRepository.saveAndFlush(enrollment);
+        academicLedger.record(updatedEnrollment, before);
+        studentDashboardSummaryRepository.markStale(enrollment.getStudent().getId());
+        studentTimetableCache.evictStudentAfterCommit(enrollment.getStudent().getId());
         return mapToResponse(updatedEnrollment);
     }
     
@@ -107,50 +141,144 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     public EnrollmentResponse completeEnrollment(Long enrollmentId, Double finalGrade) {
         Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Enrollment", "id", enrollmentId));
+        AcademicLedger.Contribution before = academicLedger.contributionOf(enrollment);
         
         enrollment.setFinalGrade(finalGrade);
-        enrollment.calculateGradePoints();
+        if (finalGrade == null) {
+            enrollment.setLetterGrade(null);
+            enrollment.setGradePoints(null);
+        } else {
+            GradeThresholds.Grade grade = gradingScales.forCourse(enrollment.getCourse().getId()).grade(finalGrade);
+            enrollment.setLetterGrade(grade.letterGrade());
+            enrollment.setGradePoints(grade.gradePoints());
+        }
         enrollment.setStatus(Enrollment.EnrollmentStatus.COMPLETED);
         enrollment.setCompletionDate(LocalDate.now());
         
-        Enrollment updatedEnrollment = enrollmentRepository.save(enrollment);
+        // Row lock first, as in updateEnrollmentStatus
+        Enrollment updatedEnrollment = enrollmentRepository.saveAndFlush(enrollment);
+        academicLedger.record(updatedEnrollment, before);
+        studentDashboardSummaryRepository.markStale(enrollment.getStudent().getId());
+        studentTimetableCache.evictStudentAfterCommit(enrollment.getStudent().getId());
         return mapToResponse(updatedEnrollment);
     }
     
+    @Override
+    @Transactional
+    public CourseFinalizationResponse finalizeCourse(Long courseId) {
+        CourseSummary course = referenceData.getCourse(courseId);
+        List<ActiveEnrollment> enrollments = enrollmentRepository.findActiveByCourseId(courseId);
+        if (enrollments.isEmpty()) {
+            throw new BadRequestException("Course has no active enrollments to finalize");
+        }
+        GradeThresholds scale = gradingScales.forCourse(courseId);
+        
+        // Percentage per exam type of each enrollment with marks in its term; types nobody sat stay out of the weighting
+        Map<Long, double[]> componentsByEnrollment = new HashMap<>();
+        boolean[] held = new boolean[EXAM_TYPES.length];
+        for (ExamComponentScore score : marksRepository.findActiveComponentScoresByCourseId(courseId)) {
+            if (score.maxMarks() == null || score.maxMarks() <= 0) {
+                continue;
+            }
+            int type = score.examType().ordinal();
+            componentsByEnrollment.computeIfAbsent(score.enrollmentId(), id -> new double[EXAM_TYPES.length])[type] =
+                    score.marksObtained() / score.maxMarks() * 100;
+            held[type] = true;
+        }
+        double[] weights = new double[EXAM_TYPES.length];
+        double totalWeight = 0;
+        for (Marks.ExamType type : EXAM_TYPES) {
+            if (held[type.ordinal()]) {
+                weights[type.ordinal()] = scale.weight(type);
+                totalWeight += weights[type.ordinal()];
+            }
+        }
+        if (totalWeight <= 0) {
+            throw new BadRequestException("Course has no marks in an exam type the grading scale weighs");
+        }
+        Map<String, Double> appliedWeights = new LinkedHashMap<>();
+        for (Marks.ExamType type : EXAM_TYPES) {
+            if (weights[type.ordinal()] > 0) {
+                weights[type.ordinal()] /= totalWeight;
+                appliedWeights.put(type.name(), round(weights[type.ordinal()], 4));
+            }
+        }
+        
+        double[] none = new double[EXAM_TYPES.length];
+        List<EnrollmentBulkRepository.Completion> completions = new ArrayList<>(enrollments.size());
+        List<CourseFinalizationResponse.Result> results = new ArrayList<>(enrollments.size());
+        Map<String, Integer> letterGradeCounts = new LinkedHashMap<>();
+        Set<Long> studentIds = new HashSet<>();
+        double gradeSum = 0;
+        for (ActiveEnrollment enrollment : enrollments) {
+            // A missing component counts as zero
+            double[] components = componentsByEnrollment.getOrDefault(enrollment.id(), none);
+            double finalGrade = 0;
+            for (int type = 0; type < weights.length; type++) {
+                finalGrade += weights[type] * components[type];
+            }
+            finalGrade = round(finalGrade, 2);
+            GradeThresholds.Grade grade = scale.grade(finalGrade);
+            completions.add(new EnrollmentBulkRepository.Completion(
+                    enrollment.id(), finalGrade, grade.letterGrade(), grade.gradePoints()));
+            results.add(CourseFinalizationResponse.Result.builder()
+                    .enrollmentId(enrollment.id())
+                    .studentId(enrollment.studentId())
+                    .finalGrade(finalGrade)
+                    .letterGrade(grade.letterGrade())
+                    .gradePoints(grade.gradePoints())
+                    .build());
+            letterGradeCounts.merge(grade.letterGrade(), 1, Integer::sum);
+            studentIds.add(enrollment.studentId());
+            gradeSum += finalGrade;
+        }
+        
+        int completed = enrollmentRepository.completeAll(completions, LocalDate.now());
+        if (completed != enrollments.size()) {
+            // Some enrollments were dropped or completed meanwhile; the results would not match what was saved
+            throw new BadRequestException((enrollments.size() - completed)
+                    + " of the course's enrollments changed while it was being finalized; nothing was saved, try again");
+        }
+        academicLedger.rebuild(studentIds);
+        studentDashboardSummaryRepository.markStaleByCourseId(courseId);
+        studentTimetableCache.evictCourseAfterCommit(courseId);
+        return CourseFinalizationResponse.builder()
+                .courseId(course.id())
+                .courseCode(course.courseCode())
+                .gradingScale(scale.name())
+                .appliedWeights(appliedWeights)
+                .enrollmentsCompleted(completed)
+                .averageFinalGrade(round(gradeSum / enrollments.size(), 2))
+                .letterGradeCounts(letterGradeCounts)
+                .results(results)
+                .build();
+    }
+    
     @Override
     @Transactional
     public void dropEnrollment(Long enrollmentId) {
         Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Enrollment", "id", enrollmentId));
+        AcademicLedger.Contribution before = academicLedger.contributionOf(enrollment);
         
         enrollment.setStatus(Enrollment.EnrollmentStatus.DROPPED);
         enrollment.setCompletionDate(LocalDate.now());
-        enrollmentRepository.save(enrollment);
+        // Row lock first, as in updateEnrollmentStatus
+        enrollmentRepository.saveAndFlush(enrollment);
+        academicLedger.record(enrollment, before);
+        studentDashboardSummaryRepository.markStale(enrollment.getStudent().getId());
+        studentTimetableCache.evictStudentAfterCommit(enrollment.getStudent().getId());
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Double calculateStudentGPA(Long studentId) {
-        List<Enrollment> completedEnrollments = enrollmentRepository.findCompletedEnrollmentsWithGrades(studentId);
-        
-        if (completedEnrollments.isEmpty()) {
-            return 0.0;
-        }
-        
-        double totalGradePoints = 0.0;
-        int totalCredits = 0;
-        
-        for (Enrollment enrollment : completedEnrollments) {
-            int courseCredits = enrollment.getCourse().getCredits();
-            totalGradePoints += enrollment.getGradePoints() * courseCredits;
-            totalCredits += courseCredits;
-        }
-        
-        return totalCredits > 0 ? totalGradePoints / totalCredits : 0.0;
+        return academicLedger.gpa(studentId);
     }
     
     @Override
     public Integer getTotalActiveCredits(Long studentId) {
-        return enrollmentRepository.calculateTotalCreditsByStudentId(studentId);
+        return academicLedger.activeCredits(studentId);
     }
     
     @Override
@@ -160,15 +288,25 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         ).isPresent();
     }
     
+    private static double round(double value, int places) {
+        double scale = Math.pow(10, places);
+        return Math.round(value * scale) / scale;
+    }
+    
     private EnrollmentResponse mapToResponse(Enrollment enrollment) {
+        Course course = enrollment.getCourse();
+        return mapToResponse(enrollment, course.getCourseCode(), course.getCourseName(), course.getCredits());
+    }
+    
+    private EnrollmentResponse mapToResponse(Enrollment enrollment, String courseCode, String courseName, Integer credits) {
         return EnrollmentResponse.builder()
                 .id(enrollment.getId())
                 .studentId(enrollment.getStudent().getId())
                 .studentName(enrollment.getStudent().getFullName())
                 .courseId(enrollment.getCourse().getId())
-                .courseName(enrollment.getCourse().getCourseName())
-                .courseCode(enrollment.getCourse().getCourseCode())
-                .credits(enrollment.getCourse().getCredits())
+                .courseName(courseName)
+                .courseCode(courseCode)
+                .credits(credits)
                 .semester(enrollment.getSemester())
                 .academicYear(enrollment.getAcademicYear())
                 .status(enrollment.getStatus().name())
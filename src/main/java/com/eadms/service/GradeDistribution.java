@@ -0,0 +1,184 @@
+package com.eadms.service;
+
+import com.eadms.dto.projection.CourseMarkScores;
+import com.eadms.dto.projection.CourseSummary;
+import com.eadms.dto.response.CourseGradeAnalyticsResponse;
+import com.eadms.entity.Marks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable statistics of one course's scores, computed from a {@link CourseMarkScores} snapshot.
+ *
+ * One pass over the marks folds the exam type moments (Welford) and, as the snapshot is ordered by
+ * student, each student's mean; a second pass over the students gives the overall moments and the
+ * histogram. The students are then ranked with a single sort of packed {@code long} keys, which also
+ * orders them for the quartiles, so nothing is allocated per mark or per student beyond the arrays.
+ */
+final class GradeDistribution {
+    
+    private static final Marks.ExamType[] EXAM_TYPES = Marks.ExamType.values();
+    private static final int BUCKETS = 10;
+    private static final double BUCKET_WIDTH = 100.0 / BUCKETS;
+    // Rank keys hold the percentage in fixed point above the student index
+    private static final double KEY_SCALE = 10_000;
+    
+    private final int markCount;
+    private final int studentCount;
+    // Ascending by percentage
+    private final long[] rankedStudentIds;
+    private final int[] rankedMarkCounts;
+    private final double[] rankedPercentages;
+    private final double mean;
+    private final double standardDeviation;
+    private final int[] histogram = new int[BUCKETS];
+    private final int[] typeCounts = new int[EXAM_TYPES.length];
+    private final double[] typeMeans = new double[EXAM_TYPES.length];
+    private final double[] typeSquares = new double[EXAM_TYPES.length];
+    private final double[] typeMins = new double[EXAM_TYPES.length];
+    private final double[] typeMaxes = new double[EXAM_TYPES.length];
+    
+    GradeDistribution(CourseMarkScores scores) {
+        int size = scores.size();
+        long[] studentIds = scores.studentIds();
+        byte[] examTypes = scores.examTypes();
+        double[] percentages = scores.percentages();
+        
+        long[] students = new long[size];
+        int[] markCounts = new int[size];
+        double[] studentPercentages = new double[size];
+        Arrays.fill(typeMins, Double.POSITIVE_INFINITY);
+        Arrays.fill(typeMaxes, Double.NEGATIVE_INFINITY);
+        
+        int s = -1;
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            double p = percentages[i];
+            int type = examTypes[i];
+            int n = ++typeCounts[type];
+            double delta = p - typeMeans[type];
+            typeMeans[type] += delta / n;
+            typeSquares[type] += delta * (p - typeMeans[type]);
+            typeMins[type] = Math.min(typeMins[type], p);
+            typeMaxes[type] = Math.max(typeMaxes[type], p);
+            
+            if (s < 0 || studentIds[i] != students[s]) {
+                if (s >= 0) {
+                    studentPercentages[s] = sum / markCounts[s];
+                }
+                students[++s] = studentIds[i];
+                sum = 0;
+            }
+            markCounts[s]++;
+            sum += p;
+        }
+        if (s >= 0) {
+            studentPercentages[s] = sum / markCounts[s];
+        }
+        
+        markCount = size;
+        studentCount = s + 1;
+        double runningMean = 0;
+        double squares = 0;
+        long[] keys = new long[studentCount];
+        for (int i = 0; i < studentCount; i++) {
+            double p = studentPercentages[i];
+            double delta = p - runningMean;
+            runningMean += delta / (i + 1);
+            squares += delta * (p - runningMean);
+            histogram[Math.min((int) (p / BUCKET_WIDTH), BUCKETS - 1)]++;
+            keys[i] = Math.round(p * KEY_SCALE) << 32 | i;
+        }
+        mean = runningMean;
+        standardDeviation = studentCount == 0 ? 0 : Math.sqrt(squares / studentCount);
+        
+        // Equal percentages keep student id order
+        Arrays.sort(keys);
+        rankedStudentIds = new long[studentCount];
+        rankedMarkCounts = new int[studentCount];
+        rankedPercentages = new double[studentCount];
+        for (int r = 0; r < studentCount; r++) {
+            int i = (int) keys[r];
+            rankedStudentIds[r] = students[i];
+            rankedMarkCounts[r] = markCounts[i];
+            rankedPercentages[r] = (keys[r] >>> 32) / KEY_SCALE;
+        }
+    }
+    
+    CourseGradeAnalyticsResponse toResponse(CourseSummary course, int top) {
+        boolean empty = studentCount == 0;
+        int ranked = Math.min(top, studentCount);
+        List<CourseGradeAnalyticsResponse.StudentScore> best = new ArrayList<>(ranked);
+        List<CourseGradeAnalyticsResponse.StudentScore> worst = new ArrayList<>(ranked);
+        for (int r = 0; r < ranked; r++) {
+            best.add(studentScore(studentCount - 1 - r));
+            worst.add(studentScore(r));
+        }
+        
+        List<CourseGradeAnalyticsResponse.Bucket> buckets = new ArrayList<>(BUCKETS);
+        for (int b = 0; b < BUCKETS; b++) {
+            buckets.add(CourseGradeAnalyticsResponse.Bucket.builder()
+                    .from((int) (b * BUCKET_WIDTH))
+                    .to((int) ((b + 1) * BUCKET_WIDTH))
+                    .count(histogram[b])
+                    .build());
+        }
+        
+        List<CourseGradeAnalyticsResponse.ExamTypeStats> types = new ArrayList<>(EXAM_TYPES.length);
+        for (Marks.ExamType type : EXAM_TYPES) {
+            int t = type.ordinal();
+            if (typeCounts[t] == 0) {
+                continue;
+            }
+            types.add(CourseGradeAnalyticsResponse.ExamTypeStats.builder()
+                    .examType(type.name())
+                    .count(typeCounts[t])
+                    .mean(round(typeMeans[t]))
+                    .standardDeviation(round(Math.sqrt(typeSquares[t] / typeCounts[t])))
+                    .min(round(typeMins[t]))
+                    .max(round(typeMaxes[t]))
+                    .build());
+        }
+        
+        return CourseGradeAnalyticsResponse.builder()
+                .courseId(course.id())
+                .courseCode(course.courseCode())
+                .courseName(course.courseName())
+                .markCount(markCount)
+                .studentCount(studentCount)
+                .mean(empty ? null : round(mean))
+                .standardDeviation(empty ? null : round(standardDeviation))
+                .min(empty ? null : round(rankedPercentages[0]))
+                .lowerQuartile(empty ? null : round(percentile(0.25)))
+                .median(empty ? null : round(percentile(0.5)))
+                .upperQuartile(empty ? null : round(percentile(0.75)))
+                .max(empty ? null : round(rankedPercentages[studentCount - 1]))
+                .histogram(buckets)
+                .top(best)
+                .bottom(worst)
+                .examTypes(types)
+                .build();
+    }
+    
+    // Linear interpolation between the closest ranks
+    private double percentile(double fraction) {
+        double position = fraction * (studentCount - 1);
+        int lower = (int) position;
+        int upper = Math.min(lower + 1, studentCount - 1);
+        return rankedPercentages[lower] + (position - lower) * (rankedPercentages[upper] - rankedPercentages[lower]);
+    }
+    
+    private CourseGradeAnalyticsResponse.StudentScore studentScore(int rank) {
+        return CourseGradeAnalyticsResponse.StudentScore.builder()
+                .studentId(rankedStudentIds[rank])
+                .markCount(rankedMarkCounts[rank])
+                .percentage(round(rankedPercentages[rank]))
+                .build();
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
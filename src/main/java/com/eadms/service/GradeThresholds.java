@@ -0,0 +1,65 @@
+package com.eadms.service;
+
+import com.eadms.entity.GradeBand;
+import com.eadms.entity.GradingScale;
+import com.eadms.entity.Marks;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, lookup-ready copy of a {@link GradingScale}: band minimums in a sorted array, searched
+ * by bisection, with the letter and grade points of each band alongside.
+ */
+public final class GradeThresholds {
+    
+    public record Grade(String letterGrade, double gradePoints) {
+    }
+    
+    private final String name;
+    private final double[] minimums;
+    private final Grade[] grades;
+    private final Map<Marks.ExamType, Double> examWeights;
+    
+    GradeThresholds(GradingScale scale) {
+        List<GradeBand> bands = scale.getBands().stream()
+                .sorted(Comparator.comparingDouble(GradeBand::getMinPercentage))
+                .toList();
+        this.name = scale.getName();
+        this.minimums = new double[bands.size()];
+        this.grades = new Grade[bands.size()];
+        for (int i = 0; i < bands.size(); i++) {
+            GradeBand band = bands.get(i);
+            minimums[i] = band.getMinPercentage();
+            grades[i] = new Grade(band.getLetterGrade(), band.getGradePoints());
+        }
+        Map<Marks.ExamType, Double> weights = new EnumMap<>(Marks.ExamType.class);
+        weights.putAll(scale.getExamWeights());
+        this.examWeights = weights;
+    }
+    
+    public String name() {
+        return name;
+    }
+    
+    // The highest band whose minimum the percentage reaches; below every minimum means the lowest band
+    public Grade grade(double percentage) {
+        int low = 0;
+        int high = minimums.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (minimums[mid] <= percentage) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return grades[low];
+    }
+    
+    public double weight(Marks.ExamType examType) {
+        return examWeights.getOrDefault(examType, 0.0);
+    }
+}
@@ -0,0 +1,32 @@
+package com.eadms.service;
+
+import com.eadms.dto.request.GradingScaleRequest;
+import com.eadms.dto.response.GradingScaleResponse;
+
+public interface GradingScaleService {
+    
+    /**
+     * Get the institution default scale
+     */
+    GradingScaleResponse getDefaultScale();
+    
+    /**
+     * Replace the institution default scale, creating it if there is none
+     */
+    GradingScaleResponse updateDefaultScale(GradingScaleRequest request);
+    
+    /**
+     * Get the scale in force for a course: its own, or else the default
+     */
+    GradingScaleResponse getCourseScale(Long courseId);
+    
+    /**
+     * Give a course a scale of its own, replacing any it had
+     */
+    GradingScaleResponse setCourseScale(Long courseId, GradingScaleRequest request);
+    
+    /**
+     * Return a course to the default scale
+     */
+    void removeCourseScale(Long courseId);
+}
@@ -0,0 +1,142 @@
+package com.eadms.service;
+
+import com.eadms.dto.request.GradingScaleRequest;
+import com.eadms.dto.response.GradingScaleResponse;
+import com.eadms.entity.GradeBand;
+import com.eadms.entity.GradingScale;
+import com.eadms.entity.Marks;
+import com.eadms.exception.BadRequestException;
+import com.eadms.exception.ResourceNotFoundException;
+import com.eadms.repository.GradingScaleRepository;
+import com.eadms.util.ValidationUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+public class GradingScaleServiceImpl implements GradingScaleService {
+    
+    private final GradingScaleRepository gradingScaleRepository;
+    private final ReferenceDataCache referenceData;
+    private final GradingScales gradingScales;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public GradingScaleResponse getDefaultScale() {
+        return gradingScaleRepository.findDefault()
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("No default grading scale is configured"));
+    }
+    
+    @Override
+    @Transactional
+    public GradingScaleResponse updateDefaultScale(GradingScaleRequest request) {
+        GradingScale scale = gradingScaleRepository.findDefault().orElseGet(GradingScale::new);
+        apply(scale, request);
+        GradingScale saved = gradingScaleRepository.save(scale);
+        gradingScales.evictDefaultAfterCommit();
+        return mapToResponse(saved);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public GradingScaleResponse getCourseScale(Long courseId) {
+        referenceData.getCourse(courseId);
+        return gradingScaleRepository.findByCourseId(courseId)
+                .or(gradingScaleRepository::findDefault)
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("No grading scale is configured"));
+    }
+    
+    @Override
+    @Transactional
+    public GradingScaleResponse setCourseScale(Long courseId, GradingScaleRequest request) {
+        referenceData.getCourse(courseId);
+        GradingScale scale = gradingScaleRepository.findByCourseId(courseId)
+                .orElseGet(() -> GradingScale.builder().courseId(courseId).build());
+        apply(scale, request);
+        GradingScale saved = gradingScaleRepository.save(scale);
+        gradingScales.evictCourseAfterCommit(courseId);
+        return mapToResponse(saved);
+    }
+    
+    @Override
+    @Transactional
+    public void removeCourseScale(Long courseId) {
+        GradingScale scale = gradingScaleRepository.findByCourseId(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("GradingScale", "courseId", courseId));
+        gradingScaleRepository.delete(scale);
+        gradingScales.evictCourseAfterCommit(courseId);
+    }
+    
+    // Validates the whole request before touching the managed collections
+    private static void apply(GradingScale scale, GradingScaleRequest request) {
+        Set<Double> minimums = new HashSet<>();
+        for (GradingScaleRequest.Band band : request.getBands()) {
+            if (!minimums.add(band.getMinPercentage())) {
+                throw new BadRequestException("Grade bands must have distinct minimum percentages: "
+                        + band.getMinPercentage());
+            }
+        }
+        if (!minimums.contains(0.0)) {
+            throw new BadRequestException("One grade band must start at 0");
+        }
+        
+        Map<Marks.ExamType, Double> weights = new EnumMap<>(Marks.ExamType.class);
+        double totalWeight = 0;
+        for (Map.Entry<String, Double> entry : request.getExamWeights().entrySet()) {
+            ValidationUtil.validateEnum(entry.getKey(), Marks.ExamType.class, "exam type");
+            Double weight = entry.getValue();
+            if (weight == null || weight < 0) {
+                throw new BadRequestException("Exam type weights cannot be negative: " + entry.getKey());
+            }
+            weights.put(Marks.ExamType.valueOf(entry.getKey().toUpperCase()), weight);
+            totalWeight += weight;
+        }
+        if (totalWeight <= 0) {
+            throw new BadRequestException("At least one exam type must carry weight");
+        }
+        
+        scale.setName(request.getName().trim());
+        scale.getBands().clear();
+        for (GradingScaleRequest.Band band : request.getBands()) {
+            scale.getBands().add(GradeBand.builder()
+                    .minPercentage(band.getMinPercentage())
+                    .letterGrade(band.getLetterGrade().trim())
+                    .gradePoints(band.getGradePoints())
+                    .build());
+        }
+        scale.getExamWeights().clear();
+        scale.getExamWeights().putAll(weights);
+    }
+    
+    private GradingScaleResponse mapToResponse(GradingScale scale) {
+        List<GradingScaleResponse.Band> bands = scale.getBands().stream()
+                .sorted(Comparator.comparingDouble(GradeBand::getMinPercentage))
+                .map(band -> GradingScaleResponse.Band.builder()
+                        .minPercentage(band.getMinPercentage())
+                        .letterGrade(band.getLetterGrade())
+                        .gradePoints(band.getGradePoints())
+                        .build())
+                .toList();
+        Map<String, Double> weights = new LinkedHashMap<>();
+        new TreeMap<>(scale.getExamWeights()).forEach((type, weight) -> weights.put(type.name(), weight));
+        return GradingScaleResponse.builder()
+                .id(scale.getId())
+                .courseId(scale.getCourseId())
+                .name(scale.getName())
+                .bands(bands)
+                .examWeights(weights)
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.eadms.service;
+
+import com.eadms.entity.GradingScale;
+import com.eadms.exception.BadRequestException;
+import com.eadms.repository.GradingScaleRepository;
+import com.eadms.service.CacheInvalidationBus.Invalidation;
+import com.eadms.util.TransactionCallbacks;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link GradeThresholds} in force for each course: the course's own scale, or else the
+ * institution default. Resolved scales are cached per course, since grading reads them on every
+ * completion while they change a few times a year.
+ *
+ * Scale writes invalidate through the {@link CacheInvalidationBus} after commit; a change to the
+ * default drops every course, as any of them may be using it. As in {@link ReferenceDataCache}, a
+ * load that overlaps an invalidation is not stored.
+ */
+@Component
+public class GradingScales {
+    
+    static final String GRADING_SCALES = "gradingScales";
+    
+    private final GradingScaleRepository gradingScaleRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final Map<Long, GradeThresholds> byCourse = new ConcurrentHashMap<>();
+    private long generation;
+    
+    public GradingScales(GradingScaleRepository gradingScaleRepository, CacheInvalidationBus invalidationBus) {
+        this.gradingScaleRepository = gradingScaleRepository;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(this::apply);
+    }
+    
+    @Transactional(readOnly = true)
+    public GradeThresholds forCourse(Long courseId) {
+        GradeThresholds thresholds = byCourse.get(courseId);
+        if (thresholds == null) {
+            long loadedAtGeneration = generation();
+            GradingScale scale = gradingScaleRepository.findByCourseId(courseId)
+                    .or(gradingScaleRepository::findDefault)
+                    .orElseThrow(() -> new BadRequestException("No grading scale is configured"));
+            thresholds = new GradeThresholds(scale);
+            put(courseId, thresholds, loadedAtGeneration);
+        }
+        return thresholds;
+    }
+    
+    public void evictCourseAfterCommit(Long courseId) {
+        TransactionCallbacks.afterCommit(() -> invalidationBus.publish(new Invalidation(GRADING_SCALES, courseId)));
+    }
+    
+    public void evictDefaultAfterCommit() {
+        TransactionCallbacks.afterCommit(() -> invalidationBus.publish(new Invalidation(GRADING_SCALES, null)));
+    }
+    
+    private synchronized long generation() {
+        return generation;
+    }
+    
+    private synchronized void put(Long courseId, GradeThresholds thresholds, long loadedAtGeneration) {
+        if (loadedAtGeneration == generation) {
+            byCourse.put(courseId, thresholds);
+        }
+    }
+    
+    private synchronized void apply(Invalidation invalidation) {
+        if (!GRADING_SCALES.equals(invalidation.region())) {
+            return;
+        }
+        generation++;
+        if (invalidation.key() == null) {
+            byCourse.clear();
+        } else {
+            byCourse.remove(invalidation.key());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.eadms.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Multi-instance bus over the shared database (see V7 migration). Each invalidation is applied
+ * locally at once and appended to {@code cache_invalidations}; every instance polls the table and
+ * applies the rows other instances wrote.
+ *
+ * Rows are read by time window rather than by id, with a grace period, because ids from concurrent
+ * transactions can commit out of order; rows already applied are remembered for the length of the
+ * window. Invalidations are idempotent, so the worst case of a late row is one extra reload.
+ *
+ * Both {@code created_at} (the column default) and the poll watermark come from the database clock,
+ * so instances with skewed clocks still agree on the window. Publishing runs in its own transaction:
+ * it is called from after-commit callbacks, where the finished transaction's connection is still bound
+ * and a plain insert would never be committed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.bus", havingValue = "jdbc")
+public class JdbcCacheInvalidationBus implements CacheInvalidationBus {
+    
+    private static final int PRUNE_EVERY_POLLS = 60;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate publishTransaction;
+    private final Duration grace;
+    private final Duration retention;
+    private final String origin = UUID.randomUUID().toString();
+    private final List<Consumer<Invalidation>> subscribers = new CopyOnWriteArrayList<>();
+    private final Map<Long, LocalDateTime> applied = new HashMap<>();
+    // Database time of the last successful poll; null until the first one
+    private LocalDateTime lastPoll;
+    private int polls;
+    
+    public JdbcCacheInvalidationBus(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${cache.invalidation.jdbc.grace-ms:10000}") long graceMs,
+                                    @Value("${cache.invalidation.jdbc.retention-minutes:60}") long retentionMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.publishTransaction = new TransactionTemplate(transactionManager);
+        this.publishTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.grace = Duration.ofMillis(graceMs);
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+    
+    @Override
+    public void publish(Invalidation invalidation) {
+        deliver(invalidation);
+        try {
+            publishTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                    "INSERT INTO cache_invalidations (region, entry_key, origin) VALUES (?, ?, ?)",
+                    invalidation.region(), invalidation.key(), origin));
+        } catch (RuntimeException e) {
+            // Peers fall back on the cache time to live for this change
+            log.warn("Could not broadcast cache invalidation {}: {}", invalidation, e.getMessage());
+        }
+    }
+    
+    @Override
+    public void subscribe(Consumer<Invalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+    
+    @Scheduled(fixedDelayString = "${cache.invalidation.jdbc.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        try {
+            // Same clock and type as the created_at default
+            LocalDateTime pollStart = jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+            // The first poll looks back one grace period, as caches may have loaded since startup
+            LocalDateTime since = (lastPoll != null ? lastPoll : pollStart).minus(grace);
+            jdbcTemplate.query("SELECT id, region, entry_key, origin FROM cache_invalidations "
+                            + "WHERE created_at >= ? ORDER BY id",
+                    rs -> {
+                        long id = rs.getLong("id");
+                        if (applied.putIfAbsent(id, pollStart) == null && !origin.equals(rs.getString("origin"))) {
+                            long key = rs.getLong("entry_key");
+                            // wasNull refers to the last column read, so check it before reading the region
+                            Long entryKey = rs.wasNull() ? null : key;
+                            deliver(new Invalidation(rs.getString("region"), entryKey));
+                        }
+                    },
+                    Timestamp.valueOf(since));
+            lastPoll = pollStart;
+            applied.values().removeIf(seenAt -> seenAt.isBefore(since.minus(grace)));
+            if (++polls % PRUNE_EVERY_POLLS == 0) {
+                jdbcTemplate.update("DELETE FROM cache_invalidations WHERE created_at < ?",
+                        Timestamp.valueOf(pollStart.minus(retention)));
+            }
+        } catch (RuntimeException e) {
+            // lastPoll stays put, so the next poll re-reads this window
+            log.warn("Cache invalidation poll failed: {}", e.getMessage());
+        }
+    }
+    
+    private void deliver(Invalidation invalidation) {
+        subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+    }
+}
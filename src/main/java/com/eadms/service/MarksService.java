@@ -1,16 +1,22 @@
 package com.eadms.service;
 
 import com.eadms.dto.request.MarksEntryRequest;
+import com.eadms.dto.response.BulkMarksImportResponse;
+import com.eadms.dto.response.CourseGradeAnalyticsResponse;
 import com.eadms.dto.response.MarksResponse;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface MarksService {
     MarksResponse enterMarks(MarksEntryRequest request);
+    BulkMarksImportResponse importMarksFromCsv(InputStream input);
+    BulkMarksImportResponse importMarksFromJson(InputStream input);
     MarksResponse updateMarks(Long marksId, MarksEntryRequest request);
     void deleteMarks(Long marksId);
     List<MarksResponse> getMarksByStudent(Long studentId);
     List<MarksResponse> getMarksByCourse(Long courseId);
     Double calculateAverageMarks(Long courseId);
+    CourseGradeAnalyticsResponse getCourseAnalytics(Long courseId, int top);
     Double calculateStudentGPA(Long studentId);
 }
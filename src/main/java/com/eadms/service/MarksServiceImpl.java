@@ -1,17 +1,28 @@
 package com.eadms.service;
 
+import com.eadms.dto.projection.CourseSummary;
+import com.eadms.dto.projection.MarksRow;
 import com.eadms.dto.request.MarksEntryRequest;
+import com.eadms.dto.response.BulkMarksImportResponse;
+import com.eadms.dto.response.CourseGradeAnalyticsResponse;
 import com.eadms.dto.response.MarksResponse;
 import com.eadms.entity.*;
+import com.eadms.exception.BadRequestException;
 import com.eadms.exception.ResourceNotFoundException;
 import com.eadms.repository.*;
+import com.eadms.util.BulkImportReader;
 import com.eadms.util.ValidationUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,9 +30,16 @@ import java.util.stream.Collectors;
 @Slf4j
 public class MarksServiceImpl implements MarksService {
     
+    private static final int MAX_RANKED = 50;
+    static final int IMPORT_CHUNK_SIZE = 1_000;
+    
     private final MarksRepository marksRepository;
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
+    private final ReferenceDataCache referenceData;
+    private final CourseGradeAnalytics gradeAnalytics;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
     
     @Override
     @Transactional
@@ -31,12 +49,11 @@ public class MarksServiceImpl implements MarksService {
         
         Student student = studentRepository.findById(request.getStudentId())
                 .orElseThrow(() -> new ResourceNotFoundException("Student", "id", request.getStudentId()));
-        Course course = courseRepository.findById(request.getCourseId())
-                .orElseThrow(() -> new ResourceNotFoundException("Course", "id", request.getCourseId()));
+        CourseSummary course = referenceData.getCourse(request.getCourseId());
         
         Marks marks = Marks.builder()
                 .student(student)
-                .course(course)
+                .course(courseRepository.getReferenceById(course.id()))
                 .examType(Marks.ExamType.valueOf(request.getExamType().toUpperCase()))
                 .marksObtained(request.getMarksObtained())
                 .maxMarks(request.getMaxMarks())
@@ -45,7 +62,129 @@ public class MarksServiceImpl implements MarksService {
                 .build();
         
         Marks savedMarks = marksRepository.save(marks);
-        return mapToResponse(savedMarks);
+        gradeAnalytics.evictCourseAfterCommit(course.id());
+        return mapToResponse(savedMarks, course.courseCode(), course.courseName());
+    }
+    
+    @Override
+    public BulkMarksImportResponse importMarksFromCsv(InputStream input) {
+        MarksImport marksImport = new MarksImport();
+        try {
+            BulkImportReader.readCsv(objectMapper, input, MarksEntryRequest.class, marksImport);
+        } catch (IOException e) {
+            throw new BadRequestException("Could not read marks CSV: " + e.getMessage());
+        }
+        return marksImport.finish();
+    }
+    
+    @Override
+    public BulkMarksImportResponse importMarksFromJson(InputStream input) {
+        MarksImport marksImport = new MarksImport();
+        try {
+            BulkImportReader.readJsonArray(objectMapper, input, MarksEntryRequest.class, marksImport);
+        } catch (IOException e) {
+            throw new BadRequestException("Could not read marks JSON: " + e.getMessage());
+        }
+        return marksImport.finish();
+    }
+    
+    private static BulkMarksImportResponse.RowError rowError(int rowNumber, MarksEntryRequest row, String message) {
+        return BulkMarksImportResponse.RowError.builder()
+                .row(rowNumber)
+                .studentId(row != null ? row.getStudentId() : null)
+                .courseId(row != null ? row.getCourseId() : null)
+                .message(message)
+                .build();
+    }
+    
+    /**
+     * Saves rows as they stream in: field checks happen per row, and every {@link #IMPORT_CHUNK_SIZE}
+     * valid rows are id-checked and inserted in their own transaction, so only one chunk is held at a
+     * time. Rejected rows are kept for the response. Parsing happens outside any transaction; a write
+     * failure part-way leaves the chunks before it imported.
+     */
+    private class MarksImport implements BulkImportReader.RowHandler<MarksEntryRequest> {
+        private final List<MarksEntryRequest> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        private final List<Integer> chunkRowNumbers = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        private final List<BulkMarksImportResponse.RowError> errors = new ArrayList<>();
+        private int totalRows;
+        private int imported;
+        
+        @Override
+        public void onRow(int rowNumber, MarksEntryRequest row) {
+            totalRows++;
+            Set<ConstraintViolation<MarksEntryRequest>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                errors.add(rowError(rowNumber, row, message));
+                return;
+            }
+            try {
+                ValidationUtil.validateMarks(row.getMarksObtained(), row.getMaxMarks());
+                ValidationUtil.validateEnum(row.getExamType(), Marks.ExamType.class, "exam type");
+            } catch (BadRequestException e) {
+                errors.add(rowError(rowNumber, row, e.getMessage()));
+                return;
+            }
+            row.setExamType(row.getExamType().toUpperCase());
+            chunk.add(row);
+            chunkRowNumbers.add(rowNumber);
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                flush();
+            }
+        }
+        
+        @Override
+        public void onError(int rowNumber, String message) {
+            totalRows++;
+            errors.add(rowError(rowNumber, null, message));
+        }
+        
+        BulkMarksImportResponse finish() {
+            flush();
+            log.info("Bulk marks import: {} rows read, {} imported, {} rejected", totalRows, imported, errors.size());
+            errors.sort(Comparator.comparingInt(BulkMarksImportResponse.RowError::getRow));
+            return BulkMarksImportResponse.builder()
+                    .totalRows(totalRows)
+                    .imported(imported)
+                    .failed(errors.size())
+                    .errors(errors)
+                    .build();
+        }
+        
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Set<Long> studentIds = chunk.stream().map(MarksEntryRequest::getStudentId).collect(Collectors.toSet());
+            Set<Long> courseIds = chunk.stream().map(MarksEntryRequest::getCourseId).collect(Collectors.toSet());
+            Set<Long> knownStudents = new HashSet<>(studentRepository.findExistingIds(studentIds));
+            Set<Long> knownCourses = referenceData.getCourses(courseIds).keySet();
+            
+            List<MarksEntryRequest> accepted = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                MarksEntryRequest row = chunk.get(i);
+                if (!knownStudents.contains(row.getStudentId())) {
+                    errors.add(rowError(chunkRowNumbers.get(i), row, "Student not found with id: " + row.getStudentId()));
+                } else if (!knownCourses.contains(row.getCourseId())) {
+                    errors.add(rowError(chunkRowNumbers.get(i), row, "Course not found with id: " + row.getCourseId()));
+                } else {
+                    accepted.add(row);
+                }
+            }
+            
+            marksRepository.insertAll(accepted);
+            imported += accepted.size();
+            accepted.stream()
+                    .map(MarksEntryRequest::getCourseId)
+                    .distinct()
+                    .forEach(gradeAnalytics::evictCourseAfterCommit);
+            chunk.clear();
+            chunkRowNumbers.clear();
+        }
     }
     
     @Override
@@ -63,6 +202,7 @@ public class MarksServiceImpl implements MarksService {
         marks.setExamDate(request.getExamDate());
         
         Marks updatedMarks = marksRepository.save(marks);
+        gradeAnalytics.evictCourseAfterCommit(marks.getCourse().getId());
         return mapToResponse(updatedMarks);
     }
     
@@ -72,11 +212,12 @@ public class MarksServiceImpl implements MarksService {
         Marks marks = marksRepository.findById(marksId)
                 .orElseThrow(() -> new ResourceNotFoundException("Marks", "id", marksId));
         marksRepository.delete(marks);
+        gradeAnalytics.evictCourseAfterCommit(marks.getCourse().getId());
     }
     
     @Override
     public List<MarksResponse> getMarksByStudent(Long studentId) {
-        return marksRepository.findByStudentId(studentId).stream()
+        return marksRepository.findRowsByStudentId(studentId).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -85,24 +226,11 @@ public class MarksServiceImpl implements MarksService {
     public List<MarksResponse> getMarksByCourse(Long courseId) {
         log.info("Fetching marks for course ID: {}", courseId);
         
-        List<Marks> marksList = marksRepository.findByCourseId(courseId);
-        log.info("Found {} marks records for course ID: {}", marksList.size(), courseId);
-        
-        List<MarksResponse> responses = marksList.stream()
-                .map(marks -> {
-                    try {
-                        MarksResponse response = mapToResponse(marks);
-                        log.debug("Mapped marks ID {} - Student: {} ({}), Course: {}", 
-                                response.getId(), response.getStudentName(), response.getStudentCode(), response.getCourseName());
-                        return response;
-                    } catch (Exception e) {
-                        log.error("Error mapping marks ID {}: {}", marks.getId(), e.getMessage(), e);
-                        throw e;
-                    }
-                })
+        List<MarksResponse> responses = marksRepository.findRowsByCourseId(courseId).stream()
+                .map(this::mapToResponse)
                 .collect(Collectors.toList());
         
-        log.info("Successfully mapped {} marks responses for course ID: {}", responses.size(), courseId);
+        log.info("Found {} marks records for course ID: {}", responses.size(), courseId);
         return responses;
     }
     
@@ -112,12 +240,38 @@ public class MarksServiceImpl implements MarksService {
         return average != null ? average : 0.0;
     }
     
+    @Override
+    public CourseGradeAnalyticsResponse getCourseAnalytics(Long courseId, int top) {
+        if (top < 0 || top > MAX_RANKED) {
+            throw new BadRequestException("Top must be between 0 and " + MAX_RANKED);
+        }
+        return gradeAnalytics.analyze(courseId, top);
+    }
+    
     @Override
     public Double calculateStudentGPA(Long studentId) {
         Double gpa = marksRepository.findAveragePercentageByStudentId(studentId);
         return gpa != null ? gpa / 25.0 : 0.0;  // Convert percentage to 4.0 scale
     }
     
+    private MarksResponse mapToResponse(MarksRow row) {
+        return MarksResponse.builder()
+                .id(row.id())
+                .studentId(row.studentId())
+                .studentCode(row.studentCode())
+                .studentName(row.studentName())
+                .courseId(row.courseId())
+                .courseCode(row.courseCode())
+                .courseName(row.courseName())
+                .examType(row.examType().name())
+                .marksObtained(row.marksObtained())
+                .maxMarks(row.maxMarks())
+                .percentage(row.percentage())
+                .remarks(row.remarks())
+                .examDate(row.examDate())
+                .build();
+    }
+    
     private MarksResponse mapToResponse(Marks marks) {
         // Add null checks and logging for debugging
         if (marks == null) {
@@ -145,14 +299,20 @@ public class MarksServiceImpl implements MarksService {
         log.debug("Course details - ID: {}, Code: {}, Name: {}", 
                 course.getId(), course.getCourseCode(), course.getCourseName());
         
+        return mapToResponse(marks, course.getCourseCode(), course.getCourseName());
+    }
+    
+    // Course code and name are passed in so a write can answer from the reference cache without loading the course
+    private MarksResponse mapToResponse(Marks marks, String courseCode, String courseName) {
+        Student student = marks.getStudent();
         MarksResponse response = MarksResponse.builder()
                 .id(marks.getId())
                 .studentId(student.getId()) // Keep database ID for backend operations
                 .studentCode(student.getStudentId()) // Student ID like CSE-001
                 .studentName(student.getFullName())
-                .courseId(course.getId())
-                .courseCode(course.getCourseCode())
-                .courseName(course.getCourseName())
+                .courseId(marks.getCourse().getId())
+                .courseCode(courseCode)
+                .courseName(courseName)
                 .examType(marks.getExamType().name())
                 .marksObtained(marks.getMarksObtained())
                 .maxMarks(marks.getMaxMarks())
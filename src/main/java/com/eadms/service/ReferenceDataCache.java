@@ -0,0 +1,188 @@
+package com.eadms.service;
+
+import com.eadms.dto.projection.CourseSummary;
+import com.eadms.dto.projection.TeacherSummary;
+import com.eadms.dto.response.CacheStatsResponse;
+import com.eadms.exception.ResourceNotFoundException;
+import com.eadms.repository.CourseRepository;
+import com.eadms.repository.TeacherRepository;
+import com.eadms.service.CacheInvalidationBus.Invalidation;
+import com.eadms.util.BoundedCache;
+import com.eadms.util.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Bounded in-process cache of course and teacher summaries, which are read on nearly every request
+ * but change a few times a term. Courses hold teacher ids; names come from the teacher region.
+ *
+ * Mutations invalidate through the {@link CacheInvalidationBus} after commit, so every instance
+ * drops its copy. As in {@link StudentTimetableCache}, a load that overlaps an invalidation is not
+ * stored, and nothing loaded inside a read-write transaction is stored either, since it may see
+ * that transaction's uncommitted changes. Entries also expire after a time to live, which bounds
+ * staleness should a cross-instance invalidation be lost.
+ */
+@Component
+public class ReferenceDataCache {
+    
+    static final String COURSES = "courses";
+    static final String TEACHERS = "teachers";
+    static final String TEACHER_COURSES = "teacherCourses";
+    
+    private final CourseRepository courseRepository;
+    private final TeacherRepository teacherRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final BoundedCache<Long, CourseSummary> courses;
+    private final BoundedCache<Long, TeacherSummary> teachers;
+    private final BoundedCache<Long, List<Long>> teacherCourses;
+    
+    public ReferenceDataCache(CourseRepository courseRepository,
+                              TeacherRepository teacherRepository,
+                              CacheInvalidationBus invalidationBus,
+                              @Value("${reference.cache.max-entries:5000}") int maxEntries,
+                              @Value("${reference.cache.ttl-seconds:900}") long ttlSeconds) {
+        this.courseRepository = courseRepository;
+        this.teacherRepository = teacherRepository;
+        this.invalidationBus = invalidationBus;
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.courses = new BoundedCache<>(COURSES, maxEntries, ttl);
+        this.teachers = new BoundedCache<>(TEACHERS, maxEntries, ttl);
+        this.teacherCourses = new BoundedCache<>(TEACHER_COURSES, maxEntries, ttl);
+        invalidationBus.subscribe(this::apply);
+    }
+    
+    public Optional<CourseSummary> findCourse(Long id) {
+        return Optional.ofNullable(getCourses(List.of(id)).get(id));
+    }
+    
+    public CourseSummary getCourse(Long id) {
+        return findCourse(id).orElseThrow(() -> new ResourceNotFoundException("Course", "id", id));
+    }
+    
+    /**
+     * The summaries of those of {@code ids} that exist, keyed by id; misses are loaded in one query.
+     */
+    public Map<Long, CourseSummary> getCourses(Collection<Long> ids) {
+        Map<Long, CourseSummary> found = new LinkedHashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id == null || found.containsKey(id)) {
+                continue;
+            }
+            CourseSummary cached = courses.get(id);
+            found.put(id, cached);
+            if (cached == null) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long generation = courses.generation();
+            courseRepository.findWithTeachersByIdIn(missing).stream()
+                    .map(CourseSummary::of)
+                    .forEach(course -> {
+                        found.put(course.id(), course);
+                        store(courses, course.id(), course, generation);
+                    });
+            found.values().removeIf(Objects::isNull);
+        }
+        return found;
+    }
+    
+    public Optional<TeacherSummary> findTeacher(Long id) {
+        List<TeacherSummary> found = getTeachers(List.of(id));
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+    }
+    
+    public TeacherSummary getTeacher(Long id) {
+        return findTeacher(id).orElseThrow(() -> new ResourceNotFoundException("Teacher", "id", id));
+    }
+    
+    /**
+     * The summaries of those of {@code ids} that exist, in the order given; misses are loaded in one query.
+     */
+    public List<TeacherSummary> getTeachers(Collection<Long> ids) {
+        Map<Long, TeacherSummary> found = new LinkedHashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id == null || found.containsKey(id)) {
+                continue;
+            }
+            TeacherSummary cached = teachers.get(id);
+            found.put(id, cached);
+            if (cached == null) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long generation = teachers.generation();
+            teacherRepository.findAllById(missing).stream()
+                    .map(TeacherSummary::of)
+                    .forEach(teacher -> {
+                        found.put(teacher.id(), teacher);
+                        store(teachers, teacher.id(), teacher, generation);
+                    });
+        }
+        return found.values().stream().filter(Objects::nonNull).toList();
+    }
+    
+    public List<CourseSummary> getCoursesByTeacher(Long teacherId) {
+        List<Long> courseIds = teacherCourses.get(teacherId);
+        if (courseIds == null) {
+            long generation = teacherCourses.generation();
+            courseIds = List.copyOf(courseRepository.findIdsByTeacherId(teacherId));
+            store(teacherCourses, teacherId, courseIds, generation);
+        }
+        return List.copyOf(getCourses(courseIds).values());
+    }
+    
+    public void evictCourseAfterCommit(Long courseId) {
+        TransactionCallbacks.afterCommit(() -> invalidationBus.publish(new Invalidation(COURSES, courseId)));
+    }
+    
+    public void evictTeacherAfterCommit(Long teacherId) {
+        TransactionCallbacks.afterCommit(() -> invalidationBus.publish(new Invalidation(TEACHERS, teacherId)));
+    }
+    
+    public List<CacheStatsResponse> stats() {
+        return List.of(courses.stats(), teachers.stats(), teacherCourses.stats());
+    }
+    
+    private void apply(Invalidation invalidation) {
+        Long key = invalidation.key();
+        switch (invalidation.region()) {
+            case COURSES -> {
+                courses.invalidate(key);
+                // Any teacher may have gained or lost the course
+                teacherCourses.invalidate(null);
+            }
+            case TEACHERS -> {
+                teachers.invalidate(key);
+                teacherCourses.invalidate(key);
+                // A deleted teacher also leaves the courses that listed them
+                courses.invalidateIf(course -> key == null || course.teacherIds().contains(key));
+            }
+            default -> {
+                // Regions of a newer or older build sharing the bus
+            }
+        }
+    }
+    
+    private static <V> void store(BoundedCache<Long, V> region, Long key, V value, long generation) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        region.put(key, value, generation);
+    }
+}
@@ -6,4 +6,5 @@ public interface ReportService {
     Map<String, Object> getAdminDashboardStats();
     Map<String, Object> getTeacherDashboardStats(Long teacherId);
     Map<String, Object> getStudentDashboardStats(Long studentId);
+    Map<String, Object> verifyStudentDashboardSummary(Long studentId);
 }
@@ -1,9 +1,18 @@
 package com.eadms.service;
 
+import com.eadms.dto.projection.AttendanceCounts;
+import com.eadms.dto.projection.CourseDashboardAggregate;
 import com.eadms.entity.Course;
+import com.eadms.entity.StudentDashboardSummary;
 import com.eadms.repository.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.List;
@@ -14,14 +23,24 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ReportServiceImpl implements ReportService {
     
+    private static final int RECENT_MARKS_LIMIT = 5;
+    
+    // Dashboard fields served from the read model and checked against the live computation
+    private static final List<String> SUMMARY_KEYS = List.of(
+        "gpa", "totalCredits", "attendancePercentage", "totalClasses", "myCourses", "activeEnrollments");
+    
     private final StudentRepository studentRepository;
     private final TeacherRepository teacherRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final MarksRepository marksRepository;
     private final AttendanceRepository attendanceRepository;
+    private final AttendanceRollupRepository attendanceRollupRepository;
     private final EnrollmentRepository enrollmentRepository;
     private final EnrollmentService enrollmentService;
+    private final DashboardAggregateRepository dashboardAggregateRepository;
+    private final StudentDashboardSummaryRepository studentDashboardSummaryRepository;
+    private final ObjectMapper objectMapper;
     
     @Override
     public Map<String, Object> getAdminDashboardStats() {
@@ -39,53 +58,38 @@ public class ReportServiceImpl implements ReportService {
     public Map<String, Object> getTeacherDashboardStats(Long teacherId) {
         Map<String, Object> stats = new HashMap<>();
         
-        // Get teacher's courses
-        List<Course> teacherCourses = courseRepository.findByTeacherId(teacherId);
+        // Course details and per-course counters in a single aggregate query
+        List<CourseDashboardAggregate> teacherCourses = dashboardAggregateRepository.findCourseAggregatesByTeacherId(teacherId);
         stats.put("totalCourses", teacherCourses.size());
         
         // Calculate total students across all teacher's courses
-        int totalStudents = teacherCourses.stream()
-            .mapToInt(course -> enrollmentRepository.countActiveEnrollmentsByCourseId(course.getId()).intValue())
+        long totalStudents = teacherCourses.stream()
+            .mapToLong(CourseDashboardAggregate::activeEnrollments)
             .sum();
-        stats.put("studentsInMyCourses", totalStudents);
+        stats.put("studentsInMyCourses", (int) totalStudents);
         
         // Get courses with detailed information
         List<Map<String, Object>> myCourses = teacherCourses.stream()
             .map(course -> {
                 Map<String, Object> courseMap = new HashMap<>();
-                courseMap.put("id", course.getId());
-                courseMap.put("courseCode", course.getCourseCode());
-                courseMap.put("courseName", course.getCourseName());
-                courseMap.put("semester", course.getSemester());
-                courseMap.put("credits", course.getCredits());
-                courseMap.put("description", course.getDescription());
+                courseMap.put("id", course.courseId());
+                courseMap.put("courseCode", course.courseCode());
+                courseMap.put("courseName", course.courseName());
+                courseMap.put("semester", course.semester());
+                courseMap.put("credits", course.credits());
+                courseMap.put("description", course.description());
                 return courseMap;
             })
             .collect(Collectors.toList());
         stats.put("myCourses", myCourses);
         
-        // Calculate average attendance across all teacher's courses
-        if (!teacherCourses.isEmpty()) {
-            double totalAttendancePercentage = 0.0;
-            int coursesWithAttendance = 0;
-            
-            for (Course course : teacherCourses) {
-                Long totalPresent = attendanceRepository.countPresentByCourseId(course.getId());
-                Long totalDays = attendanceRepository.countTotalByCourseId(course.getId());
-                if (totalDays > 0) {
-                    totalAttendancePercentage += (double) totalPresent / totalDays * 100;
-                    coursesWithAttendance++;
-                }
-            }
-            
-            if (coursesWithAttendance > 0) {
-                stats.put("averageAttendance", totalAttendancePercentage / coursesWithAttendance);
-            } else {
-                stats.put("averageAttendance", 0.0);
-            }
-        } else {
-            stats.put("averageAttendance", 0.0);
-        }
+        // Average attendance across the teacher's courses that have attendance records
+        double averageAttendance = teacherCourses.stream()
+            .filter(CourseDashboardAggregate::hasAttendance)
+            .mapToDouble(CourseDashboardAggregate::attendancePercentage)
+            .average()
+            .orElse(0.0);
+        stats.put("averageAttendance", averageAttendance);
         
         // Calculate total scheduled classes (this could be enhanced with actual schedule data)
         stats.put("totalClasses", teacherCourses.size() * 15); // Assuming 15 classes per course per semester
@@ -94,7 +98,99 @@ public class ReportServiceImpl implements ReportService {
     }
     
     @Override
+    @Transactional
     public Map<String, Object> getStudentDashboardStats(Long studentId) {
+        StudentDashboardSummary summary = studentDashboardSummaryRepository.findByStudentId(studentId)
+            .filter(s -> !Boolean.TRUE.equals(s.getStale()))
+            .orElseGet(() -> refreshStudentDashboardSummary(studentId));
+        
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("gpa", summary.getGpa());
+        stats.put("overallGPA", summary.getGpa()); // Alias for frontend compatibility
+        stats.put("totalCredits", summary.getTotalCredits());
+        stats.put("attendancePercentage", summary.getAttendancePercentage());
+        stats.put("totalClasses", summary.getAttendanceTotal());
+        
+        // Only the rows shown on the dashboard are fetched
+        List<Object> recentMarks = marksRepository.findRecentMarkViewsByStudentId(studentId, PageRequest.of(0, RECENT_MARKS_LIMIT))
+            .stream()
+            .map(mark -> {
+                Map<String, Object> markMap = new HashMap<>();
+                markMap.put("id", mark.id());
+                markMap.put("examType", mark.examType().name());
+                markMap.put("marksObtained", mark.marksObtained());
+                markMap.put("maxMarks", mark.maxMarks());
+                markMap.put("percentage", mark.percentage());
+                markMap.put("examDate", mark.examDate());
+                Map<String, Object> courseMap = new HashMap<>();
+                courseMap.put("id", mark.courseId());
+                courseMap.put("courseCode", mark.courseCode());
+                courseMap.put("courseName", mark.courseName());
+                markMap.put("course", courseMap);
+                return markMap;
+            })
+            .collect(Collectors.toList());
+        stats.put("recentMarks", recentMarks);
+        
+        stats.put("myCourses", readCourses(summary.getCoursesJson()));
+        stats.put("activeEnrollments", summary.getActiveEnrollments());
+        
+        return stats;
+    }
+    
+    @Override
+    @Transactional
+    public Map<String, Object> verifyStudentDashboardSummary(Long studentId) {
+        Map<String, Object> served = getStudentDashboardStats(studentId);
+        Map<String, Object> computed = computeStudentDashboardStats(studentId);
+        
+        Map<String, Object> mismatches = new HashMap<>();
+        for (String key : SUMMARY_KEYS) {
+            if (!toJsonTree(served.get(key)).equals(toJsonTree(computed.get(key)))) {
+                Map<String, Object> diff = new HashMap<>();
+                diff.put("summary", served.get(key));
+                diff.put("computed", computed.get(key));
+                mismatches.put(key, diff);
+            }
+        }
+        
+        // Repair the read model so the next dashboard load is correct again
+        if (!mismatches.isEmpty()) {
+            refreshStudentDashboardSummary(studentId);
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("studentId", studentId);
+        result.put("consistent", mismatches.isEmpty());
+        result.put("mismatches", mismatches);
+        return result;
+    }
+    
+    /**
+     * Recompute the dashboard summary of a student from the source tables. The row is locked first,
+     * so an attendance delta or stale mark from a concurrent write is either read here or applied
+     * after this transaction, never overwritten by counts computed without it.
+     */
+    private StudentDashboardSummary refreshStudentDashboardSummary(Long studentId) {
+        studentDashboardSummaryRepository.lockForRefresh(studentId);
+        StudentDashboardSummary summary = StudentDashboardSummary.builder().studentId(studentId).build();
+        summary.setGpa(enrollmentService.calculateStudentGPA(studentId));
+        summary.setTotalCredits(enrollmentService.getTotalActiveCredits(studentId));
+        AttendanceCounts attendance = attendanceRollupRepository.findCountsByStudentId(studentId);
+        summary.setAttendancePresent(attendance.present());
+        summary.setAttendanceTotal(attendance.total());
+        summary.setActiveEnrollments(enrollmentRepository.countActiveEnrollmentsByStudentId(studentId));
+        summary.setCoursesJson(writeCourses(mapCourses(enrollmentRepository.findActiveCoursesByStudentId(studentId))));
+        summary.setStale(false);
+        studentDashboardSummaryRepository.upsert(summary);
+        return summary;
+    }
+    
+    /**
+     * Original dashboard computation straight from the source tables.
+     * Kept as the reference the read model is verified against.
+     */
+    private Map<String, Object> computeStudentDashboardStats(Long studentId) {
         Map<String, Object> stats = new HashMap<>();
         
         // Calculate proper credit-weighted GPA from completed enrollments
@@ -113,33 +209,19 @@ public class ReportServiceImpl implements ReportService {
         stats.put("attendancePercentage", attendancePercentage);
         stats.put("totalClasses", totalDays);
         
-        // Get recent marks
-        List<Object> recentMarks = marksRepository.findRecentMarksByStudentId(studentId)
-            .stream()
-            .limit(5)
-            .map(mark -> {
-                Map<String, Object> markMap = new HashMap<>();
-                markMap.put("id", mark.getId());
-                markMap.put("examType", mark.getExamType().name());
-                markMap.put("marksObtained", mark.getMarksObtained());
-                markMap.put("maxMarks", mark.getMaxMarks());
-                markMap.put("percentage", mark.getPercentage());
-                markMap.put("examDate", mark.getExamDate());
-                if (mark.getCourse() != null) {
-                    Map<String, Object> courseMap = new HashMap<>();
-                    courseMap.put("id", mark.getCourse().getId());
-                    courseMap.put("courseCode", mark.getCourse().getCourseCode());
-                    courseMap.put("courseName", mark.getCourse().getCourseName());
-                    markMap.put("course", courseMap);
-                }
-                return markMap;
-            })
-            .collect(Collectors.toList());
-        stats.put("recentMarks", recentMarks);
-        
         // Get enrolled courses from enrollment table (not marks)
         List<Course> enrolledCourses = enrollmentRepository.findActiveCoursesByStudentId(studentId);
-        List<Map<String, Object>> myCourses = enrolledCourses.stream()
+        stats.put("myCourses", mapCourses(enrolledCourses));
+        
+        // Count active enrollments
+        Long activeEnrollments = enrollmentRepository.countActiveEnrollmentsByStudentId(studentId);
+        stats.put("activeEnrollments", activeEnrollments);
+        
+        return stats;
+    }
+    
+    private List<Map<String, Object>> mapCourses(List<Course> courses) {
+        return courses.stream()
             .map(course -> {
                 Map<String, Object> courseMap = new HashMap<>();
                 courseMap.put("id", course.getId());
@@ -148,20 +230,41 @@ public class ReportServiceImpl implements ReportService {
                 courseMap.put("semester", course.getSemester());
                 courseMap.put("credits", course.getCredits());
                 if (course.getTeachers() != null && !course.getTeachers().isEmpty()) {
-                    courseMap.put("teacherIds", course.getTeachers().stream().map(t -> t.getId()).collect(java.util.stream.Collectors.toList()));
+                    courseMap.put("teacherIds", course.getTeachers().stream().map(t -> t.getId()).collect(Collectors.toList()));
                     courseMap.put("teacherNames", course.getTeachers().stream()
                             .map(t -> t.getFirstName() + " " + t.getLastName())
-                            .collect(java.util.stream.Collectors.joining(", ")));
+                            .collect(Collectors.joining(", ")));
                 }
                 return courseMap;
             })
             .toList();
-        stats.put("myCourses", myCourses);
-        
-        // Count active enrollments
-        Long activeEnrollments = enrollmentRepository.countActiveEnrollmentsByStudentId(studentId);
-        stats.put("activeEnrollments", activeEnrollments);
-        
-        return stats;
+    }
+    
+    private String writeCourses(List<Map<String, Object>> courses) {
+        try {
+            return objectMapper.writeValueAsString(courses);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize dashboard courses", e);
+        }
+    }
+    
+    private List<Map<String, Object>> readCourses(String json) {
+        if (json == null || json.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<List<Map<String, Object>>>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read dashboard courses", e);
+        }
+    }
+    
+    // Round-trip through JSON so numeric types compare the way the client sees them
+    private JsonNode toJsonTree(Object value) {
+        try {
+            return objectMapper.readTree(objectMapper.writeValueAsString(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to compare dashboard values", e);
+        }
     }
 }
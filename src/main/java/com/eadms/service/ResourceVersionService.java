@@ -0,0 +1,107 @@
+package com.eadms.service;
+
+import com.eadms.dto.projection.ResourceVersion;
+import com.eadms.repository.AttendanceRepository;
+import com.eadms.repository.CourseRepository;
+import com.eadms.repository.EnrollmentRepository;
+import com.eadms.repository.MarksRepository;
+import com.eadms.repository.StudentRepository;
+import com.eadms.repository.TeacherRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ETags for the JSON listings, computed from a single aggregate query per resource that lists the ids and
+ * {@code updatedAt} of every row in id order, so a controller can answer 304 before loading or mapping
+ * anything. Each tag covers the rows of the response and the rows it joins to for display fields; a scope
+ * and id keep tags of different resources apart.
+ *
+ * Tags are weak: the body is equivalent for an unchanged tag, not byte-identical, since some listings
+ * are returned in no particular order.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ResourceVersionService {
+    
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+    private final CourseRepository courseRepository;
+    private final MarksRepository marksRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    
+    public String students() {
+        return eTag("students", null, studentRepository.findVersion());
+    }
+    
+    public String student(Long studentId) {
+        return eTag("student", studentId, studentRepository.findVersionById(studentId));
+    }
+    
+    public String studentsOfCourse(Long courseId) {
+        return eTag("course-students", courseId, studentRepository.findVersionByCourseId(courseId));
+    }
+    
+    public String teachers() {
+        return eTag("teachers", null, teacherRepository.findVersion());
+    }
+    
+    public String teacher(Long teacherId) {
+        return eTag("teacher", teacherId, teacherRepository.findVersionById(teacherId));
+    }
+    
+    public String teachersOfStudent(Long studentId) {
+        return eTag("student-teachers", studentId, teacherRepository.findVersionByStudentId(studentId));
+    }
+    
+    public String courses() {
+        return eTag("courses", null, courseRepository.findVersion());
+    }
+    
+    public String coursesOfTeacher(Long teacherId) {
+        return eTag("teacher-courses", teacherId, courseRepository.findVersionByTeacherId(teacherId));
+    }
+    
+    public String coursesOfStudent(Long studentId) {
+        return eTag("student-courses", studentId, enrollmentRepository.findVersionByStudentId(studentId),
+                teacherRepository.findVersionByStudentId(studentId));
+    }
+    
+    public String enrollmentsOfStudent(Long studentId) {
+        return eTag("student-enrollments", studentId, enrollmentRepository.findVersionByStudentId(studentId),
+                studentRepository.findVersionById(studentId));
+    }
+    
+    public String marksOfStudent(Long studentId) {
+        return eTag("student-marks", studentId, marksRepository.findVersionByStudentId(studentId),
+                studentRepository.findVersionById(studentId));
+    }
+    
+    public String marksOfCourse(Long courseId) {
+        return eTag("course-marks", courseId, marksRepository.findVersionByCourseId(courseId),
+                courseRepository.findVersionById(courseId));
+    }
+    
+    public String attendanceOfStudent(Long studentId) {
+        return eTag("student-attendance", studentId, attendanceRepository.findVersionByStudentId(studentId),
+                studentRepository.findVersionById(studentId));
+    }
+    
+    public String attendanceOfCourse(Long courseId) {
+        return eTag("course-attendance", courseId, attendanceRepository.findVersionByCourseId(courseId),
+                courseRepository.findVersionById(courseId));
+    }
+    
+    private static String eTag(String scope, Long id, ResourceVersion... versions) {
+        StringBuilder fingerprint = new StringBuilder(scope).append(':').append(id);
+        for (ResourceVersion version : versions) {
+            fingerprint.append('|').append(version);
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,166 @@
+package com.eadms.service;
+
+import com.eadms.dto.response.RiskScanResponse;
+import com.eadms.exception.BadRequestException;
+import com.eadms.repository.RiskFlagBulkRepository;
+import com.eadms.repository.RiskFlagRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds at-risk students across all active enrollments, on a schedule and on demand, and records
+ * them as {@link com.eadms.entity.RiskFlag}s.
+ *
+ * The scan streams enrollments with their attendance totals and marks through a database cursor,
+ * ordered by course. Each course is cut off as a {@link CourseRiskPartition} and handed to a
+ * ForkJoinPool, where {@link RiskRules} are evaluated and the course's flags written in a transaction
+ * of its own. At most two partitions per worker are in flight, so the heap holds a few courses'
+ * rows whatever the size of the tables.
+ */
+@Slf4j
+@Component
+public class RiskDetectionJob {
+    
+    private final RiskFlagRepository riskFlagRepository;
+    private final RiskRules riskRules;
+    private final int parallelism;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    public RiskDetectionJob(RiskFlagRepository riskFlagRepository,
+                            RiskRules riskRules,
+                            @Value("${risk.detection.parallelism:4}") int parallelism) {
+        this.riskFlagRepository = riskFlagRepository;
+        this.riskRules = riskRules;
+        this.parallelism = Math.max(1, parallelism);
+        this.pool = new ForkJoinPool(this.parallelism);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    @Scheduled(cron = "${risk.detection.cron:0 0 4 * * *}")
+    public void scheduledRun() {
+        if (running.get()) {
+            return;
+        }
+        RiskScanResponse result = run();
+        log.info("Risk detection scanned {} enrollments in {} courses in {} ms: {} flags raised, {} cleared",
+                result.getEnrollmentsScanned(), result.getCoursesScanned(), result.getDurationMs(),
+                result.getFlagsRaised(), result.getFlagsCleared());
+    }
+    
+    public RiskScanResponse run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestException("A risk detection run is already in progress");
+        }
+        try {
+            long started = System.currentTimeMillis();
+            // Millisecond precision survives the round trip through any TIMESTAMP column
+            LocalDateTime detectedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+            Scan scan = new Scan(detectedAt);
+            RuntimeException failure = null;
+            try {
+                riskFlagRepository.scanActiveEnrollments(scan);
+                // The last course ends with the stream
+                scan.submit();
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            RuntimeException courseFailure = scan.await();
+            if (failure != null || courseFailure != null) {
+                // Flags of courses not written keep their old detection time; sweeping would drop them
+                throw failure != null ? failure : courseFailure;
+            }
+            long swept = riskFlagRepository.deleteDetectedBefore(detectedAt);
+            
+            return RiskScanResponse.builder()
+                    .coursesScanned(scan.courses)
+                    .enrollmentsScanned(scan.enrollments)
+                    .marksScanned(scan.marks)
+                    .flagsRaised(scan.raised.sum())
+                    .flagsCleared(scan.cleared.sum() + swept)
+                    .durationMs(System.currentTimeMillis() - started)
+                    .build();
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    // Runs on the thread reading the cursor; only the counters are shared with the workers
+    private final class Scan implements RiskFlagBulkRepository.ScanHandler {
+        private final LocalDateTime detectedAt;
+        private final Semaphore inFlight = new Semaphore(parallelism * 2);
+        private final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        private final LongAdder raised = new LongAdder();
+        private final LongAdder cleared = new LongAdder();
+        private CourseRiskPartition partition;
+        private long courses;
+        private long enrollments;
+        private long marks;
+        
+        Scan(LocalDateTime detectedAt) {
+            this.detectedAt = detectedAt;
+        }
+        
+        @Override
+        public void onRow(long courseId, long studentId, long present, long sessions, int examType, double percentage) {
+            if (partition == null || partition.courseId() != courseId) {
+                submit();
+                partition = new CourseRiskPartition(courseId);
+            }
+            partition.add(studentId, present, sessions, examType, percentage);
+        }
+        
+        void submit() {
+            CourseRiskPartition course = partition;
+            if (course == null) {
+                return;
+            }
+            partition = null;
+            courses++;
+            enrollments += course.students();
+            marks += course.marks();
+            inFlight.acquireUninterruptibly();
+            tasks.add(pool.submit(() -> {
+                try {
+                    List<RiskFlagBulkRepository.Flag> flags = riskRules.evaluate(course);
+                    cleared.add(riskFlagRepository.replaceCourseFlags(course.courseId(), flags, detectedAt));
+                    raised.add(flags.size());
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        }
+        
+        // Waits for every submitted course and returns the first failure, if any
+        RuntimeException await() {
+            RuntimeException failure = null;
+            for (ForkJoinTask<?> task : tasks) {
+                try {
+                    task.join();
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+            return failure;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.eadms.service;
+
+import com.eadms.dto.response.CursorPage;
+import com.eadms.dto.response.RiskFlagResponse;
+
+public interface RiskFlagService {
+    CursorPage<RiskFlagResponse> getFlags(Long courseId, Long studentId, String rule, String cursor, Integer size);
+    CursorPage<RiskFlagResponse> getFlagsForTeacher(Long teacherId, Long courseId, Long studentId, String rule,
+                                                    String cursor, Integer size);
+}
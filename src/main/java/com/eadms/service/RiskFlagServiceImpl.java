@@ -0,0 +1,63 @@
+package com.eadms.service;
+
+import com.eadms.dto.response.CursorPage;
+import com.eadms.dto.response.RiskFlagResponse;
+import com.eadms.entity.RiskFlag;
+import com.eadms.repository.RiskFlagRepository;
+import com.eadms.util.CursorPageUtil;
+import com.eadms.util.ValidationUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class RiskFlagServiceImpl implements RiskFlagService {
+    
+    private final RiskFlagRepository riskFlagRepository;
+    
+    @Override
+    public CursorPage<RiskFlagResponse> getFlags(Long courseId, Long studentId, String rule, String cursor, Integer size) {
+        int pageSize = CursorPageUtil.pageSize(size);
+        List<RiskFlag> rows = riskFlagRepository.findPage(CursorPageUtil.afterId(cursor), courseId, studentId,
+                parseRule(rule), CursorPageUtil.fetchLimit(pageSize));
+        return CursorPageUtil.toPage(rows, pageSize, this::mapToResponse, null);
+    }
+    
+    @Override
+    public CursorPage<RiskFlagResponse> getFlagsForTeacher(Long teacherId, Long courseId, Long studentId, String rule,
+                                                           String cursor, Integer size) {
+        int pageSize = CursorPageUtil.pageSize(size);
+        List<RiskFlag> rows = riskFlagRepository.findPageForTeacher(teacherId, CursorPageUtil.afterId(cursor),
+                courseId, studentId, parseRule(rule), CursorPageUtil.fetchLimit(pageSize));
+        return CursorPageUtil.toPage(rows, pageSize, this::mapToResponse, null);
+    }
+    
+    private static RiskFlag.Rule parseRule(String rule) {
+        if (rule == null || rule.isBlank()) {
+            return null;
+        }
+        ValidationUtil.validateEnum(rule, RiskFlag.Rule.class, "risk rule");
+        return RiskFlag.Rule.valueOf(rule.toUpperCase());
+    }
+    
+    private RiskFlagResponse mapToResponse(RiskFlag flag) {
+        return RiskFlagResponse.builder()
+                .id(flag.getId())
+                .studentId(flag.getStudent().getId())
+                .studentCode(flag.getStudent().getStudentId())
+                .studentName(flag.getStudent().getFullName())
+                .courseId(flag.getCourse().getId())
+                .courseCode(flag.getCourse().getCourseCode())
+                .courseName(flag.getCourse().getCourseName())
+                .rule(flag.getRule().name())
+                .metric(flag.getMetric())
+                .detail(flag.getDetail())
+                .firstDetectedAt(flag.getCreatedAt())
+                .detectedAt(flag.getDetectedAt())
+                .build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.eadms.service;
+
+import com.eadms.entity.Marks;
+import com.eadms.entity.RiskFlag;
+import com.eadms.repository.RiskFlagBulkRepository.Flag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * The configurable rules of the risk detection job, evaluated over one course at a time:
+ * <ul>
+ *   <li>{@code LOW_ATTENDANCE}: present in less than the minimum percentage of at least the
+ *       minimum number of sessions</li>
+ *   <li>{@code FALLING_MARKS}: the least-squares slope of the student's mark percentages, in exam
+ *       date order, drops by at least the given points per exam over at least the minimum marks</li>
+ *   <li>{@code MISSING_EXAMS}: no mark for an exam type that more than the quorum share of the
+ *       course's students already have</li>
+ * </ul>
+ * Evaluation reads only the partition, so courses can be evaluated in parallel.
+ */
+@Component
+public class RiskRules {
+    
+    private static final Marks.ExamType[] EXAM_TYPES = Marks.ExamType.values();
+    
+    private final Set<RiskFlag.Rule> enabled = EnumSet.noneOf(RiskFlag.Rule.class);
+    private final double minAttendancePercent;
+    private final long attendanceMinSessions;
+    private final int trendMinMarks;
+    private final double trendDropPerExam;
+    private final double missingExamQuorum;
+    
+    public RiskRules(@Value("${risk.rules.enabled:LOW_ATTENDANCE,FALLING_MARKS,MISSING_EXAMS}") String enabledRules,
+                     @Value("${risk.rules.min-attendance-percent:75}") double minAttendancePercent,
+                     @Value("${risk.rules.attendance-min-sessions:5}") long attendanceMinSessions,
+                     @Value("${risk.rules.trend-min-marks:3}") int trendMinMarks,
+                     @Value("${risk.rules.trend-drop-per-exam:5}") double trendDropPerExam,
+                     @Value("${risk.rules.missing-exam-quorum:0.5}") double missingExamQuorum) {
+        Arrays.stream(enabledRules.split(","))
+                .map(String::trim)
+                .filter(rule -> !rule.isEmpty())
+                .map(rule -> RiskFlag.Rule.valueOf(rule.toUpperCase(Locale.ROOT)))
+                .forEach(enabled::add);
+        this.minAttendancePercent = minAttendancePercent;
+        this.attendanceMinSessions = Math.max(1, attendanceMinSessions);
+        this.trendMinMarks = Math.max(2, trendMinMarks);
+        this.trendDropPerExam = trendDropPerExam;
+        this.missingExamQuorum = missingExamQuorum;
+    }
+    
+    List<Flag> evaluate(CourseRiskPartition course) {
+        List<Flag> flags = new ArrayList<>();
+        int heldExamTypes = enabled.contains(RiskFlag.Rule.MISSING_EXAMS) ? heldExamTypes(course) : 0;
+        for (int s = 0; s < course.students(); s++) {
+            if (enabled.contains(RiskFlag.Rule.LOW_ATTENDANCE)) {
+                lowAttendance(course, s, flags);
+            }
+            if (enabled.contains(RiskFlag.Rule.FALLING_MARKS)) {
+                fallingMarks(course, s, flags);
+            }
+            if (heldExamTypes != 0) {
+                missingExams(course, s, heldExamTypes, flags);
+            }
+        }
+        return flags;
+    }
+    
+    private void lowAttendance(CourseRiskPartition course, int s, List<Flag> flags) {
+        long sessions = course.sessions(s);
+        if (sessions < attendanceMinSessions) {
+            return;
+        }
+        double percentage = (double) course.present(s) / sessions * 100;
+        if (percentage < minAttendancePercent) {
+            flags.add(new Flag(course.studentId(s), RiskFlag.Rule.LOW_ATTENDANCE, round(percentage),
+                    String.format(Locale.ROOT, "Present at %d of %d sessions (%.1f%%)",
+                            course.present(s), sessions, percentage)));
+        }
+    }
+    
+    // Slope of percentage against exam index 0..n-1, from running sums
+    private void fallingMarks(CourseRiskPartition course, int s, List<Flag> flags) {
+        int first = course.firstMark(s);
+        int n = course.endMark(s) - first;
+        if (n < trendMinMarks) {
+            return;
+        }
+        double sumY = 0;
+        double sumXY = 0;
+        for (int x = 0; x < n; x++) {
+            double y = course.percentage(first + x);
+            sumY += y;
+            sumXY += x * y;
+        }
+        double sumX = n * (n - 1) / 2.0;
+        double sumXX = (n - 1) * n * (2.0 * n - 1) / 6.0;
+        double slope = (n * sumXY - sumX * sumY) / (n * sumXX - sumX * sumX);
+        if (slope <= -trendDropPerExam) {
+            flags.add(new Flag(course.studentId(s), RiskFlag.Rule.FALLING_MARKS, round(slope),
+                    String.format(Locale.ROOT, "Marks falling %.1f points per exam over %d exams (%.1f%% to %.1f%%)",
+                            -slope, n, course.percentage(first), course.percentage(first + n - 1))));
+        }
+    }
+    
+    private void missingExams(CourseRiskPartition course, int s, int heldExamTypes, List<Flag> flags) {
+        int missing = heldExamTypes & ~course.examTypeMask(s);
+        if (missing == 0) {
+            return;
+        }
+        StringJoiner types = new StringJoiner(", ", "No mark for ", "");
+        for (Marks.ExamType type : EXAM_TYPES) {
+            if ((missing & 1 << type.ordinal()) != 0) {
+                types.add(type.name());
+            }
+        }
+        flags.add(new Flag(course.studentId(s), RiskFlag.Rule.MISSING_EXAMS, Integer.bitCount(missing), types.toString()));
+    }
+    
+    // Exam types more than the quorum share of the course's students have a mark for
+    private int heldExamTypes(CourseRiskPartition course) {
+        int[] takers = new int[EXAM_TYPES.length];
+        for (int s = 0; s < course.students(); s++) {
+            int mask = course.examTypeMask(s);
+            for (int t = 0; t < takers.length; t++) {
+                takers[t] += mask >>> t & 1;
+            }
+        }
+        int held = 0;
+        for (int t = 0; t < takers.length; t++) {
+            if (takers[t] > missingExamQuorum * course.students()) {
+                held |= 1 << t;
+            }
+        }
+        return held;
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
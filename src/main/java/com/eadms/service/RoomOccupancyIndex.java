@@ -0,0 +1,235 @@
+package com.eadms.service;
+
+import com.eadms.dto.projection.ScheduleSlot;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Room occupancy as one bitset of 5-minute slots per booking per day, kept in step with
+ * {@link ScheduleConflictIndex}, which feeds it every booking it adds or drops.
+ *
+ * A day's occupancy is the OR of a handful of small bitsets: the room's weekly series on that weekday
+ * that have started by then, plus its one-off bookings on that date. Finding the free stretches is a
+ * walk over at most {@value #SLOTS_PER_DAY} bits.
+ */
+@Component
+public class RoomOccupancyIndex {
+    
+    public static final int SLOT_MINUTES = 5;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    
+    /**
+     * A free stretch of a room, at least as long as the requested duration.
+     */
+    public record FreeSlot(String room, LocalDateTime start, LocalDateTime end) {
+    }
+    
+    private record Mask(Long scheduleId, LocalDate seriesStart, BitSet slots) {
+    }
+    
+    private static final class Room {
+        final String name;
+        final Map<DayOfWeek, List<Mask>> weekly = new EnumMap<>(DayOfWeek.class);
+        final TreeMap<LocalDate, List<Mask>> once = new TreeMap<>();
+        int bookings;
+        
+        Room(String name) {
+            this.name = name;
+        }
+    }
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Room> rooms = new HashMap<>();
+    
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            rooms.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    void add(ScheduleSlot slot) {
+        String key = key(slot.room());
+        if (key == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Room room = rooms.computeIfAbsent(key, k -> new Room(slot.room().trim()));
+            room.bookings++;
+            forEachDay(slot, (date, bits) -> {
+                if (slot.isWeekly()) {
+                    room.weekly.computeIfAbsent(date.getDayOfWeek(), d -> new ArrayList<>())
+                            .add(new Mask(slot.scheduleId(), date, bits));
+                } else {
+                    room.once.computeIfAbsent(date, d -> new ArrayList<>())
+                            .add(new Mask(slot.scheduleId(), date, bits));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    void remove(ScheduleSlot slot) {
+        String key = key(slot.room());
+        if (key == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Room room = rooms.get(key);
+            if (room == null) {
+                return;
+            }
+            room.weekly.values().forEach(masks -> masks.removeIf(mask -> mask.scheduleId().equals(slot.scheduleId())));
+            room.once.values().forEach(masks -> masks.removeIf(mask -> mask.scheduleId().equals(slot.scheduleId())));
+            room.once.values().removeIf(List::isEmpty);
+            if (--room.bookings <= 0) {
+                rooms.remove(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Free stretches of at least {@code minutes} between {@code from} and {@code to} on {@code date}.
+     * With {@code recurring}, a stretch must be free on that weekday every week from {@code date} on,
+     * as a new weekly schedule would need. Without explicit {@code roomNames}, every room that appears
+     * on any schedule is a candidate; rooms named explicitly but never booked are entirely free.
+     */
+    public List<FreeSlot> findFreeSlots(LocalDate date, LocalTime from, LocalTime to, int minutes,
+                                        boolean recurring, Collection<String> roomNames) {
+        int firstSlot = ceilDiv(from.toSecondOfDay() / 60, SLOT_MINUTES);
+        int endSlot = LocalTime.MIDNIGHT.equals(to) ? SLOTS_PER_DAY : (to.toSecondOfDay() / 60) / SLOT_MINUTES;
+        int needed = Math.max(1, ceilDiv(minutes, SLOT_MINUTES));
+        
+        List<FreeSlot> free = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            List<Room> candidates = new ArrayList<>();
+            if (roomNames == null || roomNames.isEmpty()) {
+                candidates.addAll(rooms.values());
+            } else {
+                for (String name : roomNames) {
+                    String key = key(name);
+                    if (key != null) {
+                        candidates.add(rooms.getOrDefault(key, new Room(name.trim())));
+                    }
+                }
+            }
+            candidates.sort((a, b) -> a.name.compareToIgnoreCase(b.name));
+            
+            for (Room room : candidates) {
+                BitSet occupied = occupancy(room, date, recurring);
+                int start = occupied.nextClearBit(firstSlot);
+                while (start < endSlot) {
+                    int nextBusy = occupied.nextSetBit(start);
+                    int end = nextBusy < 0 ? endSlot : Math.min(endSlot, nextBusy);
+                    if (end - start >= needed) {
+                        free.add(new FreeSlot(room.name, date.atStartOfDay().plusMinutes((long) start * SLOT_MINUTES),
+                                date.atStartOfDay().plusMinutes((long) end * SLOT_MINUTES)));
+                    }
+                    start = occupied.nextClearBit(end);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return free;
+    }
+    
+    public List<String> roomNames() {
+        lock.readLock().lock();
+        try {
+            return rooms.values().stream()
+                    .map(room -> room.name)
+                    .sorted(String.CASE_INSENSITIVE_ORDER)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int roomCount() {
+        lock.readLock().lock();
+        try {
+            return rooms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static BitSet occupancy(Room room, LocalDate date, boolean recurring) {
+        BitSet occupied = new BitSet(SLOTS_PER_DAY);
+        for (Mask mask : room.weekly.getOrDefault(date.getDayOfWeek(), List.of())) {
+            // A new weekly series clashes with every existing one; a single day only with those already running
+            if (recurring || !mask.seriesStart().isAfter(date)) {
+                occupied.or(mask.slots());
+            }
+        }
+        if (recurring) {
+            for (Map.Entry<LocalDate, List<Mask>> day : room.once.tailMap(date, true).entrySet()) {
+                if (day.getKey().getDayOfWeek() == date.getDayOfWeek()) {
+                    day.getValue().forEach(mask -> occupied.or(mask.slots()));
+                }
+            }
+        } else {
+            room.once.getOrDefault(date, List.of()).forEach(mask -> occupied.or(mask.slots()));
+        }
+        return occupied;
+    }
+    
+    private interface DayConsumer {
+        void accept(LocalDate date, BitSet slots);
+    }
+    
+    // Splits the booking at midnight and hands over each day's slots, rounded outwards to whole slots
+    private static void forEachDay(ScheduleSlot slot, DayConsumer consumer) {
+        LocalDateTime start = slot.startDateTime();
+        LocalDateTime end = slot.endDateTime();
+        if (slot.isWeekly() && Duration.between(start, end).toDays() >= 7) {
+            end = start.plusDays(7);
+        }
+        LocalDate date = start.toLocalDate();
+        while (date.atStartOfDay().isBefore(end)) {
+            LocalDateTime dayStart = date.atStartOfDay();
+            LocalDateTime pieceStart = start.isAfter(dayStart) ? start : dayStart;
+            LocalDateTime pieceEnd = end.isBefore(dayStart.plusDays(1)) ? end : dayStart.plusDays(1);
+            int from = (int) Duration.between(dayStart, pieceStart).toMinutes() / SLOT_MINUTES;
+            int to = ceilDiv((int) Duration.between(dayStart, pieceEnd).toMinutes(), SLOT_MINUTES);
+            if (to > from) {
+                BitSet bits = new BitSet(SLOTS_PER_DAY);
+                bits.set(from, to);
+                consumer.accept(date, bits);
+            }
+            date = date.plusDays(1);
+        }
+    }
+    
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+    
+    static String key(String room) {
+        return room == null || room.isBlank() ? null : room.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,164 @@
+package com.eadms.service;
+
+import com.eadms.dto.projection.RecipientRow;
+import com.eadms.dto.response.ScheduleChangeMessage;
+import com.eadms.dto.response.ScheduleChangeMessage.Change;
+import com.eadms.dto.response.ScheduleChangeMessage.ChangeType;
+import com.eadms.repository.CourseRepository;
+import com.eadms.repository.EnrollmentRepository;
+import com.eadms.repository.TeacherRepository;
+import com.eadms.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Pushes committed schedule changes to {@code /topic/schedules/course/{id}} and to the
+ * {@code /user/queue/schedule} of every connected student and teacher who can see them.
+ *
+ * Changes are buffered and flushed on a fixed delay, coalesced per schedule and course, so a bulk
+ * edit reaches each subscriber as one message per window rather than one per row. Recipients are
+ * resolved with one query per kind per flush, and only for users with a live session.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScheduleChangePublisher {
+    
+    public static final String COURSE_TOPIC = "/topic/schedules/course/";
+    static final String USER_QUEUE = "/queue/schedule";
+    
+    private record Key(Long scheduleId, Long courseId) {
+    }
+    
+    private static final class Pending {
+        ChangeType type;
+        final Set<Long> teacherIds = new LinkedHashSet<>();
+        
+        Pending(ChangeType type) {
+            this.type = type;
+        }
+    }
+    
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry userRegistry;
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseRepository courseRepository;
+    private final TeacherRepository teacherRepository;
+    
+    private Map<Key, Pending> pending = new LinkedHashMap<>();
+    
+    /**
+     * Queues a change to be sent once the surrounding transaction commits. {@code teacherIds} are the
+     * schedule's teachers before and after the change; course teachers and students are found at flush.
+     */
+    public void publishAfterCommit(ChangeType type, Long scheduleId, Long courseId, Long... teacherIds) {
+        TransactionCallbacks.afterCommit(() -> enqueue(type, scheduleId, courseId, teacherIds));
+    }
+    
+    private synchronized void enqueue(ChangeType type, Long scheduleId, Long courseId, Long[] teacherIds) {
+        Key key = new Key(scheduleId, courseId);
+        Pending existing = pending.get(key);
+        if (existing == null) {
+            existing = new Pending(type);
+            pending.put(key, existing);
+        } else {
+            existing.type = merge(existing.type, type);
+        }
+        for (Long teacherId : teacherIds) {
+            if (teacherId != null) {
+                existing.teacherIds.add(teacherId);
+            }
+        }
+        if (existing.type == null) {
+            // Created and deleted within one window: nobody has seen it, so there is nothing to tell
+            pending.remove(key);
+        }
+    }
+    
+    private static ChangeType merge(ChangeType previous, ChangeType next) {
+        if (previous == ChangeType.CREATED) {
+            return next == ChangeType.DELETED ? null : ChangeType.CREATED;
+        }
+        if (previous == ChangeType.DELETED && next == ChangeType.CREATED) {
+            return ChangeType.UPDATED;
+        }
+        return next;
+    }
+    
+    @Scheduled(fixedDelayString = "${schedule.events.flush-interval-ms:250}")
+    public void flush() {
+        Map<Key, Pending> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        try {
+            send(batch);
+        } catch (RuntimeException e) {
+            // Clients resync on their next fetch; a lost window must not stop later ones
+            log.warn("Dropped {} schedule change(s): {}", batch.size(), e.getMessage());
+        }
+    }
+    
+    private void send(Map<Key, Pending> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<Change>> byCourse = new TreeMap<>();
+        Map<Long, List<Change>> byTeacher = new HashMap<>();
+        batch.forEach((key, change) -> {
+            Change event = new Change(key.scheduleId(), key.courseId(), change.type);
+            byCourse.computeIfAbsent(key.courseId(), id -> new ArrayList<>()).add(event);
+            change.teacherIds.forEach(teacherId -> byTeacher.computeIfAbsent(teacherId, id -> new ArrayList<>()).add(event));
+        });
+        
+        byCourse.forEach((courseId, changes) ->
+                messagingTemplate.convertAndSend(COURSE_TOPIC + courseId, message(changes, now)));
+        
+        if (userRegistry.getUserCount() == 0) {
+            return;
+        }
+        Map<String, Set<Change>> byUser = new HashMap<>();
+        addRecipients(byUser, enrollmentRepository.findActiveStudentRecipients(byCourse.keySet()), byCourse);
+        addRecipients(byUser, courseRepository.findTeacherRecipients(byCourse.keySet()), byCourse);
+        if (!byTeacher.isEmpty()) {
+            addRecipients(byUser, teacherRepository.findRecipients(byTeacher.keySet()), byTeacher);
+        }
+        byUser.forEach((email, changes) ->
+                messagingTemplate.convertAndSendToUser(email, USER_QUEUE, message(changes, now)));
+    }
+    
+    private void addRecipients(Map<String, Set<Change>> byUser, List<RecipientRow> recipients,
+                               Map<Long, List<Change>> changesById) {
+        for (RecipientRow recipient : recipients) {
+            if (recipient.email() != null && userRegistry.getUser(recipient.email()) != null) {
+                byUser.computeIfAbsent(recipient.email(), email -> new LinkedHashSet<>())
+                        .addAll(changesById.get(recipient.id()));
+            }
+        }
+    }
+    
+    private static ScheduleChangeMessage message(Collection<Change> changes, LocalDateTime sentAt) {
+        return ScheduleChangeMessage.builder()
+                .courseIds(changes.stream().map(Change::getCourseId).distinct().sorted().toList())
+                .changes(List.copyOf(changes))
+                .sentAt(sentAt)
+                .build();
+    }
+}
@@ -0,0 +1,370 @@
+package com.eadms.service;
+
+import com.eadms.dto.projection.ScheduleSlot;
+import com.eadms.exception.ScheduleConflictException;
+import com.eadms.repository.ScheduleRepository;
+import com.eadms.util.IntervalTree;
+import com.eadms.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory booking index used to reject teacher and room double-bookings.
+ *
+ * Every teacher and every room gets a lane holding two interval trees: one-off schedules on the
+ * absolute timeline, and all schedules projected onto the minute-of-week circle. A one-off overlaps a
+ * weekly series when their weekly projections overlap and the series has started before the one-off
+ * ends; two weekly series overlap whenever their projections do.
+ *
+ * The index is rebuilt from the database at startup. Writes reserve their slot inside the caller's
+ * transaction and are rolled back with it, so check-and-reserve is atomic within this instance.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScheduleConflictIndex {
+    
+    public static final long MINUTES_PER_WEEK = Duration.ofDays(7).toMinutes();
+    
+    public enum Resource {
+        TEACHER, ROOM
+    }
+    
+    /**
+     * An existing booking that clashes with a candidate. Batch validation reports clashes with other
+     * rows of the same batch through {@code batchRow} instead of {@code scheduleId}.
+     */
+    public record Conflict(Resource resource, Long scheduleId, Integer batchRow, ScheduleSlot slot) {
+    }
+    
+    private final ScheduleRepository scheduleRepository;
+    private final RoomOccupancyIndex roomOccupancy;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lanes lanes = new Lanes();
+    private final Map<Long, ScheduleSlot> slotsById = new HashMap<>();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ScheduleSlot> slots = scheduleRepository.findAllSlots();
+        lock.writeLock().lock();
+        try {
+            lanes.clear();
+            slotsById.clear();
+            roomOccupancy.clear();
+            for (ScheduleSlot slot : slots) {
+                add(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Schedule conflict index built with {} schedules", slots.size());
+    }
+    
+    public boolean isFree(ScheduleSlot candidate) {
+        return findConflicts(candidate).isEmpty();
+    }
+    
+    public List<Conflict> findConflicts(ScheduleSlot candidate) {
+        lock.readLock().lock();
+        try {
+            return lanes.conflicts(key(candidate), candidate);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Checks the slot and, if free, books it under its schedule id, replacing that schedule's previous
+     * booking. Inside a transaction the change is undone on rollback.
+     */
+    public void reserve(ScheduleSlot slot) {
+        ScheduleSlot previous;
+        lock.writeLock().lock();
+        try {
+            List<Conflict> conflicts = lanes.conflicts(key(slot), slot);
+            if (!conflicts.isEmpty()) {
+                throw new ScheduleConflictException(describe(conflicts.get(0)));
+            }
+            previous = remove(slot.scheduleId());
+            add(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        TransactionCallbacks.onRollback(() -> restore(slot.scheduleId(), previous));
+    }
+    
+    public void releaseAfterCommit(Long scheduleId) {
+        TransactionCallbacks.afterCommit(() -> removeMatching(slot -> slot.scheduleId().equals(scheduleId)));
+    }
+    
+    public void releaseTeacherAfterCommit(Long teacherId) {
+        TransactionCallbacks.afterCommit(() -> removeMatching(slot -> teacherId.equals(slot.teacherId())));
+    }
+    
+    public void releaseCourseAfterCommit(Long courseId) {
+        TransactionCallbacks.afterCommit(() -> removeMatching(slot -> courseId.equals(slot.courseId())));
+    }
+    
+    /**
+     * Validates a whole batch (e.g. a term's timetable) against the index and against itself, without
+     * booking anything. The result has one conflict list per input row, in input order; rows given as
+     * null are skipped and get an empty list.
+     */
+    public List<List<Conflict>> validateBatch(List<ScheduleSlot> candidates) {
+        List<List<Conflict>> results = new ArrayList<>(candidates.size());
+        Lanes batch = new Lanes();
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < candidates.size(); row++) {
+                ScheduleSlot candidate = candidates.get(row);
+                if (candidate == null) {
+                    results.add(List.of());
+                    continue;
+                }
+                // Batch rows are keyed by negative ids so they never collide with stored schedules
+                ScheduleSlot keyed = new ScheduleSlot((long) -(row + 1), candidate.courseId(),
+                        candidate.teacherId(), candidate.room(), candidate.startDateTime(),
+                        candidate.endDateTime(), candidate.recurrence());
+                String[] keys = key(keyed);
+                List<Conflict> conflicts = new ArrayList<>(lanes.conflicts(keys, keyed));
+                conflicts.addAll(batch.conflicts(keys, keyed));
+                batch.add(keys, keyed);
+                results.add(conflicts);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+    
+    /**
+     * Whether two bookings ever take place at the same time, by the same rules the index applies to
+     * the bookings of one teacher or room.
+     */
+    public static boolean overlaps(ScheduleSlot a, ScheduleSlot b) {
+        if (!a.isWeekly() && !b.isWeekly()) {
+            return a.startDateTime().isBefore(b.endDateTime()) && b.startDateTime().isBefore(a.endDateTime());
+        }
+        for (long[] pieceA : Lane.weekPieces(a)) {
+            for (long[] pieceB : Lane.weekPieces(b)) {
+                if (pieceA[0] < pieceB[1] && pieceB[0] < pieceA[1]) {
+                    return Lane.recurringClash(a, b);
+                }
+            }
+        }
+        return false;
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Caller holds the write lock
+    private void add(ScheduleSlot slot) {
+        slotsById.put(slot.scheduleId(), slot);
+        lanes.add(key(slot), slot);
+        roomOccupancy.add(slot);
+    }
+    
+    // Caller holds the write lock
+    private ScheduleSlot remove(Long scheduleId) {
+        ScheduleSlot slot = slotsById.remove(scheduleId);
+        if (slot != null) {
+            lanes.remove(key(slot), slot);
+            roomOccupancy.remove(slot);
+        }
+        return slot;
+    }
+    
+    private void restore(Long scheduleId, ScheduleSlot previous) {
+        lock.writeLock().lock();
+        try {
+            remove(scheduleId);
+            if (previous != null) {
+                add(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void removeMatching(Predicate<ScheduleSlot> filter) {
+        lock.writeLock().lock();
+        try {
+            slotsById.values().stream()
+                    .filter(filter)
+                    .map(ScheduleSlot::scheduleId)
+                    .toList()
+                    .forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Lane keys for the slot: its teacher and, when it has one, its room
+    private static String[] key(ScheduleSlot slot) {
+        String room = slot.room() == null || slot.room().isBlank()
+                ? null : slot.room().trim().toLowerCase(Locale.ROOT);
+        if (slot.teacherId() == null) {
+            return room == null ? new String[0] : new String[] {"R:" + room};
+        }
+        return room == null
+                ? new String[] {"T:" + slot.teacherId()}
+                : new String[] {"T:" + slot.teacherId(), "R:" + room};
+    }
+    
+    private static String describe(Conflict conflict) {
+        ScheduleSlot slot = conflict.slot();
+        String who = conflict.resource() == Resource.TEACHER ? "The teacher" : "Room " + slot.room();
+        String when = slot.isWeekly()
+                ? "every " + slot.startDateTime().getDayOfWeek() + " " + slot.startDateTime().toLocalTime()
+                        + "-" + slot.endDateTime().toLocalTime()
+                : slot.startDateTime() + " to " + slot.endDateTime();
+        return who + " is already booked by schedule " + conflict.scheduleId() + " (" + when + ")";
+    }
+    
+    private static final class Lanes {
+        
+        private final Map<String, Lane> byKey = new HashMap<>();
+        
+        void clear() {
+            byKey.clear();
+        }
+        
+        void add(String[] keys, ScheduleSlot slot) {
+            for (String key : keys) {
+                byKey.computeIfAbsent(key, k -> new Lane()).add(slot);
+            }
+        }
+        
+        void remove(String[] keys, ScheduleSlot slot) {
+            for (String key : keys) {
+                Lane lane = byKey.get(key);
+                if (lane != null && lane.remove(slot)) {
+                    byKey.remove(key);
+                }
+            }
+        }
+        
+        List<Conflict> conflicts(String[] keys, ScheduleSlot candidate) {
+            Map<Long, Conflict> found = new LinkedHashMap<>();
+            for (String key : keys) {
+                Lane lane = byKey.get(key);
+                if (lane == null) {
+                    continue;
+                }
+                Resource resource = key.startsWith("T:") ? Resource.TEACHER : Resource.ROOM;
+                for (ScheduleSlot hit : lane.overlapping(candidate)) {
+                    Long id = hit.scheduleId();
+                    found.putIfAbsent(id, id > 0
+                            ? new Conflict(resource, id, null, hit)
+                            : new Conflict(resource, null, (int) (-id - 1), hit));
+                }
+            }
+            return new ArrayList<>(found.values());
+        }
+    }
+    
+    private static final class Lane {
+        
+        // One-off schedules in absolute minutes
+        private final IntervalTree<ScheduleSlot> once = new IntervalTree<>();
+        // Every schedule projected onto minute-of-week
+        private final IntervalTree<ScheduleSlot> weekly = new IntervalTree<>();
+        
+        void add(ScheduleSlot slot) {
+            if (!slot.isWeekly()) {
+                once.insert(minutes(slot.startDateTime()), minutes(slot.endDateTime()), slot.scheduleId(), slot);
+            }
+            for (long[] piece : weekPieces(slot)) {
+                weekly.insert(piece[0], piece[1], slot.scheduleId(), slot);
+            }
+        }
+        
+        // Returns true once the lane is empty
+        boolean remove(ScheduleSlot slot) {
+            if (!slot.isWeekly()) {
+                once.remove(minutes(slot.startDateTime()), slot.scheduleId());
+            }
+            for (long[] piece : weekPieces(slot)) {
+                weekly.remove(piece[0], slot.scheduleId());
+            }
+            return weekly.size() == 0;
+        }
+        
+        List<ScheduleSlot> overlapping(ScheduleSlot candidate) {
+            List<ScheduleSlot> hits = new ArrayList<>();
+            Long self = candidate.scheduleId();
+            if (!candidate.isWeekly()) {
+                once.forEachOverlapping(minutes(candidate.startDateTime()), minutes(candidate.endDateTime()), hit -> {
+                    if (!hit.scheduleId().equals(self)) {
+                        hits.add(hit);
+                    }
+                });
+            }
+            for (long[] piece : weekPieces(candidate)) {
+                weekly.forEachOverlapping(piece[0], piece[1], hit -> {
+                    if (!hit.scheduleId().equals(self) && recurringClash(candidate, hit)) {
+                        hits.add(hit);
+                    }
+                });
+            }
+            return hits;
+        }
+        
+        // Weekly projections already overlap; decide whether an actual occurrence does
+        private static boolean recurringClash(ScheduleSlot a, ScheduleSlot b) {
+            if (a.isWeekly() && b.isWeekly()) {
+                return true;
+            }
+            if (a.isWeekly()) {
+                return b.endDateTime().isAfter(a.startDateTime());
+            }
+            if (b.isWeekly()) {
+                return a.endDateTime().isAfter(b.startDateTime());
+            }
+            // Two one-offs are decided on the absolute timeline
+            return false;
+        }
+        
+        private static long minutes(LocalDateTime dateTime) {
+            return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+        }
+        
+        // The slot folded onto [0, MINUTES_PER_WEEK), split in two when it wraps past Sunday midnight
+        private static List<long[]> weekPieces(ScheduleSlot slot) {
+            LocalDateTime start = slot.startDateTime();
+            long length = Duration.between(start, slot.endDateTime()).toMinutes();
+            if (length >= MINUTES_PER_WEEK) {
+                return List.of(new long[] {0, MINUTES_PER_WEEK});
+            }
+            long lo = (start.getDayOfWeek().getValue() - 1) * 1440L + start.getHour() * 60L + start.getMinute();
+            long hi = lo + length;
+            if (hi <= MINUTES_PER_WEEK) {
+                return List.of(new long[] {lo, hi});
+            }
+            return List.of(new long[] {lo, MINUTES_PER_WEEK}, new long[] {0, hi - MINUTES_PER_WEEK});
+        }
+    }
+}
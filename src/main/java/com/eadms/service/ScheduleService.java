@@ -1,20 +1,55 @@
 package com.eadms.service;
 
 import com.eadms.dto.ScheduleDTO;
+import com.eadms.dto.projection.CourseOverlap;
+import com.eadms.dto.projection.CourseSummary;
+import com.eadms.dto.projection.ScheduleFeedRow;
+import com.eadms.dto.projection.ScheduleFeedVersion;
+import com.eadms.dto.projection.ScheduleSlot;
+import com.eadms.dto.projection.TeacherSummary;
+import com.eadms.dto.response.CursorPage;
+import com.eadms.dto.response.FreeRoomSlotResponse;
+import com.eadms.dto.response.ScheduleChangeMessage.ChangeType;
+import com.eadms.dto.response.ScheduleValidationResponse;
 import com.eadms.entity.Course;
 import com.eadms.entity.Schedule;
 import com.eadms.entity.Student;
 import com.eadms.entity.Teacher;
+import com.eadms.exception.BadRequestException;
+import com.eadms.exception.ResourceNotFoundException;
 import com.eadms.repository.CourseRepository;
+import com.eadms.repository.EnrollmentRepository;
 import com.eadms.repository.ScheduleRepository;
 import com.eadms.repository.StudentRepository;
 import com.eadms.repository.TeacherRepository;
+import com.eadms.util.CursorPageUtil;
+import com.eadms.util.ICalendarWriter;
+import com.eadms.util.ScheduleOccurrences;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,77 +57,292 @@ import java.util.stream.Collectors;
 @Transactional
 public class ScheduleService {
     
+    private static final Comparator<ScheduleDTO> WEEKLY_GRID_ORDER = Comparator
+            .comparing(ScheduleDTO::getDayOfWeek, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ScheduleDTO::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ScheduleDTO::getId);
+    
     private final ScheduleRepository scheduleRepository;
     private final CourseRepository courseRepository;
     private final TeacherRepository teacherRepository;
     private final StudentRepository studentRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final ScheduleConflictIndex conflictIndex;
+    private final RoomOccupancyIndex roomOccupancy;
+    private final StudentTimetableCache timetableCache;
+    private final ScheduleChangePublisher changePublisher;
+    private final ReferenceDataCache referenceData;
     
+    @Transactional(readOnly = true)
     public List<ScheduleDTO> getAllSchedules() {
-        return scheduleRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertAll(scheduleRepository.findAll());
     }
     
+    @Transactional(readOnly = true)
+    public CursorPage<ScheduleDTO> getSchedulesPage(String cursor, Integer size, boolean includeTotal) {
+        int pageSize = CursorPageUtil.pageSize(size);
+        List<Schedule> rows = scheduleRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPageUtil.afterId(cursor), CursorPageUtil.fetchLimit(pageSize));
+        Long totalCount = includeTotal ? scheduleRepository.count() : null;
+        warmReferenceData(rows);
+        return CursorPageUtil.toPage(rows, pageSize, this::convertToDTO, totalCount);
+    }
+    
+    @Transactional(readOnly = true)
     public ScheduleDTO getScheduleById(Long id) {
         Schedule schedule = scheduleRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Schedule not found"));
         return convertToDTO(schedule);
     }
-        // --- Missing methods for compilation ---
-        public List<ScheduleDTO> getTeacherSchedulesByDateRange(Long teacherId, java.time.LocalDateTime start, java.time.LocalDateTime end) {
-            // TODO: Implement actual logic
-            return java.util.Collections.emptyList();
-        }
-
-        public List<ScheduleDTO> getStudentSchedulesByDateRange(Long studentId, java.time.LocalDateTime start, java.time.LocalDateTime end) {
-            // TODO: Implement actual logic
-            return java.util.Collections.emptyList();
+    
+    @Transactional(readOnly = true)
+    public List<ScheduleDTO> getTeacherSchedulesByDateRange(Long teacherId, LocalDateTime start, LocalDateTime end) {
+        ScheduleOccurrences.validateWindow(start, end);
+        return expandOccurrences(scheduleRepository.findTeacherCandidatesInRange(teacherId, start, end), start, end);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ScheduleDTO> getStudentSchedulesByDateRange(Long studentId, LocalDateTime start, LocalDateTime end) {
+        ScheduleOccurrences.validateWindow(start, end);
+        return expandOccurrences(scheduleRepository.findStudentCandidatesInRange(studentId, start, end), start, end);
+    }
+    
+    // One DTO per occurrence inside the window; the schedule-level fields are mapped once per candidate
+    private List<ScheduleDTO> expandOccurrences(List<Schedule> candidates, LocalDateTime start, LocalDateTime end) {
+        warmReferenceData(candidates);
+        return candidates.stream()
+                .flatMap(schedule -> {
+                    ScheduleDTO base = convertToDTO(schedule);
+                    return ScheduleOccurrences.expand(schedule, start, end)
+                            .map(occurrence -> base.toBuilder()
+                                    .startDateTime(occurrence.start())
+                                    .endDateTime(occurrence.end())
+                                    .dayOfWeek(occurrence.start().getDayOfWeek())
+                                    .build());
+                })
+                .sorted(Comparator.comparing(ScheduleDTO::getStartDateTime)
+                        .thenComparing(ScheduleDTO::getId))
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional(readOnly = true)
+    public String getTeacherCalendarETag(Long teacherId) {
+        return calendarETag(scheduleRepository.findFeedVersionByTeacherId(teacherId));
+    }
+    
+    @Transactional(readOnly = true)
+    public String getStudentCalendarETag(Long studentId) {
+        return calendarETag(scheduleRepository.findFeedVersionByStudentId(studentId));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ScheduleFeedRow> getTeacherCalendarRows(Long teacherId) {
+        return scheduleRepository.findFeedRowsByTeacherId(teacherId);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ScheduleFeedRow> getStudentCalendarRows(Long studentId) {
+        return scheduleRepository.findFeedRowsByStudentId(studentId);
+    }
+    
+    /**
+     * Writes the rows as an iCalendar feed, one VEVENT per schedule; weekly schedules carry an RRULE
+     * rather than expanded occurrences. Runs outside any transaction.
+     */
+    public void writeCalendar(String calendarName, List<ScheduleFeedRow> rows, OutputStream out) throws IOException {
+        ICalendarWriter calendar = new ICalendarWriter(
+                new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        calendar.beginCalendar(calendarName);
+        for (ScheduleFeedRow row : rows) {
+            String description = row.courseCode() + " - " + row.courseName()
+                    + (row.description() != null ? "\n" + row.description() : "");
+            calendar.event("schedule-" + row.id() + "@eadms",
+                    row.updatedAt() != null ? row.updatedAt() : row.startDateTime(),
+                    row.startDateTime(), row.endDateTime(),
+                    row.recurrence() == Schedule.RecurrenceType.WEEKLY,
+                    row.title(), description, row.location());
         }
+        calendar.endCalendar();
+    }
+    
+    // Strong validator: the feed is built only from the listed schedules and their courses, and every
+    // write to those rows bumps updatedAt, so an unchanged fingerprint means a byte-identical body
+    private static String calendarETag(ScheduleFeedVersion version) {
+        String fingerprint = version.scheduleCount() + ":" + version.ownerUpdatedAt() + ":" + version.schedules();
+        return "\"" + DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
     
+    @Transactional(readOnly = true)
     public List<ScheduleDTO> getSchedulesByTeacherId(Long teacherId) {
-        return scheduleRepository.findByTeacherId(teacherId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertAll(scheduleRepository.findByTeacherId(teacherId));
     }
     
+    /**
+     * Weekly timetable of the student's actively enrolled courses, ordered Monday first and by start time.
+     */
+    @Transactional(readOnly = true)
     public List<ScheduleDTO> getSchedulesByStudentId(Long studentId) {
-        return scheduleRepository.findByStudentId(studentId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<ScheduleDTO> cached = timetableCache.get(studentId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = timetableCache.generation();
+        List<Long> courseIds = enrollmentRepository.findActiveCourseIdsByStudentId(studentId);
+        List<ScheduleDTO> timetable = courseIds.isEmpty()
+                ? List.of()
+                : convertAll(scheduleRepository.findByCourseIdIn(courseIds)).stream()
+                        .sorted(WEEKLY_GRID_ORDER)
+                        .collect(Collectors.toList());
+        timetableCache.put(studentId, courseIds, timetable, generation);
+        return timetable;
     }
     
+    @Transactional(readOnly = true)
     public List<ScheduleDTO> getSchedulesByDayOfWeek(DayOfWeek dayOfWeek) {
-        return scheduleRepository.findByDayOfWeek(dayOfWeek).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertAll(scheduleRepository.findByDayOfWeek(dayOfWeek));
     }
     
     public ScheduleDTO createSchedule(ScheduleDTO scheduleDTO) {
         Course course = courseRepository.findById(scheduleDTO.getCourseId())
                 .orElseThrow(() -> new RuntimeException("Course not found"));
         
+        LocalDateTime startDateTime = scheduleDTO.getStartDateTime() != null
+                ? scheduleDTO.getStartDateTime() : nextLegacySlot(scheduleDTO, scheduleDTO.getStartTime());
+        LocalDateTime endDateTime = scheduleDTO.getEndDateTime() != null
+                ? scheduleDTO.getEndDateTime() : nextLegacySlot(scheduleDTO, scheduleDTO.getEndTime());
+        if (startDateTime == null || endDateTime == null) {
+            throw new BadRequestException("startDateTime and endDateTime are required");
+        }
+        
+        // Legacy payloads only carry a weekday slot, which has always meant a weekly class
+        Schedule.RecurrenceType recurrence = scheduleDTO.getRecurrence() != null
+                ? scheduleDTO.getRecurrence()
+                : scheduleDTO.getStartDateTime() == null ? Schedule.RecurrenceType.WEEKLY : Schedule.RecurrenceType.NONE;
+        validateTimes(startDateTime, endDateTime, recurrence);
+        
         Schedule schedule = Schedule.builder()
                 .course(course)
-                .dayOfWeek(scheduleDTO.getDayOfWeek())
-                .startTime(scheduleDTO.getStartTime())
-                .endTime(scheduleDTO.getEndTime())
+                .teacher(resolveTeacher(scheduleDTO.getTeacherId(), course))
+                .title(scheduleDTO.getTitle() != null ? scheduleDTO.getTitle() : course.getCourseName())
+                .description(scheduleDTO.getDescription())
+                .startDateTime(startDateTime)
+                .endDateTime(endDateTime)
+                .recurrence(recurrence)
+                .location(scheduleDTO.getLocation() != null ? scheduleDTO.getLocation() : scheduleDTO.getRoomNumber())
                 .roomNumber(scheduleDTO.getRoomNumber())
                 .classType(scheduleDTO.getClassType())
                 .build();
         
         schedule = scheduleRepository.save(schedule);
+        conflictIndex.reserve(toSlot(schedule));
+        timetableCache.evictCourseAfterCommit(course.getId());
+        changePublisher.publishAfterCommit(ChangeType.CREATED, schedule.getId(), course.getId(), schedule.getTeacher().getId());
         return convertToDTO(schedule);
     }
     
+    /**
+     * Saves a batch of fully built schedules in one transaction. Any clash rolls back the whole batch.
+     */
+    public List<ScheduleDTO> createSchedules(List<Schedule> schedules) {
+        // Every row is checked before anything is written, as createSchedule does for one
+        for (Schedule schedule : schedules) {
+            if (schedule.getStartDateTime() == null || schedule.getEndDateTime() == null) {
+                throw new BadRequestException("startDateTime and endDateTime are required");
+            }
+            validateTimes(schedule.getStartDateTime(), schedule.getEndDateTime(), schedule.getRecurrence());
+        }
+        // Callers may build the batch outside a transaction; re-point the references at this persistence context
+        for (Schedule schedule : schedules) {
+            schedule.setCourse(courseRepository.getReferenceById(schedule.getCourse().getId()));
+            if (schedule.getTeacher() != null) {
+                schedule.setTeacher(teacherRepository.getReferenceById(schedule.getTeacher().getId()));
+            }
+        }
+        List<Schedule> saved = scheduleRepository.saveAll(schedules);
+        for (Schedule schedule : saved) {
+            conflictIndex.reserve(toSlot(schedule));
+            changePublisher.publishAfterCommit(ChangeType.CREATED, schedule.getId(), schedule.getCourse().getId(),
+                    schedule.getTeacher().getId());
+        }
+        saved.stream()
+                .map(schedule -> schedule.getCourse().getId())
+                .distinct()
+                .forEach(timetableCache::evictCourseAfterCommit);
+        return convertAll(saved);
+    }
+    
+    /**
+     * Saves a generated timetable for courses that had no schedules when it was planned. The courses
+     * are locked and re-checked first: if any of them has been scheduled since, or its students have
+     * been given a class at one of the new times, nothing is saved.
+     */
+    public List<ScheduleDTO> createTimetable(List<Schedule> schedules) {
+        Set<Long> courseIds = schedules.stream()
+                .map(schedule -> schedule.getCourse().getId())
+                .collect(Collectors.toCollection(TreeSet::new));
+        courseRepository.findForUpdateByIdIn(courseIds);
+        
+        List<Long> scheduled = scheduleRepository.findScheduledCourseIds(courseIds);
+        if (!scheduled.isEmpty()) {
+            throw new BadRequestException("Courses scheduled since the timetable was planned: " + scheduled);
+        }
+        
+        Map<Long, Set<Long>> sharingStudents = enrollmentRepository.findScheduledCourseOverlaps(courseIds).stream()
+                .collect(Collectors.groupingBy(CourseOverlap::courseId,
+                        Collectors.mapping(CourseOverlap::otherCourseId, Collectors.toSet())));
+        if (!sharingStudents.isEmpty()) {
+            List<ScheduleSlot> booked = scheduleRepository.findSlotsByCourseIds(sharingStudents.values().stream()
+                    .flatMap(Set::stream).collect(Collectors.toSet()));
+            for (Schedule schedule : schedules) {
+                Set<Long> others = sharingStudents.getOrDefault(schedule.getCourse().getId(), Set.of());
+                ScheduleSlot slot = toSlot(schedule);
+                booked.stream()
+                        .filter(other -> others.contains(other.courseId()) && ScheduleConflictIndex.overlaps(other, slot))
+                        .findFirst()
+                        .ifPresent(other -> {
+                            throw new BadRequestException("Students of course " + schedule.getCourse().getId()
+                                    + " now have a class in course " + other.courseId() + " at "
+                                    + schedule.getStartDateTime());
+                        });
+            }
+        }
+        return createSchedules(schedules);
+    }
+    
     public ScheduleDTO updateSchedule(Long id, ScheduleDTO scheduleDTO) {
         Schedule schedule = scheduleRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Schedule not found"));
+        timetableCache.evictCourseAfterCommit(schedule.getCourse().getId());
+        Long previousCourseId = schedule.getCourse().getId();
+        Long previousTeacherId = schedule.getTeacher().getId();
         
         if (scheduleDTO.getCourseId() != null) {
             Course course = courseRepository.findById(scheduleDTO.getCourseId())
                     .orElseThrow(() -> new RuntimeException("Course not found"));
             schedule.setCourse(course);
         }
+        if (scheduleDTO.getTeacherId() != null) {
+            schedule.setTeacher(resolveTeacher(scheduleDTO.getTeacherId(), schedule.getCourse()));
+        }
+        if (scheduleDTO.getTitle() != null) {
+            schedule.setTitle(scheduleDTO.getTitle());
+        }
+        if (scheduleDTO.getDescription() != null) {
+            schedule.setDescription(scheduleDTO.getDescription());
+        }
+        if (scheduleDTO.getStartDateTime() != null) {
+            schedule.setStartDateTime(scheduleDTO.getStartDateTime());
+        }
+        if (scheduleDTO.getEndDateTime() != null) {
+            schedule.setEndDateTime(scheduleDTO.getEndDateTime());
+        }
+        if (scheduleDTO.getRecurrence() != null) {
+            schedule.setRecurrence(scheduleDTO.getRecurrence());
+        }
+        if (scheduleDTO.getLocation() != null) {
+            schedule.setLocation(scheduleDTO.getLocation());
+        }
+        validateTimes(schedule.getStartDateTime(), schedule.getEndDateTime(), schedule.getRecurrence());
         
         if (scheduleDTO.getDayOfWeek() != null) {
             schedule.setDayOfWeek(scheduleDTO.getDayOfWeek());
@@ -111,26 +361,218 @@ public class ScheduleService {
         }
         
         schedule = scheduleRepository.save(schedule);
+        conflictIndex.reserve(toSlot(schedule));
+        timetableCache.evictCourseAfterCommit(schedule.getCourse().getId());
+        Long teacherId = schedule.getTeacher().getId();
+        if (previousCourseId.equals(schedule.getCourse().getId())) {
+            changePublisher.publishAfterCommit(ChangeType.UPDATED, id, previousCourseId, previousTeacherId, teacherId);
+        } else {
+            // Moving to another course reads as a removal for the old course's subscribers and an addition for the new one's
+            changePublisher.publishAfterCommit(ChangeType.DELETED, id, previousCourseId, previousTeacherId);
+            changePublisher.publishAfterCommit(ChangeType.CREATED, id, schedule.getCourse().getId(), teacherId);
+        }
         return convertToDTO(schedule);
     }
     
     public void deleteSchedule(Long id) {
-        scheduleRepository.deleteById(id);
+        scheduleRepository.findById(id).ifPresent(schedule -> {
+            scheduleRepository.delete(schedule);
+            conflictIndex.releaseAfterCommit(id);
+            timetableCache.evictCourseAfterCommit(schedule.getCourse().getId());
+            changePublisher.publishAfterCommit(ChangeType.DELETED, id, schedule.getCourse().getId(),
+                    schedule.getTeacher().getId());
+        });
+    }
+    
+    /**
+     * Checks a batch of schedules (e.g. a whole term's timetable) for teacher and room clashes against
+     * stored schedules and against each other, without saving anything.
+     */
+    @Transactional(readOnly = true)
+    public ScheduleValidationResponse validateSchedules(List<ScheduleDTO> schedules) {
+        Map<Long, Course> courses = courseRepository.findAllById(schedules.stream()
+                        .map(ScheduleDTO::getCourseId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        Set<Long> teacherIds = teacherRepository.findAllById(schedules.stream()
+                        .map(ScheduleDTO::getTeacherId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .map(Teacher::getId)
+                .collect(Collectors.toSet());
+        
+        List<ScheduleSlot> slots = new ArrayList<>(schedules.size());
+        List<String> problems = new ArrayList<>(schedules.size());
+        for (ScheduleDTO dto : schedules) {
+            String problem = null;
+            ScheduleSlot slot = null;
+            Course course = dto.getCourseId() != null ? courses.get(dto.getCourseId()) : null;
+            Schedule.RecurrenceType recurrence = dto.getRecurrence() != null
+                    ? dto.getRecurrence() : Schedule.RecurrenceType.NONE;
+            if (course == null) {
+                problem = "Course not found";
+            } else if (dto.getTeacherId() != null && !teacherIds.contains(dto.getTeacherId())) {
+                problem = "Teacher not found";
+            } else if (dto.getStartDateTime() == null || dto.getEndDateTime() == null) {
+                problem = "startDateTime and endDateTime are required";
+            } else {
+                try {
+                    validateTimes(dto.getStartDateTime(), dto.getEndDateTime(), recurrence);
+                    Long teacherId = dto.getTeacherId() != null
+                            ? dto.getTeacherId() : resolveTeacher(null, course).getId();
+                    slot = new ScheduleSlot(null, course.getId(), teacherId,
+                            dto.getLocation() != null ? dto.getLocation() : dto.getRoomNumber(),
+                            dto.getStartDateTime(), dto.getEndDateTime(), recurrence);
+                } catch (BadRequestException e) {
+                    problem = e.getMessage();
+                }
+            }
+            slots.add(slot);
+            problems.add(problem);
+        }
+        
+        List<List<ScheduleConflictIndex.Conflict>> conflicts = conflictIndex.validateBatch(slots);
+        List<ScheduleValidationResponse.RowResult> results = new ArrayList<>(schedules.size());
+        int valid = 0;
+        int conflicting = 0;
+        int invalid = 0;
+        for (int row = 0; row < schedules.size(); row++) {
+            ScheduleValidationResponse.RowResult.RowResultBuilder result = ScheduleValidationResponse.RowResult.builder()
+                    .row(row)
+                    .conflicts(conflicts.get(row).stream().map(this::toConflictDetail).collect(Collectors.toList()));
+            if (problems.get(row) != null) {
+                invalid++;
+                result.outcome(ScheduleValidationResponse.Outcome.INVALID).message(problems.get(row));
+            } else if (!conflicts.get(row).isEmpty()) {
+                conflicting++;
+                result.outcome(ScheduleValidationResponse.Outcome.CONFLICT).message("Overlaps existing bookings");
+            } else {
+                valid++;
+                result.outcome(ScheduleValidationResponse.Outcome.VALID);
+            }
+            results.add(result.build());
+        }
+        
+        return ScheduleValidationResponse.builder()
+                .total(schedules.size())
+                .valid(valid)
+                .conflicting(conflicting)
+                .invalid(invalid)
+                .results(results)
+                .build();
+    }
+    
+    private ScheduleValidationResponse.ConflictDetail toConflictDetail(ScheduleConflictIndex.Conflict conflict) {
+        ScheduleSlot slot = conflict.slot();
+        return ScheduleValidationResponse.ConflictDetail.builder()
+                .resource(conflict.resource().name())
+                .scheduleId(conflict.scheduleId())
+                .batchRow(conflict.batchRow())
+                .startDateTime(slot.startDateTime())
+                .endDateTime(slot.endDateTime())
+                .recurrence(slot.recurrence())
+                .room(slot.room())
+                .build();
+    }
+    
+    /**
+     * Rooms with a free stretch of at least {@code minutes} inside the window on {@code date}; with
+     * {@code recurring}, the stretch must stay free on that weekday every week from then on.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<FreeRoomSlotResponse> findFreeRooms(LocalDate date, LocalTime from, LocalTime to, int minutes,
+                                                    boolean recurring, List<String> rooms) {
+        if (minutes <= 0) {
+            throw new BadRequestException("Duration must be positive");
+        }
+        if (!to.equals(LocalTime.MIDNIGHT) && !to.isAfter(from)) {
+            throw new BadRequestException("Window end must be after window start");
+        }
+        return roomOccupancy.findFreeSlots(date, from, to, minutes, recurring, rooms).stream()
+                .map(slot -> FreeRoomSlotResponse.builder()
+                        .room(slot.room())
+                        .freeFrom(slot.start())
+                        .freeUntil(slot.end())
+                        .freeMinutes(Duration.between(slot.start(), slot.end()).toMinutes())
+                        .build())
+                .collect(Collectors.toList());
+    }
+    
+    private Teacher resolveTeacher(Long teacherId, Course course) {
+        if (teacherId != null) {
+            return teacherRepository.findById(teacherId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Teacher", "id", teacherId));
+        }
+        return course.getTeachers().stream()
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Course has no assigned teacher; teacherId is required"));
+    }
+    
+    // Next date on or after today for a legacy dayOfWeek/time payload
+    private LocalDateTime nextLegacySlot(ScheduleDTO scheduleDTO, LocalTime time) {
+        if (scheduleDTO.getDayOfWeek() == null || time == null) {
+            return null;
+        }
+        return LocalDate.now()
+                .with(TemporalAdjusters.nextOrSame(scheduleDTO.getDayOfWeek()))
+                .atTime(time);
+    }
+    
+    private void validateTimes(LocalDateTime start, LocalDateTime end, Schedule.RecurrenceType recurrence) {
+        if (!end.isAfter(start)) {
+            throw new BadRequestException("Schedule end time must be after start time");
+        }
+        if (recurrence == Schedule.RecurrenceType.WEEKLY && Duration.between(start, end).toDays() >= 7) {
+            throw new BadRequestException("A weekly schedule must be shorter than a week");
+        }
+    }
+    
+    private ScheduleSlot toSlot(Schedule schedule) {
+        return new ScheduleSlot(schedule.getId(), schedule.getCourse().getId(), schedule.getTeacher().getId(),
+                schedule.getLocation() != null ? schedule.getLocation() : schedule.getRoomNumber(),
+                schedule.getStartDateTime(), schedule.getEndDateTime(), schedule.getRecurrence());
+    }
+    
+    private List<ScheduleDTO> convertAll(List<Schedule> schedules) {
+        warmReferenceData(schedules);
+        return schedules.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    // Loads the course and teacher summaries a batch of schedules needs in two queries instead of one per miss
+    private void warmReferenceData(List<Schedule> schedules) {
+        Map<Long, CourseSummary> courses = referenceData.getCourses(schedules.stream()
+                .map(schedule -> schedule.getCourse().getId())
+                .collect(Collectors.toSet()));
+        referenceData.getTeachers(courses.values().stream()
+                .flatMap(course -> course.teacherIds().stream())
+                .collect(Collectors.toSet()));
     }
     
     private ScheduleDTO convertToDTO(Schedule schedule) {
-        String teacherName = schedule.getCourse().getTeachers() != null && !schedule.getCourse().getTeachers().isEmpty()
-                ? schedule.getCourse().getTeachers().stream()
-                        .map(t -> t.getFirstName() + " " + t.getLastName())
-                        .collect(java.util.stream.Collectors.joining(", "))
+        CourseSummary course = referenceData.getCourse(schedule.getCourse().getId());
+        List<TeacherSummary> courseTeachers = referenceData.getTeachers(course.teacherIds());
+        String teacherName = !courseTeachers.isEmpty()
+                ? courseTeachers.stream()
+                        .map(TeacherSummary::fullName)
+                        .collect(Collectors.joining(", "))
                 : "Not Assigned";
         
         return ScheduleDTO.builder()
                 .id(schedule.getId())
-                .courseId(schedule.getCourse().getId())
-                .courseCode(schedule.getCourse().getCourseCode())
-                .courseName(schedule.getCourse().getCourseName())
+                .courseId(course.id())
+                .courseCode(course.courseCode())
+                .courseName(course.courseName())
+                .teacherId(schedule.getTeacher() != null ? schedule.getTeacher().getId() : null)
                 .teacherName(teacherName)
+                .title(schedule.getTitle())
+                .description(schedule.getDescription())
+                .startDateTime(schedule.getStartDateTime())
+                .endDateTime(schedule.getEndDateTime())
+                .recurrence(schedule.getRecurrence())
+                .location(schedule.getLocation())
                 .dayOfWeek(schedule.getDayOfWeek())
                 .startTime(schedule.getStartTime())
                 .endTime(schedule.getEndTime())
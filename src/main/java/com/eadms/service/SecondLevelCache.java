@@ -0,0 +1,135 @@
+package com.eadms.service;
+
+import com.eadms.dto.response.SecondLevelCacheStatsResponse;
+import com.eadms.entity.Course;
+import com.eadms.entity.Teacher;
+import com.eadms.entity.User;
+import com.eadms.service.CacheInvalidationBus.Invalidation;
+import com.eadms.util.TransactionCallbacks;
+import jakarta.persistence.EntityManagerFactory;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.hibernate.Cache;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+/**
+ * Keeps the Hibernate second-level cache (see {@code ehcache.xml}) in step across instances and
+ * reports its statistics.
+ *
+ * Each instance's cache only sees its own writes, so invalidations published on the
+ * {@link CacheInvalidationBus} for courses and teachers (by {@link ReferenceDataCache}) and for users
+ * (here) evict the matching regions, along with cached query results, whose table timestamps are
+ * local too. On the writing instance this costs one reload of data the write had already cached.
+ */
+@Component
+public class SecondLevelCache {
+    
+    static final String USERS = "users";
+    
+    private static final String COURSE_TEACHERS = Course.class.getName() + ".teachers";
+    
+    private final SessionFactoryImplementor sessionFactory;
+    private final CacheInvalidationBus invalidationBus;
+    
+    public SecondLevelCache(EntityManagerFactory entityManagerFactory, CacheInvalidationBus invalidationBus) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(this::apply);
+    }
+    
+    public void evictUserAfterCommit(Long userId) {
+        TransactionCallbacks.afterCommit(() -> invalidationBus.publish(new Invalidation(USERS, userId)));
+    }
+    
+    private void apply(Invalidation invalidation) {
+        Cache cache = sessionFactory.getCache();
+        Long key = invalidation.key();
+        switch (invalidation.region()) {
+            case ReferenceDataCache.COURSES -> {
+                if (key == null) {
+                    cache.evictEntityData(Course.class);
+                    cache.evictCollectionData(COURSE_TEACHERS);
+                } else {
+                    cache.evictEntityData(Course.class, key);
+                    cache.evictCollectionData(COURSE_TEACHERS, key);
+                }
+            }
+            case ReferenceDataCache.TEACHERS -> {
+                if (key == null) {
+                    cache.evictEntityData(Teacher.class);
+                } else {
+                    cache.evictEntityData(Teacher.class, key);
+                }
+                // A deleted teacher is still listed by the courses cached before the delete
+                cache.evictCollectionData(COURSE_TEACHERS);
+            }
+            case USERS -> {
+                if (key == null) {
+                    cache.evictEntityData(User.class);
+                } else {
+                    cache.evictEntityData(User.class, key);
+                }
+                // Email to id resolutions are not keyed by id
+                cache.evictNaturalIdData(User.class);
+            }
+            default -> {
+                return;
+            }
+        }
+        cache.evictDefaultQueryRegion();
+    }
+    
+    public SecondLevelCacheStatsResponse stats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        CacheManager cacheManager = cacheManager();
+        List<SecondLevelCacheStatsResponse.Region> regions = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            javax.cache.Cache<Object, Object> cache = cacheManager.getCache(name);
+            long hits = region != null ? region.getHitCount() : 0;
+            long misses = region != null ? region.getMissCount() : 0;
+            regions.add(SecondLevelCacheStatsResponse.Region.builder()
+                    .name(name)
+                    .size(StreamSupport.stream(cache.spliterator(), false).count())
+                    .maxEntries(heapEntries(cache))
+                    .hits(hits)
+                    .misses(misses)
+                    .puts(region != null ? region.getPutCount() : 0)
+                    .hitRate(hits + misses == 0 ? 0.0 : (double) hits / (hits + misses))
+                    .build());
+        }
+        return SecondLevelCacheStatsResponse.builder()
+                .statisticsEnabled(statistics.isStatisticsEnabled())
+                .statementsPrepared(statistics.getPrepareStatementCount())
+                .queryExecutions(statistics.getQueryExecutionCount())
+                .entityLoads(statistics.getEntityLoadCount())
+                .naturalIdQueryExecutions(statistics.getNaturalIdQueryExecutionCount())
+                .queryCacheHits(statistics.getQueryCacheHitCount())
+                .queryCacheMisses(statistics.getQueryCacheMissCount())
+                .regions(regions)
+                .build();
+    }
+    
+    private CacheManager cacheManager() {
+        RegionFactory regionFactory = sessionFactory.getServiceRegistry().getService(RegionFactory.class);
+        return ((JCacheRegionFactory) regionFactory).getCacheManager();
+    }
+    
+    private static long heapEntries(javax.cache.Cache<Object, Object> cache) {
+        SizedResourcePool heap = cache.unwrap(org.ehcache.Cache.class)
+                .getRuntimeConfiguration()
+                .getResourcePools()
+                .getPoolForResource(ResourceType.Core.HEAP);
+        return heap != null ? heap.getSize() : 0;
+    }
+}
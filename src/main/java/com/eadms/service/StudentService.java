@@ -2,6 +2,7 @@ package com.eadms.service;
 
 import com.eadms.dto.request.StudentCreateRequest;
 import com.eadms.dto.request.StudentUpdateRequest;
+import com.eadms.dto.response.CursorPage;
 import com.eadms.dto.response.StudentResponse;
 
 import java.util.List;
@@ -12,6 +13,7 @@ public interface StudentService {
     void deleteStudent(Long id);
     StudentResponse getStudentById(Long id);
     List<StudentResponse> getAllStudents();
+    CursorPage<StudentResponse> getStudentsPage(String cursor, Integer size, boolean includeTotal);
     List<StudentResponse> getStudentsByClass(String className);
     List<StudentResponse> getStudentsByCourse(Long courseId);
     Long getTotalStudentCount();
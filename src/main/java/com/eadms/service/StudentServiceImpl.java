@@ -2,16 +2,22 @@ package com.eadms.service;
 
 import com.eadms.dto.request.StudentCreateRequest;
 import com.eadms.dto.request.StudentUpdateRequest;
+import com.eadms.dto.response.CursorPage;
 import com.eadms.dto.response.StudentResponse;
 import com.eadms.entity.Student;
 import com.eadms.entity.User;
 import com.eadms.exception.BadRequestException;
 import com.eadms.exception.ResourceNotFoundException;
 import com.eadms.repository.AttendanceRepository;
+import com.eadms.repository.AttendanceRollupRepository;
 import com.eadms.repository.EnrollmentRepository;      
 import com.eadms.repository.MarksRepository;
+import com.eadms.repository.RiskFlagRepository;
+import com.eadms.repository.StudentAcademicLedgerRepository;
+import com.eadms.repository.StudentDashboardSummaryRepository;
 import com.eadms.repository.StudentRepository;
 import com.eadms.repository.UserRepository;
+import com.eadms.util.CursorPageUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
@@ -33,6 +39,13 @@ public class StudentServiceImpl implements StudentService {
     private final MarksRepository marksRepository;
     private final AttendanceRepository attendanceRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final StudentDashboardSummaryRepository studentDashboardSummaryRepository;
+    private final StudentAcademicLedgerRepository studentAcademicLedgerRepository;
+    private final AttendanceRollupRepository attendanceRollupRepository;
+    private final RiskFlagRepository riskFlagRepository;
+    private final StudentTimetableCache studentTimetableCache;
+    private final SecondLevelCache secondLevelCache;
+    private final CourseGradeAnalytics gradeAnalytics;
     
     @Override
     @Transactional
@@ -118,6 +131,8 @@ public class StudentServiceImpl implements StudentService {
                 log.info("Deleting {} marks records for student...", marksCount);
                 marksRepository.deleteByStudentId(id);
                 marksRepository.flush();
+                // The marks may span any number of courses
+                gradeAnalytics.clearAfterCommit();
                 log.info("Successfully deleted marks records");
             }
             
@@ -137,6 +152,13 @@ public class StudentServiceImpl implements StudentService {
                 log.info("Successfully deleted enrollment records");
             }
             
+            // Drop the dashboard read model, academic ledger, attendance rollup and risk flag rows
+            studentDashboardSummaryRepository.deleteByStudentId(id);
+            studentAcademicLedgerRepository.deleteByStudentId(id);
+            attendanceRollupRepository.deleteByStudentId(id);
+            riskFlagRepository.deleteByStudentId(id);
+            studentTimetableCache.evictStudentAfterCommit(id);
+            
             // Step 4: Delete the student entity
             log.info("Deleting student entity...");
             studentRepository.delete(student);
@@ -147,12 +169,13 @@ public class StudentServiceImpl implements StudentService {
             if (user != null) {
                 log.info("Deleting associated user...");
                 userRepository.delete(user);
+                secondLevelCache.evictUserAfterCommit(user.getId());
                 userRepository.flush();
                 log.info("Successfully deleted associated user");
             }
             
             log.info("Student deletion completed successfully for ID: {}", id);
-            
+        
         } catch (Exception e) {
             // Log the actual error for debugging in production
             log.error("Error deleting student with ID {}: {}", id, e.getMessage(), e);
@@ -163,6 +186,7 @@ public class StudentServiceImpl implements StudentService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public StudentResponse getStudentById(Long id) {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student", "id", id));
@@ -170,6 +194,7 @@ public class StudentServiceImpl implements StudentService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<StudentResponse> getAllStudents() {
         return studentRepository.findAll().stream()
                 .map(this::mapToResponse)
@@ -177,6 +202,17 @@ public class StudentServiceImpl implements StudentService {
     }
     
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<StudentResponse> getStudentsPage(String cursor, Integer size, boolean includeTotal) {
+        int pageSize = CursorPageUtil.pageSize(size);
+        List<Student> rows = studentRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPageUtil.afterId(cursor), CursorPageUtil.fetchLimit(pageSize));
+        Long totalCount = includeTotal ? studentRepository.count() : null;
+        return CursorPageUtil.toPage(rows, pageSize, this::mapToResponse, totalCount);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
     public List<StudentResponse> getStudentsByClass(String className) {
         return studentRepository.findByClassName(className).stream()
                 .map(this::mapToResponse)
@@ -184,6 +220,7 @@ public class StudentServiceImpl implements StudentService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<StudentResponse> getStudentsByCourse(Long courseId) {
         return studentRepository.findStudentsByCourseId(courseId).stream()
                 .map(this::mapToResponse)
@@ -196,6 +233,7 @@ public class StudentServiceImpl implements StudentService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public StudentResponse getStudentByUserId(Long userId) {
         Student student = studentRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found for user"));
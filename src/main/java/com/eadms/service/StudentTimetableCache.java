@@ -0,0 +1,89 @@
+package com.eadms.service;
+
+import com.eadms.dto.ScheduleDTO;
+import com.eadms.dto.response.CacheStatsResponse;
+import com.eadms.util.BoundedCache;
+import com.eadms.util.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-student weekly timetables, with a course → students reverse index so a schedule or course change
+ * only evicts the students who can see it.
+ *
+ * Invalidations run after commit and bump a generation counter; a load that started before an
+ * invalidation is not stored, so a timetable read from pre-commit data can never be cached.
+ * Cached lists are shared between requests and must be treated as read-only.
+ */
+@Component
+public class StudentTimetableCache {
+    
+    static final String TIMETABLES = "timetables";
+    
+    private final BoundedCache<Long, List<ScheduleDTO>> timetables;
+    private final Map<Long, Set<Long>> studentsByCourse = new ConcurrentHashMap<>();
+    
+    public StudentTimetableCache(@Value("${timetable.cache.max-entries:20000}") int maxEntries) {
+        this.timetables = new BoundedCache<>(TIMETABLES, maxEntries, null);
+    }
+    
+    public List<ScheduleDTO> get(Long studentId) {
+        return timetables.get(studentId);
+    }
+    
+    // Take before loading and hand back to put, which drops the load if anything was invalidated meanwhile
+    public long generation() {
+        return timetables.generation();
+    }
+    
+    // Evicted students' reverse-index entries go stale; evicting a course tolerates them
+    public synchronized void put(Long studentId, Collection<Long> courseIds, List<ScheduleDTO> timetable,
+                                 long loadedAtGeneration) {
+        if (!timetables.put(studentId, List.copyOf(timetable), loadedAtGeneration)) {
+            return;
+        }
+        for (Long courseId : courseIds) {
+            studentsByCourse.computeIfAbsent(courseId, id -> ConcurrentHashMap.newKeySet()).add(studentId);
+        }
+    }
+    
+    public void evictStudentAfterCommit(Long studentId) {
+        TransactionCallbacks.afterCommit(() -> evictStudent(studentId));
+    }
+    
+    public void evictCourseAfterCommit(Long courseId) {
+        TransactionCallbacks.afterCommit(() -> evictCourse(courseId));
+    }
+    
+    public void clearAfterCommit() {
+        TransactionCallbacks.afterCommit(this::clear);
+    }
+    
+    public int size() {
+        return timetables.size();
+    }
+    
+    public CacheStatsResponse stats() {
+        return timetables.stats();
+    }
+    
+    public synchronized void clear() {
+        timetables.clear();
+        studentsByCourse.clear();
+    }
+    
+    private synchronized void evictStudent(Long studentId) {
+        timetables.invalidate(studentId);
+    }
+    
+    private synchronized void evictCourse(Long courseId) {
+        Set<Long> students = studentsByCourse.remove(courseId);
+        timetables.invalidateAll(students == null ? Set.of() : students);
+    }
+}
@@ -1,6 +1,7 @@
 package com.eadms.service;
 
 import com.eadms.dto.request.TeacherCreateRequest;
+import com.eadms.dto.response.CursorPage;
 import com.eadms.dto.response.TeacherResponse;
 
 import java.util.List;
@@ -11,6 +12,7 @@ public interface TeacherService {
     void deleteTeacher(Long id);
     TeacherResponse getTeacherById(Long id);
     List<TeacherResponse> getAllTeachers();
+    CursorPage<TeacherResponse> getTeachersPage(String cursor, Integer size, boolean includeTotal);
     Long getTotalTeacherCount();
     TeacherResponse getTeacherByUserId(Long userId);
     String getNextTeacherId(String department);
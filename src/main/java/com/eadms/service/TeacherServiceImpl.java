@@ -1,6 +1,7 @@
 package com.eadms.service;
 
 import com.eadms.dto.request.TeacherCreateRequest;
+import com.eadms.dto.response.CursorPage;
 import com.eadms.dto.response.TeacherResponse;
 import com.eadms.entity.Course;
 import com.eadms.entity.Teacher;
@@ -9,13 +10,16 @@ import com.eadms.exception.BadRequestException;
 import com.eadms.exception.ResourceNotFoundException;
 import com.eadms.repository.CourseRepository;
 import com.eadms.repository.ScheduleRepository;
+import com.eadms.repository.StudentDashboardSummaryRepository;
 import com.eadms.repository.TeacherRepository;
 import com.eadms.repository.UserRepository;
+import com.eadms.util.CursorPageUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -30,6 +34,11 @@ public class TeacherServiceImpl implements TeacherService {
     private final AuthService authService;
     private final CourseRepository courseRepository;
     private final ScheduleRepository scheduleRepository;
+    private final ScheduleConflictIndex scheduleConflictIndex;
+    private final StudentTimetableCache studentTimetableCache;
+    private final ReferenceDataCache referenceData;
+    private final SecondLevelCache secondLevelCache;
+    private final StudentDashboardSummaryRepository studentDashboardSummaryRepository;
     
     @Override
     @Transactional
@@ -90,6 +99,9 @@ public class TeacherServiceImpl implements TeacherService {
         teacher.setContactNumber(request.getContactNumber());
         
         Teacher updatedTeacher = teacherRepository.save(teacher);
+        studentDashboardSummaryRepository.markStaleByTeacherId(id);
+        studentTimetableCache.clearAfterCommit();
+        referenceData.evictTeacherAfterCommit(id);
         return mapToResponse(updatedTeacher);
     }
     
@@ -117,10 +129,15 @@ public class TeacherServiceImpl implements TeacherService {
             log.info("Deleting all schedules for teacher...");
             scheduleRepository.deleteByTeacherId(id);
             scheduleRepository.flush();
+            scheduleConflictIndex.releaseTeacherAfterCommit(id);
             log.info("Successfully deleted teacher schedules");
             
             // Step 2: Remove teacher from all course assignments
             log.info("Removing teacher from all course assignments...");
+            studentDashboardSummaryRepository.markStaleByTeacherId(id);
+            studentTimetableCache.clearAfterCommit();
+            referenceData.evictTeacherAfterCommit(id);
+            courseRepository.touchByTeacherId(id, LocalDateTime.now());
             teacherRepository.removeTeacherFromAllCourses(id);
             teacherRepository.flush();
             log.info("Successfully removed teacher from course assignments");
@@ -135,6 +152,7 @@ public class TeacherServiceImpl implements TeacherService {
             if (user != null) {
                 log.info("Deleting associated user...");
                 userRepository.delete(user);
+                secondLevelCache.evictUserAfterCommit(user.getId());
                 userRepository.flush();
                 log.info("Successfully deleted associated user");
             }
@@ -151,6 +169,7 @@ public class TeacherServiceImpl implements TeacherService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public TeacherResponse getTeacherById(Long id) {
         Teacher teacher = teacherRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Teacher", "id", id));
@@ -158,18 +177,30 @@ public class TeacherServiceImpl implements TeacherService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<TeacherResponse> getAllTeachers() {
         return teacherRepository.findAll().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TeacherResponse> getTeachersPage(String cursor, Integer size, boolean includeTotal) {
+        int pageSize = CursorPageUtil.pageSize(size);
+        List<Teacher> rows = teacherRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPageUtil.afterId(cursor), CursorPageUtil.fetchLimit(pageSize));
+        Long totalCount = includeTotal ? teacherRepository.count() : null;
+        return CursorPageUtil.toPage(rows, pageSize, this::mapToResponse, totalCount);
+    }
+    
     @Override
     public Long getTotalTeacherCount() {
         return teacherRepository.countAllTeachers();
     }
     
     @Override
+    @Transactional(readOnly = true)
     public TeacherResponse getTeacherByUserId(Long userId) {
         Teacher teacher = teacherRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Teacher not found for user"));
@@ -0,0 +1,10 @@
+package com.eadms.service;
+
+import com.eadms.dto.request.TimetableGenerationRequest;
+import com.eadms.dto.response.TimetableJobResponse;
+
+public interface TimetableService {
+    TimetableJobResponse startGeneration(TimetableGenerationRequest request);
+    TimetableJobResponse getJob(String jobId);
+    TimetableJobResponse applyPreview(String jobId);
+}
@@ -0,0 +1,458 @@
+package com.eadms.service;
+
+import com.eadms.dto.ScheduleDTO;
+import com.eadms.dto.projection.CourseOverlap;
+import com.eadms.dto.projection.ScheduleSlot;
+import com.eadms.dto.request.TimetableGenerationRequest;
+import com.eadms.dto.response.TimetableJobResponse;
+import com.eadms.entity.Course;
+import com.eadms.entity.Schedule;
+import com.eadms.entity.Teacher;
+import com.eadms.exception.BadRequestException;
+import com.eadms.exception.ResourceNotFoundException;
+import com.eadms.repository.CourseRepository;
+import com.eadms.repository.EnrollmentRepository;
+import com.eadms.repository.ScheduleRepository;
+import com.eadms.repository.TeacherRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class TimetableServiceImpl implements TimetableService {
+    
+    private static final int MAX_RETAINED_JOBS = 20;
+    private static final List<DayOfWeek> DEFAULT_DAYS = List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY,
+            DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY);
+    private static final LocalTime DEFAULT_DAY_START = LocalTime.of(8, 0);
+    private static final LocalTime DEFAULT_DAY_END = LocalTime.of(18, 0);
+    private static final int DEFAULT_SESSION_MINUTES = 60;
+    
+    private final CourseRepository courseRepository;
+    private final TeacherRepository teacherRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final ScheduleService scheduleService;
+    private final ScheduleConflictIndex conflictIndex;
+    private final RoomOccupancyIndex roomOccupancy;
+    private final int parallelism;
+    private final long defaultTimeBudgetMs;
+    private final long maxTimeBudgetMs;
+    
+    private final ForkJoinPool solverPool;
+    // Jobs run one at a time; each one fans out over the whole solver pool
+    private final ExecutorService jobRunner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "timetable-job");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    
+    public TimetableServiceImpl(CourseRepository courseRepository,
+                                TeacherRepository teacherRepository,
+                                EnrollmentRepository enrollmentRepository,
+                                ScheduleRepository scheduleRepository,
+                                ScheduleService scheduleService,
+                                ScheduleConflictIndex conflictIndex,
+                                RoomOccupancyIndex roomOccupancy,
+                                @Value("${timetable.solver.parallelism:4}") int parallelism,
+                                @Value("${timetable.solver.default-time-budget-ms:10000}") long defaultTimeBudgetMs,
+                                @Value("${timetable.solver.max-time-budget-ms:120000}") long maxTimeBudgetMs) {
+        this.courseRepository = courseRepository;
+        this.teacherRepository = teacherRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.scheduleService = scheduleService;
+        this.conflictIndex = conflictIndex;
+        this.roomOccupancy = roomOccupancy;
+        this.parallelism = Math.max(1, parallelism);
+        this.defaultTimeBudgetMs = defaultTimeBudgetMs;
+        this.maxTimeBudgetMs = maxTimeBudgetMs;
+        this.solverPool = new ForkJoinPool(this.parallelism);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        jobRunner.shutdownNow();
+        solverPool.shutdownNow();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public TimetableJobResponse startGeneration(TimetableGenerationRequest request) {
+        Plan plan = buildPlan(request);
+        Job job = new Job(UUID.randomUUID().toString(), request.isDryRun(), plan);
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            jobs.values().removeIf(old -> jobs.size() > MAX_RETAINED_JOBS && old.status != TimetableJobResponse.Status.RUNNING);
+        }
+        log.info("Timetable job {} queued: {} sessions for {} courses, {} rooms, {} ms budget",
+                job.id, plan.sessionCourse.length, plan.courses.size(), plan.rooms.size(), plan.timeBudgetMs);
+        jobRunner.submit(() -> run(job));
+        return job.toResponse();
+    }
+    
+    @Override
+    public TimetableJobResponse getJob(String jobId) {
+        return findJob(jobId).toResponse();
+    }
+    
+    @Override
+    public TimetableJobResponse applyPreview(String jobId) {
+        Job job = findJob(jobId);
+        synchronized (job) {
+            if (job.status != TimetableJobResponse.Status.PREVIEW) {
+                throw new BadRequestException("Only a completed, clash-free preview can be applied (job is " + job.status + ")");
+            }
+            apply(job);
+        }
+        return job.toResponse();
+    }
+    
+    private Job findJob(String jobId) {
+        synchronized (jobs) {
+            Job job = jobs.get(jobId);
+            if (job == null) {
+                throw new ResourceNotFoundException("Timetable job", "id", jobId);
+            }
+            return job;
+        }
+    }
+    
+    private void run(Job job) {
+        TimetableSolver.Solution solution;
+        try {
+            solution = new TimetableSolver().solve(job.plan.problem, solverPool, parallelism,
+                    job.plan.timeBudgetMs, job.progress);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(TimetableJobResponse.Status.FAILED, "Interrupted");
+            return;
+        } catch (RuntimeException e) {
+            log.error("Timetable job {} failed", job.id, e);
+            job.finish(TimetableJobResponse.Status.FAILED, e.getMessage());
+            return;
+        }
+        
+        synchronized (job) {
+            job.solution = solution;
+            if (solution.hardViolations() > 0) {
+                job.finish(TimetableJobResponse.Status.INFEASIBLE, "No clash-free timetable found within the time budget; "
+                        + "add rooms, days or time, or raise the budget");
+            } else if (job.dryRun) {
+                job.finish(TimetableJobResponse.Status.PREVIEW, "Clash-free timetable found; apply the job to save it");
+            } else {
+                apply(job);
+            }
+        }
+        log.info("Timetable job {} finished as {} after {} iterations (hard {}, soft {})", job.id, job.status,
+                job.progress.iterations(), solution.hardViolations(), solution.softPenalty());
+    }
+    
+    // Caller holds the job's monitor
+    private void apply(Job job) {
+        List<Schedule> schedules = job.plan.sessions(job.solution).stream()
+                .map(session -> Schedule.builder()
+                        .course(courseRepository.getReferenceById(session.courseId()))
+                        .teacher(teacherRepository.getReferenceById(session.teacherId()))
+                        .title(session.courseName())
+                        .description("Generated timetable")
+                        .startDateTime(session.start())
+                        .endDateTime(session.end())
+                        .recurrence(Schedule.RecurrenceType.WEEKLY)
+                        .location(session.room())
+                        .roomNumber(session.room())
+                        .classType("LECTURE")
+                        .build())
+                .collect(Collectors.toList());
+        try {
+            scheduleService.createTimetable(schedules);
+            job.finish(TimetableJobResponse.Status.APPLIED, schedules.size() + " schedules created");
+        } catch (RuntimeException e) {
+            // The plan is a snapshot taken at submit time: anything scheduled since that clashes with it
+            // (a course, a teacher, a room or its students) rolls back the whole batch
+            job.finish(TimetableJobResponse.Status.FAILED, "Timetable could not be saved: " + e.getMessage());
+        }
+    }
+    
+    private Plan buildPlan(TimetableGenerationRequest request) {
+        List<DayOfWeek> days = request.getDays() == null || request.getDays().isEmpty()
+                ? DEFAULT_DAYS : request.getDays().stream().distinct().sorted().toList();
+        LocalTime dayStart = request.getDayStart() != null ? request.getDayStart() : DEFAULT_DAY_START;
+        LocalTime dayEnd = request.getDayEnd() != null ? request.getDayEnd() : DEFAULT_DAY_END;
+        int sessionMinutes = request.getSessionMinutes() != null ? request.getSessionMinutes() : DEFAULT_SESSION_MINUTES;
+        int periodsPerDay = (int) (Duration.between(dayStart, dayEnd).toMinutes() / sessionMinutes);
+        if (periodsPerDay < 1) {
+            throw new BadRequestException("The teaching day is shorter than one session");
+        }
+        long timeBudgetMs = request.getTimeBudgetMs() != null ? request.getTimeBudgetMs() : defaultTimeBudgetMs;
+        if (timeBudgetMs > maxTimeBudgetMs) {
+            throw new BadRequestException("Time budget cannot exceed " + maxTimeBudgetMs + " ms");
+        }
+        
+        List<String> rooms = request.getRooms() == null || request.getRooms().isEmpty()
+                ? roomOccupancy.roomNames()
+                : request.getRooms().stream().map(String::trim).filter(room -> !room.isEmpty()).distinct().toList();
+        if (rooms.isEmpty()) {
+            throw new BadRequestException("No rooms given and no rooms are in use by existing schedules");
+        }
+        
+        Set<Long> requestedIds = request.getCourseIds() == null ? null : new HashSet<>(request.getCourseIds());
+        List<Course> candidates = courseRepository.findAll().stream()
+                .filter(course -> requestedIds == null || requestedIds.contains(course.getId()))
+                .sorted(Comparator.comparing(Course::getId))
+                .toList();
+        if (requestedIds != null && candidates.size() < requestedIds.size()) {
+            throw new BadRequestException("Some courses do not exist");
+        }
+        
+        // Courses without a teacher cannot be placed; already scheduled courses are left as they are
+        Set<Long> alreadyScheduled = candidates.isEmpty() ? Set.of() : new HashSet<>(scheduleRepository
+                .findScheduledCourseIds(candidates.stream().map(Course::getId).toList()));
+        List<Long> skipped = new ArrayList<>();
+        List<Course> courses = new ArrayList<>();
+        for (Course course : candidates) {
+            if (course.getTeachers().isEmpty() || alreadyScheduled.contains(course.getId())) {
+                skipped.add(course.getId());
+            } else {
+                courses.add(course);
+            }
+        }
+        if (courses.isEmpty()) {
+            throw new BadRequestException("No unscheduled courses with an assigned teacher to timetable");
+        }
+        
+        Map<Long, Integer> courseIndex = new HashMap<>();
+        Map<Long, Integer> teacherIndex = new LinkedHashMap<>();
+        int[][] courseTeachers = new int[courses.size()][];
+        List<Integer> sessionCourse = new ArrayList<>();
+        for (int c = 0; c < courses.size(); c++) {
+            Course course = courses.get(c);
+            courseIndex.put(course.getId(), c);
+            courseTeachers[c] = course.getTeachers().stream()
+                    .mapToInt(teacher -> teacherIndex.computeIfAbsent(teacher.getId(), id -> teacherIndex.size()))
+                    .distinct()
+                    .toArray();
+            int weeklySessions = Math.max(1, course.getCredits() != null ? course.getCredits() : 1);
+            for (int i = 0; i < weeklySessions; i++) {
+                sessionCourse.add(c);
+            }
+        }
+        int slots = days.size() * periodsPerDay;
+        if (sessionCourse.size() > slots * rooms.size()) {
+            throw new BadRequestException(sessionCourse.size() + " sessions do not fit into "
+                    + slots + " periods x " + rooms.size() + " rooms");
+        }
+        
+        List<Set<Integer>> conflicts = new ArrayList<>();
+        courses.forEach(course -> conflicts.add(new HashSet<>()));
+        for (CourseOverlap overlap : enrollmentRepository.findCourseOverlaps(courseIndex.keySet())) {
+            int a = courseIndex.get(overlap.courseId());
+            int b = courseIndex.get(overlap.otherCourseId());
+            conflicts.get(a).add(b);
+            conflicts.get(b).add(a);
+        }
+        int[][] courseConflicts = conflicts.stream()
+                .map(set -> set.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+        
+        // Existing bookings, as seen by the conflict index, block teachers and rooms outright
+        List<LocalDateTime> slotStarts = new ArrayList<>(slots);
+        for (DayOfWeek day : days) {
+            LocalDateTime dayOrigin = request.getTermStart().with(TemporalAdjusters.nextOrSame(day)).atTime(dayStart);
+            for (int period = 0; period < periodsPerDay; period++) {
+                slotStarts.add(dayOrigin.plusMinutes((long) period * sessionMinutes));
+            }
+        }
+        boolean[][] teacherBlocked = new boolean[teacherIndex.size()][slots];
+        teacherIndex.forEach((teacherId, t) -> {
+            for (int slot = 0; slot < slots; slot++) {
+                LocalDateTime start = slotStarts.get(slot);
+                teacherBlocked[t][slot] = !conflictIndex.isFree(new ScheduleSlot(null, null, teacherId, null,
+                        start, start.plusMinutes(sessionMinutes), Schedule.RecurrenceType.WEEKLY));
+            }
+        });
+        boolean[][] roomBlocked = new boolean[rooms.size()][slots];
+        for (int r = 0; r < rooms.size(); r++) {
+            for (int slot = 0; slot < slots; slot++) {
+                LocalDateTime start = slotStarts.get(slot);
+                roomBlocked[r][slot] = !conflictIndex.isFree(new ScheduleSlot(null, null, null, rooms.get(r),
+                        start, start.plusMinutes(sessionMinutes), Schedule.RecurrenceType.WEEKLY));
+            }
+        }
+        
+        // Students of a course are kept free of the classes they already have in courses scheduled earlier
+        boolean[][] courseBlocked = new boolean[courses.size()][slots];
+        List<CourseOverlap> scheduledOverlaps = enrollmentRepository.findScheduledCourseOverlaps(courseIndex.keySet());
+        if (!scheduledOverlaps.isEmpty()) {
+            Map<Long, List<ScheduleSlot>> bookedByCourse = scheduleRepository.findSlotsByCourseIds(scheduledOverlaps.stream()
+                            .map(CourseOverlap::otherCourseId).collect(Collectors.toSet())).stream()
+                    .collect(Collectors.groupingBy(ScheduleSlot::courseId));
+            for (CourseOverlap overlap : scheduledOverlaps) {
+                boolean[] blocked = courseBlocked[courseIndex.get(overlap.courseId())];
+                for (ScheduleSlot booked : bookedByCourse.getOrDefault(overlap.otherCourseId(), List.of())) {
+                    for (int slot = 0; slot < slots; slot++) {
+                        LocalDateTime start = slotStarts.get(slot);
+                        blocked[slot] |= ScheduleConflictIndex.overlaps(booked, new ScheduleSlot(null, null, null, null,
+                                start, start.plusMinutes(sessionMinutes), Schedule.RecurrenceType.WEEKLY));
+                    }
+                }
+            }
+        }
+        
+        // Each session is owned by the course's first teacher; all of the course's teachers are kept free
+        List<Teacher> owners = courses.stream()
+                .map(course -> course.getTeachers().stream().min(Comparator.comparing(Teacher::getId)).orElseThrow())
+                .toList();
+        TimetableSolver.Problem problem = new TimetableSolver.Problem(days.size(), periodsPerDay, rooms.size(),
+                sessionCourse.stream().mapToInt(Integer::intValue).toArray(), courseTeachers, courseConflicts,
+                teacherBlocked, roomBlocked, courseBlocked);
+        return new Plan(problem, courses.stream().map(CourseInfo::of).toList(),
+                owners.stream().map(TeacherInfo::of).toList(), rooms, slotStarts, sessionMinutes, timeBudgetMs, skipped);
+    }
+    
+    private record CourseInfo(Long id, String code, String name) {
+        static CourseInfo of(Course course) {
+            return new CourseInfo(course.getId(), course.getCourseCode(), course.getCourseName());
+        }
+    }
+    
+    private record TeacherInfo(Long id, String name) {
+        static TeacherInfo of(Teacher teacher) {
+            return new TeacherInfo(teacher.getId(), teacher.getFirstName() + " " + teacher.getLastName());
+        }
+    }
+    
+    private record Session(Long courseId, String courseCode, String courseName, Long teacherId, String teacherName,
+                           String room, LocalDateTime start, LocalDateTime end) {
+    }
+    
+    /**
+     * Everything a job needs after the request transaction has closed: the index-form problem and the
+     * detached details to turn a solution back into schedules.
+     */
+    private static final class Plan {
+        final TimetableSolver.Problem problem;
+        final int[] sessionCourse;
+        final List<CourseInfo> courses;
+        final List<TeacherInfo> owners;
+        final List<String> rooms;
+        final List<LocalDateTime> slotStarts;
+        final int sessionMinutes;
+        final long timeBudgetMs;
+        final List<Long> skippedCourseIds;
+        
+        Plan(TimetableSolver.Problem problem, List<CourseInfo> courses, List<TeacherInfo> owners, List<String> rooms,
+             List<LocalDateTime> slotStarts, int sessionMinutes, long timeBudgetMs, List<Long> skippedCourseIds) {
+            this.problem = problem;
+            this.sessionCourse = problem.sessionCourse();
+            this.courses = courses;
+            this.owners = owners;
+            this.rooms = rooms;
+            this.slotStarts = slotStarts;
+            this.sessionMinutes = sessionMinutes;
+            this.timeBudgetMs = timeBudgetMs;
+            this.skippedCourseIds = skippedCourseIds;
+        }
+        
+        List<Session> sessions(TimetableSolver.Solution solution) {
+            List<Session> sessions = new ArrayList<>(sessionCourse.length);
+            for (int i = 0; i < sessionCourse.length; i++) {
+                CourseInfo course = courses.get(sessionCourse[i]);
+                TeacherInfo owner = owners.get(sessionCourse[i]);
+                LocalDateTime start = slotStarts.get(solution.slot()[i]);
+                sessions.add(new Session(course.id(), course.code(), course.name(), owner.id(), owner.name(),
+                        rooms.get(solution.room()[i]), start, start.plusMinutes(sessionMinutes)));
+            }
+            sessions.sort(Comparator.comparing(Session::start).thenComparing(Session::room));
+            return sessions;
+        }
+    }
+    
+    private static final class Job {
+        final String id;
+        final boolean dryRun;
+        final Plan plan;
+        final long startedAt = System.nanoTime();
+        final TimetableSolver.Progress progress = new TimetableSolver.Progress();
+        volatile TimetableJobResponse.Status status = TimetableJobResponse.Status.RUNNING;
+        volatile String message = "Searching";
+        volatile long elapsedMs = -1;
+        volatile TimetableSolver.Solution solution;
+        
+        Job(String id, boolean dryRun, Plan plan) {
+            this.id = id;
+            this.dryRun = dryRun;
+            this.plan = plan;
+        }
+        
+        void finish(TimetableJobResponse.Status status, String message) {
+            if (elapsedMs < 0) {
+                elapsedMs = (System.nanoTime() - startedAt) / 1_000_000L;
+            }
+            this.status = status;
+            this.message = message;
+        }
+        
+        TimetableJobResponse toResponse() {
+            TimetableSolver.Solution best = solution != null ? solution : progress.best();
+            List<ScheduleDTO> proposed = status == TimetableJobResponse.Status.RUNNING || best == null
+                    ? null
+                    : plan.sessions(best).stream()
+                            .map(session -> ScheduleDTO.builder()
+                                    .courseId(session.courseId())
+                                    .courseCode(session.courseCode())
+                                    .courseName(session.courseName())
+                                    .teacherId(session.teacherId())
+                                    .teacherName(session.teacherName())
+                                    .title(session.courseName())
+                                    .startDateTime(session.start())
+                                    .endDateTime(session.end())
+                                    .recurrence(Schedule.RecurrenceType.WEEKLY)
+                                    .location(session.room())
+                                    .dayOfWeek(session.start().getDayOfWeek())
+                                    .startTime(session.start().toLocalTime())
+                                    .endTime(session.end().toLocalTime())
+                                    .roomNumber(session.room())
+                                    .classType("LECTURE")
+                                    .build())
+                            .collect(Collectors.toList());
+            return TimetableJobResponse.builder()
+                    .jobId(id)
+                    .status(status)
+                    .dryRun(dryRun)
+                    .sessions(plan.sessionCourse.length)
+                    .elapsedMs(elapsedMs >= 0 ? elapsedMs : (System.nanoTime() - startedAt) / 1_000_000L)
+                    .timeBudgetMs(plan.timeBudgetMs)
+                    .iterations(progress.iterations())
+                    .hardViolations(best != null ? best.hardViolations() : null)
+                    .softPenalty(best != null ? best.softPenalty() : null)
+                    .message(message)
+                    .skippedCourseIds(plan.skippedCourseIds)
+                    .proposed(proposed)
+                    .build();
+        }
+    }
+}
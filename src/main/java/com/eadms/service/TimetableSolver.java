@@ -0,0 +1,253 @@
+package com.eadms.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Weekly timetable search by simulated annealing. Independent searches with different seeds run in
+ * parallel on a ForkJoinPool until one finds a clash-free timetable or the time budget runs out; the
+ * best timetable any of them found wins.
+ *
+ * A session is placed in a (slot, room) pair, where slot = day * periodsPerDay + period. Hard
+ * violations are pairs of sessions that share a teacher, a room, or students in the same slot, plus
+ * sessions placed on a teacher or room already booked, or on a slot where the course's students already
+ * have a class. The soft penalty counts pairs of sessions of one course on the same day.
+ */
+public class TimetableSolver {
+    
+    private static final int HARD_WEIGHT = 1000;
+    private static final double START_TEMPERATURE = 500.0;
+    private static final double END_TEMPERATURE = 0.5;
+    private static final int INITIAL_SAMPLES = 20;
+    
+    /**
+     * Problem in index form. {@code courseTeachers[c]} and {@code courseConflicts[c]} (courses sharing
+     * students with c) hold indices; the blocked matrices are indexed [teacher, room or course][slot].
+     */
+    public record Problem(int days, int periodsPerDay, int rooms, int[] sessionCourse, int[][] courseTeachers,
+                          int[][] courseConflicts, boolean[][] teacherBlocked, boolean[][] roomBlocked,
+                          boolean[][] courseBlocked) {
+        
+        int slots() {
+            return days * periodsPerDay;
+        }
+    }
+    
+    public record Solution(int[] slot, int[] room, int hardViolations, int softPenalty) {
+        
+        long score() {
+            return (long) hardViolations * HARD_WEIGHT + softPenalty;
+        }
+    }
+    
+    /**
+     * Live counters for progress reporting; safe to read from other threads while a solve runs.
+     */
+    public static final class Progress {
+        private final AtomicLong iterations = new AtomicLong();
+        private volatile Solution best;
+        
+        public long iterations() {
+            return iterations.get();
+        }
+        
+        public Solution best() {
+            return best;
+        }
+        
+        private synchronized void offer(Solution candidate) {
+            if (best == null || candidate.score() < best.score()) {
+                best = candidate;
+            }
+        }
+    }
+    
+    public Solution solve(Problem problem, ForkJoinPool pool, int searches, long timeBudgetMs, Progress progress)
+            throws InterruptedException {
+        return solve(problem, pool, searches, timeBudgetMs, progress, System.nanoTime());
+    }
+    
+    // Search i draws from seed + i * 7919, so a fixed seed replays the same random choices
+    Solution solve(Problem problem, ForkJoinPool pool, int searches, long timeBudgetMs, Progress progress, long seed)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + timeBudgetMs * 1_000_000L;
+        AtomicBoolean solved = new AtomicBoolean();
+        List<Callable<Solution>> tasks = new ArrayList<>(searches);
+        for (int i = 0; i < searches; i++) {
+            long searchSeed = seed + i * 7919L;
+            tasks.add(() -> new Search(problem, new Random(searchSeed), deadline, timeBudgetMs, progress, solved).run());
+        }
+        
+        Solution best = null;
+        for (Future<Solution> future : pool.invokeAll(tasks)) {
+            try {
+                Solution solution = future.get();
+                if (best == null || solution.score() < best.score()) {
+                    best = solution;
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Timetable search failed", e.getCause());
+            }
+        }
+        return best;
+    }
+    
+    private static final class Search {
+        
+        private final Problem p;
+        private final Random random;
+        private final long deadline;
+        private final long budgetNanos;
+        private final Progress progress;
+        private final AtomicBoolean solved;
+        
+        private final int[] slot;
+        private final int[] room;
+        private final int[][] teacherCount;
+        private final int[][] roomCount;
+        private final int[][] courseCount;
+        private final int[][] courseDay;
+        private int hard;
+        private int soft;
+        
+        Search(Problem p, Random random, long deadline, long budgetMs, Progress progress, AtomicBoolean solved) {
+            this.p = p;
+            this.random = random;
+            this.deadline = deadline;
+            this.budgetNanos = budgetMs * 1_000_000L;
+            this.progress = progress;
+            this.solved = solved;
+            int sessions = p.sessionCourse().length;
+            this.slot = new int[sessions];
+            this.room = new int[sessions];
+            this.teacherCount = new int[p.teacherBlocked().length][p.slots()];
+            this.roomCount = new int[p.rooms()][p.slots()];
+            this.courseCount = new int[p.courseTeachers().length][p.slots()];
+            this.courseDay = new int[p.courseTeachers().length][p.days()];
+        }
+        
+        Solution run() {
+            int sessions = slot.length;
+            // Greedy start: each session takes the cheapest of a few random positions
+            for (int i = 0; i < sessions; i++) {
+                int bestSlot = 0;
+                int bestRoom = 0;
+                long bestCost = Long.MAX_VALUE;
+                for (int sample = 0; sample < INITIAL_SAMPLES; sample++) {
+                    int t = random.nextInt(p.slots());
+                    int r = random.nextInt(p.rooms());
+                    long cost = weighted(i, t, r);
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestSlot = t;
+                        bestRoom = r;
+                    }
+                }
+                place(i, bestSlot, bestRoom);
+            }
+            Solution best = snapshot();
+            progress.offer(best);
+            
+            long iterations = 0;
+            double temperature = START_TEMPERATURE;
+            while (best.score() > 0 && !solved.get()) {
+                if ((iterations & 0xFF) == 0) {
+                    long now = System.nanoTime();
+                    if (now >= deadline) {
+                        break;
+                    }
+                    double elapsed = 1.0 - (double) (deadline - now) / budgetNanos;
+                    temperature = START_TEMPERATURE * Math.pow(END_TEMPERATURE / START_TEMPERATURE, Math.max(0, elapsed));
+                    progress.iterations.addAndGet(iterations == 0 ? 0 : 256);
+                }
+                iterations++;
+                
+                int i = random.nextInt(sessions);
+                int oldSlot = slot[i];
+                int oldRoom = room[i];
+                int newSlot = random.nextInt(p.slots());
+                int newRoom = random.nextInt(4) == 0 ? oldRoom : random.nextInt(p.rooms());
+                if (newSlot == oldSlot && newRoom == oldRoom) {
+                    continue;
+                }
+                
+                unplace(i);
+                long delta = weighted(i, newSlot, newRoom) - weighted(i, oldSlot, oldRoom);
+                if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                    place(i, newSlot, newRoom);
+                    if (score() < best.score()) {
+                        best = snapshot();
+                        progress.offer(best);
+                    }
+                } else {
+                    place(i, oldSlot, oldRoom);
+                }
+            }
+            if (best.score() == 0) {
+                solved.set(true);
+            }
+            return best;
+        }
+        
+        private long score() {
+            return (long) hard * HARD_WEIGHT + soft;
+        }
+        
+        private Solution snapshot() {
+            return new Solution(slot.clone(), room.clone(), hard, soft);
+        }
+        
+        private long weighted(int session, int t, int r) {
+            return (long) hardCost(session, t, r) * HARD_WEIGHT + softCost(session, t);
+        }
+        
+        // Clashes the session would have at (t, r) with everything else currently placed
+        private int hardCost(int session, int t, int r) {
+            int course = p.sessionCourse()[session];
+            int cost = roomCount[r][t] + (p.roomBlocked()[r][t] ? 1 : 0) + (p.courseBlocked()[course][t] ? 1 : 0);
+            for (int teacher : p.courseTeachers()[course]) {
+                cost += teacherCount[teacher][t] + (p.teacherBlocked()[teacher][t] ? 1 : 0);
+            }
+            for (int other : p.courseConflicts()[course]) {
+                cost += courseCount[other][t];
+            }
+            return cost;
+        }
+        
+        private int softCost(int session, int t) {
+            return courseDay[p.sessionCourse()[session]][t / p.periodsPerDay()];
+        }
+        
+        private void place(int session, int t, int r) {
+            hard += hardCost(session, t, r);
+            soft += softCost(session, t);
+            slot[session] = t;
+            room[session] = r;
+            apply(session, 1);
+        }
+        
+        private void unplace(int session) {
+            apply(session, -1);
+            hard -= hardCost(session, slot[session], room[session]);
+            soft -= softCost(session, slot[session]);
+        }
+        
+        private void apply(int session, int step) {
+            int course = p.sessionCourse()[session];
+            int t = slot[session];
+            roomCount[room[session]][t] += step;
+            for (int teacher : p.courseTeachers()[course]) {
+                teacherCount[teacher][t] += step;
+            }
+            courseCount[course][t] += step;
+            courseDay[course][t / p.periodsPerDay()] += step;
+        }
+    }
+}
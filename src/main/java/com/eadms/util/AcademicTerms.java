@@ -0,0 +1,19 @@
+package com.eadms.util;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+/**
+ * Maps dates to the (academic year, semester) terms that enrollments are recorded in: semester 1
+ * runs January to June and semester 2 July to December of the same calendar year.
+ */
+public class AcademicTerms {
+    
+    public static int academicYear(LocalDate date) {
+        return date.getYear();
+    }
+    
+    public static int semester(LocalDate date) {
+        return date.getMonthValue() < Month.JULY.getValue() ? 1 : 2;
+    }
+}
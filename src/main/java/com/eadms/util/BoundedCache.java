@@ -0,0 +1,192 @@
+package com.eadms.util;
+
+import com.eadms.dto.response.CacheStatsResponse;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Size-bounded in-process map shared by the application's read caches. Entries expire after a time
+ * to live (none when it is null), and a full cache first drops expired entries, then arbitrary ones
+ * down to 90% of its size.
+ *
+ * Every invalidation bumps a generation counter before removing entries. Callers take
+ * {@link #generation()} before loading and hand it back to put, which drops the load if anything was
+ * invalidated meanwhile; a put that races an invalidation re-checks the generation after writing and
+ * withdraws its entry, so a value read from data that was changing underneath it is never kept.
+ *
+ * Nothing takes a lock: reads and writes go straight to the map, and once the cache is full a single
+ * writer at a time sheds 10% of it while the others carry on, so eviction costs O(1) per put amortized.
+ */
+public class BoundedCache<K, V> {
+    
+    private static final long NEVER = Long.MIN_VALUE;
+    
+    private record Entry<V>(V value, long expiresAt) {
+        
+        boolean isLive(long now) {
+            return expiresAt == NEVER || expiresAt - now > 0;
+        }
+    }
+    
+    private final String name;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean shedding = new AtomicBoolean();
+    
+    public BoundedCache(String name, int maxEntries, Duration ttl) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+    }
+    
+    public V get(K key) {
+        Entry<V> entry = key == null ? null : entries.get(key);
+        if (entry != null && entry.isLive(System.nanoTime())) {
+            hits.increment();
+            return entry.value();
+        }
+        if (entry != null && entries.remove(key, entry)) {
+            evictions.increment();
+        }
+        misses.increment();
+        return null;
+    }
+    
+    public long generation() {
+        return generation.get();
+    }
+    
+    public boolean put(K key, V value, long loadedAtGeneration) {
+        return put(key, value, loadedAtGeneration, ttl);
+    }
+    
+    /**
+     * Stores the value for at most {@code ttl}, capped by the cache's own time to live. Returns whether
+     * it was stored; it is not when the cache is disabled or was invalidated since {@code loadedAtGeneration}.
+     */
+    public boolean put(K key, V value, long loadedAtGeneration, Duration ttl) {
+        if (maxEntries <= 0 || loadedAtGeneration != generation.get()) {
+            return false;
+        }
+        if (this.ttl != null && (ttl == null || ttl.compareTo(this.ttl) > 0)) {
+            ttl = this.ttl;
+        }
+        if (ttl != null && ttl.toNanos() <= 0) {
+            return false;
+        }
+        long now = System.nanoTime();
+        Entry<V> entry = new Entry<>(value, ttl == null ? NEVER : now + ttl.toNanos());
+        entries.put(key, entry);
+        // An invalidation bumps the generation before it removes, so one that ran since the check above
+        // either removed this entry already or is seen here
+        if (loadedAtGeneration != generation.get()) {
+            entries.remove(key, entry);
+            return false;
+        }
+        if (entries.size() > maxEntries) {
+            shed(now);
+        }
+        return true;
+    }
+    
+    // A null key, as invalidation bus messages use for a whole region, clears everything
+    public void invalidate(K key) {
+        if (key == null) {
+            clear();
+            return;
+        }
+        generation.incrementAndGet();
+        if (entries.remove(key) != null) {
+            invalidations.increment();
+        }
+    }
+    
+    public void invalidateAll(Collection<K> keys) {
+        generation.incrementAndGet();
+        for (K key : keys) {
+            if (entries.remove(key) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+    
+    public void invalidateIf(Predicate<V> predicate) {
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> {
+            boolean matches = predicate.test(entry.value());
+            if (matches) {
+                invalidations.increment();
+            }
+            return matches;
+        });
+    }
+    
+    public void clear() {
+        generation.incrementAndGet();
+        Iterator<Entry<V>> values = entries.values().iterator();
+        while (values.hasNext()) {
+            values.next();
+            values.remove();
+            invalidations.increment();
+        }
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    public CacheStatsResponse stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return CacheStatsResponse.builder()
+                .name(name)
+                .size(entries.size())
+                .maxEntries(maxEntries)
+                .hits(hitCount)
+                .misses(missCount)
+                .hitRate(lookups == 0 ? 0.0 : (double) hitCount / lookups)
+                .evictions(evictions.sum())
+                .invalidations(invalidations.sum())
+                .build();
+    }
+    
+    // Drops expired entries, then arbitrary ones down to 90%; writers that find a shed running skip it
+    private void shed(long now) {
+        if (!shedding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.values().removeIf(entry -> {
+                boolean expired = !entry.isLive(now);
+                if (expired) {
+                    evictions.increment();
+                }
+                return expired;
+            });
+            int target = (int) (maxEntries * 0.9);
+            Iterator<K> keys = entries.keySet().iterator();
+            while (entries.size() > target && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+                evictions.increment();
+            }
+        } finally {
+            shedding.set(false);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.eadms.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads bulk import payloads one row at a time so the whole upload never has to sit in memory.
+ * Rows that cannot be mapped are reported to the handler and reading carries on.
+ * Row numbers are 1-based and count data rows only (the CSV header is not a row).
+ */
+public class BulkImportReader {
+    
+    public interface RowHandler<T> {
+        void onRow(int rowNumber, T row);
+        
+        void onError(int rowNumber, String message);
+    }
+    
+    /**
+     * Read a top-level JSON array of objects.
+     *
+     * @throws IOException if the payload is not a JSON array or is cut off mid-way
+     */
+    public static <T> void readJsonArray(ObjectMapper objectMapper, InputStream input,
+                                         Class<T> rowType, RowHandler<T> handler) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of rows");
+            }
+            int rowNumber = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                rowNumber++;
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    handler.onRow(rowNumber, objectMapper.treeToValue(node, rowType));
+                } catch (JsonProcessingException e) {
+                    handler.onError(rowNumber, "Unreadable row: " + e.getOriginalMessage());
+                } catch (IllegalArgumentException e) {
+                    handler.onError(rowNumber, "Unreadable row: " + e.getMessage());
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IOException("Expected only objects inside the JSON array");
+            }
+        }
+    }
+    
+    /**
+     * Read CSV with a header line naming the row properties (camelCase or snake_case).
+     * Fields may be double-quoted to contain commas; quoted line breaks are not supported.
+     */
+    public static <T> void readCsv(ObjectMapper objectMapper, InputStream input,
+                                   Class<T> rowType, RowHandler<T> handler) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IOException("CSV header line is missing");
+        }
+        List<String> header = new ArrayList<>();
+        for (String column : splitCsvLine(stripBom(headerLine))) {
+            header.add(toPropertyName(column));
+        }
+        
+        int rowNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            List<String> values = splitCsvLine(line);
+            if (values.size() > header.size()) {
+                handler.onError(rowNumber, "Expected at most " + header.size() + " columns but found " + values.size());
+                continue;
+            }
+            Map<String, String> fields = new LinkedHashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                if (!values.get(i).isEmpty()) {
+                    fields.put(header.get(i), values.get(i));
+                }
+            }
+            try {
+                handler.onRow(rowNumber, objectMapper.convertValue(fields, rowType));
+            } catch (IllegalArgumentException e) {
+                handler.onError(rowNumber, "Unreadable row: " + describe(e));
+            }
+        }
+    }
+    
+    private static String describe(IllegalArgumentException e) {
+        return e.getCause() instanceof JsonProcessingException cause ? cause.getOriginalMessage() : e.getMessage();
+    }
+    
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+    
+    private static String toPropertyName(String column) {
+        String name = column.trim();
+        StringBuilder property = new StringBuilder(name.length());
+        boolean upperNext = false;
+        for (char c : name.toCharArray()) {
+            if (c == '_' || c == ' ' || c == '-') {
+                upperNext = property.length() > 0;
+            } else {
+                property.append(upperNext ? Character.toUpperCase(c) : c);
+                upperNext = false;
+            }
+        }
+        return property.toString();
+    }
+    
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+}
@@ -0,0 +1,74 @@
+package com.eadms.util;
+
+import com.eadms.dto.response.CursorPage;
+import com.eadms.entity.BaseEntity;
+import com.eadms.exception.BadRequestException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset pagination on entity id. Cursors are opaque to clients and stay valid while rows are
+ * inserted or deleted, unlike offsets.
+ */
+public class CursorPageUtil {
+    
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    
+    private static final String CURSOR_PREFIX = "id:";
+    
+    public static int pageSize(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (requested < 1 || requested > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return requested;
+    }
+    
+    // Id after which the page starts; 0 (before any id) when there is no cursor
+    public static long afterId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException(decoded);
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid page cursor");
+        }
+    }
+    
+    // One extra row tells us whether another page exists without running a count
+    public static Limit fetchLimit(int size) {
+        return Limit.of(size + 1);
+    }
+    
+    public static <E extends BaseEntity, R> CursorPage<R> toPage(List<E> rows, int size,
+                                                                 Function<E, R> mapper, Long totalCount) {
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encode(pageRows.get(pageRows.size() - 1).getId()) : null;
+        return CursorPage.<R>builder()
+                .items(pageRows.stream().map(mapper).collect(Collectors.toList()))
+                .size(pageRows.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .totalCount(totalCount)
+                .build();
+    }
+    
+    private static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
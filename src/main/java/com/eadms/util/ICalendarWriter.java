@@ -0,0 +1,99 @@
+package com.eadms.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Minimal RFC 5545 writer that emits a VCALENDAR one event at a time, so a feed is never held in memory
+ * as a whole. Event times are written as floating local times, matching how schedules are stored;
+ * DTSTAMP is converted to UTC as the RFC requires.
+ */
+public class ICalendarWriter {
+    
+    private static final String CRLF = "\r\n";
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter LOCAL_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    
+    private final Writer out;
+    
+    public ICalendarWriter(Writer out) {
+        this.out = out;
+    }
+    
+    public void beginCalendar(String name) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//EADMS//Academic Portal//EN");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+        line("X-WR-CALNAME:" + escape(name));
+    }
+    
+    /**
+     * Writes one VEVENT. {@code weekly} adds an open-ended RRULE instead of expanding occurrences;
+     * null text properties are omitted.
+     */
+    public void event(String uid, LocalDateTime stamp, LocalDateTime start, LocalDateTime end, boolean weekly,
+                      String summary, String description, String location) throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:" + uid);
+        line("DTSTAMP:" + utc(stamp));
+        line("DTSTART:" + start.format(LOCAL_FORMAT));
+        line("DTEND:" + end.format(LOCAL_FORMAT));
+        if (weekly) {
+            line("RRULE:FREQ=WEEKLY");
+        }
+        line("SUMMARY:" + escape(summary));
+        if (description != null && !description.isBlank()) {
+            line("DESCRIPTION:" + escape(description));
+        }
+        if (location != null && !location.isBlank()) {
+            line("LOCATION:" + escape(location));
+        }
+        line("END:VEVENT");
+    }
+    
+    public void endCalendar() throws IOException {
+        line("END:VCALENDAR");
+        out.flush();
+    }
+    
+    private static String utc(LocalDateTime local) {
+        return local.atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(ZoneOffset.UTC)
+                .format(LOCAL_FORMAT) + "Z";
+    }
+    
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+    
+    // Content lines longer than 75 octets are folded with CRLF + space, never inside a UTF-8 sequence
+    private void line(String content) throws IOException {
+        int lineOctets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int octets = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (lineOctets + octets > MAX_LINE_OCTETS) {
+                out.write(CRLF);
+                out.write(' ');
+                lineOctets = 1;
+            }
+            out.write(Character.toChars(codePoint));
+            lineOctets += octets;
+            i += Character.charCount(codePoint);
+        }
+        out.write(CRLF);
+    }
+}
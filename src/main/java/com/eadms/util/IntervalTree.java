@@ -0,0 +1,138 @@
+package com.eadms.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Half-open interval set [lo, hi) backed by a treap ordered on (lo, id), with every node carrying the
+ * largest hi in its subtree. Insert and remove are O(log n) expected, and an overlap query is
+ * O(log n + k) for k hits because subtrees that end before the query starts are never visited.
+ * Not thread-safe; callers guard it.
+ */
+public class IntervalTree<T> {
+    
+    private static final class Node<T> {
+        final long lo;
+        final long hi;
+        final long id;
+        final T value;
+        final int priority;
+        long maxHi;
+        Node<T> left;
+        Node<T> right;
+        
+        Node(long lo, long hi, long id, T value) {
+            this.lo = lo;
+            this.hi = hi;
+            this.id = id;
+            this.value = value;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.maxHi = hi;
+        }
+    }
+    
+    private record Split<T>(Node<T> before, Node<T> rest) {
+    }
+    
+    private Node<T> root;
+    private int size;
+    
+    public int size() {
+        return size;
+    }
+    
+    public void insert(long lo, long hi, long id, T value) {
+        Split<T> parts = split(root, lo, id, false);
+        root = merge(merge(parts.before(), new Node<>(lo, hi, id, value)), parts.rest());
+        size++;
+    }
+    
+    public boolean remove(long lo, long id) {
+        Split<T> outer = split(root, lo, id, false);
+        Split<T> inner = split(outer.rest(), lo, id, true);
+        root = merge(outer.before(), inner.rest());
+        if (inner.before() == null) {
+            return false;
+        }
+        size--;
+        return true;
+    }
+    
+    public List<T> overlapping(long lo, long hi) {
+        List<T> hits = new ArrayList<>();
+        forEachOverlapping(lo, hi, hits::add);
+        return hits;
+    }
+    
+    public void forEachOverlapping(long lo, long hi, Consumer<T> action) {
+        collect(root, lo, hi, action);
+    }
+    
+    private void collect(Node<T> node, long lo, long hi, Consumer<T> action) {
+        if (node == null || node.maxHi <= lo) {
+            return;
+        }
+        collect(node.left, lo, hi, action);
+        if (node.lo >= hi) {
+            // Everything to the right starts even later
+            return;
+        }
+        if (node.hi > lo) {
+            action.accept(node.value);
+        }
+        collect(node.right, lo, hi, action);
+    }
+    
+    private static int compare(Node<?> node, long lo, long id) {
+        int byLo = Long.compare(node.lo, lo);
+        return byLo != 0 ? byLo : Long.compare(node.id, id);
+    }
+    
+    // Splits into keys before (lo, id) and the rest; with inclusive, (lo, id) itself goes left
+    private Split<T> split(Node<T> node, long lo, long id, boolean inclusive) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        int cmp = compare(node, lo, id);
+        if (cmp < 0 || (inclusive && cmp == 0)) {
+            Split<T> parts = split(node.right, lo, id, inclusive);
+            node.right = parts.before();
+            update(node);
+            return new Split<>(node, parts.rest());
+        }
+        Split<T> parts = split(node.left, lo, id, inclusive);
+        node.left = parts.rest();
+        update(node);
+        return new Split<>(parts.before(), node);
+    }
+    
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+    
+    private void update(Node<T> node) {
+        long maxHi = node.hi;
+        if (node.left != null) {
+            maxHi = Math.max(maxHi, node.left.maxHi);
+        }
+        if (node.right != null) {
+            maxHi = Math.max(maxHi, node.right.maxHi);
+        }
+        node.maxHi = maxHi;
+    }
+}
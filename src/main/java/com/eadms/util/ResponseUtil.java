@@ -1,6 +1,8 @@
 package com.eadms.util;
 
 import com.eadms.dto.response.ApiResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 
 public class ResponseUtil {
     
@@ -12,6 +14,15 @@ public class ResponseUtil {
                 .build();
     }
     
+    /**
+     * A 200 the browser may keep but must revalidate, for responses guarded by an ETag.
+     */
+    public static <T> ResponseEntity<ApiResponse<T>> revalidated(String message, T data) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(success(message, data));
+    }
+    
     public static <T> ApiResponse<T> error(String message) {
         return ApiResponse.<T>builder()
                 .success(false)
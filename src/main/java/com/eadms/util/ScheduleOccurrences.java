@@ -0,0 +1,63 @@
+package com.eadms.util;
+
+import com.eadms.entity.Schedule;
+import com.eadms.exception.BadRequestException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Expands schedules into the concrete occurrences that overlap a time window. WEEKLY series are
+ * generated lazily from the first week that can overlap the window, so the work done is bounded by
+ * the window length rather than by how long ago the series started.
+ */
+public class ScheduleOccurrences {
+    
+    public static final long MAX_WINDOW_DAYS = 366;
+    
+    private static final long WEEK_SECONDS = Duration.ofDays(7).getSeconds();
+    
+    public record Occurrence(LocalDateTime start, LocalDateTime end) {
+    }
+    
+    public static void validateWindow(LocalDateTime windowStart, LocalDateTime windowEnd) {
+        if (windowStart == null || windowEnd == null || !windowEnd.isAfter(windowStart)) {
+            throw new BadRequestException("endDate must be after startDate");
+        }
+        if (Duration.between(windowStart, windowEnd).toDays() > MAX_WINDOW_DAYS) {
+            throw new BadRequestException("Date range cannot exceed " + MAX_WINDOW_DAYS + " days");
+        }
+    }
+    
+    /**
+     * Occurrences of the schedule with start before windowEnd and end after windowStart, in start order.
+     */
+    public static Stream<Occurrence> expand(Schedule schedule, LocalDateTime windowStart, LocalDateTime windowEnd) {
+        return expand(schedule.getStartDateTime(), schedule.getEndDateTime(), schedule.getRecurrence(),
+                windowStart, windowEnd);
+    }
+    
+    public static Stream<Occurrence> expand(LocalDateTime start, LocalDateTime end, Schedule.RecurrenceType recurrence,
+                                            LocalDateTime windowStart, LocalDateTime windowEnd) {
+        if (start == null || end == null) {
+            return Stream.empty();
+        }
+        if (recurrence != Schedule.RecurrenceType.WEEKLY) {
+            return start.isBefore(windowEnd) && end.isAfter(windowStart)
+                    ? Stream.of(new Occurrence(start, end))
+                    : Stream.empty();
+        }
+        
+        // Jump straight to the first week whose occurrence ends after the window opens
+        long firstWeek = 0;
+        long secondsPastEnd = Duration.between(end, windowStart).getSeconds();
+        if (secondsPastEnd >= 0) {
+            firstWeek = secondsPastEnd / WEEK_SECONDS + 1;
+        }
+        
+        return Stream.iterate(firstWeek, week -> week + 1)
+                .map(week -> new Occurrence(start.plusWeeks(week), end.plusWeeks(week)))
+                .takeWhile(occurrence -> occurrence.start().isBefore(windowEnd));
+    }
+}
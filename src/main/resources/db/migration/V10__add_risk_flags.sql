@@ -0,0 +1,30 @@
+-- =====================================================
+-- Add Risk Flags
+-- Version: 10.0
+-- Date: 2026-10-16
+-- Description: At-risk students found by the risk detection job
+-- =====================================================
+
+-- One row per student, course and rule that matched on the latest run. Runs
+-- upsert what they find and delete what they no longer find, so created_at is
+-- the first detection and detected_at the latest.
+CREATE TABLE IF NOT EXISTS risk_flags (
+    id BIGINT PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    course_id BIGINT NOT NULL,
+    rule VARCHAR(30) NOT NULL,
+    metric DOUBLE PRECISION,
+    detail VARCHAR(255),
+    detected_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_risk_flags_student FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE,
+    CONSTRAINT fk_risk_flags_course FOREIGN KEY (course_id) REFERENCES courses(id) ON DELETE CASCADE,
+    CONSTRAINT uk_risk_flags_rule UNIQUE (student_id, course_id, rule)
+);
+
+-- Teacher listings filter by course
+CREATE INDEX IF NOT EXISTS idx_risk_flags_course ON risk_flags(course_id);
+
+CREATE SEQUENCE IF NOT EXISTS risk_flags_seq START WITH 1 INCREMENT BY 50 OWNED BY risk_flags.id;
+ALTER TABLE risk_flags ALTER COLUMN id SET DEFAULT nextval('risk_flags_seq');
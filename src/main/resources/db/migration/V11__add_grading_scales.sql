@@ -0,0 +1,42 @@
+-- =====================================================
+-- Add Grading Scales
+-- Version: 11.0
+-- Date: 2026-10-16
+-- Description: Grade bands and exam type weights as data, per institution or per course
+-- =====================================================
+
+-- The scale with a NULL course_id is the institution default; the application seeds
+-- it on startup when missing. A course_id row overrides the default for that course.
+CREATE TABLE IF NOT EXISTS grading_scales (
+    id BIGINT PRIMARY KEY,
+    course_id BIGINT,
+    name VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_grading_scales_course FOREIGN KEY (course_id) REFERENCES courses(id) ON DELETE CASCADE,
+    CONSTRAINT uk_grading_scales_course UNIQUE (course_id)
+);
+
+-- UNIQUE lets any number of NULLs through; allow only one default
+CREATE UNIQUE INDEX IF NOT EXISTS uk_grading_scales_default ON grading_scales ((course_id IS NULL)) WHERE course_id IS NULL;
+
+CREATE SEQUENCE IF NOT EXISTS grading_scales_seq START WITH 1 INCREMENT BY 50 OWNED BY grading_scales.id;
+ALTER TABLE grading_scales ALTER COLUMN id SET DEFAULT nextval('grading_scales_seq');
+
+CREATE TABLE IF NOT EXISTS grading_scale_bands (
+    grading_scale_id BIGINT NOT NULL,
+    min_percentage DOUBLE PRECISION NOT NULL,
+    letter_grade VARCHAR(5) NOT NULL,
+    grade_points DOUBLE PRECISION NOT NULL,
+    CONSTRAINT fk_grading_scale_bands_scale FOREIGN KEY (grading_scale_id) REFERENCES grading_scales(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_grading_scale_bands_scale ON grading_scale_bands(grading_scale_id);
+
+CREATE TABLE IF NOT EXISTS grading_scale_weights (
+    grading_scale_id BIGINT NOT NULL,
+    exam_type VARCHAR(20) NOT NULL,
+    weight DOUBLE PRECISION NOT NULL,
+    CONSTRAINT fk_grading_scale_weights_scale FOREIGN KEY (grading_scale_id) REFERENCES grading_scales(id) ON DELETE CASCADE,
+    PRIMARY KEY (grading_scale_id, exam_type)
+);
@@ -0,0 +1,30 @@
+-- =====================================================
+-- Add Student Dashboard Summary
+-- Version: 5.0
+-- Date: 2026-10-16
+-- Description: Denormalized read model for the student dashboard
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS student_dashboard_summary (
+    id BIGSERIAL PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    gpa DOUBLE PRECISION,
+    total_credits INTEGER,
+    attendance_present BIGINT NOT NULL DEFAULT 0,
+    attendance_total BIGINT NOT NULL DEFAULT 0,
+    active_enrollments BIGINT NOT NULL DEFAULT 0,
+    courses_json TEXT,
+    stale BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_dashboard_summary_student FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE
+);
+
+-- One summary row per student; rows are built on first dashboard load
+CREATE UNIQUE INDEX IF NOT EXISTS idx_dashboard_summary_student ON student_dashboard_summary(student_id);
+
+COMMENT ON TABLE student_dashboard_summary IS 'Precomputed student dashboard figures, refreshed on marks/attendance/enrollment writes';
+
+-- =====================================================
+-- End of Migration
+-- =====================================================
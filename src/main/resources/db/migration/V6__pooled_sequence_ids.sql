@@ -0,0 +1,70 @@
+-- =====================================================
+-- Pooled Sequence ID Generation
+-- Version: 6.0
+-- Date: 2026-10-16
+-- Description: Per-table sequences for Hibernate pooled-lo id allocation
+-- =====================================================
+
+-- BaseEntity now uses GenerationType.SEQUENCE with allocation size 50 so that
+-- Hibernate can batch INSERTs. Each sequence starts just above the current
+-- max(id) of its table, and the id column default is switched to the new
+-- sequence so raw SQL inserts can never collide with a block Hibernate holds.
+-- The old BIGSERIAL <table>_id_seq sequences are left in place but unused.
+
+-- users
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE users_seq INCREMENT BY 50 OWNED BY users.id;
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+-- students
+CREATE SEQUENCE IF NOT EXISTS students_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE students_seq INCREMENT BY 50 OWNED BY students.id;
+SELECT setval('students_seq', COALESCE((SELECT MAX(id) FROM students), 0) + 1, false);
+ALTER TABLE students ALTER COLUMN id SET DEFAULT nextval('students_seq');
+
+-- teachers
+CREATE SEQUENCE IF NOT EXISTS teachers_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE teachers_seq INCREMENT BY 50 OWNED BY teachers.id;
+SELECT setval('teachers_seq', COALESCE((SELECT MAX(id) FROM teachers), 0) + 1, false);
+ALTER TABLE teachers ALTER COLUMN id SET DEFAULT nextval('teachers_seq');
+
+-- courses
+CREATE SEQUENCE IF NOT EXISTS courses_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE courses_seq INCREMENT BY 50 OWNED BY courses.id;
+SELECT setval('courses_seq', COALESCE((SELECT MAX(id) FROM courses), 0) + 1, false);
+ALTER TABLE courses ALTER COLUMN id SET DEFAULT nextval('courses_seq');
+
+-- marks
+CREATE SEQUENCE IF NOT EXISTS marks_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE marks_seq INCREMENT BY 50 OWNED BY marks.id;
+SELECT setval('marks_seq', COALESCE((SELECT MAX(id) FROM marks), 0) + 1, false);
+ALTER TABLE marks ALTER COLUMN id SET DEFAULT nextval('marks_seq');
+
+-- attendance
+CREATE SEQUENCE IF NOT EXISTS attendance_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE attendance_seq INCREMENT BY 50 OWNED BY attendance.id;
+SELECT setval('attendance_seq', COALESCE((SELECT MAX(id) FROM attendance), 0) + 1, false);
+ALTER TABLE attendance ALTER COLUMN id SET DEFAULT nextval('attendance_seq');
+
+-- schedules
+CREATE SEQUENCE IF NOT EXISTS schedules_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE schedules_seq INCREMENT BY 50 OWNED BY schedules.id;
+SELECT setval('schedules_seq', COALESCE((SELECT MAX(id) FROM schedules), 0) + 1, false);
+ALTER TABLE schedules ALTER COLUMN id SET DEFAULT nextval('schedules_seq');
+
+-- enrollments
+CREATE SEQUENCE IF NOT EXISTS enrollments_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE enrollments_seq INCREMENT BY 50 OWNED BY enrollments.id;
+SELECT setval('enrollments_seq', COALESCE((SELECT MAX(id) FROM enrollments), 0) + 1, false);
+ALTER TABLE enrollments ALTER COLUMN id SET DEFAULT nextval('enrollments_seq');
+
+-- student_dashboard_summary
+CREATE SEQUENCE IF NOT EXISTS student_dashboard_summary_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE student_dashboard_summary_seq INCREMENT BY 50 OWNED BY student_dashboard_summary.id;
+SELECT setval('student_dashboard_summary_seq', COALESCE((SELECT MAX(id) FROM student_dashboard_summary), 0) + 1, false);
+ALTER TABLE student_dashboard_summary ALTER COLUMN id SET DEFAULT nextval('student_dashboard_summary_seq');
+
+-- =====================================================
+-- End of Migration
+-- =====================================================
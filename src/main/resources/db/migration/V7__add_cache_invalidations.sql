@@ -0,0 +1,25 @@
+-- =====================================================
+-- Add Cache Invalidations
+-- Version: 7.0
+-- Date: 2026-10-16
+-- Description: Shared log of cache invalidations for the JDBC invalidation bus
+-- =====================================================
+
+-- Only used with cache.invalidation.bus=jdbc. Each instance appends the entries it
+-- invalidates and polls for rows written by the others; rows older than the
+-- retention period are pruned by the instances themselves.
+CREATE TABLE IF NOT EXISTS cache_invalidations (
+    id BIGSERIAL PRIMARY KEY,
+    region VARCHAR(50) NOT NULL,
+    entry_key BIGINT,
+    origin VARCHAR(36) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_cache_invalidations_created ON cache_invalidations(created_at);
+
+COMMENT ON TABLE cache_invalidations IS 'Cross-instance cache invalidation log, polled by every application instance';
+
+-- =====================================================
+-- End of Migration
+-- =====================================================
@@ -0,0 +1,51 @@
+-- =====================================================
+-- Add Student Academic Ledger
+-- Version: 8.0
+-- Date: 2026-10-16
+-- Description: Running GPA and credit totals per student and term
+-- =====================================================
+
+-- One row per student and term, plus one per student with academic_year = semester = 0
+-- holding the totals across all terms. Enrollment writes apply deltas to both rows;
+-- the rebuild job recounts them from the enrollments.
+CREATE TABLE IF NOT EXISTS student_academic_ledger (
+    id BIGINT PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    academic_year INTEGER NOT NULL,
+    semester INTEGER NOT NULL,
+    weighted_grade_points NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    graded_credits INTEGER NOT NULL DEFAULT 0,
+    completed_credits INTEGER NOT NULL DEFAULT 0,
+    active_credits INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_academic_ledger_student FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE,
+    CONSTRAINT uk_academic_ledger_term UNIQUE (student_id, academic_year, semester)
+);
+
+CREATE SEQUENCE IF NOT EXISTS student_academic_ledger_seq START WITH 1 INCREMENT BY 50 OWNED BY student_academic_ledger.id;
+ALTER TABLE student_academic_ledger ALTER COLUMN id SET DEFAULT nextval('student_academic_ledger_seq');
+
+-- Grade columns were added to enrollments by the JPA mapping rather than by V3
+ALTER TABLE enrollments ADD COLUMN IF NOT EXISTS grade_points DOUBLE PRECISION;
+
+-- Backfill from existing enrollments; the empty grouping set yields the all-terms row
+INSERT INTO student_academic_ledger (student_id, academic_year, semester, weighted_grade_points,
+                                     graded_credits, completed_credits, active_credits)
+SELECT e.student_id,
+       COALESCE(e.academic_year, 0),
+       COALESCE(e.semester, 0),
+       COALESCE(SUM(CASE WHEN e.status = 'COMPLETED' AND e.grade_points IS NOT NULL THEN ROUND(CAST(e.grade_points * c.credits AS NUMERIC), 2) END), 0),
+       COALESCE(SUM(CASE WHEN e.status = 'COMPLETED' AND e.grade_points IS NOT NULL THEN c.credits END), 0),
+       COALESCE(SUM(CASE WHEN e.status = 'COMPLETED' THEN c.credits END), 0),
+       COALESCE(SUM(CASE WHEN e.status = 'ACTIVE' THEN c.credits END), 0)
+FROM enrollments e
+JOIN courses c ON c.id = e.course_id
+GROUP BY GROUPING SETS ((e.student_id, e.academic_year, e.semester), (e.student_id))
+ON CONFLICT (student_id, academic_year, semester) DO NOTHING;
+
+COMMENT ON TABLE student_academic_ledger IS 'Incrementally maintained GPA and credit totals, read by the dashboard and /api/student/gpa';
+
+-- =====================================================
+-- End of Migration
+-- =====================================================
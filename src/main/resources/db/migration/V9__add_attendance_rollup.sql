@@ -0,0 +1,54 @@
+-- =====================================================
+-- Add Attendance Rollup
+-- Version: 9.0
+-- Date: 2026-10-16
+-- Description: Per-status attendance counters per student, course and term
+-- =====================================================
+
+-- Attendance writes add their change to these counters in the same transaction with
+-- INSERT ... ON CONFLICT DO UPDATE, so percentages and status breakdowns no longer
+-- count the attendance table. Terms follow the attendance date: semester 1 is
+-- January to June, semester 2 July to December.
+CREATE TABLE IF NOT EXISTS attendance_rollup (
+    id BIGINT PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    course_id BIGINT NOT NULL,
+    academic_year INTEGER NOT NULL,
+    semester INTEGER NOT NULL,
+    present_count BIGINT NOT NULL DEFAULT 0,
+    absent_count BIGINT NOT NULL DEFAULT 0,
+    late_count BIGINT NOT NULL DEFAULT 0,
+    excused_count BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_attendance_rollup_student FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE,
+    CONSTRAINT fk_attendance_rollup_course FOREIGN KEY (course_id) REFERENCES courses(id) ON DELETE CASCADE,
+    CONSTRAINT uk_attendance_rollup_term UNIQUE (student_id, course_id, academic_year, semester)
+);
+
+-- Teacher dashboard sums the rollups of each course
+CREATE INDEX IF NOT EXISTS idx_attendance_rollup_course ON attendance_rollup(course_id);
+
+CREATE SEQUENCE IF NOT EXISTS attendance_rollup_seq START WITH 1 INCREMENT BY 50 OWNED BY attendance_rollup.id;
+ALTER TABLE attendance_rollup ALTER COLUMN id SET DEFAULT nextval('attendance_rollup_seq');
+
+-- Backfill from existing attendance
+INSERT INTO attendance_rollup (student_id, course_id, academic_year, semester,
+                               present_count, absent_count, late_count, excused_count)
+SELECT a.student_id,
+       a.course_id,
+       CAST(EXTRACT(YEAR FROM a.attendance_date) AS INTEGER),
+       CASE WHEN EXTRACT(MONTH FROM a.attendance_date) < 7 THEN 1 ELSE 2 END,
+       COUNT(*) FILTER (WHERE a.status = 'PRESENT'),
+       COUNT(*) FILTER (WHERE a.status = 'ABSENT'),
+       COUNT(*) FILTER (WHERE a.status = 'LATE'),
+       COUNT(*) FILTER (WHERE a.status = 'EXCUSED')
+FROM attendance a
+GROUP BY 1, 2, 3, 4
+ON CONFLICT (student_id, course_id, academic_year, semester) DO NOTHING;
+
+COMMENT ON TABLE attendance_rollup IS 'Incrementally maintained attendance counters, read by attendance stats and the dashboards';
+
+-- =====================================================
+-- End of Migration
+-- =====================================================
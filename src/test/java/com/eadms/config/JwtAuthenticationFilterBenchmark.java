@@ -0,0 +1,148 @@
+package com.eadms.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cost of authenticating one request in {@link JwtAuthenticationFilter}: the filter as it was, parsing
+ * and verifying the token four times with a key rebuilt from the secret each time, against the current
+ * single verification with the verified-token cache empty and warm.
+ *
+ * Run with {@code mvn -Pbenchmark test -Dtest=JwtAuthenticationFilterBenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+    
+    // The default secret from application.properties
+    private static final String SECRET = "ZWFkbXMtc2VjcmV0LWtleS1mb3Itand0LXRva2VuLWdlbmVyYXRpb24tY2hhbmdlLXRoaXMtaW4tcHJvZHVjdGlvbi1lbnZpcm9ubWVudC1taW5pbXVtLTMyLWNoYXJhY3RlcnM=";
+    
+    private String token;
+    private JwtAuthenticationFilter cachedFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    
+    @Setup
+    public void setUp() throws Exception {
+        JwtTokenProvider cachedProvider = provider(10_000);
+        token = cachedProvider.generateToken("teacher@eadms.test", "TEACHER", 1L, null, 1L);
+        cachedFilter = new JwtAuthenticationFilter(cachedProvider);
+        // A cache that never stores anything, so every request pays for one full verification
+        uncachedFilter = new JwtAuthenticationFilter(provider(0));
+        authenticate(cachedFilter::doFilterInternal);
+    }
+    
+    @Benchmark
+    public Authentication legacyFourParses() throws Exception {
+        return authenticate(this::legacyFilter);
+    }
+    
+    @Benchmark
+    public Authentication singleVerification() throws Exception {
+        return authenticate(uncachedFilter::doFilterInternal);
+    }
+    
+    @Benchmark
+    public Authentication cachedVerification() throws Exception {
+        return authenticate(cachedFilter::doFilterInternal);
+    }
+    
+    @Test
+    void run() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getName())
+                .build())
+                .run();
+    }
+    
+    private Authentication authenticate(FilterBody filter) throws Exception {
+        try {
+            filter.apply(request(), new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+    
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/teacher/courses");
+        request.setServletPath("/api/teacher/courses");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+    
+    private static JwtTokenProvider provider(int cacheEntries) {
+        JwtTokenProvider provider = new JwtTokenProvider(new VerifiedTokenCache(cacheEntries));
+        ReflectionTestUtils.setField(provider, "secret", SECRET);
+        ReflectionTestUtils.setField(provider, "expiration", 86_400_000L);
+        provider.initSigningKey();
+        return provider;
+    }
+    
+    // The filter body before the single-parse API: email, role, then email and expiry again to validate
+    private void legacyFilter(MockHttpServletRequest request, MockHttpServletResponse response, MockFilterChain chain) throws Exception {
+        String jwt = request.getHeader("Authorization").substring(7);
+        String userEmail = legacyClaim(jwt, Claims::getSubject);
+        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String role = legacyClaim(jwt, claims -> claims.get("role", String.class));
+            UserDetails userDetails = User.builder()
+                    .username(userEmail)
+                    .password("")
+                    .authorities(Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)))
+                    .build();
+            boolean valid = legacyClaim(jwt, Claims::getSubject).equals(userDetails.getUsername())
+                    && !legacyClaim(jwt, Claims::getExpiration).before(new Date());
+            if (valid) {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+            }
+        }
+        chain.doFilter(request, response);
+    }
+    
+    private static <T> T legacyClaim(String token, Function<Claims, T> resolver) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return resolver.apply(Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload());
+    }
+    
+    @FunctionalInterface
+    private interface FilterBody {
+        void apply(MockHttpServletRequest request, MockHttpServletResponse response, MockFilterChain chain) throws Exception;
+    }
+}
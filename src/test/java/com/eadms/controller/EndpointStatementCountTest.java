@@ -0,0 +1,168 @@
+package com.eadms.controller;
+
+import com.eadms.support.StatementCounter;
+import com.eadms.support.TestData;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of statements every read endpoint issues, measured once for a teacher and student
+ * with one course and once for a pair with four courses of four students each. Both counts must match
+ * the expected one, so a lazy association walked per row shows up as a failure rather than as load.
+ * Admin listings cover everything seeded by then, well over a handful of rows, so the same holds there.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import({TestData.class, StatementCounter.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointStatementCountTest {
+    
+    private enum Role { ADMIN, TEACHER, STUDENT }
+    
+    private record Endpoint(Role role, String path, long statements) {
+        
+        @Override
+        public String toString() {
+            return role + " GET " + path;
+        }
+    }
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private TestData testData;
+    
+    @Autowired
+    private StatementCounter statements;
+    
+    private TestData.World small;
+    private TestData.World large;
+    private String adminToken;
+    
+    @BeforeAll
+    void seed() {
+        small = testData.world(1);
+        large = testData.world(4);
+        adminToken = testData.adminToken();
+    }
+    
+    static List<Endpoint> endpoints() {
+        return List.of(
+                new Endpoint(Role.STUDENT, "/api/student/dashboard/stats", 2),
+                new Endpoint(Role.STUDENT, "/api/student/profile", 3),
+                new Endpoint(Role.STUDENT, "/api/student/marks", 3),
+                new Endpoint(Role.STUDENT, "/api/student/attendance", 3),
+                new Endpoint(Role.STUDENT, "/api/student/attendance/stats", 3),
+                new Endpoint(Role.STUDENT, "/api/student/gpa", 3),
+                new Endpoint(Role.STUDENT, "/api/student/courses", 3),
+                new Endpoint(Role.STUDENT, "/api/student/enrollments", 3),
+                new Endpoint(Role.STUDENT, "/api/student/credits", 3),
+                new Endpoint(Role.STUDENT, "/api/student/grading-scale?courseId={course}", 5),
+                new Endpoint(Role.STUDENT, "/api/student/teachers", 2),
+                new Endpoint(Role.STUDENT, "/api/student/schedules", 4),
+                new Endpoint(Role.STUDENT, "/api/student/schedules/range?startDate={from}&endDate={to}", 3),
+                
+                new Endpoint(Role.TEACHER, "/api/teacher/dashboard/stats", 1),
+                new Endpoint(Role.TEACHER, "/api/teacher/courses", 4),
+                new Endpoint(Role.TEACHER, "/api/teacher/marks/course/{course}", 3),
+                new Endpoint(Role.TEACHER, "/api/teacher/attendance/course/{course}", 3),
+                new Endpoint(Role.TEACHER, "/api/teacher/course/{course}/average", 3),
+                new Endpoint(Role.TEACHER, "/api/teacher/course/{course}/analytics", 1),
+                new Endpoint(Role.TEACHER, "/api/teacher/risk-flags", 1),
+                new Endpoint(Role.TEACHER, "/api/teacher/students", 2),
+                new Endpoint(Role.TEACHER, "/api/teacher/course/{course}/students", 2),
+                new Endpoint(Role.TEACHER, "/api/teacher/profile", 3),
+                new Endpoint(Role.TEACHER, "/api/teacher/schedules", 3),
+                new Endpoint(Role.TEACHER, "/api/teacher/schedules/range?startDate={from}&endDate={to}", 3),
+                
+                new Endpoint(Role.ADMIN, "/api/admin/dashboard/stats", 6),
+                new Endpoint(Role.ADMIN, "/api/admin/students", 2),
+                new Endpoint(Role.ADMIN, "/api/admin/students/page?includeTotal=true", 2),
+                new Endpoint(Role.ADMIN, "/api/admin/students/next-id?className=TEST", 1),
+                new Endpoint(Role.ADMIN, "/api/admin/students/{student}", 3),
+                new Endpoint(Role.ADMIN, "/api/admin/teachers", 2),
+                new Endpoint(Role.ADMIN, "/api/admin/teachers/page?includeTotal=true", 2),
+                new Endpoint(Role.ADMIN, "/api/admin/teachers/next-id?department=TECH", 1),
+                new Endpoint(Role.ADMIN, "/api/admin/courses", 2),
+                new Endpoint(Role.ADMIN, "/api/admin/courses/page?includeTotal=true", 3),
+                new Endpoint(Role.ADMIN, "/api/admin/grading-scales/default", 3),
+                new Endpoint(Role.ADMIN, "/api/admin/courses/{course}/grading-scale", 5),
+                new Endpoint(Role.ADMIN, "/api/admin/risk-flags", 1),
+                new Endpoint(Role.ADMIN, "/api/admin/enrollments/student/{student}", 1),
+                new Endpoint(Role.ADMIN, "/api/admin/enrollments/course/{course}", 1),
+                
+                new Endpoint(Role.ADMIN, "/api/reports/admin/dashboard", 6),
+                new Endpoint(Role.ADMIN, "/api/reports/teacher/{teacher}/dashboard", 1),
+                new Endpoint(Role.ADMIN, "/api/reports/student/{student}/dashboard", 2),
+                new Endpoint(Role.ADMIN, "/api/reports/student/{student}/dashboard/verify", 8),
+                
+                new Endpoint(Role.ADMIN, "/api/schedules", 3),
+                new Endpoint(Role.ADMIN, "/api/schedules/page?includeTotal=true", 4),
+                new Endpoint(Role.ADMIN, "/api/schedules/{schedule}", 3),
+                new Endpoint(Role.ADMIN, "/api/schedules/teacher/{teacher}", 3),
+                new Endpoint(Role.ADMIN, "/api/schedules/teacher/{teacher}/range?startDate={from}&endDate={to}", 3),
+                new Endpoint(Role.ADMIN, "/api/schedules/teacher/{teacher}/calendar.ics", 2),
+                new Endpoint(Role.ADMIN, "/api/schedules/student/{student}", 4),
+                new Endpoint(Role.ADMIN, "/api/schedules/student/{student}/range?startDate={from}&endDate={to}", 3),
+                new Endpoint(Role.ADMIN, "/api/schedules/student/{student}/calendar.ics", 2),
+                new Endpoint(Role.ADMIN, "/api/schedules/day/" + DayOfWeek.MONDAY, 1),
+                new Endpoint(Role.ADMIN, "/api/schedules/free-rooms?date={date}&duration=60", 0)
+        );
+    }
+    
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("endpoints")
+    void statementCountDoesNotGrowWithData(Endpoint endpoint) throws Exception {
+        long forSmall = count(endpoint, small);
+        long forLarge = count(endpoint, large);
+        
+        assertThat(forSmall).as("statements with one course").isEqualTo(endpoint.statements());
+        assertThat(forLarge).as("statements with four courses of four students").isEqualTo(endpoint.statements());
+    }
+    
+    private long count(Endpoint endpoint, TestData.World world) throws Exception {
+        String token = switch (endpoint.role()) {
+            case ADMIN -> adminToken;
+            case TEACHER -> testData.token(world.teacher());
+            case STUDENT -> testData.token(world.student());
+        };
+        String path = expand(endpoint.path(), world);
+        return statements.count(() -> mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk()));
+    }
+    
+    private String expand(String path, TestData.World world) {
+        LocalDate monday = LocalDate.now().with(DayOfWeek.MONDAY);
+        Map<String, Object> values = Map.of(
+                "{student}", world.student().getId(),
+                "{teacher}", world.teacher().getId(),
+                "{course}", world.course().getId(),
+                "{schedule}", world.schedule().getId(),
+                "{from}", monday.atStartOfDay(),
+                "{to}", monday.plusWeeks(2).atStartOfDay(),
+                "{date}", monday.plusWeeks(1));
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            path = path.replace(value.getKey(), value.getValue().toString());
+        }
+        return path;
+    }
+}
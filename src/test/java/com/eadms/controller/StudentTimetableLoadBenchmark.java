@@ -0,0 +1,203 @@
+package com.eadms.controller;
+
+import com.eadms.entity.Course;
+import com.eadms.entity.Enrollment;
+import com.eadms.entity.Student;
+import com.eadms.entity.Teacher;
+import com.eadms.entity.User;
+import com.eadms.repository.EnrollmentRepository;
+import com.eadms.repository.StudentRepository;
+import com.eadms.repository.UserRepository;
+import com.eadms.service.StudentTimetableCache;
+import com.eadms.support.TestData;
+import com.eadms.util.AcademicTerms;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The 8am rush: every student opens their timetable at once. Seeds {@code benchmark.students} students
+ * (10k by default), each enrolled in five of 200 courses with a weekly class, then sends one
+ * {@code GET /api/student/schedules} per student over HTTP, first with the timetable cache empty and then
+ * warm, and prints the latency percentiles and how many requests were in flight at the peak.
+ *
+ * Requests go out asynchronously, up to {@code benchmark.concurrency} at a time, which defaults to every
+ * student: 10k open connections queued on Tomcat's default 200 worker threads, as on a real morning, so
+ * the latencies include the wait for a worker. Tomcat is allowed that many connections; the client and
+ * server sockets both live in this JVM, so the open file limit needs to be at least twice the concurrency.
+ *
+ * Run with {@code mvn -Pbenchmark test -Dtest=StudentTimetableLoadBenchmark}; add
+ * {@code -Dbenchmark.students=...} or {@code -Dbenchmark.concurrency=...} to change the load.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@ActiveProfiles("test")
+@Import(TestData.class)
+class StudentTimetableLoadBenchmark {
+    
+    private static final int STUDENTS = Integer.getInteger("benchmark.students", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", STUDENTS);
+    private static final int COURSES = 200;
+    private static final int COURSES_PER_STUDENT = 5;
+    private static final int SEED_CHUNK = 1_000;
+    
+    @DynamicPropertySource
+    static void acceptEveryConnection(DynamicPropertyRegistry registry) {
+        registry.add("server.tomcat.max-connections", () -> CONCURRENCY + 100);
+        registry.add("server.tomcat.accept-count", () -> CONCURRENCY);
+    }
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private TestData testData;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    
+    @Autowired
+    private StudentTimetableCache studentTimetableCache;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void everyStudentOpensTheirTimetableAtOnce() throws Exception {
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            Teacher teacher = testData.teacher();
+            Course course = testData.course(teacher);
+            testData.weeklyClass(course, teacher);
+            courses.add(course);
+        }
+        List<String> tokens = new ArrayList<>(STUDENTS);
+        for (int from = 0; from < STUDENTS; from += SEED_CHUNK) {
+            int to = Math.min(STUDENTS, from + SEED_CHUNK);
+            int chunkStart = from;
+            List<Student> students = transactionTemplate.execute(status -> seedStudents(chunkStart, to, courses));
+            students.forEach(student -> tokens.add(testData.token(student)));
+        }
+        
+        HttpClient client = HttpClient.newBuilder().build();
+        studentTimetableCache.clear();
+        rush(client, tokens, "cold cache");
+        rush(client, tokens, "warm cache");
+    }
+    
+    private List<Student> seedStudents(int from, int to, List<Course> courses) {
+        LocalDate today = LocalDate.now();
+        List<User> users = new ArrayList<>(to - from);
+        List<Student> students = new ArrayList<>(to - from);
+        List<Enrollment> enrollments = new ArrayList<>((to - from) * COURSES_PER_STUDENT);
+        for (int i = from; i < to; i++) {
+            User user = User.builder()
+                    .email("load" + i + "@test.eadms")
+                    .password("-")
+                    .role(User.Role.STUDENT)
+                    .build();
+            Student student = Student.builder()
+                    .firstName("Load")
+                    .lastName("L" + i)
+                    .studentId("LS" + i)
+                    .className("LOAD")
+                    .gender(Student.Gender.OTHER)
+                    .user(user)
+                    .build();
+            users.add(user);
+            students.add(student);
+            for (int c = 0; c < COURSES_PER_STUDENT; c++) {
+                enrollments.add(Enrollment.builder()
+                        .student(student)
+                        .course(courses.get((i * COURSES_PER_STUDENT + c) % courses.size()))
+                        .semester(AcademicTerms.semester(today))
+                        .academicYear(AcademicTerms.academicYear(today))
+                        .status(Enrollment.EnrollmentStatus.ACTIVE)
+                        .enrollmentDate(today)
+                        .build());
+            }
+        }
+        userRepository.saveAll(users);
+        studentRepository.saveAll(students);
+        enrollmentRepository.saveAll(enrollments);
+        return students;
+    }
+    
+    // Sends every request, at most CONCURRENCY in flight at a time, and reports each one's latency
+    private void rush(HttpClient client, List<String> tokens, String phase) throws InterruptedException {
+        URI uri = URI.create("http://localhost:" + port + "/api/student/schedules");
+        Semaphore slots = new Semaphore(CONCURRENCY);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        List<CompletableFuture<Long>> requests = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofMinutes(2))
+                    .GET()
+                    .build();
+            slots.acquire();
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            long start = System.nanoTime();
+            requests.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        long latency = System.nanoTime() - start;
+                        inFlight.decrementAndGet();
+                        slots.release();
+                        if (error != null || response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                        return latency;
+                    }));
+        }
+        long[] latencies = requests.stream().mapToLong(CompletableFuture::join).toArray();
+        assertThat(failures.get()).as("failed requests").isZero();
+        report(phase, latencies, peak.get());
+    }
+    
+    private static void report(String phase, long[] latencies, int peak) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-10s %,d requests, %,d in flight at the peak: p50 %.1f ms  p95 %.1f ms  p99 %.1f ms  max %.1f ms%n",
+                phase, sorted.length, peak,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                sorted[sorted.length - 1] / 1_000_000.0);
+    }
+    
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,139 @@
+package com.eadms.repository;
+
+import com.eadms.entity.Attendance;
+import com.eadms.entity.Course;
+import com.eadms.entity.Student;
+import com.eadms.support.PostgresTest;
+import com.eadms.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@PostgresTest
+class AttendanceBulkRepositoryTest {
+    
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 2);
+    
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+    
+    @Autowired
+    private TestData testData;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void firstRosterCreatesEveryRow() {
+        Course course = testData.course(testData.teacher());
+        Student first = testData.student();
+        Student second = testData.student();
+        
+        AttendanceBulkRepository.RosterWrite write = write(course, Map.of(
+                first.getId(), Attendance.Status.PRESENT,
+                second.getId(), Attendance.Status.LATE));
+        
+        assertThat(write.created()).containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(write.previous()).isEmpty();
+        assertThat(statuses(course)).containsOnly(
+                entry(first.getId(), "PRESENT"),
+                entry(second.getId(), "LATE"));
+    }
+    
+    @Test
+    void resubmittedRosterReportsPriorStatusesAndUpdatesOnlyChangedRows() {
+        Course course = testData.course(testData.teacher());
+        Student unchanged = testData.student();
+        Student changed = testData.student();
+        Student added = testData.student();
+        write(course, Map.of(
+                unchanged.getId(), Attendance.Status.PRESENT,
+                changed.getId(), Attendance.Status.PRESENT));
+        jdbcTemplate.update("UPDATE attendance SET updated_at = '2000-01-01' WHERE course_id = ?", course.getId());
+        
+        Map<Long, Attendance.Status> roster = new LinkedHashMap<>();
+        roster.put(unchanged.getId(), Attendance.Status.PRESENT);
+        roster.put(changed.getId(), Attendance.Status.ABSENT);
+        roster.put(added.getId(), Attendance.Status.EXCUSED);
+        AttendanceBulkRepository.RosterWrite write = write(course, roster);
+        
+        assertThat(write.created()).containsExactly(added.getId());
+        assertThat(write.previous()).containsOnly(
+                entry(unchanged.getId(), Attendance.Status.PRESENT),
+                entry(changed.getId(), Attendance.Status.PRESENT));
+        assertThat(statuses(course)).containsOnly(
+                entry(unchanged.getId(), "PRESENT"),
+                entry(changed.getId(), "ABSENT"),
+                entry(added.getId(), "EXCUSED"));
+        List<Long> touched = jdbcTemplate.queryForList(
+                "SELECT student_id FROM attendance WHERE course_id = ? AND updated_at > '2000-01-01'",
+                Long.class, course.getId());
+        assertThat(touched).containsExactlyInAnyOrder(changed.getId(), added.getId());
+    }
+    
+    @Test
+    void concurrentRosterWaitsForTheLockAndSeesTheCommittedStatus() throws Exception {
+        Course course = testData.course(testData.teacher());
+        Student student = testData.student();
+        write(course, Map.of(student.getId(), Attendance.Status.PRESENT));
+        
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<AttendanceBulkRepository.RosterWrite> holder = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    AttendanceBulkRepository.RosterWrite write = attendanceRepository.upsertStatuses(
+                            course.getId(), DATE, Map.of(student.getId(), Attendance.Status.ABSENT));
+                    locked.countDown();
+                    await(release);
+                    return write;
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+        
+        CompletableFuture<AttendanceBulkRepository.RosterWrite> waiter = CompletableFuture.supplyAsync(() ->
+                write(course, Map.of(student.getId(), Attendance.Status.LATE)));
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertThat(waiter).isNotDone();
+        
+        release.countDown();
+        assertThat(holder.get(10, TimeUnit.SECONDS).previous()).containsOnly(entry(student.getId(), Attendance.Status.PRESENT));
+        // The second roster read the first one's committed status, not the one it saw before blocking
+        assertThat(waiter.get(10, TimeUnit.SECONDS).previous()).containsOnly(entry(student.getId(), Attendance.Status.ABSENT));
+        assertThat(statuses(course)).containsOnly(entry(student.getId(), "LATE"));
+    }
+    
+    private AttendanceBulkRepository.RosterWrite write(Course course, Map<Long, Attendance.Status> statuses) {
+        return transactionTemplate.execute(status -> attendanceRepository.upsertStatuses(course.getId(), DATE, statuses));
+    }
+    
+    private Map<Long, String> statuses(Course course) {
+        Map<Long, String> statuses = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT student_id, status FROM attendance WHERE course_id = ? AND attendance_date = ?",
+                rs -> {
+                    statuses.put(rs.getLong(1), rs.getString(2));
+                }, course.getId(), DATE);
+        return statuses;
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
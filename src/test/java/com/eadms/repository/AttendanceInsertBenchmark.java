@@ -0,0 +1,198 @@
+package com.eadms.repository;
+
+import com.eadms.entity.Attendance;
+import com.eadms.entity.Course;
+import com.eadms.entity.Student;
+import com.eadms.entity.User;
+import com.eadms.support.PostgresTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert throughput on PostgreSQL for 10k attendance rows saved through Hibernate. It compares the
+ * pooled-lo sequence ids the entities use now with the IDENTITY columns they had before. Each id
+ * strategy gets its own session factory over the entity model, in its own schema, with production's
+ * batch_size and order_inserts. The IDENTITY factory overrides BaseEntity's id through
+ * {@code identity-ids-orm.xml}, so nothing else differs. Each round is rolled back.
+ *
+ * Run with {@code mvn -Pbenchmark test -Dtest=AttendanceInsertBenchmark -Dtest.postgres.url=...}, or with
+ * Docker running. Without PostgreSQL it is skipped.
+ */
+@Tag("benchmark")
+@PostgresTest
+class AttendanceInsertBenchmark {
+    
+    private static final int ROWS = 10_000;
+    private static final int ROUNDS = 5;
+    private static final String POOLED_SCHEMA = "bench_pooled_ids";
+    private static final String IDENTITY_SCHEMA = "bench_identity_ids";
+    
+    private record Result(long[] nanos, long statements) {
+    }
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void insertTenThousandAttendanceRows() {
+        try (SessionFactory pooled = sessionFactory(POOLED_SCHEMA, false);
+             SessionFactory identity = sessionFactory(IDENTITY_SCHEMA, true)) {
+            Result pooledResult = measure(pooled);
+            Result identityResult = measure(identity);
+            
+            report("pooled-lo sequence", pooledResult);
+            report("IDENTITY", identityResult);
+            assertThat(pooledResult.statements()).isLessThan(identityResult.statements());
+        } finally {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + POOLED_SCHEMA + " CASCADE");
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + IDENTITY_SCHEMA + " CASCADE");
+        }
+    }
+    
+    // The application's entities, named as Spring Boot names them, on the test database in a schema of their own
+    private SessionFactory sessionFactory(String schema, boolean identityIds) {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + schema);
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.DEFAULT_SCHEMA, schema)
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, new CamelCaseToUnderscoresNamingStrategy())
+                .applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY, new SpringImplicitNamingStrategy())
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, 20)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo")
+                .applySetting(AvailableSettings.GENERATE_STATISTICS, true)
+                .build();
+        MetadataSources sources = new MetadataSources(registry);
+        entityManagerFactory.getMetamodel().getEntities()
+                .forEach(entity -> sources.addAnnotatedClass(entity.getJavaType()));
+        if (identityIds) {
+            sources.addResource("identity-ids-orm.xml");
+        }
+        return sources.buildMetadata().buildSessionFactory();
+    }
+    
+    private Result measure(SessionFactory sessionFactory) {
+        Student student;
+        Course course;
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            student = seedStudent(session);
+            course = seedCourse(session);
+            transaction.commit();
+        }
+        Statistics statistics = sessionFactory.getStatistics();
+        
+        // Warm up before measuring
+        insert(sessionFactory, student.getId(), course.getId());
+        
+        long[] nanos = new long[ROUNDS];
+        long statements = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            statistics.clear();
+            nanos[round] = insert(sessionFactory, student.getId(), course.getId());
+            statements = statistics.getPrepareStatementCount();
+        }
+        return new Result(nanos, statements);
+    }
+    
+    // Persists and flushes ROWS rows, rolls them back, and returns the elapsed nanoseconds
+    private long insert(SessionFactory sessionFactory, Long studentId, Long courseId) {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            Student student = session.getReference(Student.class, studentId);
+            Course course = session.getReference(Course.class, courseId);
+            // Spring's auditing listener is not wired up outside the application context
+            LocalDateTime now = LocalDateTime.now();
+            LocalDate firstDay = LocalDate.of(2000, 1, 1);
+            List<Attendance> rows = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                Attendance row = Attendance.builder()
+                        .student(student)
+                        .course(course)
+                        .attendanceDate(firstDay.plusDays(i))
+                        .status(i % 5 == 0 ? Attendance.Status.ABSENT : Attendance.Status.PRESENT)
+                        .build();
+                row.setCreatedAt(now);
+                rows.add(row);
+            }
+            
+            long start = System.nanoTime();
+            rows.forEach(session::persist);
+            session.flush();
+            long elapsed = System.nanoTime() - start;
+            transaction.rollback();
+            return elapsed;
+        }
+    }
+    
+    private static Student seedStudent(Session session) {
+        User user = User.builder()
+                .email("bench@test.eadms")
+                .password("-")
+                .role(User.Role.STUDENT)
+                .build();
+        user.setCreatedAt(LocalDateTime.now());
+        session.persist(user);
+        Student student = Student.builder()
+                .firstName("Bench")
+                .lastName("B")
+                .studentId("BS1")
+                .className("BENCH")
+                .gender(Student.Gender.OTHER)
+                .user(user)
+                .build();
+        student.setCreatedAt(LocalDateTime.now());
+        session.persist(student);
+        return student;
+    }
+    
+    private static Course seedCourse(Session session) {
+        Course course = Course.builder()
+                .courseCode("BC1")
+                .courseName("Bench course")
+                .semester(1)
+                .credits(3)
+                .build();
+        course.setCreatedAt(LocalDateTime.now());
+        session.persist(course);
+        return course;
+    }
+    
+    private static void report(String ids, Result result) {
+        long[] sorted = result.nanos().clone();
+        Arrays.sort(sorted);
+        double medianMillis = sorted[sorted.length / 2] / 1_000_000.0;
+        System.out.printf("%-20s median %8.1f ms  %,10.0f rows/s  %,6d statements prepared%n",
+                ids, medianMillis, ROWS / (medianMillis / 1000.0), result.statements());
+    }
+}
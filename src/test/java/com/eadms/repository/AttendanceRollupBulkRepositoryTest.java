@@ -0,0 +1,117 @@
+package com.eadms.repository;
+
+import com.eadms.dto.projection.AttendanceCounts;
+import com.eadms.dto.request.BulkAttendanceRequest;
+import com.eadms.entity.Attendance;
+import com.eadms.entity.Course;
+import com.eadms.entity.Student;
+import com.eadms.service.AttendanceService;
+import com.eadms.support.PostgresTest;
+import com.eadms.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@PostgresTest
+class AttendanceRollupBulkRepositoryTest {
+    
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 2);
+    
+    @Autowired
+    private AttendanceRollupRepository rollupRepository;
+    
+    @Autowired
+    private AttendanceService attendanceService;
+    
+    @Autowired
+    private TestData testData;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void deltasCreateMissingRowsAndAddToExistingOnes() {
+        Course course = testData.course(testData.teacher());
+        Student first = testData.student();
+        Student second = testData.student();
+        
+        rollupRepository.applyDeltas(List.of(
+                delta(first, course, 2026, 1, 1, 0, 0, 0),
+                delta(second, course, 2026, 1, 0, 1, 0, 0)));
+        rollupRepository.applyDeltas(List.of(
+                // A status change moves one count from absent to late
+                delta(second, course, 2026, 1, 0, -1, 1, 0),
+                delta(first, course, 2026, 1, 1, 0, 0, 1),
+                delta(first, course, 2026, 2, 0, 0, 0, 1)));
+        
+        assertThat(rollupRepository.findCountsByStudentIdAndCourseId(first.getId(), course.getId()))
+                .isEqualTo(new AttendanceCounts(2L, 0L, 0L, 2L));
+        assertThat(rollupRepository.findCountsByStudentIdAndCourseId(second.getId(), course.getId()))
+                .isEqualTo(new AttendanceCounts(0L, 0L, 1L, 0L));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendance_rollup WHERE student_id = ?",
+                Long.class, first.getId())).isEqualTo(2);
+    }
+    
+    @Test
+    void concurrentRostersLeaveTheRollupMatchingTheAttendanceRows() throws Exception {
+        Course course = testData.course(testData.teacher());
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            students.add(testData.student());
+        }
+        String[] statuses = {"PRESENT", "ABSENT", "LATE", "EXCUSED"};
+        int threads = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> teachers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            teachers.add(pool.submit(() -> {
+                start.await();
+                // Every thread resubmits the same roster with different statuses, so most rows change each round
+                for (int round = 0; round < 10; round++) {
+                    Map<Long, String> roster = new LinkedHashMap<>();
+                    for (int i = 0; i < students.size(); i++) {
+                        roster.put(students.get(i).getId(), statuses[(i + round + offset) % statuses.length]);
+                    }
+                    attendanceService.markBulkAttendance(new BulkAttendanceRequest(course.getId(), DATE, roster));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> teacher : teachers) {
+            teacher.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        
+        for (Student student : students) {
+            String status = jdbcTemplate.queryForObject(
+                    "SELECT status FROM attendance WHERE student_id = ? AND course_id = ?",
+                    String.class, student.getId(), course.getId());
+            AttendanceCounts counts = rollupRepository.findCountsByStudentIdAndCourseId(student.getId(), course.getId());
+            assertThat(counts.total()).isEqualTo(1);
+            assertThat(counts.byStatus().get(Attendance.Status.valueOf(status))).isEqualTo(1);
+        }
+    }
+    
+    private static AttendanceRollupBulkRepository.Delta delta(Student student, Course course, int academicYear,
+                                                              int semester, long present, long absent, long late,
+                                                              long excused) {
+        return new AttendanceRollupBulkRepository.Delta(student.getId(), course.getId(), academicYear, semester,
+                present, absent, late, excused);
+    }
+}
@@ -0,0 +1,65 @@
+package com.eadms.repository;
+
+import com.eadms.dto.projection.CourseDashboardAggregate;
+import com.eadms.service.ReportService;
+import com.eadms.support.StatementCounter;
+import com.eadms.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import({TestData.class, StatementCounter.class})
+class DashboardAggregateRepositoryTest {
+    
+    @Autowired
+    private DashboardAggregateRepository dashboardAggregateRepository;
+    
+    @Autowired
+    private ReportService reportService;
+    
+    @Autowired
+    private TestData testData;
+    
+    @Autowired
+    private StatementCounter statements;
+    
+    @Test
+    void courseAggregatesTakeOneStatementWhateverTheCourseCount() throws Exception {
+        TestData.World small = testData.world(1);
+        TestData.World large = testData.world(12);
+        
+        long forSmall = statements.count(() -> dashboardAggregateRepository.findCourseAggregatesByTeacherId(small.teacher().getId()));
+        AtomicReference<List<CourseDashboardAggregate>> aggregates = new AtomicReference<>();
+        long forLarge = statements.count(() -> aggregates.set(
+                dashboardAggregateRepository.findCourseAggregatesByTeacherId(large.teacher().getId())));
+        
+        assertThat(forSmall).isEqualTo(1);
+        assertThat(forLarge).isEqualTo(1);
+        assertThat(aggregates.get()).hasSize(12).allSatisfy(course -> {
+            // Every student is enrolled in every course, present once and absent once
+            assertThat(course.activeEnrollments()).isEqualTo(12);
+            assertThat(course.presentCount()).isEqualTo(12);
+            assertThat(course.attendanceCount()).isEqualTo(24);
+        });
+    }
+    
+    @Test
+    void teacherDashboardStatementCountDoesNotGrowWithCourses() throws Exception {
+        TestData.World small = testData.world(1);
+        TestData.World large = testData.world(12);
+        
+        long forSmall = statements.count(() -> reportService.getTeacherDashboardStats(small.teacher().getId()));
+        long forLarge = statements.count(() -> reportService.getTeacherDashboardStats(large.teacher().getId()));
+        
+        assertThat(forLarge).isEqualTo(forSmall).isEqualTo(1);
+    }
+}
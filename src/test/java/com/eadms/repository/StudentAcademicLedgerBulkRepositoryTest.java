@@ -0,0 +1,95 @@
+package com.eadms.repository;
+
+import com.eadms.entity.Student;
+import com.eadms.entity.StudentAcademicLedger;
+import com.eadms.support.PostgresTest;
+import com.eadms.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@PostgresTest
+class StudentAcademicLedgerBulkRepositoryTest {
+    
+    @Autowired
+    private StudentAcademicLedgerRepository ledgerRepository;
+    
+    @Autowired
+    private TestData testData;
+    
+    @Test
+    void firstDeltaCreatesTheRowAndLaterOnesAddToIt() {
+        Student student = testData.student();
+        
+        ledgerRepository.applyDelta(student.getId(), 2026, 1, new BigDecimal("12.00"), 3, 3, 0);
+        ledgerRepository.applyDelta(student.getId(), 2026, 1, new BigDecimal("9.90"), 3, 3, 0);
+        // A dropped enrollment comes back as a negative delta
+        ledgerRepository.applyDelta(student.getId(), 2026, 1, new BigDecimal("-12.00"), -3, -3, 0);
+        ledgerRepository.applyDelta(student.getId(), 2026, 1, BigDecimal.ZERO, 0, 0, 4);
+        
+        StudentAcademicLedger ledger = ledger(student, 2026, 1);
+        assertThat(ledger.getWeightedGradePoints()).isEqualByComparingTo("9.90");
+        assertThat(ledger.getGradedCredits()).isEqualTo(3);
+        assertThat(ledger.getCompletedCredits()).isEqualTo(3);
+        assertThat(ledger.getActiveCredits()).isEqualTo(4);
+    }
+    
+    @Test
+    void termsAreSeparateRows() {
+        Student student = testData.student();
+        
+        ledgerRepository.applyDelta(student.getId(), 2026, 1, new BigDecimal("12.00"), 3, 3, 0);
+        ledgerRepository.applyDelta(student.getId(), 2026, 2, new BigDecimal("6.00"), 2, 2, 0);
+        ledgerRepository.applyDelta(student.getId(), StudentAcademicLedger.ALL_TERMS, StudentAcademicLedger.ALL_TERMS,
+                new BigDecimal("18.00"), 5, 5, 0);
+        
+        assertThat(ledger(student, 2026, 1).getGradedCredits()).isEqualTo(3);
+        assertThat(ledger(student, 2026, 2).getGradedCredits()).isEqualTo(2);
+        assertThat(ledger(student, StudentAcademicLedger.ALL_TERMS, StudentAcademicLedger.ALL_TERMS).getGradedCredits())
+                .isEqualTo(5);
+    }
+    
+    @Test
+    void concurrentDeltasToAMissingRowAreAllCounted() throws Exception {
+        Student student = testData.student();
+        int threads = 8;
+        int deltasPerThread = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            writers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < deltasPerThread; i++) {
+                    ledgerRepository.applyDelta(student.getId(), 2026, 1, new BigDecimal("1.50"), 1, 1, 1);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        
+        StudentAcademicLedger ledger = ledger(student, 2026, 1);
+        assertThat(ledger.getActiveCredits()).isEqualTo(threads * deltasPerThread);
+        assertThat(ledger.getGradedCredits()).isEqualTo(threads * deltasPerThread);
+        assertThat(ledger.getWeightedGradePoints()).isEqualByComparingTo("300.00");
+    }
+    
+    private StudentAcademicLedger ledger(Student student, int academicYear, int semester) {
+        return ledgerRepository.findByStudentIdAndAcademicYearAndSemester(student.getId(), academicYear, semester)
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,96 @@
+package com.eadms.service;
+
+import com.eadms.entity.Course;
+import com.eadms.entity.Enrollment;
+import com.eadms.entity.Schedule;
+import com.eadms.entity.Student;
+import com.eadms.entity.Teacher;
+import com.eadms.repository.TeacherRepository;
+import com.eadms.support.StatementCounter;
+import com.eadms.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+// The same context as the other in-memory suites, which share its database
+@Import({TestData.class, StatementCounter.class})
+class CalendarETagTest {
+    
+    @Autowired
+    private ScheduleService scheduleService;
+    
+    @Autowired
+    private TeacherRepository teacherRepository;
+    
+    @Autowired
+    private TestData testData;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void unchangedFeedKeepsItsTag() {
+        Teacher teacher = testData.teacher();
+        testData.weeklyClass(testData.course(teacher), teacher);
+        
+        assertThat(scheduleService.getTeacherCalendarETag(teacher.getId()))
+                .isEqualTo(scheduleService.getTeacherCalendarETag(teacher.getId()));
+    }
+    
+    @Test
+    void swappingSchedulesWithTheSameCountAndIdSumChangesTheTag() {
+        Teacher teacher = testData.teacher();
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            courses.add(testData.course(teacher));
+        }
+        List<Schedule> schedules = courses.stream().map(course -> testData.weeklyClass(course, teacher)).toList();
+        long[] ids = schedules.stream().mapToLong(Schedule::getId).toArray();
+        assertThat(ids[0] + ids[3]).as("outer and inner id sums").isEqualTo(ids[1] + ids[2]);
+        // Every row stamped alike, so neither the latest timestamp nor the count tells the sets apart
+        Timestamp stamp = Timestamp.valueOf(LocalDateTime.of(2026, 1, 5, 9, 0));
+        for (int i = 0; i < 4; i++) {
+            jdbcTemplate.update("UPDATE schedules SET updated_at = ? WHERE id = ?", stamp, ids[i]);
+            jdbcTemplate.update("UPDATE courses SET updated_at = ? WHERE id = ?", stamp, courses.get(i).getId());
+        }
+        Student student = testData.student();
+        Enrollment first = testData.enroll(student, courses.get(0));
+        Enrollment last = testData.enroll(student, courses.get(3));
+        String outer = scheduleService.getStudentCalendarETag(student.getId());
+        
+        setStatus(first, Enrollment.EnrollmentStatus.DROPPED);
+        setStatus(last, Enrollment.EnrollmentStatus.DROPPED);
+        testData.enroll(student, courses.get(1));
+        testData.enroll(student, courses.get(2));
+        
+        assertThat(scheduleService.getStudentCalendarETag(student.getId())).isNotEqualTo(outer);
+    }
+    
+    @Test
+    void editingTheTeacherChangesTheirFeedTag() {
+        Teacher teacher = testData.teacher();
+        testData.weeklyClass(testData.course(teacher), teacher);
+        String before = scheduleService.getTeacherCalendarETag(teacher.getId());
+        
+        teacher.setDepartment("MATH");
+        teacherRepository.save(teacher);
+        
+        assertThat(scheduleService.getTeacherCalendarETag(teacher.getId())).isNotEqualTo(before);
+    }
+    
+    private void setStatus(Enrollment enrollment, Enrollment.EnrollmentStatus status) {
+        jdbcTemplate.update("UPDATE enrollments SET status = ? WHERE id = ?", status.name(), enrollment.getId());
+    }
+}
@@ -0,0 +1,182 @@
+package com.eadms.service;
+
+import com.eadms.dto.request.GradingScaleRequest;
+import com.eadms.dto.response.CourseFinalizationResponse;
+import com.eadms.entity.Course;
+import com.eadms.entity.Enrollment;
+import com.eadms.entity.Marks;
+import com.eadms.entity.Student;
+import com.eadms.exception.BadRequestException;
+import com.eadms.repository.EnrollmentRepository;
+import com.eadms.support.PostgresTest;
+import com.eadms.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Course finalization on a course scale of its own: the weighting of exam types, the letters the final
+ * grades earn, and the abort when enrollments change underneath it. On PostgreSQL, as finalizing and
+ * dropping mark dashboard summaries stale with an upsert.
+ */
+@PostgresTest
+class CourseFinalizationTest {
+    
+    @Autowired
+    private EnrollmentService enrollmentService;
+    
+    @Autowired
+    private GradingScaleService gradingScaleService;
+    
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    
+    @Autowired
+    private TestData testData;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void finalGradeIsTheWeightedSumOfTheComponents() {
+        Course course = course();
+        Student student = testData.student();
+        Enrollment enrollment = testData.enroll(student, course);
+        testData.mark(student, course, Marks.ExamType.MIDTERM, 70);
+        testData.mark(student, course, Marks.ExamType.FINAL, 80);
+        testData.mark(student, course, Marks.ExamType.ASSIGNMENT, 75);
+        testData.mark(student, course, Marks.ExamType.QUIZ, 70);
+        
+        CourseFinalizationResponse response = enrollmentService.finalizeCourse(course.getId());
+        
+        // 0.3 * 70 + 0.4 * 80 + 0.2 * 75 + 0.1 * 70, exactly on the B+ minimum
+        assertThat(response.getGradingScale()).isEqualTo("Course scale");
+        assertThat(response.getAppliedWeights()).containsExactly(
+                entry("MIDTERM", 0.3), entry("FINAL", 0.4), entry("ASSIGNMENT", 0.2), entry("QUIZ", 0.1));
+        assertThat(response.getResults()).singleElement().satisfies(result -> {
+            assertThat(result.getEnrollmentId()).isEqualTo(enrollment.getId());
+            assertThat(result.getFinalGrade()).isEqualTo(75.0);
+            assertThat(result.getLetterGrade()).isEqualTo("B+");
+            assertThat(result.getGradePoints()).isEqualTo(3.5);
+        });
+        Enrollment saved = enrollmentRepository.findById(enrollment.getId()).orElseThrow();
+        assertThat(saved.getStatus()).isEqualTo(Enrollment.EnrollmentStatus.COMPLETED);
+        assertThat(saved.getFinalGrade()).isEqualTo(75.0);
+        assertThat(saved.getLetterGrade()).isEqualTo("B+");
+    }
+    
+    @Test
+    void weightsOfExamTypesNobodySatAreSpreadOverTheRest() {
+        Course course = course();
+        Student full = testData.student();
+        Student partial = testData.student();
+        testData.enroll(full, course);
+        testData.enroll(partial, course);
+        // No quiz was held
+        testData.mark(full, course, Marks.ExamType.MIDTERM, 80);
+        testData.mark(full, course, Marks.ExamType.FINAL, 70);
+        testData.mark(full, course, Marks.ExamType.ASSIGNMENT, 90);
+        testData.mark(partial, course, Marks.ExamType.MIDTERM, 90);
+        
+        CourseFinalizationResponse response = enrollmentService.finalizeCourse(course.getId());
+        
+        assertThat(response.getAppliedWeights()).containsExactly(
+                entry("MIDTERM", 0.3333), entry("FINAL", 0.4444), entry("ASSIGNMENT", 0.2222));
+        assertThat(response.getEnrollmentsCompleted()).isEqualTo(2);
+        // (30 * 80 + 40 * 70 + 20 * 90) / 90; the partial student's missing exams count as zero
+        assertThat(response.getResults())
+                .extracting(CourseFinalizationResponse.Result::getStudentId,
+                        CourseFinalizationResponse.Result::getFinalGrade,
+                        CourseFinalizationResponse.Result::getLetterGrade)
+                .containsExactlyInAnyOrder(
+                        tuple(full.getId(), 77.78, "B+"),
+                        tuple(partial.getId(), 30.0, "F"));
+        assertThat(response.getAverageFinalGrade()).isEqualTo(53.89);
+        assertThat(response.getLetterGradeCounts()).containsOnly(entry("B+", 1), entry("F", 1));
+    }
+    
+    @Test
+    void enrollmentDroppedWhileFinalizingAbortsWithNothingSaved() throws Exception {
+        Course course = course();
+        Student staying = testData.student();
+        Student leaving = testData.student();
+        Enrollment stayingEnrollment = testData.enroll(staying, course);
+        Enrollment leavingEnrollment = testData.enroll(leaving, course);
+        testData.mark(staying, course, Marks.ExamType.FINAL, 80);
+        testData.mark(leaving, course, Marks.ExamType.FINAL, 60);
+        
+        // The drop holds its row lock, so finalization still reads the enrollment as active and then waits on it
+        CountDownLatch dropped = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> drop = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            enrollmentService.dropEnrollment(leavingEnrollment.getId());
+            dropped.countDown();
+            await(release);
+        }));
+        assertThat(dropped.await(10, TimeUnit.SECONDS)).isTrue();
+        
+        CompletableFuture<CourseFinalizationResponse> finalize =
+                CompletableFuture.supplyAsync(() -> enrollmentService.finalizeCourse(course.getId()));
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertThat(finalize).isNotDone();
+        
+        release.countDown();
+        drop.get(10, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> finalize.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("1 of the course's enrollments changed while it was being finalized; nothing was saved, try again");
+        Enrollment untouched = enrollmentRepository.findById(stayingEnrollment.getId()).orElseThrow();
+        assertThat(untouched.getStatus()).isEqualTo(Enrollment.EnrollmentStatus.ACTIVE);
+        assertThat(untouched.getFinalGrade()).isNull();
+        
+        // Retried, it finalizes the enrollment that is left
+        assertThat(enrollmentService.finalizeCourse(course.getId()).getResults())
+                .singleElement()
+                .satisfies(result -> assertThat(result.getEnrollmentId()).isEqualTo(stayingEnrollment.getId()));
+    }
+    
+    @Test
+    void courseWithoutActiveEnrollmentsIsRejected() {
+        Course course = course();
+        
+        assertThatThrownBy(() -> enrollmentService.finalizeCourse(course.getId()))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Course has no active enrollments to finalize");
+    }
+    
+    // A course on its own scale, with B+ starting at 75
+    private Course course() {
+        Course course = testData.course(testData.teacher());
+        gradingScaleService.setCourseScale(course.getId(), new GradingScaleRequest("Course scale",
+                List.of(
+                        new GradingScaleRequest.Band(85.0, "A", 4.0),
+                        new GradingScaleRequest.Band(75.0, "B+", 3.5),
+                        new GradingScaleRequest.Band(65.0, "B", 3.0),
+                        new GradingScaleRequest.Band(50.0, "C", 2.0),
+                        new GradingScaleRequest.Band(0.0, "F", 0.0)),
+                Map.of("MIDTERM", 30.0, "FINAL", 40.0, "ASSIGNMENT", 20.0, "QUIZ", 10.0)));
+        return course;
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.eadms.service;
+
+import com.eadms.dto.projection.CourseMarkScores;
+import com.eadms.dto.projection.CourseSummary;
+import com.eadms.dto.response.CourseGradeAnalyticsResponse;
+import com.eadms.entity.Marks;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class GradeDistributionTest {
+    
+    private static final CourseSummary COURSE = new CourseSummary(7L, "CS101", "Programming", 1, 3, null, List.of());
+    
+    @Test
+    void quartilesInterpolateBetweenTheClosestRanks() {
+        CourseGradeAnalyticsResponse response = distribution(new Scores()
+                .mark(1, Marks.ExamType.FINAL, 40)
+                .mark(2, Marks.ExamType.FINAL, 10)
+                .mark(3, Marks.ExamType.FINAL, 30)
+                .mark(4, Marks.ExamType.FINAL, 20));
+        
+        assertThat(response.getMin()).isEqualTo(10.0);
+        assertThat(response.getLowerQuartile()).isEqualTo(17.5);
+        assertThat(response.getMedian()).isEqualTo(25.0);
+        assertThat(response.getUpperQuartile()).isEqualTo(32.5);
+        assertThat(response.getMax()).isEqualTo(40.0);
+        assertThat(response.getMean()).isEqualTo(25.0);
+        assertThat(response.getStandardDeviation()).isEqualTo(11.18);
+    }
+    
+    @Test
+    void oddStudentCountHitsRanksExactly() {
+        CourseGradeAnalyticsResponse response = distribution(new Scores()
+                .mark(1, Marks.ExamType.FINAL, 50)
+                .mark(2, Marks.ExamType.FINAL, 10)
+                .mark(3, Marks.ExamType.FINAL, 40)
+                .mark(4, Marks.ExamType.FINAL, 20)
+                .mark(5, Marks.ExamType.FINAL, 30));
+        
+        assertThat(response.getLowerQuartile()).isEqualTo(20.0);
+        assertThat(response.getMedian()).isEqualTo(30.0);
+        assertThat(response.getUpperQuartile()).isEqualTo(40.0);
+    }
+    
+    @Test
+    void singleStudentIsEveryPercentile() {
+        CourseGradeAnalyticsResponse response = distribution(new Scores().mark(1, Marks.ExamType.QUIZ, 64));
+        
+        assertThat(response.getMin()).isEqualTo(64.0);
+        assertThat(response.getLowerQuartile()).isEqualTo(64.0);
+        assertThat(response.getMedian()).isEqualTo(64.0);
+        assertThat(response.getUpperQuartile()).isEqualTo(64.0);
+        assertThat(response.getMax()).isEqualTo(64.0);
+        assertThat(response.getStandardDeviation()).isEqualTo(0.0);
+    }
+    
+    @Test
+    void studentsAreRankedByTheMeanOfTheirMarks() {
+        CourseGradeAnalyticsResponse response = distribution(new Scores()
+                .mark(1, Marks.ExamType.MIDTERM, 60)
+                .mark(1, Marks.ExamType.FINAL, 80)
+                .mark(2, Marks.ExamType.FINAL, 75)
+                .mark(3, Marks.ExamType.MIDTERM, 90)
+                .mark(3, Marks.ExamType.FINAL, 40)
+                .mark(3, Marks.ExamType.QUIZ, 50));
+        
+        assertThat(response.getMarkCount()).isEqualTo(6);
+        assertThat(response.getStudentCount()).isEqualTo(3);
+        assertThat(response.getTop())
+                .extracting(CourseGradeAnalyticsResponse.StudentScore::getStudentId,
+                        CourseGradeAnalyticsResponse.StudentScore::getMarkCount,
+                        CourseGradeAnalyticsResponse.StudentScore::getPercentage)
+                .containsExactly(tuple(2L, 1, 75.0), tuple(1L, 2, 70.0), tuple(3L, 3, 60.0));
+    }
+    
+    @Test
+    void tiedStudentsKeepStudentIdOrder() {
+        CourseGradeAnalyticsResponse response = distribution(new Scores()
+                .mark(11, Marks.ExamType.FINAL, 50)
+                .mark(12, Marks.ExamType.FINAL, 50)
+                .mark(13, Marks.ExamType.FINAL, 90)
+                .mark(14, Marks.ExamType.FINAL, 50), 4);
+        
+        assertThat(response.getBottom())
+                .extracting(CourseGradeAnalyticsResponse.StudentScore::getStudentId)
+                .containsExactly(11L, 12L, 14L, 13L);
+        assertThat(response.getTop())
+                .extracting(CourseGradeAnalyticsResponse.StudentScore::getStudentId)
+                .containsExactly(13L, 14L, 12L, 11L);
+        assertThat(response.getMedian()).isEqualTo(50.0);
+    }
+    
+    @Test
+    void rankKeysKeepFourDecimalsOfThePercentage() {
+        CourseGradeAnalyticsResponse response = distribution(new Scores()
+                .mark(1, Marks.ExamType.FINAL, 200.0 / 3)
+                .mark(2, Marks.ExamType.FINAL, 66.66));
+        
+        assertThat(response.getTop())
+                .extracting(CourseGradeAnalyticsResponse.StudentScore::getStudentId,
+                        CourseGradeAnalyticsResponse.StudentScore::getPercentage)
+                .containsExactly(tuple(1L, 66.67), tuple(2L, 66.66));
+    }
+    
+    @Test
+    void topAndBottomAreCappedAtTheStudentCount() {
+        CourseGradeAnalyticsResponse response = distribution(new Scores()
+                .mark(1, Marks.ExamType.FINAL, 30)
+                .mark(2, Marks.ExamType.FINAL, 70), 5);
+        
+        assertThat(response.getTop()).hasSize(2);
+        assertThat(response.getBottom()).hasSize(2);
+    }
+    
+    @Test
+    void histogramBucketsAreLowerInclusiveAndTheLastTakesFullMarks() {
+        CourseGradeAnalyticsResponse response = distribution(new Scores()
+                .mark(1, Marks.ExamType.FINAL, 0)
+                .mark(2, Marks.ExamType.FINAL, 9.99)
+                .mark(3, Marks.ExamType.FINAL, 10)
+                .mark(4, Marks.ExamType.FINAL, 89.99)
+                .mark(5, Marks.ExamType.FINAL, 90)
+                .mark(6, Marks.ExamType.FINAL, 100));
+        
+        assertThat(response.getHistogram())
+                .extracting(CourseGradeAnalyticsResponse.Bucket::getCount)
+                .containsExactly(2, 1, 0, 0, 0, 0, 0, 0, 1, 2);
+        assertThat(response.getHistogram().get(9).getFrom()).isEqualTo(90);
+        assertThat(response.getHistogram().get(9).getTo()).isEqualTo(100);
+    }
+    
+    @Test
+    void examTypeStatisticsAreOverIndividualMarks() {
+        CourseGradeAnalyticsResponse response = distribution(new Scores()
+                .mark(1, Marks.ExamType.MIDTERM, 60)
+                .mark(1, Marks.ExamType.FINAL, 80)
+                .mark(2, Marks.ExamType.MIDTERM, 40)
+                .mark(3, Marks.ExamType.MIDTERM, 80));
+        
+        assertThat(response.getExamTypes())
+                .extracting(CourseGradeAnalyticsResponse.ExamTypeStats::getExamType,
+                        CourseGradeAnalyticsResponse.ExamTypeStats::getCount,
+                        CourseGradeAnalyticsResponse.ExamTypeStats::getMean,
+                        CourseGradeAnalyticsResponse.ExamTypeStats::getStandardDeviation,
+                        CourseGradeAnalyticsResponse.ExamTypeStats::getMin,
+                        CourseGradeAnalyticsResponse.ExamTypeStats::getMax)
+                .containsExactly(
+                        tuple("MIDTERM", 3, 60.0, 16.33, 40.0, 80.0),
+                        tuple("FINAL", 1, 80.0, 0.0, 80.0, 80.0));
+    }
+    
+    @Test
+    void courseWithoutMarksHasNoStatistics() {
+        CourseGradeAnalyticsResponse response = distribution(new Scores());
+        
+        assertThat(response.getStudentCount()).isZero();
+        assertThat(response.getMean()).isNull();
+        assertThat(response.getMedian()).isNull();
+        assertThat(response.getMin()).isNull();
+        assertThat(response.getTop()).isEmpty();
+        assertThat(response.getExamTypes()).isEmpty();
+        assertThat(response.getHistogram()).extracting(CourseGradeAnalyticsResponse.Bucket::getCount).containsOnly(0);
+    }
+    
+    private static CourseGradeAnalyticsResponse distribution(Scores scores) {
+        return distribution(scores, 3);
+    }
+    
+    private static CourseGradeAnalyticsResponse distribution(Scores scores, int top) {
+        return new GradeDistribution(scores.build()).toResponse(COURSE, top);
+    }
+    
+    // Marks must be added grouped by student, as the snapshot query returns them
+    private static class Scores {
+        
+        private final List<Long> studentIds = new ArrayList<>();
+        private final List<Marks.ExamType> examTypes = new ArrayList<>();
+        private final List<Double> percentages = new ArrayList<>();
+        
+        Scores mark(long studentId, Marks.ExamType examType, double percentage) {
+            studentIds.add(studentId);
+            examTypes.add(examType);
+            percentages.add(percentage);
+            return this;
+        }
+        
+        CourseMarkScores build() {
+            int size = studentIds.size();
+            // Spare capacity, as the snapshot's arrays may be longer than its size
+            long[] ids = new long[size + 2];
+            byte[] types = new byte[size + 2];
+            double[] values = new double[size + 2];
+            for (int i = 0; i < size; i++) {
+                ids[i] = studentIds.get(i);
+                types[i] = (byte) examTypes.get(i).ordinal();
+                values[i] = percentages.get(i);
+            }
+            return new CourseMarkScores(size, ids, types, values);
+        }
+    }
+}
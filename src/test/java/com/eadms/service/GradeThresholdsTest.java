@@ -0,0 +1,97 @@
+package com.eadms.service;
+
+import com.eadms.entity.GradeBand;
+import com.eadms.entity.GradingScale;
+import com.eadms.entity.Marks;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradeThresholdsTest {
+    
+    // The ladder DataInitializer seeds as the default
+    private static final String[] STANDARD_LETTERS = {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "D-", "F"};
+    private static final double[] STANDARD_MINIMUMS = {90, 85, 80, 77, 73, 70, 67, 63, 60, 57, 53, 50, 0};
+    private static final double[] STANDARD_POINTS = {4.0, 4.0, 3.7, 3.3, 3.0, 2.7, 2.3, 2.0, 1.7, 1.3, 1.0, 0.7, 0.0};
+    
+    @Test
+    void everyExactMinimumEarnsItsOwnBand() {
+        GradeThresholds thresholds = new GradeThresholds(scale(STANDARD_LETTERS, STANDARD_MINIMUMS, STANDARD_POINTS));
+        
+        for (int i = 0; i < STANDARD_LETTERS.length; i++) {
+            assertThat(thresholds.grade(STANDARD_MINIMUMS[i]))
+                    .isEqualTo(new GradeThresholds.Grade(STANDARD_LETTERS[i], STANDARD_POINTS[i]));
+        }
+        assertThat(thresholds.grade(100).letterGrade()).isEqualTo("A+");
+    }
+    
+    @Test
+    void justBelowAMinimumFallsToTheBandUnderIt() {
+        GradeThresholds thresholds = new GradeThresholds(scale(STANDARD_LETTERS, STANDARD_MINIMUMS, STANDARD_POINTS));
+        
+        assertThat(thresholds.grade(89.99).letterGrade()).isEqualTo("A");
+        assertThat(thresholds.grade(76.99).letterGrade()).isEqualTo("B");
+        assertThat(thresholds.grade(77).letterGrade()).isEqualTo("B+");
+        assertThat(thresholds.grade(49.99).letterGrade()).isEqualTo("F");
+    }
+    
+    @Test
+    void aScaleWithBPlusAt75SplitsThere() {
+        // The frontend's ladder, which a course can adopt as its own scale
+        GradeThresholds thresholds = new GradeThresholds(scale(
+                new String[] {"A", "B+", "B", "C", "F"},
+                new double[] {85, 75, 65, 50, 0},
+                new double[] {4.0, 3.5, 3.0, 2.0, 0.0}));
+        
+        assertThat(thresholds.grade(74.99)).isEqualTo(new GradeThresholds.Grade("B", 3.0));
+        assertThat(thresholds.grade(75)).isEqualTo(new GradeThresholds.Grade("B+", 3.5));
+        assertThat(thresholds.grade(84.99)).isEqualTo(new GradeThresholds.Grade("B+", 3.5));
+    }
+    
+    @Test
+    void percentagesBelowEveryMinimumGetTheLowestBand() {
+        // No band starts at 0
+        GradeThresholds thresholds = new GradeThresholds(scale(
+                new String[] {"PASS", "MERIT", "FAIL"},
+                new double[] {50, 70, 20},
+                new double[] {2.0, 3.0, 0.0}));
+        
+        assertThat(thresholds.grade(19.99)).isEqualTo(new GradeThresholds.Grade("FAIL", 0.0));
+        assertThat(thresholds.grade(-5)).isEqualTo(new GradeThresholds.Grade("FAIL", 0.0));
+        assertThat(thresholds.grade(20)).isEqualTo(new GradeThresholds.Grade("FAIL", 0.0));
+        assertThat(thresholds.grade(69.99).letterGrade()).isEqualTo("PASS");
+        assertThat(thresholds.grade(70).letterGrade()).isEqualTo("MERIT");
+    }
+    
+    @Test
+    void aSingleBandGradesEverything() {
+        GradeThresholds thresholds = new GradeThresholds(scale(new String[] {"P"}, new double[] {0}, new double[] {1.0}));
+        
+        assertThat(thresholds.grade(0).letterGrade()).isEqualTo("P");
+        assertThat(thresholds.grade(100).letterGrade()).isEqualTo("P");
+    }
+    
+    @Test
+    void unweightedExamTypesWeighNothing() {
+        GradingScale scale = scale(new String[] {"P"}, new double[] {0}, new double[] {1.0});
+        scale.getExamWeights().put(Marks.ExamType.FINAL, 60.0);
+        
+        GradeThresholds thresholds = new GradeThresholds(scale);
+        
+        assertThat(thresholds.name()).isEqualTo("Test");
+        assertThat(thresholds.weight(Marks.ExamType.FINAL)).isEqualTo(60.0);
+        assertThat(thresholds.weight(Marks.ExamType.QUIZ)).isZero();
+    }
+    
+    private static GradingScale scale(String[] letters, double[] minimums, double[] points) {
+        GradingScale scale = GradingScale.builder().name("Test").build();
+        for (int i = 0; i < letters.length; i++) {
+            scale.getBands().add(GradeBand.builder()
+                    .minPercentage(minimums[i])
+                    .letterGrade(letters[i])
+                    .gradePoints(points[i])
+                    .build());
+        }
+        return scale;
+    }
+}
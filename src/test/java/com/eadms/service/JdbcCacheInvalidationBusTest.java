@@ -0,0 +1,132 @@
+package com.eadms.service;
+
+import com.eadms.service.CacheInvalidationBus.Invalidation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the bus against its own in-memory database created from the V7 migration, with a peer row
+ * written straight into the table whenever another instance is needed.
+ */
+class JdbcCacheInvalidationBusTest {
+    
+    private static final long GRACE_MS = 5_000;
+    
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private JdbcCacheInvalidationBus bus;
+    private final List<Invalidation> delivered = new CopyOnWriteArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:bus-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V7__add_cache_invalidations.sql"))
+                .execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        bus = new JdbcCacheInvalidationBus(jdbcTemplate, transactionManager, GRACE_MS, 60);
+        bus.subscribe(delivered::add);
+    }
+    
+    @Test
+    void publishDeliversLocallyAndIsNotReappliedFromTheTable() {
+        bus.publish(new Invalidation("courses", 7L));
+        
+        assertThat(delivered).containsExactly(new Invalidation("courses", 7L));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cache_invalidations WHERE created_at IS NOT NULL",
+                Integer.class)).isEqualTo(1);
+        bus.poll();
+        assertThat(delivered).hasSize(1);
+    }
+    
+    @Test
+    void peerRowsAreDeliveredOnceAcrossOverlappingPolls() {
+        bus.poll();
+        peerRow("courses", 7L, 0);
+        peerRow("users", null, 0);
+        
+        bus.poll();
+        bus.poll();
+        bus.poll();
+        
+        assertThat(delivered).containsExactly(new Invalidation("courses", 7L), new Invalidation("users", null));
+    }
+    
+    @Test
+    void rowsCommittedLateAreCaughtWithinTheGracePeriod() {
+        bus.poll();
+        // Stamped before the last poll, as a long transaction's row would be, but visible only now
+        peerRow("courses", 1L, -2);
+        peerRow("courses", 2L, -20);
+        
+        bus.poll();
+        
+        assertThat(delivered).containsExactly(new Invalidation("courses", 1L));
+    }
+    
+    @Test
+    void firstPollLooksBackOneGracePeriod() {
+        peerRow("teachers", 3L, -2);
+        peerRow("teachers", 4L, -20);
+        
+        bus.poll();
+        
+        assertThat(delivered).containsExactly(new Invalidation("teachers", 3L));
+    }
+    
+    @Test
+    void publishFromAnAfterCommitCallbackIsCommitted() {
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        outer.executeWithoutResult(status -> TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        bus.publish(new Invalidation("courses", 9L));
+                    }
+                }));
+        
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cache_invalidations", Integer.class)).isEqualTo(1);
+    }
+    
+    @Test
+    void publishOutlivesTheCallersRollback() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bus.publish(new Invalidation("courses", 9L));
+            status.setRollbackOnly();
+        });
+        
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cache_invalidations", Integer.class)).isEqualTo(1);
+    }
+    
+    @Test
+    void failedBroadcastStillInvalidatesLocally() {
+        jdbcTemplate.execute("DROP TABLE cache_invalidations");
+        
+        bus.publish(new Invalidation("courses", 7L));
+        bus.poll();
+        
+        assertThat(delivered).containsExactly(new Invalidation("courses", 7L));
+    }
+    
+    // A row another instance wrote, stamped secondsAgo from the database clock
+    private void peerRow(String region, Long key, int secondsAgo) {
+        jdbcTemplate.update("INSERT INTO cache_invalidations (region, entry_key, origin, created_at) "
+                        + "VALUES (?, ?, ?, DATEADD(SECOND, ?, LOCALTIMESTAMP))",
+                region, key, "peer", secondsAgo);
+    }
+}
@@ -0,0 +1,95 @@
+package com.eadms.service;
+
+import com.eadms.dto.response.BulkMarksImportResponse;
+import com.eadms.entity.Course;
+import com.eadms.entity.Student;
+import com.eadms.exception.BadRequestException;
+import com.eadms.repository.MarksRepository;
+import com.eadms.support.StatementCounter;
+import com.eadms.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Bulk marks imports larger than one chunk, so rows are checked and inserted while the upload is read.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+// The same context as the other in-memory suites, which share its database
+@Import({TestData.class, StatementCounter.class})
+class MarksImportTest {
+    
+    private static final String HEADER = "studentId,courseId,examType,marksObtained,maxMarks,examDate\n";
+    
+    @Autowired
+    private MarksService marksService;
+    
+    @Autowired
+    private MarksRepository marksRepository;
+    
+    @Autowired
+    private TestData testData;
+    
+    @Test
+    void rowsAcrossSeveralChunksAreImportedWithErrorsInRowOrder() {
+        Course course = testData.course(testData.teacher());
+        Student student = testData.student();
+        int rows = MarksServiceImpl.IMPORT_CHUNK_SIZE * 2 + 500;
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int row = 1; row <= rows; row++) {
+            long studentId = row == 1_500 ? -1 : student.getId();
+            long courseId = row == 2_200 ? -1 : course.getId();
+            String examType = row == 10 ? "ORAL" : "QUIZ";
+            csv.append(studentId).append(',').append(courseId).append(',').append(examType).append(",7,10,2026-05-04\n");
+        }
+        
+        BulkMarksImportResponse response = marksService.importMarksFromCsv(stream(csv.toString()));
+        
+        assertThat(response.getTotalRows()).isEqualTo(rows);
+        assertThat(response.getImported()).isEqualTo(rows - 3);
+        assertThat(response.getErrors())
+                .extracting(BulkMarksImportResponse.RowError::getRow)
+                .containsExactly(10, 1_500, 2_200);
+        assertThat(response.getErrors().get(1).getMessage()).isEqualTo("Student not found with id: -1");
+        assertThat(response.getErrors().get(2).getMessage()).isEqualTo("Course not found with id: -1");
+        assertThat(marksRepository.findByCourseId(course.getId())).hasSize(rows - 3);
+    }
+    
+    @Test
+    void fullChunksAreSavedBeforeTheUploadEnds() {
+        Course course = testData.course(testData.teacher());
+        Student student = testData.student();
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int row = 0; row < MarksServiceImpl.IMPORT_CHUNK_SIZE + 200; row++) {
+            csv.append(student.getId()).append(',').append(course.getId()).append(",QUIZ,7,10,2026-05-04\n");
+        }
+        // The upload breaks off after the first chunk
+        InputStream broken = new SequenceInputStream(stream(csv.toString()), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+        
+        assertThatThrownBy(() -> marksService.importMarksFromCsv(broken))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Connection reset");
+        assertThat(marksRepository.findByCourseId(course.getId())).hasSize(MarksServiceImpl.IMPORT_CHUNK_SIZE);
+    }
+    
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,95 @@
+package com.eadms.service;
+
+import com.eadms.entity.Course;
+import com.eadms.entity.Enrollment;
+import com.eadms.entity.Student;
+import com.eadms.entity.Teacher;
+import com.eadms.support.StatementCounter;
+import com.eadms.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+// The same context as the other in-memory suites, which share its database
+@Import({TestData.class, StatementCounter.class})
+class ResourceVersionServiceTest {
+    
+    // Stamped on every row a test compares, so neither the latest timestamp nor the count tells sets apart
+    private static final Timestamp STAMP = Timestamp.valueOf(LocalDateTime.of(2026, 1, 5, 9, 0));
+    
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+    
+    @Autowired
+    private TestData testData;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void unchangedRowsKeepTheirTag() {
+        Teacher teacher = testData.teacher();
+        Course course = testData.course(teacher);
+        testData.enroll(testData.student(), course);
+        
+        assertThat(resourceVersionService.studentsOfCourse(course.getId()))
+                .isEqualTo(resourceVersionService.studentsOfCourse(course.getId()));
+    }
+    
+    @Test
+    void swappingRowsWithTheSameCountAndIdSumChangesTheTag() {
+        Course course = testData.course(testData.teacher());
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            students.add(testData.student());
+        }
+        long[] ids = students.stream().mapToLong(Student::getId).toArray();
+        assertThat(ids[0] + ids[3]).as("outer and inner id sums").isEqualTo(ids[1] + ids[2]);
+        for (Student student : students) {
+            jdbcTemplate.update("UPDATE students SET updated_at = ? WHERE id = ?", STAMP, student.getId());
+            jdbcTemplate.update("UPDATE users SET updated_at = ? WHERE id = ?", STAMP, student.getUser().getId());
+        }
+        Enrollment first = testData.enroll(students.get(0), course);
+        Enrollment last = testData.enroll(students.get(3), course);
+        String outer = resourceVersionService.studentsOfCourse(course.getId());
+        
+        drop(first);
+        drop(last);
+        testData.enroll(students.get(1), course);
+        testData.enroll(students.get(2), course);
+        
+        assertThat(resourceVersionService.studentsOfCourse(course.getId())).isNotEqualTo(outer);
+    }
+    
+    @Test
+    void reassigningACourseBetweenTeachersChangesTheTag() {
+        Teacher teacher = testData.teacher();
+        Teacher other = testData.teacher();
+        Course course = testData.course(teacher);
+        jdbcTemplate.update("UPDATE teachers SET updated_at = ? WHERE id IN (?, ?)", STAMP, teacher.getId(), other.getId());
+        jdbcTemplate.update("UPDATE courses SET updated_at = ? WHERE id = ?", STAMP, course.getId());
+        String before = resourceVersionService.courses();
+        
+        // A join-table write that touches neither side's timestamp
+        jdbcTemplate.update("UPDATE course_teachers SET teacher_id = ? WHERE course_id = ?", other.getId(), course.getId());
+        
+        assertThat(resourceVersionService.courses()).isNotEqualTo(before);
+    }
+    
+    private void drop(Enrollment enrollment) {
+        jdbcTemplate.update("UPDATE enrollments SET status = ? WHERE id = ?",
+                Enrollment.EnrollmentStatus.DROPPED.name(), enrollment.getId());
+    }
+}
@@ -0,0 +1,194 @@
+package com.eadms.service;
+
+import com.eadms.dto.response.RiskScanResponse;
+import com.eadms.exception.BadRequestException;
+import com.eadms.repository.RiskFlagBulkRepository;
+import com.eadms.repository.RiskFlagRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The job over a fake repository whose scan replays hand-written rows, with the real rules.
+ */
+class RiskDetectionJobTest {
+    
+    private static final int NO_MARK = -1;
+    
+    private final FakeRepository repository = new FakeRepository();
+    private RiskDetectionJob job;
+    
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+    }
+    
+    @Test
+    void eachCourseIsCutOffAndWrittenWithItsOwnFlags() {
+        repository.rows = handler -> {
+            // Course 10: student 1 at 2 of 10 sessions with two marks, student 2 attending
+            handler.onRow(10, 1, 2, 10, 0, 50);
+            handler.onRow(10, 1, 2, 10, 1, 40);
+            handler.onRow(10, 2, 10, 10, NO_MARK, 0);
+            // Course 20: student 1 again, now attending
+            handler.onRow(20, 1, 9, 10, NO_MARK, 0);
+            // Course 30: student 3 absent throughout
+            handler.onRow(30, 3, 0, 6, NO_MARK, 0);
+        };
+        repository.clearedPerCourse = 1;
+        repository.swept = 4;
+        job = job(2);
+        
+        RiskScanResponse response = job.run();
+        
+        assertThat(repository.written).containsOnlyKeys(10L, 20L, 30L);
+        assertThat(repository.written.get(10L)).extracting(RiskFlagBulkRepository.Flag::studentId).containsExactly(1L);
+        assertThat(repository.written.get(20L)).isEmpty();
+        assertThat(repository.written.get(30L)).extracting(RiskFlagBulkRepository.Flag::studentId).containsExactly(3L);
+        assertThat(repository.detectedAt).hasSize(1);
+        assertThat(repository.sweptBefore).isEqualTo(repository.detectedAt.iterator().next());
+        assertThat(response.getCoursesScanned()).isEqualTo(3);
+        assertThat(response.getEnrollmentsScanned()).isEqualTo(4);
+        assertThat(response.getMarksScanned()).isEqualTo(2);
+        assertThat(response.getFlagsRaised()).isEqualTo(2);
+        assertThat(response.getFlagsCleared()).isEqualTo(3 + 4);
+    }
+    
+    @Test
+    void manyCoursesOnFewWorkersAreAllWritten() {
+        repository.rows = handler -> {
+            for (long course = 1; course <= 200; course++) {
+                handler.onRow(course, course, 0, 10, NO_MARK, 0);
+            }
+        };
+        job = job(2);
+        
+        RiskScanResponse response = job.run();
+        
+        assertThat(repository.written).hasSize(200);
+        assertThat(response.getFlagsRaised()).isEqualTo(200);
+    }
+    
+    @Test
+    void failedCourseWriteSkipsTheSweep() {
+        repository.rows = handler -> {
+            handler.onRow(10, 1, 0, 10, NO_MARK, 0);
+            handler.onRow(20, 2, 0, 10, NO_MARK, 0);
+            handler.onRow(30, 3, 0, 10, NO_MARK, 0);
+        };
+        repository.failingCourse = 20L;
+        job = job(2);
+        
+        assertThatThrownBy(() -> job.run()).hasMessageContaining("course 20");
+        
+        assertThat(repository.written).containsOnlyKeys(10L, 30L);
+        assertThat(repository.sweptBefore).isNull();
+    }
+    
+    @Test
+    void failedScanWaitsForSubmittedCoursesAndSkipsTheSweep() {
+        repository.rows = handler -> {
+            handler.onRow(10, 1, 0, 10, NO_MARK, 0);
+            handler.onRow(20, 2, 0, 10, NO_MARK, 0);
+            throw new IllegalStateException("cursor lost");
+        };
+        job = job(2);
+        
+        assertThatThrownBy(() -> job.run()).isInstanceOf(IllegalStateException.class).hasMessage("cursor lost");
+        
+        // Course 10 was complete when course 20 started; course 20 never ended
+        assertThat(repository.written).containsOnlyKeys(10L);
+        assertThat(repository.sweptBefore).isNull();
+    }
+    
+    @Test
+    void secondRunIsRejectedWhileOneIsInProgress() throws Exception {
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        repository.rows = handler -> {
+            scanning.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        job = job(1);
+        CompletableFuture<RiskScanResponse> first = CompletableFuture.supplyAsync(job::run);
+        assertThat(scanning.await(10, TimeUnit.SECONDS)).isTrue();
+        
+        assertThatThrownBy(() -> job.run())
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("A risk detection run is already in progress");
+        release.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS).getCoursesScanned()).isZero();
+        // The flag is released once the first run ends
+        job.run();
+    }
+    
+    private RiskDetectionJob job(int parallelism) {
+        return new RiskDetectionJob(repository.proxy(), new RiskRules("LOW_ATTENDANCE", 75, 5, 3, 5, 0.5), parallelism);
+    }
+    
+    // Implements the bulk half of the repository; the JPA methods are not used by the job
+    private static class FakeRepository implements RiskFlagBulkRepository {
+        
+        private Consumer<ScanHandler> rows = handler -> {
+        };
+        private Long failingCourse;
+        private int clearedPerCourse;
+        private int swept;
+        private final Map<Long, List<Flag>> written = new ConcurrentHashMap<>();
+        private final Set<LocalDateTime> detectedAt = ConcurrentHashMap.newKeySet();
+        private volatile LocalDateTime sweptBefore;
+        
+        RiskFlagRepository proxy() {
+            return (RiskFlagRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{RiskFlagRepository.class}, (proxy, method, args) -> {
+                        if (method.getDeclaringClass() != RiskFlagBulkRepository.class) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        try {
+                            return method.invoke(this, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+        
+        @Override
+        public void scanActiveEnrollments(ScanHandler handler) {
+            rows.accept(handler);
+        }
+        
+        @Override
+        public int replaceCourseFlags(long courseId, List<Flag> flags, LocalDateTime detectedAt) {
+            if (failingCourse != null && failingCourse == courseId) {
+                throw new IllegalStateException("Write failed for course " + courseId);
+            }
+            written.put(courseId, flags);
+            this.detectedAt.add(detectedAt);
+            return clearedPerCourse;
+        }
+        
+        @Override
+        public int deleteDetectedBefore(LocalDateTime detectedAt) {
+            sweptBefore = detectedAt;
+            return swept;
+        }
+    }
+}
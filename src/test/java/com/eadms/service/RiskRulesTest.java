@@ -0,0 +1,123 @@
+package com.eadms.service;
+
+import com.eadms.entity.Marks;
+import com.eadms.entity.RiskFlag;
+import com.eadms.repository.RiskFlagBulkRepository.Flag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class RiskRulesTest {
+    
+    private static final int NO_MARK = -1;
+    private static final int MIDTERM = Marks.ExamType.MIDTERM.ordinal();
+    private static final int FINAL = Marks.ExamType.FINAL.ordinal();
+    private static final int QUIZ = Marks.ExamType.QUIZ.ordinal();
+    
+    @Test
+    void attendanceBelowTheMinimumIsFlaggedOnceThereAreEnoughSessions() {
+        CourseRiskPartition course = new CourseRiskPartition(1);
+        course.add(1, 3, 5, NO_MARK, 0);
+        course.add(2, 15, 20, NO_MARK, 0);
+        course.add(3, 0, 4, NO_MARK, 0);
+        
+        assertThat(rules("LOW_ATTENDANCE").evaluate(course))
+                .extracting(Flag::studentId, Flag::rule, Flag::metric, Flag::detail)
+                .containsExactly(tuple(1L, RiskFlag.Rule.LOW_ATTENDANCE, 60.0, "Present at 3 of 5 sessions (60.0%)"));
+    }
+    
+    @Test
+    void steadilyFallingMarksAreFlaggedWithTheirSlope() {
+        CourseRiskPartition course = new CourseRiskPartition(1);
+        marks(course, 1, 90, 80, 70);
+        // Exactly the configured drop per exam
+        marks(course, 2, 80, 75, 70);
+        marks(course, 3, 80, 76, 72);
+        
+        assertThat(rules("FALLING_MARKS").evaluate(course))
+                .extracting(Flag::studentId, Flag::metric, Flag::detail)
+                .containsExactly(
+                        tuple(1L, -10.0, "Marks falling 10.0 points per exam over 3 exams (90.0% to 70.0%)"),
+                        tuple(2L, -5.0, "Marks falling 5.0 points per exam over 3 exams (80.0% to 70.0%)"));
+    }
+    
+    @Test
+    void slopeIsTheLeastSquaresFitNotTheFirstToLastDrop() {
+        CourseRiskPartition course = new CourseRiskPartition(1);
+        // Fit slope -10 although the first and last marks are only 20 apart over 3 steps
+        marks(course, 1, 60, 90, 50, 40);
+        // A late recovery: the fit rises though the last mark is lower than the first
+        marks(course, 2, 70, 20, 60, 65);
+        
+        assertThat(rules("FALLING_MARKS").evaluate(course))
+                .extracting(Flag::studentId, Flag::metric)
+                .containsExactly(tuple(1L, -10.0));
+    }
+    
+    @Test
+    void tooFewMarksAreNotATrend() {
+        CourseRiskPartition course = new CourseRiskPartition(1);
+        marks(course, 1, 100, 10);
+        
+        assertThat(rules("FALLING_MARKS").evaluate(course)).isEmpty();
+    }
+    
+    @Test
+    void examTypesMostStudentsTookAreRequiredOfEveryone() {
+        CourseRiskPartition course = new CourseRiskPartition(1);
+        course.add(1, 0, 0, MIDTERM, 50);
+        course.add(1, 0, 0, FINAL, 50);
+        course.add(1, 0, 0, QUIZ, 50);
+        course.add(2, 0, 0, MIDTERM, 50);
+        course.add(2, 0, 0, FINAL, 50);
+        course.add(2, 0, 0, QUIZ, 50);
+        course.add(3, 0, 0, MIDTERM, 50);
+        course.add(3, 0, 0, FINAL, 50);
+        course.add(4, 0, 0, NO_MARK, 0);
+        
+        // MIDTERM and FINAL: 3 of 4 students, over the half quorum; QUIZ: 2 of 4, not over it
+        assertThat(rules("MISSING_EXAMS").evaluate(course))
+                .extracting(Flag::studentId, Flag::metric, Flag::detail)
+                .containsExactly(tuple(4L, 2.0, "No mark for MIDTERM, FINAL"));
+    }
+    
+    @Test
+    void noExamIsRequiredBeforeTheQuorumHasOne() {
+        CourseRiskPartition course = new CourseRiskPartition(1);
+        course.add(1, 0, 0, FINAL, 50);
+        course.add(2, 0, 0, NO_MARK, 0);
+        
+        assertThat(rules("MISSING_EXAMS").evaluate(course)).isEmpty();
+    }
+    
+    @Test
+    void onlyEnabledRulesRunAndNamesAreForgiving() {
+        CourseRiskPartition course = new CourseRiskPartition(1);
+        course.add(1, 0, 10, MIDTERM, 90);
+        course.add(1, 0, 10, FINAL, 60);
+        course.add(1, 0, 10, QUIZ, 30);
+        course.add(2, 10, 10, NO_MARK, 0);
+        
+        assertThat(rules("").evaluate(course)).isEmpty();
+        assertThat(rules(" falling_marks , missing_exams").evaluate(course))
+                .extracting(Flag::studentId, Flag::rule)
+                .containsExactly(tuple(1L, RiskFlag.Rule.FALLING_MARKS));
+        assertThat(rules("LOW_ATTENDANCE,FALLING_MARKS,MISSING_EXAMS").evaluate(course))
+                .extracting(Flag::studentId, Flag::rule)
+                .containsExactly(tuple(1L, RiskFlag.Rule.LOW_ATTENDANCE), tuple(1L, RiskFlag.Rule.FALLING_MARKS));
+    }
+    
+    // The application defaults: 75% over 5 sessions, 5 points per exam over 3 marks, half the class
+    private static RiskRules rules(String enabled) {
+        return new RiskRules(enabled, 75, 5, 3, 5, 0.5);
+    }
+    
+    private static void marks(CourseRiskPartition course, long studentId, double... percentages) {
+        for (double percentage : percentages) {
+            course.add(studentId, 10, 10, QUIZ, percentage);
+        }
+    }
+}
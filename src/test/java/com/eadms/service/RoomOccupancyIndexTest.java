@@ -0,0 +1,161 @@
+package com.eadms.service;
+
+import com.eadms.dto.projection.ScheduleSlot;
+import com.eadms.entity.Schedule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class RoomOccupancyIndexTest {
+    
+    // A Monday
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+    
+    private final RoomOccupancyIndex index = new RoomOccupancyIndex();
+    
+    @Test
+    void bookingEndingOnTheHourLeavesTheNextSlotFree() {
+        index.add(once(1, "A1", MONDAY.atTime(9, 0), MONDAY.atTime(10, 0)));
+        
+        assertThat(free(MONDAY, 8, 12, 60, false))
+                .containsExactly(stretch("8:00", "9:00"), stretch("10:00", "12:00"));
+    }
+    
+    @Test
+    void oddMinutesRoundOutToWholeSlots() {
+        index.add(once(1, "A1", MONDAY.atTime(9, 3), MONDAY.atTime(10, 5)));
+        index.add(once(2, "A1", MONDAY.atTime(11, 0), MONDAY.atTime(11, 1)));
+        
+        assertThat(free(MONDAY, 8, 12, 5, false))
+                .containsExactly(stretch("8:00", "9:00"), stretch("10:05", "11:00"), stretch("11:05", "12:00"));
+    }
+    
+    @Test
+    void stretchesShorterThanTheRequestAreLeftOut() {
+        index.add(once(1, "A1", MONDAY.atTime(9, 0), MONDAY.atTime(10, 0)));
+        index.add(once(2, "A1", MONDAY.atTime(10, 55), MONDAY.atTime(12, 0)));
+        
+        assertThat(free(MONDAY, 8, 12, 56, false)).containsExactly(stretch("8:00", "9:00"));
+        assertThat(free(MONDAY, 8, 12, 55, false)).containsExactly(stretch("8:00", "9:00"), stretch("10:00", "10:55"));
+    }
+    
+    @Test
+    void searchWindowIsShrunkToWholeSlots() {
+        index.add(once(1, "A1", MONDAY.atTime(20, 0), MONDAY.atTime(21, 0)));
+        
+        List<RoomOccupancyIndex.FreeSlot> free = index.findFreeSlots(MONDAY, LocalTime.of(8, 2), LocalTime.of(11, 58),
+                5, false, List.of("A1"));
+        
+        assertThat(free).extracting(RoomOccupancyIndex.FreeSlot::start, RoomOccupancyIndex.FreeSlot::end)
+                .containsExactly(tuple(MONDAY.atTime(8, 5), MONDAY.atTime(11, 55)));
+    }
+    
+    @Test
+    void bookingsAcrossMidnightOccupyBothDays() {
+        index.add(once(1, "A1", MONDAY.atTime(23, 0), MONDAY.plusDays(1).atTime(1, 0)));
+        
+        assertThat(index.findFreeSlots(MONDAY, LocalTime.of(20, 0), LocalTime.MIDNIGHT, 5, false, List.of("A1")))
+                .extracting(RoomOccupancyIndex.FreeSlot::start, RoomOccupancyIndex.FreeSlot::end)
+                .containsExactly(tuple(MONDAY.atTime(20, 0), MONDAY.atTime(23, 0)));
+        assertThat(index.findFreeSlots(MONDAY.plusDays(1), LocalTime.MIN, LocalTime.of(3, 0), 5, false, List.of("A1")))
+                .extracting(RoomOccupancyIndex.FreeSlot::start, RoomOccupancyIndex.FreeSlot::end)
+                .containsExactly(tuple(MONDAY.plusDays(1).atTime(1, 0), MONDAY.plusDays(1).atTime(3, 0)));
+    }
+    
+    @Test
+    void bookingEndingAtMidnightLeavesTheNextDayFree() {
+        index.add(once(1, "A1", MONDAY.atTime(22, 0), MONDAY.plusDays(1).atStartOfDay()));
+        
+        assertThat(index.findFreeSlots(MONDAY, LocalTime.of(20, 0), LocalTime.MIDNIGHT, 5, false, List.of("A1")))
+                .extracting(RoomOccupancyIndex.FreeSlot::end)
+                .containsExactly(MONDAY.atTime(22, 0));
+        assertThat(index.findFreeSlots(MONDAY.plusDays(1), LocalTime.MIN, LocalTime.of(1, 0), 60, false, List.of("A1")))
+                .hasSize(1);
+    }
+    
+    @Test
+    void singleDayIsBlockedOnlyByWeeklySeriesAlreadyRunning() {
+        index.add(weekly(1, "A1", MONDAY.plusWeeks(2).atTime(9, 0), 60));
+        
+        assertThat(free(MONDAY, 9, 10, 60, false)).hasSize(1);
+        assertThat(free(MONDAY.plusWeeks(2), 9, 10, 60, false)).isEmpty();
+        assertThat(free(MONDAY.plusWeeks(7), 9, 10, 60, false)).isEmpty();
+        // Other weekdays are untouched
+        assertThat(free(MONDAY.plusWeeks(7).plusDays(1), 9, 10, 60, false)).hasSize(1);
+    }
+    
+    @Test
+    void recurringSearchAvoidsEverySeriesAndLaterOneOffsOnThatWeekday() {
+        index.add(weekly(1, "A1", MONDAY.plusWeeks(2).atTime(9, 0), 60));
+        index.add(once(2, "A1", MONDAY.plusWeeks(1).atTime(14, 0), MONDAY.plusWeeks(1).atTime(15, 0)));
+        index.add(once(3, "A1", MONDAY.plusDays(1).atTime(16, 0), MONDAY.plusDays(1).atTime(17, 0)));
+        
+        // A new weekly series from this Monday would meet the later series and the one-off next Monday
+        assertThat(free(MONDAY, 8, 18, 60, true))
+                .containsExactly(stretch("8:00", "9:00"), stretch("10:00", "14:00"), stretch("15:00", "18:00"));
+        // A single day only sees what is booked on it
+        assertThat(free(MONDAY, 8, 18, 60, false)).containsExactly(stretch("8:00", "18:00"));
+        // From two weeks on the one-off is in the past
+        assertThat(free(MONDAY.plusWeeks(2), 8, 18, 60, true))
+                .containsExactly(stretch("8:00", "9:00"), stretch("10:00", "18:00"));
+    }
+    
+    @Test
+    void roomsAreMatchedIgnoringCaseAndUnbookedNamedRoomsAreFree() {
+        index.add(once(1, "Lab B", MONDAY.atTime(9, 0), MONDAY.atTime(12, 0)));
+        index.add(once(2, "lab a", MONDAY.atTime(8, 0), MONDAY.atTime(9, 0)));
+        
+        assertThat(index.roomNames()).containsExactly("lab a", "Lab B");
+        assertThat(index.findFreeSlots(MONDAY, LocalTime.of(8, 0), LocalTime.of(12, 0), 60, false, null))
+                .extracting(RoomOccupancyIndex.FreeSlot::room, RoomOccupancyIndex.FreeSlot::start)
+                .containsExactly(tuple("lab a", MONDAY.atTime(9, 0)), tuple("Lab B", MONDAY.atTime(8, 0)));
+        assertThat(index.findFreeSlots(MONDAY, LocalTime.of(8, 0), LocalTime.of(12, 0), 60, false, List.of(" LAB B ", "Hall")))
+                .extracting(RoomOccupancyIndex.FreeSlot::room, RoomOccupancyIndex.FreeSlot::start, RoomOccupancyIndex.FreeSlot::end)
+                .containsExactly(tuple("Hall", MONDAY.atTime(8, 0), MONDAY.atTime(12, 0)),
+                        tuple("Lab B", MONDAY.atTime(8, 0), MONDAY.atTime(9, 0)));
+    }
+    
+    @Test
+    void removingTheLastBookingForgetsTheRoom() {
+        ScheduleSlot first = once(1, "A1", MONDAY.atTime(9, 0), MONDAY.atTime(10, 0));
+        ScheduleSlot second = weekly(2, "a1", MONDAY.atTime(14, 0), 60);
+        index.add(first);
+        index.add(second);
+        
+        index.remove(first);
+        assertThat(free(MONDAY, 8, 16, 60, false)).containsExactly(stretch("8:00", "14:00"), stretch("15:00", "16:00"));
+        
+        index.remove(second);
+        assertThat(index.roomCount()).isZero();
+    }
+    
+    private List<String> free(LocalDate date, int fromHour, int toHour, int minutes, boolean recurring) {
+        return index.findFreeSlots(date, LocalTime.of(fromHour, 0), LocalTime.of(toHour, 0), minutes, recurring, List.of("A1"))
+                .stream()
+                .map(slot -> stretch(slot.start().toLocalTime(), slot.end().toLocalTime()))
+                .toList();
+    }
+    
+    private static String stretch(String from, String to) {
+        return from + "-" + to;
+    }
+    
+    private static String stretch(LocalTime from, LocalTime to) {
+        return from.getHour() + ":" + String.format("%02d", from.getMinute()) + "-"
+                + to.getHour() + ":" + String.format("%02d", to.getMinute());
+    }
+    
+    private static ScheduleSlot once(long id, String room, LocalDateTime start, LocalDateTime end) {
+        return new ScheduleSlot(id, 100L, 10L, room, start, end, Schedule.RecurrenceType.NONE);
+    }
+    
+    private static ScheduleSlot weekly(long id, String room, LocalDateTime start, int minutes) {
+        return new ScheduleSlot(id, 100L, 10L, room, start, start.plusMinutes(minutes), Schedule.RecurrenceType.WEEKLY);
+    }
+}
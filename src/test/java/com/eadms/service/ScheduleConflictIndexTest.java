@@ -0,0 +1,192 @@
+package com.eadms.service;
+
+import com.eadms.dto.projection.ScheduleSlot;
+import com.eadms.entity.Schedule;
+import com.eadms.exception.ScheduleConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScheduleConflictIndexTest {
+    
+    // A Monday
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 3, 2, 0, 0);
+    
+    private final ScheduleConflictIndex index = new ScheduleConflictIndex(null, new RoomOccupancyIndex());
+    
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void teacherCannotBeDoubleBookedButBackToBackIsFine() {
+        index.reserve(once(1, 10L, "A1", MONDAY.withHour(9), 60));
+        
+        assertThatThrownBy(() -> index.reserve(once(2, 10L, "B2", MONDAY.withHour(9).plusMinutes(30), 60)))
+                .isInstanceOf(ScheduleConflictException.class)
+                .hasMessageContaining("The teacher is already booked by schedule 1");
+        index.reserve(once(3, 10L, "B2", MONDAY.withHour(10), 60));
+        index.reserve(once(4, 10L, "B2", MONDAY.withHour(8), 60));
+        
+        assertThat(index.size()).isEqualTo(3);
+    }
+    
+    @Test
+    void roomsMatchIgnoringCaseAndSurroundingSpace() {
+        index.reserve(once(1, 10L, "Lab 1", MONDAY.withHour(9), 60));
+        
+        List<ScheduleConflictIndex.Conflict> conflicts = index.findConflicts(once(2, 20L, " lab 1 ", MONDAY.withHour(9), 30));
+        
+        assertThat(conflicts).singleElement().satisfies(conflict -> {
+            assertThat(conflict.resource()).isEqualTo(ScheduleConflictIndex.Resource.ROOM);
+            assertThat(conflict.scheduleId()).isEqualTo(1L);
+        });
+        assertThat(index.isFree(once(3, 20L, "Lab 2", MONDAY.withHour(9), 30))).isTrue();
+    }
+    
+    @Test
+    void weeklySeriesClashesWithOneOffsFromItsFirstWeekOn() {
+        index.reserve(weekly(1, 10L, null, MONDAY.plusWeeks(2).withHour(9), 60));
+        
+        // Same weekday and time, before and after the series starts
+        assertThat(index.isFree(once(2, 10L, null, MONDAY.withHour(9), 60))).isTrue();
+        assertThat(index.isFree(once(3, 10L, null, MONDAY.plusWeeks(5).withHour(9).plusMinutes(59), 30))).isFalse();
+        // Another weekday never meets it
+        assertThat(index.isFree(once(4, 10L, null, MONDAY.plusWeeks(5).plusDays(1).withHour(9), 60))).isTrue();
+    }
+    
+    @Test
+    void weeklySeriesClashWheneverTheirWeekTimesOverlap() {
+        index.reserve(weekly(1, 10L, null, MONDAY.plusWeeks(10).withHour(9), 60));
+        
+        // A series that starts earlier still meets the other one once it has begun
+        assertThat(index.isFree(weekly(2, 10L, null, MONDAY.withHour(9).plusMinutes(30), 60))).isFalse();
+        assertThat(index.isFree(weekly(3, 10L, null, MONDAY.withHour(10), 60))).isTrue();
+    }
+    
+    @Test
+    void bookingsWrappingPastSundayMidnightMeetMondayMorning() {
+        LocalDateTime sundayNight = MONDAY.plusDays(6).withHour(23);
+        index.reserve(weekly(1, 10L, null, sundayNight, 120));
+        
+        assertThat(index.isFree(weekly(2, 10L, null, MONDAY.plusWeeks(1).withHour(0).plusMinutes(30), 30))).isFalse();
+        assertThat(index.isFree(weekly(3, 10L, null, MONDAY.plusWeeks(1).withHour(1), 30))).isTrue();
+        assertThat(index.isFree(weekly(4, 10L, null, MONDAY.plusDays(6).withHour(22), 60))).isTrue();
+    }
+    
+    @Test
+    void movingAScheduleReplacesItsOwnBooking() {
+        index.reserve(once(1, 10L, "A1", MONDAY.withHour(9), 60));
+        
+        index.reserve(once(1, 10L, "A1", MONDAY.withHour(9).plusMinutes(30), 60));
+        
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.isFree(once(2, 10L, "A1", MONDAY.withHour(9), 30))).isTrue();
+        assertThat(index.isFree(once(2, 10L, "A1", MONDAY.withHour(10), 30))).isFalse();
+    }
+    
+    @Test
+    void rollbackRestoresThePreviousBooking() {
+        index.reserve(once(1, 10L, "A1", MONDAY.withHour(9), 60));
+        
+        TransactionSynchronizationManager.initSynchronization();
+        index.reserve(once(1, 10L, "A1", MONDAY.withHour(14), 60));
+        index.reserve(once(2, 20L, "B2", MONDAY.withHour(16), 60));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.isFree(once(3, 10L, null, MONDAY.withHour(9), 30))).isFalse();
+        assertThat(index.isFree(once(3, 10L, null, MONDAY.withHour(14), 30))).isTrue();
+        assertThat(index.isFree(once(3, 20L, null, MONDAY.withHour(16), 30))).isTrue();
+    }
+    
+    @Test
+    void commitKeepsTheNewBookingAndReleasesTakeEffectThen() {
+        index.reserve(once(1, 10L, "A1", MONDAY.withHour(9), 60));
+        
+        TransactionSynchronizationManager.initSynchronization();
+        index.reserve(once(2, 20L, "B2", MONDAY.withHour(16), 60));
+        index.releaseAfterCommit(1L);
+        assertThat(index.isFree(once(3, 10L, null, MONDAY.withHour(9), 30))).isFalse();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        
+        assertThat(index.isFree(once(3, 10L, null, MONDAY.withHour(9), 30))).isTrue();
+        assertThat(index.isFree(once(3, 20L, null, MONDAY.withHour(16), 30))).isFalse();
+    }
+    
+    @Test
+    void releasingATeacherOrCourseDropsAllTheirBookings() {
+        index.reserve(new ScheduleSlot(1L, 100L, 10L, "A1", MONDAY.withHour(9), MONDAY.withHour(10), null));
+        index.reserve(new ScheduleSlot(2L, 200L, 10L, "A2", MONDAY.withHour(11), MONDAY.withHour(12), null));
+        index.reserve(new ScheduleSlot(3L, 200L, 20L, "A3", MONDAY.withHour(11), MONDAY.withHour(12), null));
+        
+        // Outside a transaction releases apply at once
+        index.releaseTeacherAfterCommit(10L);
+        assertThat(index.size()).isEqualTo(1);
+        index.releaseCourseAfterCommit(200L);
+        assertThat(index.size()).isZero();
+    }
+    
+    @Test
+    void batchRowsAreCheckedAgainstTheIndexAndEachOther() {
+        index.reserve(once(1, 10L, "A1", MONDAY.withHour(9), 60));
+        
+        List<List<ScheduleConflictIndex.Conflict>> results = index.validateBatch(Arrays.asList(
+                once(0, 10L, "B2", MONDAY.withHour(9), 60),
+                weekly(0, 20L, "C3", MONDAY.withHour(14), 60),
+                null,
+                once(0, 30L, "c3", MONDAY.plusWeeks(1).withHour(14).plusMinutes(30), 60)));
+        
+        assertThat(results).hasSize(4);
+        assertThat(results.get(0)).singleElement().satisfies(conflict -> assertThat(conflict.scheduleId()).isEqualTo(1L));
+        assertThat(results.get(1)).isEmpty();
+        assertThat(results.get(2)).isEmpty();
+        assertThat(results.get(3)).singleElement().satisfies(conflict -> {
+            assertThat(conflict.resource()).isEqualTo(ScheduleConflictIndex.Resource.ROOM);
+            assertThat(conflict.scheduleId()).isNull();
+            assertThat(conflict.batchRow()).isEqualTo(1);
+        });
+        // Nothing was booked
+        assertThat(index.size()).isEqualTo(1);
+    }
+    
+    @Test
+    void overlapsAppliesTheSameRulesToAnyTwoBookings() {
+        ScheduleSlot series = weekly(1, 10L, null, MONDAY.plusWeeks(2).withHour(9), 60);
+        
+        assertThat(ScheduleConflictIndex.overlaps(series, once(2, 20L, null, MONDAY.plusWeeks(3).withHour(9), 60))).isTrue();
+        assertThat(ScheduleConflictIndex.overlaps(series, once(2, 20L, null, MONDAY.withHour(9), 60))).isFalse();
+        assertThat(ScheduleConflictIndex.overlaps(
+                once(1, 10L, null, MONDAY.withHour(9), 60), once(2, 20L, null, MONDAY.plusWeeks(1).withHour(9), 60))).isFalse();
+        assertThat(ScheduleConflictIndex.overlaps(
+                once(1, 10L, null, MONDAY.withHour(9), 60), once(2, 20L, null, MONDAY.withHour(9).plusMinutes(59), 60))).isTrue();
+    }
+    
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+    
+    private static ScheduleSlot once(long id, Long teacherId, String room, LocalDateTime start, int minutes) {
+        return new ScheduleSlot(id, 100L, teacherId, room, start, start.plusMinutes(minutes), Schedule.RecurrenceType.NONE);
+    }
+    
+    private static ScheduleSlot weekly(long id, Long teacherId, String room, LocalDateTime start, int minutes) {
+        return new ScheduleSlot(id, 100L, teacherId, room, start, start.plusMinutes(minutes), Schedule.RecurrenceType.WEEKLY);
+    }
+}
@@ -0,0 +1,154 @@
+package com.eadms.service;
+
+import com.eadms.entity.Course;
+import com.eadms.entity.Schedule;
+import com.eadms.entity.Student;
+import com.eadms.entity.Teacher;
+import com.eadms.exception.BadRequestException;
+import com.eadms.repository.ScheduleRepository;
+import com.eadms.support.StatementCounter;
+import com.eadms.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The re-check a generated timetable goes through when it is saved, after the courses are locked.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+// The same context as the other in-memory suites, which share its database
+@Import({TestData.class, StatementCounter.class})
+class ScheduleServiceTimetableTest {
+    
+    // A Monday well away from the weekly classes other suites seed
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2030, 9, 2, 0, 0);
+    private static final AtomicInteger ROOMS = new AtomicInteger();
+    
+    @Autowired
+    private ScheduleService scheduleService;
+    
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+    
+    @Autowired
+    private TestData testData;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void unchangedCoursesAreSaved() {
+        Teacher teacher = testData.teacher();
+        Course course = testData.course(teacher);
+        
+        scheduleService.createTimetable(List.of(
+                session(course, teacher, MONDAY.withHour(9)),
+                session(course, teacher, MONDAY.plusDays(2).withHour(9))));
+        
+        assertThat(scheduleRepository.findScheduledCourseIds(List.of(course.getId()))).containsExactly(course.getId());
+        assertThat(scheduleRepository.findSlotsByCourseIds(List.of(course.getId()))).hasSize(2);
+    }
+    
+    @Test
+    void courseScheduledSincePlanningAbortsTheWholeTimetable() {
+        Teacher teacher = testData.teacher();
+        Course untouched = testData.course(teacher);
+        Course scheduled = testData.course(teacher);
+        testData.weeklyClass(scheduled, teacher);
+        
+        assertThatThrownBy(() -> scheduleService.createTimetable(List.of(
+                session(untouched, teacher, MONDAY.withHour(9)),
+                session(scheduled, teacher, MONDAY.withHour(11)))))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Courses scheduled since the timetable was planned: [" + scheduled.getId() + "]");
+        
+        assertThat(scheduleRepository.findScheduledCourseIds(List.of(untouched.getId()))).isEmpty();
+    }
+    
+    @Test
+    void classGivenToSharedStudentsSincePlanningAbortsTheTimetable() {
+        Teacher teacher = testData.teacher();
+        Teacher otherTeacher = testData.teacher();
+        Course planned = testData.course(teacher);
+        Course other = testData.course(otherTeacher);
+        Student student = testData.student();
+        testData.enroll(student, planned);
+        testData.enroll(student, other);
+        scheduleService.createSchedules(List.of(session(other, otherTeacher, MONDAY.withHour(9))));
+        
+        // A week later on the same weekday and time still meets the weekly class
+        assertThatThrownBy(() -> scheduleService.createTimetable(List.of(
+                session(planned, teacher, MONDAY.plusWeeks(1).withHour(9).plusMinutes(30)))))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Students of course " + planned.getId() + " now have a class in course " + other.getId());
+        assertThat(scheduleRepository.findScheduledCourseIds(List.of(planned.getId()))).isEmpty();
+        
+        scheduleService.createTimetable(List.of(session(planned, teacher, MONDAY.withHour(10))));
+        assertThat(scheduleRepository.findScheduledCourseIds(List.of(planned.getId()))).containsExactly(planned.getId());
+    }
+    
+    @Test
+    void secondTimetableForTheSameCourseWaitsForTheFirstAndIsRejected() throws Exception {
+        Teacher teacher = testData.teacher();
+        Course course = testData.course(teacher);
+        
+        CountDownLatch saved = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            scheduleService.createTimetable(List.of(session(course, teacher, MONDAY.withHour(9))));
+            saved.countDown();
+            await(release);
+        }));
+        assertThat(saved.await(10, TimeUnit.SECONDS)).isTrue();
+        
+        CompletableFuture<Void> second = CompletableFuture.runAsync(
+                () -> scheduleService.createTimetable(List.of(session(course, teacher, MONDAY.withHour(14)))));
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertThat(second).isNotDone();
+        
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> second.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(BadRequestException.class);
+        assertThat(scheduleRepository.findSlotsByCourseIds(List.of(course.getId())))
+                .singleElement()
+                .satisfies(slot -> assertThat(slot.startDateTime()).isEqualTo(MONDAY.withHour(9)));
+    }
+    
+    private static Schedule session(Course course, Teacher teacher, LocalDateTime start) {
+        return Schedule.builder()
+                .course(course)
+                .teacher(teacher)
+                .title(course.getCourseCode() + " session")
+                .startDateTime(start)
+                .endDateTime(start.plusMinutes(50))
+                .recurrence(Schedule.RecurrenceType.WEEKLY)
+                .location("TT-" + ROOMS.incrementAndGet())
+                .classType("LECTURE")
+                .build();
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.eadms.service;
+
+import com.eadms.EadmsApplication;
+import com.eadms.support.TestData;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Database statement rate under a steady mix of authenticated requests (/me, profiles, course lists),
+ * run once against the application with the second-level and query caches on and once with them off.
+ * Each run starts its own application on a random port and its own in-memory database, seeds the same
+ * data, warms up with one pass, then sends {@code benchmark.requests} requests (20k by default) from
+ * {@code benchmark.concurrency} client threads and prints statements per request and per second.
+ *
+ * Run with {@code mvn -Pbenchmark test -Dtest=SecondLevelCacheLoadBenchmark}.
+ */
+@Tag("benchmark")
+class SecondLevelCacheLoadBenchmark {
+    
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 50);
+    private static final int WORLD_SIZE = 20;
+    
+    private record Call(String path, String token) {
+    }
+    
+    private record Result(long requests, long statements, long nanos) {
+        
+        double statementsPerRequest() {
+            return (double) statements / requests;
+        }
+        
+        double statementsPerSecond() {
+            return statements / (nanos / 1_000_000_000.0);
+        }
+    }
+    
+    @Test
+    void databaseStatementRateWithAndWithoutTheSecondLevelCache() throws Exception {
+        Result cached = run("second-level cache on", true);
+        Result uncached = run("second-level cache off", false);
+        assertThat(cached.statementsPerRequest()).isLessThan(uncached.statementsPerRequest());
+    }
+    
+    private Result run(String label, boolean secondLevelCache) throws Exception {
+        String database = secondLevelCache ? "eadms-l2-on" : "eadms-l2-off";
+        // Command-line arguments, so they take precedence over the profile files as @SpringBootTest properties do
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EadmsApplication.class).run(
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + database
+                        + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache)) {
+            TestData testData = context.getAutowireCapableBeanFactory().createBean(TestData.class);
+            Statistics statistics = context.getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class)
+                    .getStatistics();
+            List<Call> calls = calls(testData);
+            URI base = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            
+            HttpClient client = HttpClient.newBuilder().build();
+            ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+            try {
+                send(client, clients, base, calls, calls.size());
+                statistics.clear();
+                long start = System.nanoTime();
+                send(client, clients, base, calls, REQUESTS);
+                Result result = new Result(REQUESTS, statistics.getPrepareStatementCount(), System.nanoTime() - start);
+                System.out.printf("%-24s %,d requests, %d clients: %.2f statements/request  %,.0f statements/s  "
+                                + "%,.0f requests/s  (L2 hits %,d, query cache hits %,d, natural-id hits %,d)%n",
+                        label, REQUESTS, CONCURRENCY, result.statementsPerRequest(), result.statementsPerSecond(),
+                        REQUESTS / (result.nanos() / 1_000_000_000.0), statistics.getSecondLevelCacheHitCount(),
+                        statistics.getQueryCacheHitCount(), statistics.getNaturalIdCacheHitCount());
+                return result;
+            } finally {
+                clients.shutdownNow();
+            }
+        }
+    }
+    
+    // The requests every student and the teacher of a seeded world make, plus the admin course list
+    private List<Call> calls(TestData testData) {
+        TestData.World world = testData.world(WORLD_SIZE);
+        List<Call> calls = new ArrayList<>();
+        world.students().forEach(student -> {
+            String token = testData.token(student);
+            calls.add(new Call("/api/auth/me", token));
+            calls.add(new Call("/api/student/profile", token));
+            calls.add(new Call("/api/student/courses", token));
+        });
+        String teacherToken = testData.token(world.teacher());
+        calls.add(new Call("/api/auth/me", teacherToken));
+        calls.add(new Call("/api/teacher/profile", teacherToken));
+        calls.add(new Call("/api/admin/courses", testData.adminToken()));
+        return calls;
+    }
+    
+    // Cycles through the calls until count requests have been sent, failing on any non-200 response
+    private void send(HttpClient client, ExecutorService clients, URI base, List<Call> calls, int count) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            workers.add(clients.submit(() -> {
+                for (int n = next.getAndIncrement(); n < count; n = next.getAndIncrement()) {
+                    Call call = calls.get(n % calls.size());
+                    HttpRequest request = HttpRequest.newBuilder(base.resolve(call.path()))
+                            .header("Authorization", "Bearer " + call.token())
+                            .GET()
+                            .build();
+                    try {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        assertThat(failures.get()).as("failed requests").isZero();
+    }
+}
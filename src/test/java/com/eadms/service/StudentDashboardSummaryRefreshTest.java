@@ -0,0 +1,171 @@
+package com.eadms.service;
+
+import com.eadms.dto.request.AttendanceEntryRequest;
+import com.eadms.entity.Attendance;
+import com.eadms.entity.Course;
+import com.eadms.entity.Student;
+import com.eadms.entity.StudentDashboardSummary;
+import com.eadms.entity.Teacher;
+import com.eadms.repository.StudentDashboardSummaryRepository;
+import com.eadms.support.PostgresTest;
+import com.eadms.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@PostgresTest
+class StudentDashboardSummaryRefreshTest {
+    
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 2);
+    
+    @Autowired
+    private ReportService reportService;
+    
+    @Autowired
+    private AttendanceService attendanceService;
+    
+    @Autowired
+    private StudentDashboardSummaryRepository summaryRepository;
+    
+    @Autowired
+    private TestData testData;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void refreshWaitsForAnUncommittedAttendanceDeltaAndCountsIt() throws Exception {
+        Student student = staleStudent();
+        Course course = testData.course(testData.teacher());
+        
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            attendanceService.markAttendance(new AttendanceEntryRequest(student.getId(), course.getId(), DATE, "PRESENT"));
+            written.countDown();
+            await(release);
+        }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+        
+        CompletableFuture<Map<String, Object>> dashboard = CompletableFuture.supplyAsync(
+                () -> reportService.getStudentDashboardStats(student.getId()));
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertThat(dashboard).isNotDone();
+        
+        release.countDown();
+        writer.get(10, TimeUnit.SECONDS);
+        assertThat(dashboard.get(10, TimeUnit.SECONDS).get("totalClasses")).isEqualTo(1L);
+        assertSummary(student, 1, 1, false);
+    }
+    
+    @Test
+    void attendanceDeltaWaitsForARefreshAndAppliesOnTopOfIt() throws Exception {
+        Student student = staleStudent();
+        Course course = testData.course(testData.teacher());
+        testData.attend(student, course, Attendance.Status.ABSENT, DATE.minusDays(1));
+        testData.rollup(student, course, 0, 1);
+        
+        CountDownLatch refreshed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> dashboard = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            reportService.getStudentDashboardStats(student.getId());
+            refreshed.countDown();
+            await(release);
+        }));
+        assertThat(refreshed.await(10, TimeUnit.SECONDS)).isTrue();
+        
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> attendanceService.markAttendance(
+                new AttendanceEntryRequest(student.getId(), course.getId(), DATE, "PRESENT")));
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertThat(writer).isNotDone();
+        
+        release.countDown();
+        dashboard.get(10, TimeUnit.SECONDS);
+        writer.get(10, TimeUnit.SECONDS);
+        assertSummary(student, 1, 2, false);
+    }
+    
+    @Test
+    void staleMarkWaitingOnARefreshIsNotOverwritten() throws Exception {
+        Student student = staleStudent();
+        
+        CountDownLatch refreshed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> dashboard = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            reportService.getStudentDashboardStats(student.getId());
+            refreshed.countDown();
+            await(release);
+        }));
+        assertThat(refreshed.await(10, TimeUnit.SECONDS)).isTrue();
+        
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> summaryRepository.markStale(student.getId()));
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertThat(writer).isNotDone();
+        
+        release.countDown();
+        dashboard.get(10, TimeUnit.SECONDS);
+        writer.get(10, TimeUnit.SECONDS);
+        assertThat(summary(student).getStale()).isTrue();
+    }
+    
+    @Test
+    void writesForStudentsWithoutASummaryCreateItStale() {
+        Teacher teacher = testData.teacher();
+        Course course = testData.course(teacher);
+        Student byDelta = testData.student();
+        Student byId = testData.student();
+        Student byCourse = testData.student();
+        Student byTeacher = testData.student();
+        testData.enroll(byCourse, course);
+        Course taught = testData.course(teacher);
+        testData.enroll(byTeacher, taught);
+        
+        summaryRepository.applyAttendanceDelta(byDelta.getId(), 1, 1);
+        summaryRepository.markStaleByStudentIds(List.of(byId.getId(), byId.getId()));
+        summaryRepository.markStaleByCourseId(course.getId());
+        summaryRepository.markStaleByTeacherId(teacher.getId());
+        
+        // The delta is not applied to a new row, as the next load recomputes it anyway
+        assertSummary(byDelta, 0, 0, true);
+        assertSummary(byId, 0, 0, true);
+        assertSummary(byCourse, 0, 0, true);
+        assertSummary(byTeacher, 0, 0, true);
+    }
+    
+    private Student staleStudent() {
+        Student student = testData.student();
+        summaryRepository.save(StudentDashboardSummary.builder()
+                .studentId(student.getId())
+                .stale(true)
+                .build());
+        return student;
+    }
+    
+    private StudentDashboardSummary summary(Student student) {
+        return summaryRepository.findByStudentId(student.getId()).orElseThrow();
+    }
+    
+    private void assertSummary(Student student, long present, long total, boolean stale) {
+        StudentDashboardSummary summary = summary(student);
+        assertThat(summary.getAttendancePresent()).isEqualTo(present);
+        assertThat(summary.getAttendanceTotal()).isEqualTo(total);
+        assertThat(summary.getStale()).isEqualTo(stale);
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
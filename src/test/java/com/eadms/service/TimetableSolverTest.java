@@ -0,0 +1,154 @@
+package com.eadms.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimetableSolverTest {
+    
+    private static final long SEED = 42;
+    
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    
+    @AfterEach
+    void shutDown() {
+        pool.shutdownNow();
+    }
+    
+    @Test
+    void smallTermIsSolvedWithoutAnyOverlap() throws Exception {
+        int days = 3;
+        int periods = 4;
+        int rooms = 2;
+        int slots = days * periods;
+        // Teacher 0 teaches three courses, one of them together with teacher 2
+        int[][] courseTeachers = {{0}, {0}, {1}, {1}, {2}, {0, 2}};
+        int[][] courseConflicts = symmetric(6, new int[][] {{0, 2}, {2, 4}, {1, 3}, {0, 5}});
+        boolean[][] teacherBlocked = new boolean[3][slots];
+        teacherBlocked[0][0] = teacherBlocked[0][1] = true;
+        boolean[][] roomBlocked = new boolean[rooms][slots];
+        Arrays.fill(roomBlocked[1], 4, 8, true);
+        boolean[][] courseBlocked = new boolean[6][slots];
+        Arrays.fill(courseBlocked[3], 2, 6, true);
+        TimetableSolver.Problem problem = new TimetableSolver.Problem(days, periods, rooms,
+                new int[] {0, 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5}, courseTeachers, courseConflicts,
+                teacherBlocked, roomBlocked, courseBlocked);
+        
+        TimetableSolver.Solution solution = solve(problem, 2, 5_000);
+        
+        assertThat(solution.hardViolations()).isZero();
+        assertThat(violations(problem, solution)).isZero();
+        assertThat(solution.softPenalty()).isEqualTo(sameDayPairs(problem, solution));
+    }
+    
+    @Test
+    void blockedPositionsAreAvoided() throws Exception {
+        boolean[][] teacherBlocked = {{true, false, false, false}};
+        boolean[][] roomBlocked = {{false, true, false, false}, {false, false, false, false}};
+        boolean[][] courseBlocked = {{false, false, true, false}};
+        TimetableSolver.Problem problem = new TimetableSolver.Problem(1, 4, 2, new int[] {0},
+                new int[][] {{0}}, new int[][] {{}}, teacherBlocked, roomBlocked, courseBlocked);
+        
+        TimetableSolver.Solution solution = solve(problem, 1, 5_000);
+        
+        assertThat(solution.hardViolations()).isZero();
+        assertThat(violations(problem, solution)).isZero();
+        assertThat(solution.slot()[0]).isIn(1, 3);
+    }
+    
+    @Test
+    void infeasibleTermReturnsTheBestTimetableWithItsClashesCounted() throws Exception {
+        // Two sessions of one course, but a single period in a single room
+        TimetableSolver.Problem problem = new TimetableSolver.Problem(1, 1, 1, new int[] {0, 0},
+                new int[][] {{0}}, new int[][] {{}}, new boolean[1][1], new boolean[1][1], new boolean[1][1]);
+        TimetableSolver.Progress progress = new TimetableSolver.Progress();
+        
+        TimetableSolver.Solution solution = new TimetableSolver().solve(problem, pool, 2, 200, progress, SEED);
+        
+        // They share the room and the teacher, and fall on the same day
+        assertThat(solution.hardViolations()).isEqualTo(2).isEqualTo(violations(problem, solution));
+        assertThat(solution.softPenalty()).isEqualTo(1);
+        assertThat(progress.best().score()).isEqualTo(solution.score());
+    }
+    
+    @Test
+    void studentsSharedBetweenCoursesNeverSitTwoClassesAtOnce() throws Exception {
+        // Four courses that all share students, four periods, plenty of rooms and teachers
+        TimetableSolver.Problem problem = new TimetableSolver.Problem(1, 4, 4, new int[] {0, 1, 2, 3},
+                new int[][] {{0}, {1}, {2}, {3}},
+                symmetric(4, new int[][] {{0, 1}, {0, 2}, {0, 3}, {1, 2}, {1, 3}, {2, 3}}),
+                new boolean[4][4], new boolean[4][4], new boolean[4][4]);
+        
+        TimetableSolver.Solution solution = solve(problem, 2, 5_000);
+        
+        assertThat(solution.hardViolations()).isZero();
+        assertThat(Arrays.stream(solution.slot()).distinct().count()).isEqualTo(4);
+    }
+    
+    private TimetableSolver.Solution solve(TimetableSolver.Problem problem, int searches, long budgetMs) throws Exception {
+        return new TimetableSolver().solve(problem, pool, searches, budgetMs, new TimetableSolver.Progress(), SEED);
+    }
+    
+    // Courses sharing students, each pair listed once
+    private static int[][] symmetric(int courses, int[][] pairs) {
+        int[][] conflicts = new int[courses][0];
+        for (int[] pair : pairs) {
+            conflicts[pair[0]] = append(conflicts[pair[0]], pair[1]);
+            conflicts[pair[1]] = append(conflicts[pair[1]], pair[0]);
+        }
+        return conflicts;
+    }
+    
+    private static int[] append(int[] values, int value) {
+        int[] copy = Arrays.copyOf(values, values.length + 1);
+        copy[values.length] = value;
+        return copy;
+    }
+    
+    // Hard violations recounted from scratch: blocked positions, and per pair of sessions in one slot a
+    // shared room, each shared teacher, and shared students
+    private static int violations(TimetableSolver.Problem p, TimetableSolver.Solution s) {
+        int[] course = p.sessionCourse();
+        int violations = 0;
+        for (int i = 0; i < course.length; i++) {
+            int t = s.slot()[i];
+            violations += p.roomBlocked()[s.room()[i]][t] ? 1 : 0;
+            violations += p.courseBlocked()[course[i]][t] ? 1 : 0;
+            for (int teacher : p.courseTeachers()[course[i]]) {
+                violations += p.teacherBlocked()[teacher][t] ? 1 : 0;
+            }
+            for (int j = i + 1; j < course.length; j++) {
+                if (s.slot()[j] != t) {
+                    continue;
+                }
+                violations += s.room()[i] == s.room()[j] ? 1 : 0;
+                for (int teacher : p.courseTeachers()[course[i]]) {
+                    violations += contains(p.courseTeachers()[course[j]], teacher) ? 1 : 0;
+                }
+                violations += contains(p.courseConflicts()[course[i]], course[j]) ? 1 : 0;
+            }
+        }
+        return violations;
+    }
+    
+    private static int sameDayPairs(TimetableSolver.Problem p, TimetableSolver.Solution s) {
+        int[] course = p.sessionCourse();
+        int pairs = 0;
+        for (int i = 0; i < course.length; i++) {
+            for (int j = i + 1; j < course.length; j++) {
+                if (course[i] == course[j] && s.slot()[i] / p.periodsPerDay() == s.slot()[j] / p.periodsPerDay()) {
+                    pairs++;
+                }
+            }
+        }
+        return pairs;
+    }
+    
+    private static boolean contains(int[] values, int value) {
+        return Arrays.stream(values).anyMatch(v -> v == value);
+    }
+}
@@ -0,0 +1,28 @@
+package com.eadms.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A Spring Boot test against PostgreSQL, for the native writes (ON CONFLICT upserts, unnest arrays, row
+ * locks) the H2 test database cannot run. The postgres profile is layered over the test profile and the
+ * datasource comes from {@link PostgresTestDatabase}; the class is skipped when no database is available.
+ * Tests commit their writes, so each one seeds its own rows.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest
+@ActiveProfiles({"test", "postgres"})
+@ContextConfiguration(initializers = PostgresTestDatabase.class)
+@ExtendWith(PostgresTestDatabase.class)
+@Import(TestData.class)
+public @interface PostgresTest {
+}
@@ -0,0 +1,65 @@
+package com.eadms.support;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * The database behind {@link PostgresTest}: the server named by {@code -Dtest.postgres.url} (with
+ * {@code test.postgres.username} and {@code test.postgres.password}, postgres and empty by default), or
+ * else a PostgreSQL container started once per JVM when Docker is available. The schema is created and
+ * dropped by Hibernate, so an existing server needs an empty database the user may create tables in.
+ */
+public class PostgresTestDatabase implements ApplicationContextInitializer<ConfigurableApplicationContext>, ExecutionCondition {
+    
+    private static final String IMAGE = "postgres:16-alpine";
+    
+    private record Connection(String url, String username, String password) {
+    }
+    
+    private static Connection connection;
+    private static boolean resolved;
+    
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        return connection() != null
+                ? ConditionEvaluationResult.enabled("PostgreSQL at " + connection().url())
+                : ConditionEvaluationResult.disabled("No PostgreSQL: set -Dtest.postgres.url or start Docker");
+    }
+    
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        Connection connection = connection();
+        if (connection == null) {
+            throw new IllegalStateException("No PostgreSQL test database available");
+        }
+        TestPropertyValues.of(
+                "spring.datasource.url=" + connection.url(),
+                "spring.datasource.username=" + connection.username(),
+                "spring.datasource.password=" + connection.password()
+        ).applyTo(context);
+    }
+    
+    // The container is left running for the remaining test classes; Testcontainers removes it at exit
+    private static synchronized Connection connection() {
+        if (!resolved) {
+            resolved = true;
+            String url = System.getProperty("test.postgres.url");
+            if (url != null && !url.isBlank()) {
+                connection = new Connection(url,
+                        System.getProperty("test.postgres.username", "postgres"),
+                        System.getProperty("test.postgres.password", ""));
+            } else if (DockerClientFactory.instance().isDockerAvailable()) {
+                PostgreSQLContainer<?> container = new PostgreSQLContainer<>(IMAGE);
+                container.start();
+                connection = new Connection(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+            }
+        }
+        return connection;
+    }
+}
@@ -0,0 +1,56 @@
+package com.eadms.support;
+
+import com.eadms.service.CourseGradeAnalytics;
+import com.eadms.service.ReferenceDataCache;
+import com.eadms.service.StudentTimetableCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.test.context.TestComponent;
+
+/**
+ * Counts the JDBC statements Hibernate prepares while an action runs, from its statistics (the test
+ * profile turns them on). Every cache is emptied first, so the count is that of a cold request and
+ * does not depend on what ran before. Only meaningful while nothing else touches the database.
+ */
+@TestComponent
+public class StatementCounter {
+    
+    private final SessionFactory sessionFactory;
+    private final Statistics statistics;
+    private final ReferenceDataCache referenceDataCache;
+    private final CourseGradeAnalytics courseGradeAnalytics;
+    private final StudentTimetableCache studentTimetableCache;
+    
+    public StatementCounter(EntityManagerFactory entityManagerFactory,
+                            ReferenceDataCache referenceDataCache,
+                            CourseGradeAnalytics courseGradeAnalytics,
+                            StudentTimetableCache studentTimetableCache) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.statistics = sessionFactory.getStatistics();
+        this.referenceDataCache = referenceDataCache;
+        this.courseGradeAnalytics = courseGradeAnalytics;
+        this.studentTimetableCache = studentTimetableCache;
+    }
+    
+    public long count(ThrowingRunnable action) throws Exception {
+        evictCaches();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+    
+    // Outside a transaction the after-commit evictions run immediately; a null id clears the whole region
+    private void evictCaches() {
+        sessionFactory.getCache().evictAllRegions();
+        referenceDataCache.evictCourseAfterCommit(null);
+        referenceDataCache.evictTeacherAfterCommit(null);
+        courseGradeAnalytics.clearAfterCommit();
+        studentTimetableCache.clear();
+    }
+    
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
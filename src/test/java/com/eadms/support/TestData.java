@@ -0,0 +1,273 @@
+package com.eadms.support;
+
+import com.eadms.config.JwtTokenProvider;
+import com.eadms.entity.Attendance;
+import com.eadms.entity.AttendanceRollup;
+import com.eadms.entity.Course;
+import com.eadms.entity.Enrollment;
+import com.eadms.entity.Marks;
+import com.eadms.entity.Schedule;
+import com.eadms.entity.Student;
+import com.eadms.entity.StudentAcademicLedger;
+import com.eadms.entity.StudentDashboardSummary;
+import com.eadms.entity.Teacher;
+import com.eadms.entity.User;
+import com.eadms.repository.AttendanceRepository;
+import com.eadms.repository.AttendanceRollupRepository;
+import com.eadms.repository.CourseRepository;
+import com.eadms.repository.EnrollmentRepository;
+import com.eadms.repository.MarksRepository;
+import com.eadms.repository.ScheduleRepository;
+import com.eadms.repository.StudentAcademicLedgerRepository;
+import com.eadms.repository.StudentDashboardSummaryRepository;
+import com.eadms.repository.StudentRepository;
+import com.eadms.repository.TeacherRepository;
+import com.eadms.repository.UserRepository;
+import com.eadms.util.AcademicTerms;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seeds rows straight through the repositories. The services keep ledgers and rollups up to date with
+ * PostgreSQL upserts that H2 cannot run, so the derived rows a read path needs are written here too.
+ */
+@TestComponent
+@RequiredArgsConstructor
+public class TestData {
+    
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    
+    private final UserRepository userRepository;
+    private final TeacherRepository teacherRepository;
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final MarksRepository marksRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceRollupRepository attendanceRollupRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final StudentAcademicLedgerRepository academicLedgerRepository;
+    private final StudentDashboardSummaryRepository dashboardSummaryRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * A teacher with {@code size} courses and {@code size} students, each enrolled in every course
+     * this term with marks, attendance and a weekly class. Lists a read path walks all grow with
+     * {@code size}, so a path whose statement count depends on it issues queries per row.
+     */
+    public World world(int size) {
+        Teacher teacher = teacher();
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            courses.add(course(teacher));
+        }
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Student student = student();
+            students.add(student);
+            for (Course course : courses) {
+                enroll(student, course);
+                mark(student, course, Marks.ExamType.MIDTERM, 60 + i);
+                mark(student, course, Marks.ExamType.FINAL, 70 + i);
+                // Days of the current month, so both sessions fall in this term
+                attend(student, course, Attendance.Status.PRESENT, LocalDate.now().withDayOfMonth(1));
+                attend(student, course, Attendance.Status.ABSENT, LocalDate.now().withDayOfMonth(2));
+                rollup(student, course, 1, 1);
+            }
+            readModels(student, teacher, courses);
+        }
+        List<Schedule> schedules = courses.stream().map(course -> weeklyClass(course, teacher)).toList();
+        return new World(teacher, courses, students, schedules);
+    }
+    
+    public Teacher teacher() {
+        int n = SEQUENCE.incrementAndGet();
+        User user = userRepository.save(User.builder()
+                .email("teacher" + n + "@test.eadms")
+                .password("-")
+                .role(User.Role.TEACHER)
+                .build());
+        return teacherRepository.save(Teacher.builder()
+                .firstName("Teacher")
+                .lastName("T" + n)
+                .teacherId("TT" + n)
+                .department("TECH")
+                .email(user.getEmail())
+                .user(user)
+                .build());
+    }
+    
+    public Student student() {
+        int n = SEQUENCE.incrementAndGet();
+        User user = userRepository.save(User.builder()
+                .email("student" + n + "@test.eadms")
+                .password("-")
+                .role(User.Role.STUDENT)
+                .build());
+        return studentRepository.save(Student.builder()
+                .firstName("Student")
+                .lastName("S" + n)
+                .studentId("TS" + n)
+                .className("TEST")
+                .gender(Student.Gender.OTHER)
+                .user(user)
+                .build());
+    }
+    
+    public Course course(Teacher teacher) {
+        int n = SEQUENCE.incrementAndGet();
+        return courseRepository.save(Course.builder()
+                .courseCode("TC" + n)
+                .courseName("Course " + n)
+                .semester(AcademicTerms.semester(LocalDate.now()))
+                .credits(3)
+                .teachers(new ArrayList<>(List.of(teacher)))
+                .build());
+    }
+    
+    public Enrollment enroll(Student student, Course course) {
+        LocalDate today = LocalDate.now();
+        return enrollmentRepository.save(Enrollment.builder()
+                .student(student)
+                .course(course)
+                .semester(AcademicTerms.semester(today))
+                .academicYear(AcademicTerms.academicYear(today))
+                .status(Enrollment.EnrollmentStatus.ACTIVE)
+                .enrollmentDate(today)
+                .build());
+    }
+    
+    public Marks mark(Student student, Course course, Marks.ExamType examType, double marksObtained) {
+        return marksRepository.save(Marks.builder()
+                .student(student)
+                .course(course)
+                .examType(examType)
+                .marksObtained(marksObtained)
+                .maxMarks(100.0)
+                .examDate(LocalDate.now())
+                .build());
+    }
+    
+    public Attendance attend(Student student, Course course, Attendance.Status status, LocalDate date) {
+        return attendanceRepository.save(Attendance.builder()
+                .student(student)
+                .course(course)
+                .attendanceDate(date)
+                .status(status)
+                .build());
+    }
+    
+    // The counters attendance writes keep for the current term
+    public AttendanceRollup rollup(Student student, Course course, long present, long absent) {
+        LocalDate today = LocalDate.now();
+        return attendanceRollupRepository.save(AttendanceRollup.builder()
+                .studentId(student.getId())
+                .courseId(course.getId())
+                .academicYear(AcademicTerms.academicYear(today))
+                .semester(AcademicTerms.semester(today))
+                .presentCount(present)
+                .absentCount(absent)
+                .build());
+    }
+    
+    // The ledger and dashboard summary enrollment and attendance writes keep, as they stand after world()
+    public void readModels(Student student, Teacher teacher, List<Course> courses) {
+        int credits = courses.stream().mapToInt(Course::getCredits).sum();
+        academicLedgerRepository.save(StudentAcademicLedger.builder()
+                .studentId(student.getId())
+                .academicYear(StudentAcademicLedger.ALL_TERMS)
+                .semester(StudentAcademicLedger.ALL_TERMS)
+                .activeCredits(credits)
+                .build());
+        List<Map<String, Object>> dashboardCourses = courses.stream()
+                .map(course -> {
+                    Map<String, Object> courseMap = new LinkedHashMap<>();
+                    courseMap.put("id", course.getId());
+                    courseMap.put("courseCode", course.getCourseCode());
+                    courseMap.put("courseName", course.getCourseName());
+                    courseMap.put("semester", course.getSemester());
+                    courseMap.put("credits", course.getCredits());
+                    courseMap.put("teacherIds", List.of(teacher.getId()));
+                    courseMap.put("teacherNames", teacher.getFullName());
+                    return courseMap;
+                })
+                .toList();
+        try {
+            dashboardSummaryRepository.save(StudentDashboardSummary.builder()
+                    .studentId(student.getId())
+                    .gpa(0.0)
+                    .totalCredits(credits)
+                    .attendancePresent((long) courses.size())
+                    .attendanceTotal(2L * courses.size())
+                    .activeEnrollments((long) courses.size())
+                    .coursesJson(objectMapper.writeValueAsString(dashboardCourses))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    public Schedule weeklyClass(Course course, Teacher teacher) {
+        int n = SEQUENCE.incrementAndGet();
+        LocalDateTime start = LocalDate.now()
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                .atTime(LocalTime.of(8, 0).plusMinutes(10L * (n % 48)));
+        return scheduleRepository.save(Schedule.builder()
+                .course(course)
+                .teacher(teacher)
+                .title(course.getCourseCode() + " lecture")
+                .startDateTime(start)
+                .endDateTime(start.plusMinutes(50))
+                .recurrence(Schedule.RecurrenceType.WEEKLY)
+                .location("R" + n)
+                .classType("LECTURE")
+                .build());
+    }
+    
+    public String token(Teacher teacher) {
+        User user = teacher.getUser();
+        return jwtTokenProvider.generateToken(user.getEmail(), user.getRole().name(), user.getId(), null, teacher.getId());
+    }
+    
+    public String token(Student student) {
+        User user = student.getUser();
+        return jwtTokenProvider.generateToken(user.getEmail(), user.getRole().name(), user.getId(), student.getId(), null);
+    }
+    
+    public String adminToken() {
+        User admin = userRepository.findAll().stream()
+                .filter(user -> user.getRole() == User.Role.ADMIN)
+                .findFirst()
+                .orElseThrow();
+        return jwtTokenProvider.generateToken(admin.getEmail(), admin.getRole().name(), admin.getId(), null, null);
+    }
+    
+    public record World(Teacher teacher, List<Course> courses, List<Student> students, List<Schedule> schedules) {
+        
+        public Course course() {
+            return courses.get(0);
+        }
+        
+        public Student student() {
+            return students.get(0);
+        }
+        
+        public Schedule schedule() {
+            return schedules.get(0);
+        }
+    }
+}
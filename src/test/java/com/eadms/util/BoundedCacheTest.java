@@ -0,0 +1,129 @@
+package com.eadms.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedCacheTest {
+    
+    @Test
+    void loadStartedBeforeAnInvalidationIsNotStored() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, null);
+        long generation = cache.generation();
+        cache.invalidate("other");
+        
+        assertThat(cache.put("key", "stale", generation)).isFalse();
+        assertThat(cache.get("key")).isNull();
+        assertThat(cache.put("key", "fresh", cache.generation())).isTrue();
+        assertThat(cache.get("key")).isEqualTo("fresh");
+    }
+    
+    @Test
+    void nullKeyInvalidationClearsEverything() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, null);
+        cache.put("a", "1", cache.generation());
+        cache.put("b", "2", cache.generation());
+        
+        cache.invalidate(null);
+        
+        assertThat(cache.size()).isZero();
+        assertThat(cache.stats().getInvalidations()).isEqualTo(2);
+    }
+    
+    @Test
+    void entryTtlIsCappedByTheCacheTtl() throws InterruptedException {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, Duration.ofMillis(20));
+        cache.put("key", "value", cache.generation(), Duration.ofHours(1));
+        
+        assertThat(cache.get("key")).isEqualTo("value");
+        TimeUnit.MILLISECONDS.sleep(40);
+        assertThat(cache.get("key")).isNull();
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+    }
+    
+    @Test
+    void alreadyExpiredEntriesAndDisabledCachesStoreNothing() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, null);
+        assertThat(cache.put("key", "value", cache.generation(), Duration.ZERO)).isFalse();
+        
+        BoundedCache<String, String> disabled = new BoundedCache<>("disabled", 0, null);
+        assertThat(disabled.put("key", "value", disabled.generation())).isFalse();
+        assertThat(disabled.size()).isZero();
+    }
+    
+    @Test
+    void fullCacheShedsDownToNinetyPercent() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>("test", 100, null);
+        for (int i = 0; i <= 100; i++) {
+            cache.put(i, i, cache.generation());
+        }
+        
+        assertThat(cache.size()).isEqualTo(90);
+        assertThat(cache.stats().getEvictions()).isEqualTo(11);
+    }
+    
+    @Test
+    void concurrentWritersStayWithinTheBound() throws Exception {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>("test", 1_000, null);
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 100_000;
+            writers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20_000; i++) {
+                    cache.put(offset + i, i, cache.generation());
+                    cache.get(offset + i / 2);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        
+        // Writers that find a shed running skip it, so the cache can overshoot by at most one entry each
+        assertThat(cache.size()).isLessThanOrEqualTo(1_000 + threads);
+    }
+    
+    @Test
+    void putRacingAnInvalidationNeverLeavesAStaleEntry() throws Exception {
+        BoundedCache<String, Integer> cache = new BoundedCache<>("test", 10, null);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        for (int round = 0; round < 2_000; round++) {
+            long generation = cache.generation();
+            CountDownLatch start = new CountDownLatch(1);
+            int value = round;
+            Future<?> writer = pool.submit(() -> {
+                start.await();
+                cache.put("key", value, generation);
+                return null;
+            });
+            Future<?> invalidator = pool.submit(() -> {
+                start.await();
+                cache.invalidate("key");
+                return null;
+            });
+            start.countDown();
+            writer.get();
+            invalidator.get();
+            
+            // The load predates the invalidation, so whichever ran first it must not survive
+            assertThat(cache.get("key")).isNull();
+        }
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,124 @@
+package com.eadms.util;
+
+import com.eadms.dto.request.MarksEntryRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class BulkImportReaderTest {
+    
+    // Configured as the application's mapper: unknown properties are ignored
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    
+    @Test
+    void quotedFieldsKeepCommasAndEscapedQuotes() {
+        assertThat(BulkImportReader.splitCsvLine("1, \"Late, but \"\"good\"\"\" ,x"))
+                .containsExactly("1", "Late, but \"good\"", "x");
+        assertThat(BulkImportReader.splitCsvLine("a,,")).containsExactly("a", "", "");
+    }
+    
+    @Test
+    void csvHeaderMayBeSnakeCaseAfterAByteOrderMark() throws IOException {
+        Rows rows = csv("﻿student_id,course_id,exam_type,marks_obtained,max_marks,remarks,exam_date\n"
+                + "1,2,final,80,100,\"Good, steady\",2026-05-04\n"
+                + "\n"
+                + "3,4,QUIZ,9,10,,2026-05-05\n");
+        
+        assertThat(rows.errors).isEmpty();
+        assertThat(rows.rows)
+                .extracting(row -> row.number, row -> row.value.getStudentId(), row -> row.value.getRemarks(),
+                        row -> row.value.getExamDate())
+                .containsExactly(
+                        tuple(1, 1L, "Good, steady", LocalDate.of(2026, 5, 4)),
+                        tuple(2, 3L, null, LocalDate.of(2026, 5, 5)));
+    }
+    
+    @Test
+    void malformedCsvRowsAreReportedAndReadingCarriesOn() throws IOException {
+        Rows rows = csv("studentId,courseId,marksObtained,examDate\n"
+                + "1,2,80,2026-05-04\n"
+                + "1,2,eighty,2026-05-04\n"
+                + "1,2,80,2026-05-04,extra\n"
+                + "1,2,80,not-a-date\n"
+                + "5,6,70,2026-05-04\n");
+        
+        assertThat(rows.rows).extracting(row -> row.number).containsExactly(1, 5);
+        assertThat(rows.errors).extracting(error -> error.number).containsExactly(2, 3, 4);
+        assertThat(rows.errors.get(0).message).startsWith("Unreadable row: ");
+        assertThat(rows.errors.get(1).message).isEqualTo("Expected at most 4 columns but found 5");
+    }
+    
+    @Test
+    void csvWithoutAHeaderIsRejected() {
+        assertThatThrownBy(() -> csv("")).isInstanceOf(IOException.class).hasMessage("CSV header line is missing");
+    }
+    
+    @Test
+    void jsonRowsAreReadOneByOneAndBadOnesReported() throws IOException {
+        Rows rows = json("[{\"studentId\": 1, \"courseId\": 2, \"examDate\": \"2026-05-04\"},"
+                + " {\"studentId\": \"one\"},"
+                + " {\"studentId\": 3, \"unknownField\": true}]");
+        
+        assertThat(rows.rows).extracting(row -> row.number, row -> row.value.getStudentId())
+                .containsExactly(tuple(1, 1L), tuple(3, 3L));
+        assertThat(rows.errors).extracting(error -> error.number).containsExactly(2);
+    }
+    
+    @Test
+    void jsonThatIsNotAnArrayOfObjectsIsRejected() {
+        assertThatThrownBy(() -> json("{\"studentId\": 1}"))
+                .isInstanceOf(IOException.class).hasMessage("Expected a JSON array of rows");
+        assertThatThrownBy(() -> json("[{\"studentId\": 1}, 2]"))
+                .isInstanceOf(IOException.class).hasMessage("Expected only objects inside the JSON array");
+        assertThatThrownBy(() -> json("[{\"studentId\": 1}, {\"studentId\"")).isInstanceOf(IOException.class);
+    }
+    
+    private Rows csv(String content) throws IOException {
+        Rows rows = new Rows();
+        BulkImportReader.readCsv(objectMapper, stream(content), MarksEntryRequest.class, rows);
+        return rows;
+    }
+    
+    private Rows json(String content) throws IOException {
+        Rows rows = new Rows();
+        BulkImportReader.readJsonArray(objectMapper, stream(content), MarksEntryRequest.class, rows);
+        return rows;
+    }
+    
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private record Row(int number, MarksEntryRequest value) {
+    }
+    
+    private record Error(int number, String message) {
+    }
+    
+    private static class Rows implements BulkImportReader.RowHandler<MarksEntryRequest> {
+        
+        private final List<Row> rows = new ArrayList<>();
+        private final List<Error> errors = new ArrayList<>();
+        
+        @Override
+        public void onRow(int rowNumber, MarksEntryRequest row) {
+            rows.add(new Row(rowNumber, row));
+        }
+        
+        @Override
+        public void onError(int rowNumber, String message) {
+            errors.add(new Error(rowNumber, message));
+        }
+    }
+}
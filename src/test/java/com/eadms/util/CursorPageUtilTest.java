@@ -0,0 +1,85 @@
+package com.eadms.util;
+
+import com.eadms.dto.response.CursorPage;
+import com.eadms.entity.Course;
+import com.eadms.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorPageUtilTest {
+    
+    @Test
+    void pageSizeDefaultsAndIsBounded() {
+        assertThat(CursorPageUtil.pageSize(null)).isEqualTo(CursorPageUtil.DEFAULT_PAGE_SIZE);
+        assertThat(CursorPageUtil.pageSize(1)).isEqualTo(1);
+        assertThat(CursorPageUtil.pageSize(CursorPageUtil.MAX_PAGE_SIZE)).isEqualTo(CursorPageUtil.MAX_PAGE_SIZE);
+        assertThatThrownBy(() -> CursorPageUtil.pageSize(0)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CursorPageUtil.pageSize(CursorPageUtil.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(BadRequestException.class);
+    }
+    
+    @Test
+    void oneExtraRowIsFetchedToDetectTheNextPage() {
+        assertThat(CursorPageUtil.fetchLimit(50).max()).isEqualTo(51);
+    }
+    
+    @Test
+    void fullPageWithAnExtraRowPointsPastItsLastItem() {
+        CursorPage<Long> page = CursorPageUtil.toPage(courses(11, 12, 13, 14), 3, Course::getId, null);
+        
+        assertThat(page.getItems()).containsExactly(11L, 12L, 13L);
+        assertThat(page.getSize()).isEqualTo(3);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(CursorPageUtil.afterId(page.getNextCursor())).isEqualTo(13L);
+        assertThat(page.getTotalCount()).isNull();
+    }
+    
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPage<Long> exact = CursorPageUtil.toPage(courses(11, 12, 13), 3, Course::getId, 3L);
+        CursorPage<Long> empty = CursorPageUtil.toPage(courses(), 3, Course::getId, 0L);
+        
+        assertThat(exact.isHasNext()).isFalse();
+        assertThat(exact.getNextCursor()).isNull();
+        assertThat(exact.getTotalCount()).isEqualTo(3L);
+        assertThat(empty.getItems()).isEmpty();
+        assertThat(empty.isHasNext()).isFalse();
+    }
+    
+    @Test
+    void missingCursorStartsBeforeEveryId() {
+        assertThat(CursorPageUtil.afterId(null)).isZero();
+        assertThat(CursorPageUtil.afterId(" ")).isZero();
+    }
+    
+    @Test
+    void malformedCursorsAreRejected() {
+        for (String cursor : List.of("not base64!", encode("id:abc"), encode("offset:10"), encode("id:"))) {
+            assertThatThrownBy(() -> CursorPageUtil.afterId(cursor))
+                    .as(cursor)
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessage("Invalid page cursor");
+        }
+    }
+    
+    private static List<Course> courses(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> {
+                    Course course = new Course();
+                    course.setId(id);
+                    return course;
+                })
+                .toList();
+    }
+    
+    private static String encode(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,111 @@
+package com.eadms.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalTreeTest {
+    
+    @Test
+    void intervalsAreHalfOpen() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(10, 20, 1, "a");
+        
+        assertThat(tree.overlapping(0, 10)).isEmpty();
+        assertThat(tree.overlapping(20, 30)).isEmpty();
+        assertThat(tree.overlapping(9, 11)).containsExactly("a");
+        assertThat(tree.overlapping(19, 20)).containsExactly("a");
+        assertThat(tree.overlapping(12, 13)).containsExactly("a");
+        assertThat(tree.overlapping(0, 100)).containsExactly("a");
+    }
+    
+    @Test
+    void hitsComeBackInStartOrderWithIdsBreakingTies() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(30, 40, 1, "c");
+        tree.insert(10, 50, 3, "b");
+        tree.insert(10, 15, 2, "a");
+        tree.insert(60, 70, 4, "outside");
+        
+        assertThat(tree.overlapping(12, 35)).containsExactly("a", "b", "c");
+    }
+    
+    @Test
+    void removeTakesOnlyTheMatchingInterval() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(10, 20, 1, "a");
+        tree.insert(10, 30, 2, "b");
+        
+        assertThat(tree.remove(10, 3)).isFalse();
+        assertThat(tree.remove(11, 1)).isFalse();
+        assertThat(tree.remove(10, 1)).isTrue();
+        assertThat(tree.remove(10, 1)).isFalse();
+        
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.overlapping(0, 100)).containsExactly("b");
+    }
+    
+    @Test
+    void subtreeEndsShrinkWhenTheLongestIntervalIsRemoved() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(0, 1_000, 1, "long");
+        for (int i = 0; i < 50; i++) {
+            tree.insert(i * 10L, i * 10L + 5, 100 + i, "short" + i);
+        }
+        
+        tree.remove(0, 1);
+        
+        assertThat(tree.overlapping(996, 1_000)).isEmpty();
+        assertThat(tree.overlapping(491, 496)).containsExactly("short49");
+    }
+    
+    @Test
+    void sortedInsertsStayBalanced() {
+        // A degenerate, list-shaped tree would overflow the stack in the recursive split and merge
+        IntervalTree<Long> tree = new IntervalTree<>();
+        int n = 200_000;
+        for (long i = 0; i < n; i++) {
+            tree.insert(i, i + 2, i, i);
+        }
+        for (long i = 0; i < n; i += 2) {
+            assertThat(tree.remove(i, i)).isTrue();
+        }
+        
+        assertThat(tree.size()).isEqualTo(n / 2);
+        assertThat(tree.overlapping(100, 103)).containsExactly(99L, 101L);
+    }
+    
+    @Test
+    void matchesABruteForceScanUnderRandomInsertsAndRemoves() {
+        Random random = new Random(7);
+        IntervalTree<Long> tree = new IntervalTree<>();
+        Map<Long, long[]> live = new HashMap<>();
+        for (long id = 0; id < 5_000; id++) {
+            if (!live.isEmpty() && random.nextInt(3) == 0) {
+                Long victim = new ArrayList<>(live.keySet()).get(random.nextInt(live.size()));
+                assertThat(tree.remove(live.remove(victim)[0], victim)).isTrue();
+            }
+            long lo = random.nextInt(10_000);
+            long hi = lo + 1 + random.nextInt(300);
+            tree.insert(lo, hi, id, id);
+            live.put(id, new long[] {lo, hi});
+            
+            if (id % 50 == 0) {
+                long queryLo = random.nextInt(10_000);
+                long queryHi = queryLo + 1 + random.nextInt(500);
+                List<Long> expected = live.entrySet().stream()
+                        .filter(e -> e.getValue()[0] < queryHi && queryLo < e.getValue()[1])
+                        .map(Map.Entry::getKey)
+                        .toList();
+                assertThat(tree.overlapping(queryLo, queryHi)).containsExactlyInAnyOrderElementsOf(expected);
+            }
+        }
+        assertThat(tree.size()).isEqualTo(live.size());
+    }
+}
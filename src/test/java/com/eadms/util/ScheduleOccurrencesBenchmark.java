@@ -0,0 +1,100 @@
+package com.eadms.util;
+
+import com.eadms.entity.Schedule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Expanding 5k weekly schedules over an 18-week semester window, with the series started up to
+ * {@code seriesAgeWeeks} before the window. {@link ScheduleOccurrences} jumps to the first week that
+ * can overlap the window; the baseline walks every week from the series start, as expanding the whole
+ * table client-side did. The data is generated from a fixed seed, so runs are comparable.
+ *
+ * Run with {@code mvn -Pbenchmark test -Dtest=ScheduleOccurrencesBenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduleOccurrencesBenchmark {
+    
+    private static final int SCHEDULES = 5_000;
+    private static final LocalDateTime WINDOW_START = LocalDateTime.of(2026, 2, 2, 0, 0);
+    private static final LocalDateTime WINDOW_END = WINDOW_START.plusWeeks(18);
+    
+    @Param({"18", "156"})
+    public int seriesAgeWeeks;
+    
+    private List<Schedule> schedules;
+    
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        schedules = new ArrayList<>(SCHEDULES);
+        for (int i = 0; i < SCHEDULES; i++) {
+            LocalDateTime start = WINDOW_START
+                    .minusWeeks(random.nextInt(seriesAgeWeeks + 1))
+                    .plusDays(random.nextInt(5))
+                    .withHour(8 + random.nextInt(9));
+            schedules.add(Schedule.builder()
+                    .startDateTime(start)
+                    .endDateTime(start.plusMinutes(50))
+                    .recurrence(Schedule.RecurrenceType.WEEKLY)
+                    .build());
+        }
+    }
+    
+    @Benchmark
+    public long windowedExpansion() {
+        long occurrences = 0;
+        for (Schedule schedule : schedules) {
+            occurrences += ScheduleOccurrences.expand(schedule, WINDOW_START, WINDOW_END).count();
+        }
+        return occurrences;
+    }
+    
+    @Benchmark
+    public long expansionFromSeriesStart() {
+        long occurrences = 0;
+        for (Schedule schedule : schedules) {
+            occurrences += Stream.iterate(0L, week -> week + 1)
+                    .map(week -> new ScheduleOccurrences.Occurrence(
+                            schedule.getStartDateTime().plusWeeks(week), schedule.getEndDateTime().plusWeeks(week)))
+                    .takeWhile(occurrence -> occurrence.start().isBefore(WINDOW_END))
+                    .filter(occurrence -> occurrence.end().isAfter(WINDOW_START))
+                    .count();
+        }
+        return occurrences;
+    }
+    
+    @Test
+    void run() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ScheduleOccurrencesBenchmark.class.getName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,128 @@
+package com.eadms.util;
+
+import com.eadms.entity.Schedule;
+import com.eadms.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScheduleOccurrencesTest {
+    
+    // A Monday 9:00-10:00 weekly class, started well before the windows below
+    private static final LocalDateTime SERIES_START = LocalDateTime.of(2025, 9, 1, 9, 0);
+    
+    @Test
+    void oneOffOccursOnlyWhenItOverlapsTheWindow() {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 2, 9, 0);
+        LocalDateTime end = start.plusHours(1);
+        
+        assertThat(once(start, end, start.minusDays(1), start.plusDays(1))).containsExactly(start);
+        assertThat(once(start, end, start.plusMinutes(30), start.plusDays(1))).containsExactly(start);
+        // Touching either edge is not an overlap
+        assertThat(once(start, end, end, end.plusDays(1))).isEmpty();
+        assertThat(once(start, end, start.minusDays(1), start)).isEmpty();
+    }
+    
+    @Test
+    void windowStartingMidSeriesBeginsAtTheNextOccurrence() {
+        // A Wednesday, two weeks of window
+        LocalDateTime windowStart = LocalDateTime.of(2026, 2, 4, 0, 0);
+        
+        assertThat(weekly(windowStart, windowStart.plusWeeks(2)))
+                .containsExactly(LocalDateTime.of(2026, 2, 9, 9, 0), LocalDateTime.of(2026, 2, 16, 9, 0));
+    }
+    
+    @Test
+    void occurrenceInProgressWhenTheWindowOpensIsIncluded() {
+        LocalDateTime windowStart = LocalDateTime.of(2026, 2, 9, 9, 30);
+        
+        assertThat(weekly(windowStart, windowStart.plusDays(8)))
+                .containsExactly(LocalDateTime.of(2026, 2, 9, 9, 0), LocalDateTime.of(2026, 2, 16, 9, 0));
+    }
+    
+    @Test
+    void occurrenceEndingAsTheWindowOpensIsLeftOut() {
+        // Exactly a whole number of weeks after the first occurrence ended
+        LocalDateTime windowStart = SERIES_START.plusHours(1).plusWeeks(20);
+        
+        assertThat(weekly(windowStart, windowStart.plusWeeks(1)))
+                .containsExactly(SERIES_START.plusWeeks(21));
+    }
+    
+    @Test
+    void windowEndingExactlyAtAnOccurrenceStartLeavesItOut() {
+        LocalDateTime windowStart = LocalDateTime.of(2026, 2, 2, 0, 0);
+        
+        assertThat(weekly(windowStart, LocalDateTime.of(2026, 2, 16, 9, 0)))
+                .containsExactly(LocalDateTime.of(2026, 2, 2, 9, 0), LocalDateTime.of(2026, 2, 9, 9, 0));
+    }
+    
+    @Test
+    void windowBeforeTheSeriesStartsHasNoOccurrences() {
+        assertThat(weekly(SERIES_START.minusWeeks(3), SERIES_START)).isEmpty();
+        assertThat(weekly(SERIES_START.minusWeeks(3), SERIES_START.plusDays(1))).containsExactly(SERIES_START);
+    }
+    
+    @Test
+    void occurrencesKeepTheirWallClockTimeAcrossDaylightSavingChanges() {
+        // Spans the last Sunday of March and of October, when European clocks change
+        List<LocalDateTime> starts = weekly(LocalDateTime.of(2026, 3, 16, 0, 0), LocalDateTime.of(2026, 11, 9, 0, 0));
+        
+        assertThat(starts).hasSize(34);
+        assertThat(starts).allSatisfy(start -> {
+            assertThat(start.getDayOfWeek()).isEqualTo(DayOfWeek.MONDAY);
+            assertThat(start.toLocalTime()).isEqualTo(LocalTime.of(9, 0));
+        });
+        assertThat(starts).contains(LocalDateTime.of(2026, 3, 30, 9, 0), LocalDateTime.of(2026, 10, 26, 9, 0));
+    }
+    
+    @Test
+    void windowsAreCappedAt366Days() {
+        LocalDateTime windowStart = LocalDateTime.of(2026, 2, 2, 9, 0);
+        LocalDateTime longest = windowStart.plusDays(ScheduleOccurrences.MAX_WINDOW_DAYS);
+        
+        ScheduleOccurrences.validateWindow(windowStart, longest);
+        assertThatThrownBy(() -> ScheduleOccurrences.validateWindow(windowStart, longest.plusDays(1)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Date range cannot exceed 366 days");
+        // 52 weeks and 2 days from an occurrence start
+        assertThat(weekly(windowStart, longest)).hasSize(53);
+    }
+    
+    @Test
+    void emptyOrBackwardWindowsAreRejected() {
+        LocalDateTime at = LocalDateTime.of(2026, 2, 2, 9, 0);
+        
+        assertThatThrownBy(() -> ScheduleOccurrences.validateWindow(at, at)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> ScheduleOccurrences.validateWindow(at, at.minusDays(1)))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> ScheduleOccurrences.validateWindow(null, at)).isInstanceOf(BadRequestException.class);
+    }
+    
+    @Test
+    void schedulesWithoutTimesHaveNoOccurrences() {
+        Schedule schedule = Schedule.builder().recurrence(Schedule.RecurrenceType.WEEKLY).build();
+        
+        assertThat(ScheduleOccurrences.expand(schedule, SERIES_START, SERIES_START.plusWeeks(4))).isEmpty();
+    }
+    
+    private static List<LocalDateTime> weekly(LocalDateTime windowStart, LocalDateTime windowEnd) {
+        return ScheduleOccurrences.expand(SERIES_START, SERIES_START.plusHours(1), Schedule.RecurrenceType.WEEKLY,
+                        windowStart, windowEnd)
+                .map(ScheduleOccurrences.Occurrence::start)
+                .toList();
+    }
+    
+    private static List<LocalDateTime> once(LocalDateTime start, LocalDateTime end,
+                                            LocalDateTime windowStart, LocalDateTime windowEnd) {
+        return ScheduleOccurrences.expand(start, end, Schedule.RecurrenceType.NONE, windowStart, windowEnd)
+                .map(ScheduleOccurrences.Occurrence::start)
+                .toList();
+    }
+}